@@ -4,14 +4,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Application principale MAGSAV-3.0 Backend
  * Fonctionnant avec Java 21 LTS
  */
 @SpringBootApplication
-@EntityScan({"com.magscene.magsav.backend.entity", "com.magsav.entities"})
+@EntityScan({"com.magscene.magsav.backend.entity", "com.magscene.magsav.model.planning", "com.magsav.entities"})
 @EnableJpaRepositories("com.magscene.magsav.backend.repository")
+@EnableScheduling
 public class MagsavApplication {
     
     public static void main(String[] args) {
@@ -112,6 +112,36 @@ public class VirtualThreadConfig {
         }
     }
 
+    /**
+     * Executor pour le parsing parallèle des imports LOCMAT
+     * Travail CPU : threads plateforme, un par cœur
+     */
+    @Bean(name = "importParserExecutor")
+    public Executor importParserExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        int processors = Runtime.getRuntime().availableProcessors();
+        executor.setCorePoolSize(processors);
+        executor.setMaxPoolSize(processors);
+        executor.setThreadNamePrefix("magsav-import-parser-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Executor pour la génération des variantes de photos (miniatures)
+     * Travail CPU et gourmand en mémoire (image décodée) : peu de threads plateforme
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public Executor imageProcessingExecutor() {
+        var executor = new ThreadPoolTaskExecutor();
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("magsav-image-");
+        executor.initialize();
+        return executor;
+    }
+
     /**
      * Crée un executor classique en fallback
      */
@@ -3,6 +3,7 @@ package com.magscene.magsav.backend.controller;
 import com.magscene.magsav.backend.entity.Category;
 import com.magscene.magsav.backend.dto.CategoryDTO;
 import com.magscene.magsav.backend.repository.CategoryRepository;
+import com.magscene.magsav.backend.service.CategoryIndexService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +23,9 @@ public class CategoryRestController {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryIndexService categoryIndexService;
+
     // RÃƒÆ’Ã‚Â©cupÃƒÆ’Ã‚Â©rer toutes les catÃƒÆ’Ã‚Â©gories
     @GetMapping
     public ResponseEntity<List<CategoryDTO>> getAllCategories() {
@@ -96,6 +100,7 @@ public class CategoryRestController {
         }
 
         Category savedCategory = categoryRepository.save(category);
+        categoryIndexService.register(savedCategory);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedCategory);
     }
 
@@ -136,6 +141,7 @@ public class CategoryRestController {
         category.setUpdatedAt(LocalDateTime.now());
 
         Category updatedCategory = categoryRepository.save(category);
+        categoryIndexService.register(updatedCategory);
         return ResponseEntity.ok(updatedCategory);
     }
 
@@ -157,6 +163,7 @@ public class CategoryRestController {
         }
 
         categoryRepository.deleteById(id);
+        categoryIndexService.unregister(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -249,6 +256,7 @@ public class CategoryRestController {
         category.setUpdatedAt(LocalDateTime.now());
         
         Category updatedCategory = categoryRepository.save(category);
+        categoryIndexService.register(updatedCategory);
         return ResponseEntity.ok(updatedCategory);
     }
 
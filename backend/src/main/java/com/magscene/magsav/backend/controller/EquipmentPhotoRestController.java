@@ -4,28 +4,28 @@ import com.magscene.magsav.backend.entity.Equipment;
 import com.magscene.magsav.backend.entity.EquipmentPhoto;
 import com.magscene.magsav.backend.repository.EquipmentRepository;
 import com.magscene.magsav.backend.repository.EquipmentPhotoRepository;
+import com.magscene.magsav.backend.service.FileDownloadService;
+import com.magscene.magsav.backend.service.PhotoBlobStore;
+import com.magscene.magsav.backend.service.PhotoVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.List;
 
 @RestController
@@ -39,8 +39,14 @@ public class EquipmentPhotoRestController {
     @Autowired
     private EquipmentRepository equipmentRepository;
 
-    @Value("${app.upload.dir:${user.home}/magsav/uploads}")
-    private String uploadDir;
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
+    @Autowired
+    private PhotoBlobStore photoBlobStore;
 
     // RÃƒÂ©cupÃƒÂ©rer toutes les photos
     @GetMapping
@@ -106,39 +112,33 @@ public class EquipmentPhotoRestController {
         }
 
         try {
-            // CrÃƒÂ©er le rÃƒÂ©pertoire de destination si nÃƒÂ©cessaire
-            Path uploadPath = Paths.get(uploadDir, "equipment", equipmentId.toString());
-            Files.createDirectories(uploadPath);
-
-            // GÃƒÂ©nÃƒÂ©rer un nom de fichier unique
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null && originalFilename.contains(".") 
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                : "";
-            String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
-            
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            
-            // Copier le fichier
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            // Si c'est une photo principale, supprimer l'ancienne photo principale
-            if (isPrimary) {
-                equipmentPhotoRepository.deleteByEquipmentIdAndIsPrimaryTrue(equipmentId);
-            }
-
-            // CrÃƒÂ©er l'entitÃƒÂ© EquipmentPhoto
-            EquipmentPhoto photo = new EquipmentPhoto();
-            photo.setEquipment(equipment);
-            photo.setFileName(originalFilename);
-            photo.setFilePath(uploadPath.toString());
-            photo.setFileSize(file.getSize());
-            photo.setMimeType(file.getContentType());
-            photo.setDescription(description);
-            photo.setIsPrimary(isPrimary);
-            photo.setCreatedAt(LocalDateTime.now());
-
-            EquipmentPhoto savedPhoto = equipmentPhotoRepository.save(photo);
+            // Contenu dédupliqué : un fichier identique déjà stocké n'est pas recopié
+            String originalFilename = sanitizeFilename(file.getOriginalFilename());
+            EquipmentPhoto savedPhoto = photoBlobStore.store(file.getInputStream(), blob -> {
+                // Si c'est une photo principale, supprimer l'ancienne photo principale
+                if (isPrimary) {
+                    equipmentPhotoRepository.deleteByEquipmentIdAndIsPrimaryTrue(equipmentId);
+                }
+
+                // Créer l'entité EquipmentPhoto
+                EquipmentPhoto photo = new EquipmentPhoto();
+                photo.setEquipment(equipment);
+                photo.setFileName(originalFilename);
+                photo.setFilePath(blob.path().toString());
+                photo.setContentHash(blob.hash());
+                photo.setFileSize(blob.size());
+                photo.setMimeType(file.getContentType());
+                photo.setDescription(description);
+                photo.setIsPrimary(isPrimary);
+                photo.setCreatedAt(LocalDateTime.now());
+                EquipmentPhoto saved = equipmentPhotoRepository.save(photo);
+
+                // Variantes déjà générées pour un contenu connu
+                if (!blob.existing()) {
+                    photoVariantService.generateAsync(saved);
+                }
+                return saved;
+            });
             return ResponseEntity.status(HttpStatus.CREATED).body(savedPhoto);
 
         } catch (IOException e) {
@@ -148,31 +148,52 @@ public class EquipmentPhotoRestController {
 
     // TÃƒÂ©lÃƒÂ©charger/afficher une photo
     @GetMapping("/{id}/download")
-    public ResponseEntity<Resource> downloadPhoto(@PathVariable Long id) {
+    public void downloadPhoto(@PathVariable Long id,
+            @RequestParam(value = "size", required = false) String size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PhotoVariantService.Size variantSize;
+        try {
+            variantSize = PhotoVariantService.Size.fromParameter(size);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+
         Optional<EquipmentPhoto> photoOpt = equipmentPhotoRepository.findById(id);
         if (!photoOpt.isPresent()) {
-            return ResponseEntity.notFound().build();
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
 
         EquipmentPhoto photo = photoOpt.get();
-        try {
-            Path filePath = Paths.get(photo.getFilePath(), photo.getFileName());
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (resource.exists() || resource.isReadable()) {
-                MediaType mediaType = MediaType.parseMediaType(photo.getMimeType());
-                
-                return ResponseEntity.ok()
-                        .contentType(mediaType)
-                        .header(HttpHeaders.CONTENT_DISPOSITION, 
-                               "inline; filename=\"" + photo.getFileName() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (MalformedURLException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        Path variant = variantSize != null ? photoVariantService.findVariant(photo, variantSize) : null;
+        Path filePath = variant != null ? variant : PhotoVariantService.originalPath(photo);
+        FileDownloadService.FileMetadata file = fileDownloadService.metadata(filePath);
+        if (file == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
+
+        // Fichiers jamais réécrits : cache long, sauf l'original servi en attendant sa variante
+        CacheControl cacheControl = variantSize != null && variant == null
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+        MediaType mediaType = variant != null
+                ? MediaTypeFactory.getMediaType(variant.getFileName().toString()).orElse(MediaType.IMAGE_JPEG)
+                : parseMediaType(photo.getMimeType());
+
+        // 304, Range et envoi sans copie gérés par FileDownloadService
+        fileDownloadService.serve(request, response, file, mediaType, downloadName(photo, variant), cacheControl);
+    }
+
+    // Nom proposé au navigateur : celui de l'original (le blob porte l'empreinte du contenu)
+    private static String downloadName(EquipmentPhoto photo, Path variant) {
+        if (variant == null) {
+            return photo.getFileName();
+        }
+        String variantName = variant.getFileName().toString();
+        String suffix = variantName.substring(variantName.lastIndexOf('-'));
+        return photo.getFileNameWithoutExtension() + suffix;
     }
 
     // Mettre ÃƒÂ  jour les dÃƒÂ©tails d'une photo
@@ -229,11 +250,10 @@ public class EquipmentPhotoRestController {
         try {
             // Supprimer le fichier physique
             EquipmentPhoto photoEntity = photo.get();
-            Path filePath = Paths.get(photoEntity.getFilePath(), photoEntity.getFileName());
-            Files.deleteIfExists(filePath);
-            
-            // Supprimer l'enregistrement de la base
+
+            // Supprimer l'enregistrement de la base, puis le fichier s'il n'est plus référencé
             equipmentPhotoRepository.deleteById(id);
+            photoBlobStore.release(photoEntity);
             
             return ResponseEntity.noContent().build();
         } catch (IOException e) {
@@ -277,12 +297,9 @@ public class EquipmentPhotoRestController {
         
         for (EquipmentPhoto photo : orphanedPhotos) {
             try {
-                // Supprimer le fichier physique
-                Path filePath = Paths.get(photo.getFilePath(), photo.getFileName());
-                Files.deleteIfExists(filePath);
-                
-                // Supprimer l'enregistrement
+                // Supprimer l'enregistrement, puis le fichier s'il n'est plus référencé
                 equipmentPhotoRepository.delete(photo);
+                photoBlobStore.release(photo);
                 deletedCount++;
             } catch (IOException e) {
                 // Continuer mÃƒÂªme si la suppression d'un fichier ÃƒÂ©choue
@@ -292,6 +309,15 @@ public class EquipmentPhotoRestController {
         Map<String, Object> result = new HashMap<>();
         result.put("orphanedFound", orphanedPhotos.size());
         result.put("deleted", deletedCount);
+
+        // Contenus dédupliqués que plus aucune photo ne référence
+        try {
+            PhotoBlobStore.GarbageCollection gc = photoBlobStore.collectGarbage();
+            result.put("unreferencedContentDeleted", gc.blobsDeleted());
+            result.put("bytesFreed", gc.bytesFreed());
+        } catch (IOException e) {
+            result.put("unreferencedContentError", e.getMessage());
+        }
         
         return ResponseEntity.ok(result);
     }
@@ -311,5 +337,19 @@ public class EquipmentPhotoRestController {
         
         return ResponseEntity.ok(result);
     }
-}
 
+    // Nom de fichier d'origine sans chemin (affiché et proposé au téléchargement)
+    private static String sanitizeFilename(String filename) {
+        String name = filename != null ? filename.substring(Math.max(filename.lastIndexOf('/'),
+                filename.lastIndexOf('\\')) + 1).replaceAll("[:*?\"<>|\\p{Cntrl}]", "_").trim() : "";
+        return name.isEmpty() || name.startsWith(".") ? "photo" + name : name;
+    }
+
+    private static MediaType parseMediaType(String mimeType) {
+        try {
+            return mimeType != null ? MediaType.parseMediaType(mimeType) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -6,19 +6,38 @@ import com.magscene.magsav.backend.repository.EquipmentRepository;
 import com.magscene.magsav.backend.repository.EquipmentPhotoRepository;
 import com.magscene.magsav.backend.repository.ServiceRequestRepository;
 import com.magscene.magsav.backend.repository.ContractItemRepository;
+import com.magscene.magsav.backend.repository.EquipmentSpecifications;
+import com.magscene.magsav.backend.service.EquipmentListingService;
+import com.magscene.magsav.backend.service.QrCodeService;
+import com.magscene.magsav.backend.service.ScanLookupService;
+import com.magscene.magsav.backend.service.UidAllocationService;
+import com.magscene.magsav.backend.util.LabelSheetPdfWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -43,16 +62,75 @@ public class EquipmentRestController {
     @Autowired(required = false)
     private ContractItemRepository contractItemRepository;
 
+    @Autowired
+    private UidAllocationService uidAllocationService;
+
+    @Autowired
+    private EquipmentListingService equipmentListingService;
+
+    @Autowired
+    private QrCodeService qrCodeService;
+
+    @Autowired
+    private ScanLookupService scanLookupService;
+
+    // Étiquettes par planche PDF demandée
+    private static final int MAX_LABELS = 20000;
+
+    // Appel sans paramètre : liste complète non paginée (ancien comportement)
+    @Value("${app.equipment.list.legacy-unpaged:true}")
+    private boolean legacyUnpagedList = true;
+
     /**
-     * RÃƒÆ’Ã‚Â©cupÃƒÆ’Ã‚Â¨re tous les ÃƒÆ’Ã‚Â©quipements
-     * GET /api/equipment
+     * Liste des équipements, paginée, triée et filtrée
+     * GET /api/equipment?page=0&size=50&sort=name,asc&category=...&status=...&brand=...&location=...&owner=...
+     * GET /api/equipment?mode=keyset&size=50&sort=name&cursor=... (défilement profond par curseur)
+     * Sans aucun paramètre (et app.equipment.list.legacy-unpaged=true) : liste complète comme auparavant
      */
     @GetMapping
-    public List<EquipmentDTO> getAllEquipment() {
-        return equipmentRepository.findAll()
-                .stream()
-                .map(EquipmentDTO::new)
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getAllEquipment(@RequestParam Map<String, String> params,
+            @PageableDefault(size = 50, sort = "name") Pageable pageable,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String owner,
+            @RequestParam(defaultValue = "offset") String mode,
+            @RequestParam(required = false) String cursor) {
+        if (legacyUnpagedList && params.isEmpty()) {
+            return ResponseEntity.ok(equipmentRepository.findAllAsDto());
+        }
+
+        try {
+            Equipment.Status equipmentStatus = status != null && !status.isBlank()
+                    ? Equipment.Status.valueOf(status.trim().toUpperCase())
+                    : null;
+            Specification<Equipment> filter = EquipmentSpecifications.matching(category, equipmentStatus, brand,
+                    location, owner);
+
+            Map<String, Object> response = new HashMap<>();
+            if ("keyset".equalsIgnoreCase(mode)) {
+                EquipmentListingService.KeysetPage slice = equipmentListingService.findAfter(filter,
+                        pageable.getSort(), cursor, pageable.getPageSize());
+                response.put("content", slice.content());
+                response.put("size", pageable.getPageSize());
+                response.put("nextCursor", slice.nextCursor());
+                response.put("hasNext", slice.hasNext());
+            } else {
+                Page<EquipmentDTO> page = equipmentListingService.findPage(filter, pageable);
+                response.put("content", page.getContent());
+                response.put("page", page.getNumber());
+                response.put("size", page.getSize());
+                response.put("totalElements", page.getTotalElements());
+                response.put("totalPages", page.getTotalPages());
+                response.put("hasNext", page.hasNext());
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
 
     /**
@@ -110,10 +188,58 @@ public class EquipmentRestController {
      * GET /api/equipment/qr/{qrCode}
      */
     @GetMapping("/qr/{qrCode}")
-    public ResponseEntity<Equipment> getEquipmentByQrCode(@PathVariable String qrCode) {
-        Optional<Equipment> equipment = equipmentRepository.findByQrCode(qrCode);
-        return equipment.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<EquipmentDTO> getEquipmentByQrCode(@PathVariable String qrCode) {
+        // Index de scan d'abord ; s'il ne connaît pas le code (chargement en échec...), la base fait foi
+        ScanLookupService.ScanResult scan = scanLookupService.lookup(qrCode);
+        Optional<Equipment> equipment = scan.matchedBy() == ScanLookupService.MatchedBy.QR_CODE
+                ? equipmentRepository.findById(scan.equipment().id())
+                : equipmentRepository.findByQrCode(qrCode);
+        return equipment.map(e -> ResponseEntity.ok(new EquipmentDTO(e))).orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Scan rapide (douchette) : UID, numéro de série, référence interne ou contenu JSON du
+     * QR code, résolu en mémoire sans requête
+     * GET /api/equipment/scan/{code}
+     */
+    @GetMapping("/scan/{code}")
+    public ResponseEntity<ScanLookupService.ScanResult> scan(@PathVariable String code) {
+        ScanLookupService.ScanResult scan = scanLookupService.lookup(code);
+        return scan.equipment() != null ? ResponseEntity.ok(scan) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Scan d'une palette : tous les codes lus en une requête, résultats dans l'ordre des codes
+     * POST /api/equipment/scan/batch
+     */
+    @PostMapping("/scan/batch")
+    public ResponseEntity<Map<String, Object>> scanBatch(@RequestBody List<String> codes) {
+        if (codes.size() > ScanLookupService.MAX_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Maximum " + ScanLookupService.MAX_BATCH + " codes par requête"));
+        }
+        long start = System.nanoTime();
+        List<ScanLookupService.ScanResult> results = scanLookupService.lookupAll(codes);
+
+        List<String> unknownCodes = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        Set<Long> duplicates = new LinkedHashSet<>();
+        for (ScanLookupService.ScanResult result : results) {
+            if (result.equipment() == null) {
+                unknownCodes.add(result.code());
+            } else if (!seen.add(result.equipment().id())) {
+                duplicates.add(result.equipment().id());
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", results);
+        response.put("total", results.size());
+        response.put("found", results.size() - unknownCodes.size());
+        response.put("unknownCodes", unknownCodes);
+        response.put("duplicateEquipmentIds", duplicates);
+        response.put("durationMicros", (System.nanoTime() - start) / 1000);
+        return ResponseEntity.ok(response);
     }
 
     /**
@@ -153,6 +279,10 @@ public class EquipmentRestController {
     @PostMapping
     public ResponseEntity<EquipmentDTO> createEquipment(@RequestBody Equipment equipment) {
         try {
+            // UID attribué par le générateur partagé (évite les doublons avec les imports en cours)
+            if (equipment.getQrCode() == null || equipment.getQrCode().isBlank()) {
+                equipment.setQrCode(uidAllocationService.nextUid(equipment.getCategory(), null));
+            }
             Equipment savedEquipment = equipmentRepository.save(equipment);
             return ResponseEntity.ok(new EquipmentDTO(savedEquipment));
         } catch (Exception e) {
@@ -351,23 +481,82 @@ public class EquipmentRestController {
             return ResponseEntity.notFound().build();
         }
 
-        Equipment equipment = equipmentOpt.get();
-        Map<String, String> response = new HashMap<>();
+        return ResponseEntity.ok(qrCodeInfo(equipmentOpt.get()));
+    }
 
-        // Données du QR code : format JSON avec infos essentielles
-        String qrData = String.format(
-                "{\"type\":\"equipment\",\"id\":%d,\"name\":\"%s\",\"serialNumber\":\"%s\",\"internalRef\":\"%s\"}",
-                equipment.getId(),
-                equipment.getName(),
-                equipment.getSerialNumber() != null ? equipment.getSerialNumber() : "",
-                equipment.getInternalReference() != null ? equipment.getInternalReference() : "");
+    /**
+     * Image du QR Code d'un équipement (PNG ou SVG), servie depuis le cache de rendu
+     * GET /api/equipment/{id}/qrcode/image?format=png|svg&size=256
+     */
+    @GetMapping("/{id}/qrcode/image")
+    public ResponseEntity<byte[]> getQRCodeImage(@PathVariable Long id,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(defaultValue = "256") int size) {
+        if (size < 64 || size > 2048) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<Equipment> equipmentOpt = equipmentRepository.findById(id);
+        if (equipmentOpt.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
 
-        response.put("equipmentId", String.valueOf(equipment.getId()));
-        response.put("equipmentName", equipment.getName());
-        response.put("qrData", qrData);
-        response.put("qrUrl", "/api/equipment/" + id + "/qrcode/image");
+        QrCodeService.RenderedQr qr = qrCodeService.render(qrCodeService.payload(equipmentOpt.get()),
+                QrCodeService.ImageFormat.fromParameter(format), size);
+        // Le contenu suit le nom de l'équipement : revalidation par ETag (304 si inchangé)
+        return ResponseEntity.ok()
+                .eTag(qr.hash())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.parseMediaType(qr.format().getMediaType()))
+                .body(qr.content());
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Planche (sprite) des QR Codes de plusieurs équipements, en grille dans l'ordre demandé
+     * (case i = id i, case vide pour un id inconnu)
+     * POST /api/equipment/qrcode/sprite?format=png|svg&size=128&columns=10
+     */
+    @PostMapping("/qrcode/sprite")
+    public ResponseEntity<byte[]> generateQRCodeSprite(@RequestBody List<Long> equipmentIds,
+            @RequestParam(defaultValue = "png") String format,
+            @RequestParam(defaultValue = "128") int size,
+            @RequestParam(defaultValue = "10") int columns) {
+        QrCodeService.ImageFormat imageFormat = QrCodeService.ImageFormat.fromParameter(format);
+        if (equipmentIds.size() > QrCodeService.MAX_SPRITE_ITEMS || size < 32 || size > 1024
+                || columns < 1 || columns > 100
+                || !QrCodeService.spriteFits(equipmentIds.size(), imageFormat, size, columns)) {
+            return ResponseEntity.badRequest().build();
+        }
+        QrCodeService.RenderedQr sprite = qrCodeService.sprite(equipmentIds, imageFormat, size, columns);
+        return ResponseEntity.ok()
+                .eTag(sprite.hash())
+                .contentType(MediaType.parseMediaType(sprite.format().getMediaType()))
+                .body(sprite.content());
+    }
+
+    /**
+     * Planches d'étiquettes A4 (PDF) avec QR Code, nom, UID, numéro de série et référence,
+     * écrites en flux dans l'ordre demandé (un id répété donne plusieurs étiquettes)
+     * POST /api/equipment/qrcode/labels?columns=3&rows=8
+     */
+    @PostMapping("/qrcode/labels")
+    public ResponseEntity<StreamingResponseBody> generateQRCodeLabels(@RequestBody List<Long> equipmentIds,
+            @RequestParam(defaultValue = "3") int columns,
+            @RequestParam(defaultValue = "8") int rows) {
+        if (equipmentIds.isEmpty() || equipmentIds.size() > MAX_LABELS) {
+            return ResponseEntity.badRequest().build();
+        }
+        LabelSheetPdfWriter.Layout layout;
+        try {
+            layout = new LabelSheetPdfWriter.Layout(columns, rows, 0, 0, 6);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> qrCodeService.writeLabelSheet(equipmentIds, layout, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("etiquettes-qr.pdf").build().toString())
+                .body(body);
     }
 
     /**
@@ -376,22 +565,9 @@ public class EquipmentRestController {
      */
     @PostMapping("/qrcode/batch")
     public ResponseEntity<List<Map<String, String>>> generateBatchQRCodes(@RequestBody List<Long> equipmentIds) {
-        List<Map<String, String>> qrCodes = equipmentIds.stream()
-                .map(id -> equipmentRepository.findById(id))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(equipment -> {
-                    Map<String, String> qrData = new HashMap<>();
-                    String data = String.format(
-                            "{\"type\":\"equipment\",\"id\":%d,\"name\":\"%s\",\"serialNumber\":\"%s\"}",
-                            equipment.getId(),
-                            equipment.getName(),
-                            equipment.getSerialNumber() != null ? equipment.getSerialNumber() : "");
-                    qrData.put("equipmentId", String.valueOf(equipment.getId()));
-                    qrData.put("equipmentName", equipment.getName());
-                    qrData.put("qrData", data);
-                    return qrData;
-                })
+        // Une seule requête pour tout le lot, ordre de la demande conservé
+        List<Map<String, String>> qrCodes = qrCodeService.findAllInOrder(equipmentIds).stream()
+                .map(this::qrCodeInfo)
                 .collect(Collectors.toList());
 
         return ResponseEntity.ok(qrCodes);
@@ -405,13 +581,13 @@ public class EquipmentRestController {
     public ResponseEntity<EquipmentDTO> scanQRCode(@RequestBody Map<String, String> scanData) {
         try {
             String qrData = scanData.get("qrData");
-            // Parser le JSON du QR code pour extraire l'ID
-            // Format attendu: {"type":"equipment","id":123,...}
-            if (qrData != null && qrData.contains("\"id\":")) {
-                String idStr = qrData.split("\"id\":")[1].split(",")[0].trim();
-                Long equipmentId = Long.parseLong(idStr);
-
-                Optional<Equipment> equipmentOpt = equipmentRepository.findById(equipmentId);
+            if (qrData == null || qrData.isBlank()) {
+                return ResponseEntity.badRequest().build();
+            }
+            // JSON du QR code ({"type":"equipment","id":123,...}) ou code en clair, résolu par l'index de scan
+            ScanLookupService.ScanResult scan = scanLookupService.lookup(qrData);
+            if (scan.equipment() != null) {
+                Optional<Equipment> equipmentOpt = equipmentRepository.findById(scan.equipment().id());
                 if (equipmentOpt.isPresent()) {
                     return ResponseEntity.ok(new EquipmentDTO(equipmentOpt.get()));
                 }
@@ -422,6 +598,15 @@ public class EquipmentRestController {
         }
     }
 
+    private Map<String, String> qrCodeInfo(Equipment equipment) {
+        Map<String, String> info = new HashMap<>();
+        info.put("equipmentId", String.valueOf(equipment.getId()));
+        info.put("equipmentName", equipment.getName());
+        info.put("qrData", qrCodeService.payload(equipment));
+        info.put("qrUrl", "/api/equipment/" + equipment.getId() + "/qrcode/image");
+        return info;
+    }
+
     /**
      * Exporter les équipements avec QR codes
      * GET /api/equipment/export/qrcodes
@@ -438,10 +623,7 @@ public class EquipmentRestController {
                     data.put("serialNumber", equipment.getSerialNumber() != null ? equipment.getSerialNumber() : "");
                     data.put("internalRef",
                             equipment.getInternalReference() != null ? equipment.getInternalReference() : "");
-                    data.put("qrData", String.format(
-                            "{\"type\":\"equipment\",\"id\":%d,\"name\":\"%s\"}",
-                            equipment.getId(),
-                            equipment.getName()));
+                    data.put("qrData", qrCodeService.payload(equipment));
                     return data;
                 })
                 .collect(Collectors.toList());
@@ -1,25 +1,31 @@
 package com.magscene.magsav.backend.controller;
 
 import com.magscene.magsav.backend.entity.*;
+import com.magscene.magsav.backend.exception.MagsavBusinessException;
 import com.magscene.magsav.backend.repository.*;
+import com.magscene.magsav.backend.service.ExportService;
+import com.magscene.magsav.backend.service.ExportService.Column;
+import com.magscene.magsav.backend.service.ExportService.ColumnType;
+import com.magscene.magsav.backend.service.ExportService.Table;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Controller REST pour les exports/imports de données
- * Gestion des exports Excel/CSV et imports CSV pour tous les modules
+ * Gestion des exports Excel/CSV et imports CSV pour tous les modules,
+ * exports Arrow (colonnes typées) pour l'analyse
  */
 @RestController
 @RequestMapping("/api/export")
@@ -27,6 +33,10 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ExportImportController {
 
+    private static final MediaType XLSX = MediaType.parseMediaType(
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+    private static final MediaType ARROW_STREAM = MediaType.parseMediaType("application/vnd.apache.arrow.stream");
+
     @Autowired
     private EquipmentRepository equipmentRepository;
 
@@ -51,7 +61,11 @@ public class ExportImportController {
     @Autowired
     private ProjectRepository projectRepository;
 
-    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    @Autowired
+    private SupplierOrderRepository supplierOrderRepository;
+
+    @Autowired
+    private ExportService exportService;
 
     // ==================== EXPORTS CSV ====================
 
@@ -60,27 +74,9 @@ public class ExportImportController {
      */
     @GetMapping("/equipment/csv")
     @Operation(summary = "Export équipements CSV", description = "Exporte tous les équipements au format CSV")
-    public ResponseEntity<InputStreamResource> exportEquipmentCSV() {
-        List<Equipment> equipment = equipmentRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Nom,Référence Interne,Catégorie,Marque,Modèle,Statut,Emplacement,Date Création\n");
-
-        for (Equipment e : equipment) {
-            csv.append(escapeCsv(e.getId()))
-                    .append(",").append(escapeCsv(e.getName()))
-                    .append(",").append(escapeCsv(e.getInternalReference()))
-                    .append(",").append(escapeCsv(e.getCategory()))
-                    .append(",").append(escapeCsv(e.getBrand()))
-                    .append(",").append(escapeCsv(e.getModel()))
-                    .append(",").append(escapeCsv(e.getStatus() != null ? e.getStatus().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(e.getLocation()))
-                    .append(",")
-                    .append(escapeCsv(e.getCreatedAt() != null ? e.getCreatedAt().format(CSV_DATE_FORMAT) : ""))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "equipments_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportEquipmentCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(equipmentTable(), acceptEncoding);
     }
 
     /**
@@ -88,29 +84,9 @@ public class ExportImportController {
      */
     @GetMapping("/vehicles/csv")
     @Operation(summary = "Export véhicules CSV", description = "Exporte tous les véhicules au format CSV")
-    public ResponseEntity<InputStreamResource> exportVehiclesCSV() {
-        List<Vehicle> vehicles = vehicleRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append(
-                "ID,Nom,Plaque,Type,Marque,Modèle,Statut,Carburant,Kilométrage,Assurance Expiration,Contrôle Technique\n");
-
-        for (Vehicle v : vehicles) {
-            csv.append(escapeCsv(v.getId()))
-                    .append(",").append(escapeCsv(v.getName()))
-                    .append(",").append(escapeCsv(v.getLicensePlate()))
-                    .append(",").append(escapeCsv(v.getType().getDisplayName()))
-                    .append(",").append(escapeCsv(v.getBrand()))
-                    .append(",").append(escapeCsv(v.getModel()))
-                    .append(",").append(escapeCsv(v.getStatus().getDisplayName()))
-                    .append(",").append(escapeCsv(v.getFuelType().getDisplayName()))
-                    .append(",").append(escapeCsv(v.getMileage()))
-                    .append(",").append(escapeCsv(v.getInsuranceExpiration()))
-                    .append(",").append(escapeCsv(v.getTechnicalControlExpiration()))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "vehicles_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportVehiclesCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(vehiclesTable(), acceptEncoding);
     }
 
     /**
@@ -118,27 +94,9 @@ public class ExportImportController {
      */
     @GetMapping("/personnel/csv")
     @Operation(summary = "Export personnel CSV", description = "Exporte tout le personnel au format CSV")
-    public ResponseEntity<InputStreamResource> exportPersonnelCSV() {
-        List<Personnel> personnel = personnelRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Prénom,Nom,Email,Téléphone,Type,Statut,Poste,Département,Date Embauche\n");
-
-        for (Personnel p : personnel) {
-            csv.append(escapeCsv(p.getId()))
-                    .append(",").append(escapeCsv(p.getFirstName()))
-                    .append(",").append(escapeCsv(p.getLastName()))
-                    .append(",").append(escapeCsv(p.getEmail()))
-                    .append(",").append(escapeCsv(p.getPhone()))
-                    .append(",").append(escapeCsv(p.getType().getDisplayName()))
-                    .append(",").append(escapeCsv(p.getStatus().getDisplayName()))
-                    .append(",").append(escapeCsv(p.getJobTitle()))
-                    .append(",").append(escapeCsv(p.getDepartment()))
-                    .append(",").append(escapeCsv(p.getHireDate()))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "personnel_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportPersonnelCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(personnelTable(), acceptEncoding);
     }
 
     /**
@@ -146,31 +104,9 @@ public class ExportImportController {
      */
     @GetMapping("/service-requests/csv")
     @Operation(summary = "Export demandes SAV CSV", description = "Exporte toutes les demandes SAV au format CSV")
-    public ResponseEntity<InputStreamResource> exportServiceRequestsCSV() {
-        List<ServiceRequest> requests = serviceRequestRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append(
-                "ID,Titre,Demandeur,Email,Statut,Priorité,Type,Description,Technicien,Date Création,Date Résolution\n");
-
-        for (ServiceRequest sr : requests) {
-            csv.append(escapeCsv(sr.getId()))
-                    .append(",").append(escapeCsv(sr.getTitle()))
-                    .append(",").append(escapeCsv(sr.getRequesterName()))
-                    .append(",").append(escapeCsv(sr.getRequesterEmail()))
-                    .append(",").append(escapeCsv(sr.getStatus() != null ? sr.getStatus().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(sr.getPriority() != null ? sr.getPriority().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(sr.getType() != null ? sr.getType().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(sr.getDescription()))
-                    .append(",").append(escapeCsv(sr.getAssignedTechnician()))
-                    .append(",")
-                    .append(escapeCsv(sr.getCreatedAt() != null ? sr.getCreatedAt().format(CSV_DATE_FORMAT) : ""))
-                    .append(",")
-                    .append(escapeCsv(sr.getResolvedAt() != null ? sr.getResolvedAt().format(CSV_DATE_FORMAT) : ""))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "service_requests_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportServiceRequestsCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(serviceRequestsTable(), acceptEncoding);
     }
 
     /**
@@ -178,27 +114,9 @@ public class ExportImportController {
      */
     @GetMapping("/repairs/csv")
     @Operation(summary = "Export réparations CSV", description = "Exporte toutes les réparations au format CSV")
-    public ResponseEntity<InputStreamResource> exportRepairsCSV() {
-        List<Repair> repairs = repairRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Numéro,Équipement,Statut,Priorité,Technicien,Problème,Coût Estimé,Date Demande,Date Fin\n");
-
-        for (Repair r : repairs) {
-            csv.append(escapeCsv(r.getId()))
-                    .append(",").append(escapeCsv(r.getRepairNumber()))
-                    .append(",").append(escapeCsv(r.getEquipmentName()))
-                    .append(",").append(escapeCsv(r.getStatus() != null ? r.getStatus().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(r.getPriority() != null ? r.getPriority().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(r.getTechnicianName()))
-                    .append(",").append(escapeCsv(r.getProblemDescription()))
-                    .append(",").append(escapeCsv(r.getEstimatedCost()))
-                    .append(",").append(escapeCsv(r.getRequestDate()))
-                    .append(",").append(escapeCsv(r.getCompletionDate()))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "repairs_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportRepairsCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(repairsTable(), acceptEncoding);
     }
 
     /**
@@ -206,24 +124,9 @@ public class ExportImportController {
      */
     @GetMapping("/rma/csv")
     @Operation(summary = "Export RMA CSV", description = "Exporte tous les RMA au format CSV")
-    public ResponseEntity<InputStreamResource> exportRMACSV() {
-        List<RMA> rmas = rmaRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Numéro,Équipement,Statut,Priorité,Problème,Date Demande\n");
-
-        for (RMA rma : rmas) {
-            csv.append(escapeCsv(rma.getId()))
-                    .append(",").append(escapeCsv(rma.getRmaNumber()))
-                    .append(",").append(escapeCsv(rma.getEquipmentName()))
-                    .append(",").append(escapeCsv(rma.getStatus() != null ? rma.getStatus().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(rma.getPriority() != null ? rma.getPriority().getDisplayName() : ""))
-                    .append(",").append(escapeCsv(rma.getDescription()))
-                    .append(",").append(escapeCsv(rma.getRequestDate()))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "rma_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportRMACSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(rmaTable(), acceptEncoding);
     }
 
     /**
@@ -231,24 +134,9 @@ public class ExportImportController {
      */
     @GetMapping("/clients/csv")
     @Operation(summary = "Export clients CSV", description = "Exporte tous les clients au format CSV")
-    public ResponseEntity<InputStreamResource> exportClientsCSV() {
-        List<Client> clients = clientRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Société,Email,Téléphone,Adresse,Ville,Code Postal\n");
-
-        for (Client c : clients) {
-            csv.append(escapeCsv(c.getId()))
-                    .append(",").append(escapeCsv(c.getCompanyName()))
-                    .append(",").append(escapeCsv(c.getEmail()))
-                    .append(",").append(escapeCsv(c.getPhone()))
-                    .append(",").append(escapeCsv(c.getAddress()))
-                    .append(",").append(escapeCsv(c.getCity()))
-                    .append(",").append(escapeCsv(c.getPostalCode()))
-                    .append("\n");
-        }
-
-        return createCsvResponse(csv.toString(), "clients_" + getTimestamp() + ".csv");
+    public ResponseEntity<StreamingResponseBody> exportClientsCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(clientsTable(), acceptEncoding);
     }
 
     /**
@@ -256,23 +144,335 @@ public class ExportImportController {
      */
     @GetMapping("/projects/csv")
     @Operation(summary = "Export projets CSV", description = "Exporte tous les projets au format CSV")
-    public ResponseEntity<InputStreamResource> exportProjectsCSV() {
-        List<Project> projects = projectRepository.findAll();
-
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Nom,Description,Statut,Date Création\n");
-
-        for (Project p : projects) {
-            csv.append(escapeCsv(p.getId()))
-                    .append(",").append(escapeCsv(p.getName()))
-                    .append(",").append(escapeCsv(p.getDescription()))
-                    .append(",").append(escapeCsv(p.getStatus() != null ? p.getStatus().name() : ""))
-                    .append(",")
-                    .append(escapeCsv(p.getCreatedAt() != null ? p.getCreatedAt().format(CSV_DATE_FORMAT) : ""))
-                    .append("\n");
-        }
+    public ResponseEntity<StreamingResponseBody> exportProjectsCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(projectsTable(), acceptEncoding);
+    }
+
+    /**
+     * Export commandes fournisseurs au format CSV
+     */
+    @GetMapping("/supplier-orders/csv")
+    @Operation(summary = "Export commandes fournisseurs CSV", description = "Exporte toutes les commandes fournisseurs au format CSV")
+    public ResponseEntity<StreamingResponseBody> exportSupplierOrdersCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(supplierOrdersTable(), acceptEncoding);
+    }
+
+    // ==================== EXPORTS EXCEL ====================
+
+    /**
+     * Export équipements au format Excel
+     */
+    @GetMapping("/equipment/xlsx")
+    @Operation(summary = "Export équipements Excel", description = "Exporte tous les équipements au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportEquipmentXlsx() {
+        return createXlsxResponse(equipmentTable());
+    }
+
+    /**
+     * Export véhicules au format Excel
+     */
+    @GetMapping("/vehicles/xlsx")
+    @Operation(summary = "Export véhicules Excel", description = "Exporte tous les véhicules au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportVehiclesXlsx() {
+        return createXlsxResponse(vehiclesTable());
+    }
+
+    /**
+     * Export personnel au format Excel
+     */
+    @GetMapping("/personnel/xlsx")
+    @Operation(summary = "Export personnel Excel", description = "Exporte tout le personnel au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportPersonnelXlsx() {
+        return createXlsxResponse(personnelTable());
+    }
+
+    /**
+     * Export demandes SAV au format Excel
+     */
+    @GetMapping("/service-requests/xlsx")
+    @Operation(summary = "Export demandes SAV Excel", description = "Exporte toutes les demandes SAV au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportServiceRequestsXlsx() {
+        return createXlsxResponse(serviceRequestsTable());
+    }
+
+    /**
+     * Export réparations au format Excel
+     */
+    @GetMapping("/repairs/xlsx")
+    @Operation(summary = "Export réparations Excel", description = "Exporte toutes les réparations au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportRepairsXlsx() {
+        return createXlsxResponse(repairsTable());
+    }
+
+    /**
+     * Export RMA au format Excel
+     */
+    @GetMapping("/rma/xlsx")
+    @Operation(summary = "Export RMA Excel", description = "Exporte tous les RMA au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportRMAXlsx() {
+        return createXlsxResponse(rmaTable());
+    }
+
+    /**
+     * Export clients au format Excel
+     */
+    @GetMapping("/clients/xlsx")
+    @Operation(summary = "Export clients Excel", description = "Exporte tous les clients au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportClientsXlsx() {
+        return createXlsxResponse(clientsTable());
+    }
+
+    /**
+     * Export projets au format Excel
+     */
+    @GetMapping("/projects/xlsx")
+    @Operation(summary = "Export projets Excel", description = "Exporte tous les projets au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportProjectsXlsx() {
+        return createXlsxResponse(projectsTable());
+    }
+
+    /**
+     * Export commandes fournisseurs au format Excel
+     */
+    @GetMapping("/supplier-orders/xlsx")
+    @Operation(summary = "Export commandes fournisseurs Excel", description = "Exporte toutes les commandes fournisseurs au format Excel (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportSupplierOrdersXlsx() {
+        return createXlsxResponse(supplierOrdersTable());
+    }
+
+    // ==================== EXPORT LOCMAT ====================
+
+    /**
+     * Export équipements au format LOCMAT (CSV), relisible par l'import LOCMAT
+     */
+    @GetMapping("/equipment/locmat/csv")
+    @Operation(summary = "Export LOCMAT CSV", description = "Exporte les équipements dans le format de colonnes de l'import LOCMAT (CSV)")
+    public ResponseEntity<StreamingResponseBody> exportLocmatCSV(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createCsvResponse(locmatTable(), acceptEncoding);
+    }
+
+    /**
+     * Export équipements au format LOCMAT (Excel), relisible par l'import LOCMAT
+     */
+    @GetMapping("/equipment/locmat/xlsx")
+    @Operation(summary = "Export LOCMAT Excel", description = "Exporte les équipements dans le format de colonnes de l'import LOCMAT (XLSX)")
+    public ResponseEntity<StreamingResponseBody> exportLocmatXlsx() {
+        return createXlsxResponse(locmatTable());
+    }
+
+    // ==================== EXPORTS ARROW (ANALYSE) ====================
+
+    /**
+     * Export équipements au format Arrow IPC
+     */
+    @GetMapping("/equipment/arrow")
+    @Operation(summary = "Export équipements Arrow", description = "Exporte tous les équipements au format Apache Arrow (colonnes typées)")
+    public ResponseEntity<StreamingResponseBody> exportEquipmentArrow(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createArrowResponse(equipmentTable(), acceptEncoding);
+    }
+
+    /**
+     * Export demandes SAV au format Arrow IPC
+     */
+    @GetMapping("/service-requests/arrow")
+    @Operation(summary = "Export demandes SAV Arrow", description = "Exporte toutes les demandes SAV au format Apache Arrow (colonnes typées)")
+    public ResponseEntity<StreamingResponseBody> exportServiceRequestsArrow(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createArrowResponse(serviceRequestsTable(), acceptEncoding);
+    }
+
+    /**
+     * Export réparations au format Arrow IPC
+     */
+    @GetMapping("/repairs/arrow")
+    @Operation(summary = "Export réparations Arrow", description = "Exporte toutes les réparations au format Apache Arrow (colonnes typées)")
+    public ResponseEntity<StreamingResponseBody> exportRepairsArrow(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createArrowResponse(repairsTable(), acceptEncoding);
+    }
+
+    /**
+     * Export RMA au format Arrow IPC
+     */
+    @GetMapping("/rma/arrow")
+    @Operation(summary = "Export RMA Arrow", description = "Exporte tous les RMA au format Apache Arrow (colonnes typées)")
+    public ResponseEntity<StreamingResponseBody> exportRMAArrow(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createArrowResponse(rmaTable(), acceptEncoding);
+    }
+
+    /**
+     * Export commandes fournisseurs au format Arrow IPC
+     */
+    @GetMapping("/supplier-orders/arrow")
+    @Operation(summary = "Export commandes fournisseurs Arrow", description = "Exporte toutes les commandes fournisseurs au format Apache Arrow (colonnes typées)")
+    public ResponseEntity<StreamingResponseBody> exportSupplierOrdersArrow(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return createArrowResponse(supplierOrdersTable(), acceptEncoding);
+    }
+
+    // ==================== TABLES EXPORTÉES ====================
+
+    private Table<Equipment> equipmentTable() {
+        return new Table<>("equipments", List.of(
+                Column.of("ID", ColumnType.LONG, Equipment::getId),
+                Column.of("Nom", ColumnType.STRING, Equipment::getName),
+                Column.of("Référence Interne", ColumnType.STRING, Equipment::getInternalReference),
+                Column.of("Catégorie", ColumnType.STRING, Equipment::getCategory),
+                Column.of("Marque", ColumnType.STRING, Equipment::getBrand),
+                Column.of("Modèle", ColumnType.STRING, Equipment::getModel),
+                Column.of("Statut", ColumnType.STRING, e -> displayName(e.getStatus(), Equipment.Status::getDisplayName)),
+                Column.of("Emplacement", ColumnType.STRING, Equipment::getLocation),
+                Column.of("Date Création", ColumnType.DATETIME, Equipment::getCreatedAt)),
+                equipmentRepository::streamAll);
+    }
+
+    private Table<Vehicle> vehiclesTable() {
+        return new Table<>("vehicles", List.of(
+                Column.of("ID", ColumnType.LONG, Vehicle::getId),
+                Column.of("Nom", ColumnType.STRING, Vehicle::getName),
+                Column.of("Plaque", ColumnType.STRING, Vehicle::getLicensePlate),
+                Column.of("Type", ColumnType.STRING, v -> displayName(v.getType(), Vehicle.VehicleType::getDisplayName)),
+                Column.of("Marque", ColumnType.STRING, Vehicle::getBrand),
+                Column.of("Modèle", ColumnType.STRING, Vehicle::getModel),
+                Column.of("Statut", ColumnType.STRING,
+                        v -> displayName(v.getStatus(), Vehicle.VehicleStatus::getDisplayName)),
+                Column.of("Carburant", ColumnType.STRING,
+                        v -> displayName(v.getFuelType(), Vehicle.FuelType::getDisplayName)),
+                Column.of("Kilométrage", ColumnType.INTEGER, Vehicle::getMileage),
+                Column.of("Assurance Expiration", ColumnType.DATE, Vehicle::getInsuranceExpiration),
+                Column.of("Contrôle Technique", ColumnType.DATE, Vehicle::getTechnicalControlExpiration)),
+                vehicleRepository::streamAll);
+    }
+
+    private Table<Personnel> personnelTable() {
+        return new Table<>("personnel", List.of(
+                Column.of("ID", ColumnType.LONG, Personnel::getId),
+                Column.of("Prénom", ColumnType.STRING, Personnel::getFirstName),
+                Column.of("Nom", ColumnType.STRING, Personnel::getLastName),
+                Column.of("Email", ColumnType.STRING, Personnel::getEmail),
+                Column.of("Téléphone", ColumnType.STRING, Personnel::getPhone),
+                Column.of("Type", ColumnType.STRING,
+                        p -> displayName(p.getType(), Personnel.PersonnelType::getDisplayName)),
+                Column.of("Statut", ColumnType.STRING,
+                        p -> displayName(p.getStatus(), Personnel.PersonnelStatus::getDisplayName)),
+                Column.of("Poste", ColumnType.STRING, Personnel::getJobTitle),
+                Column.of("Département", ColumnType.STRING, Personnel::getDepartment),
+                Column.of("Date Embauche", ColumnType.DATE, Personnel::getHireDate)),
+                personnelRepository::streamAll);
+    }
+
+    private Table<ServiceRequest> serviceRequestsTable() {
+        return new Table<>("service_requests", List.of(
+                Column.of("ID", ColumnType.LONG, ServiceRequest::getId),
+                Column.of("Titre", ColumnType.STRING, ServiceRequest::getTitle),
+                Column.of("Demandeur", ColumnType.STRING, ServiceRequest::getRequesterName),
+                Column.of("Email", ColumnType.STRING, ServiceRequest::getRequesterEmail),
+                Column.of("Statut", ColumnType.STRING,
+                        sr -> displayName(sr.getStatus(), ServiceRequest.ServiceRequestStatus::getDisplayName)),
+                Column.of("Priorité", ColumnType.STRING,
+                        sr -> displayName(sr.getPriority(), ServiceRequest.Priority::getDisplayName)),
+                Column.of("Type", ColumnType.STRING,
+                        sr -> displayName(sr.getType(), ServiceRequest.ServiceRequestType::getDisplayName)),
+                Column.of("Description", ColumnType.STRING, ServiceRequest::getDescription),
+                Column.of("Technicien", ColumnType.STRING, ServiceRequest::getAssignedTechnician),
+                Column.of("Date Création", ColumnType.DATETIME, ServiceRequest::getCreatedAt),
+                Column.of("Date Résolution", ColumnType.DATETIME, ServiceRequest::getResolvedAt)),
+                serviceRequestRepository::streamAll);
+    }
+
+    private Table<Repair> repairsTable() {
+        return new Table<>("repairs", List.of(
+                Column.of("ID", ColumnType.LONG, Repair::getId),
+                Column.of("Numéro", ColumnType.STRING, Repair::getRepairNumber),
+                Column.of("Équipement", ColumnType.STRING, Repair::getEquipmentName),
+                Column.of("Statut", ColumnType.STRING,
+                        r -> displayName(r.getStatus(), Repair.RepairStatus::getDisplayName)),
+                Column.of("Priorité", ColumnType.STRING,
+                        r -> displayName(r.getPriority(), Repair.RepairPriority::getDisplayName)),
+                Column.of("Technicien", ColumnType.STRING, Repair::getTechnicianName),
+                Column.of("Problème", ColumnType.STRING, Repair::getProblemDescription),
+                Column.of("Coût Estimé", ColumnType.DOUBLE, Repair::getEstimatedCost),
+                Column.of("Date Demande", ColumnType.DATE, Repair::getRequestDate),
+                Column.of("Date Fin", ColumnType.DATE, Repair::getCompletionDate)),
+                repairRepository::streamAll);
+    }
 
-        return createCsvResponse(csv.toString(), "projects_" + getTimestamp() + ".csv");
+    private Table<RMA> rmaTable() {
+        return new Table<>("rma", List.of(
+                Column.of("ID", ColumnType.LONG, RMA::getId),
+                Column.of("Numéro", ColumnType.STRING, RMA::getRmaNumber),
+                Column.of("Équipement", ColumnType.STRING, RMA::getEquipmentName),
+                Column.of("Statut", ColumnType.STRING, r -> displayName(r.getStatus(), RMA.RMAStatus::getDisplayName)),
+                Column.of("Priorité", ColumnType.STRING,
+                        r -> displayName(r.getPriority(), RMA.RMAPriority::getDisplayName)),
+                Column.of("Problème", ColumnType.STRING, RMA::getDescription),
+                Column.of("Date Demande", ColumnType.DATE, RMA::getRequestDate)),
+                rmaRepository::streamAll);
+    }
+
+    private Table<Client> clientsTable() {
+        return new Table<>("clients", List.of(
+                Column.of("ID", ColumnType.LONG, Client::getId),
+                Column.of("Société", ColumnType.STRING, Client::getCompanyName),
+                Column.of("Email", ColumnType.STRING, Client::getEmail),
+                Column.of("Téléphone", ColumnType.STRING, Client::getPhone),
+                Column.of("Adresse", ColumnType.STRING, Client::getAddress),
+                Column.of("Ville", ColumnType.STRING, Client::getCity),
+                Column.of("Code Postal", ColumnType.STRING, Client::getPostalCode)),
+                clientRepository::streamAll);
+    }
+
+    private Table<Project> projectsTable() {
+        return new Table<>("projects", List.of(
+                Column.of("ID", ColumnType.LONG, Project::getId),
+                Column.of("Nom", ColumnType.STRING, Project::getName),
+                Column.of("Description", ColumnType.STRING, Project::getDescription),
+                Column.of("Statut", ColumnType.STRING, p -> p.getStatus() != null ? p.getStatus().name() : null),
+                Column.of("Date Création", ColumnType.DATETIME, Project::getCreatedAt)),
+                projectRepository::streamAll);
+    }
+
+    /**
+     * Les 11 colonnes lues par LocmatImportService, dans le même ordre :
+     * Famille, Catégorie, Type, Marque, Emplacement, Code LOCMAT, Nom, N° Série, Qté, Prix, Valeur
+     */
+    private Table<Equipment> locmatTable() {
+        return new Table<>("locmat", List.of(
+                Column.of("Famille", ColumnType.STRING, Equipment::getCategory),
+                Column.of("Catégorie", ColumnType.STRING, Equipment::getSubCategory),
+                Column.of("Type", ColumnType.STRING, Equipment::getSpecificCategory),
+                Column.of("Marque", ColumnType.STRING, Equipment::getBrand),
+                Column.of("Emplacement", ColumnType.STRING, Equipment::getLocation),
+                Column.of("Code LOCMAT", ColumnType.STRING, Equipment::getInternalReference),
+                Column.of("Nom", ColumnType.STRING, Equipment::getName),
+                Column.of("N° Série", ColumnType.STRING, Equipment::getSerialNumber),
+                Column.of("Qté", ColumnType.INTEGER, Equipment::getQuantityInStock),
+                Column.of("Prix", ColumnType.DOUBLE, Equipment::getPurchasePrice),
+                Column.of("Valeur", ColumnType.DOUBLE, Equipment::getInsuranceValue)),
+                equipmentRepository::streamAll);
+    }
+
+    private Table<SupplierOrder> supplierOrdersTable() {
+        return new Table<>("supplier_orders", List.of(
+                Column.of("ID", ColumnType.LONG, SupplierOrder::getId),
+                Column.of("Numéro", ColumnType.STRING, SupplierOrder::getOrderNumber),
+                Column.of("Statut", ColumnType.STRING, so -> so.getStatus() != null ? so.getStatus().name() : null),
+                Column.of("Type", ColumnType.STRING, so -> so.getType() != null ? so.getType().name() : null),
+                Column.of("Fournisseur", ColumnType.STRING, SupplierOrder::getSupplierName),
+                Column.of("Date Commande", ColumnType.DATE, SupplierOrder::getOrderDate),
+                Column.of("Livraison Prévue", ColumnType.DATE, SupplierOrder::getExpectedDeliveryDate),
+                Column.of("Livraison Effective", ColumnType.DATE, SupplierOrder::getActualDeliveryDate),
+                Column.of("Montant HT", ColumnType.DECIMAL, SupplierOrder::getAmountHT),
+                Column.of("Taux TVA", ColumnType.DECIMAL, SupplierOrder::getVatRate),
+                Column.of("Frais de Port", ColumnType.DECIMAL, SupplierOrder::getShippingCost),
+                Column.of("Montant TTC", ColumnType.DECIMAL, SupplierOrder::getAmountTTC),
+                Column.of("Date Création", ColumnType.DATETIME, SupplierOrder::getCreatedAt)),
+                supplierOrderRepository::streamAll);
     }
 
     // ==================== STATISTIQUES EXPORTS ====================
@@ -308,32 +508,70 @@ public class ExportImportController {
 
     // ==================== MÉTHODES UTILITAIRES ====================
 
-    private String escapeCsv(Object value) {
-        if (value == null)
-            return "";
-        String str = value.toString();
-        if (str.contains(",") || str.contains("\"") || str.contains("\n")) {
-            return "\"" + str.replace("\"", "\"\"") + "\"";
-        }
-        return str;
+    private static <E> String displayName(E value, Function<E, String> displayName) {
+        return value != null ? displayName.apply(value) : null;
     }
 
     private String getTimestamp() {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
     }
 
-    private ResponseEntity<InputStreamResource> createCsvResponse(String csvContent, String filename) {
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(csvContent.getBytes(StandardCharsets.UTF_8));
-        InputStreamResource resource = new InputStreamResource(inputStream);
+    /**
+     * Réponse CSV en flux (Transfer-Encoding: chunked), compressée si le client accepte gzip
+     */
+    private ResponseEntity<StreamingResponseBody> createCsvResponse(Table<?> table, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
 
         HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
-        headers.add(HttpHeaders.CONTENT_TYPE, "text/csv; charset=UTF-8");
+        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=" + table.name() + "_" + getTimestamp() + ".csv");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .body(exportService.csv(table, gzip));
+    }
+
+    /**
+     * Réponse XLSX (classeur construit en flux, déjà compressé : pas de gzip)
+     */
+    private ResponseEntity<StreamingResponseBody> createXlsxResponse(Table<?> table) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=" + table.name() + "_" + getTimestamp() + ".xlsx");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(XLSX)
+                .body(exportService.xlsx(table));
+    }
+
+    /**
+     * Réponse Arrow IPC en flux (un lot de lignes après l'autre), compressée si le client accepte gzip
+     */
+    private ResponseEntity<StreamingResponseBody> createArrowResponse(Table<?> table, String acceptEncoding) {
+        if (!exportService.isArrowAvailable()) {
+            throw new MagsavBusinessException("ARROW_UNAVAILABLE",
+                    "Export Arrow indisponible : lancer la JVM avec --add-opens=java.base/java.nio=ALL-UNNAMED",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=" + table.name() + "_" + getTimestamp() + ".arrows");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .contentLength(csvContent.getBytes(StandardCharsets.UTF_8).length)
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(resource);
+                .contentType(ARROW_STREAM)
+                .body(exportService.arrow(table, gzip));
     }
 }
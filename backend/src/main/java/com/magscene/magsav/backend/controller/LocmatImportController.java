@@ -1,5 +1,6 @@
 package com.magscene.magsav.backend.controller;
 
+import com.magscene.magsav.backend.service.LocmatImportJobService;
 import com.magscene.magsav.backend.service.LocmatImportService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,6 +11,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +25,9 @@ public class LocmatImportController {
     @Autowired
     private LocmatImportService locmatImportService;
 
+    @Autowired
+    private LocmatImportJobService locmatImportJobService;
+
     /**
      * Endpoint de diagnostic pour l'import LOCMAT
      */
@@ -68,6 +73,9 @@ public class LocmatImportController {
             response.put("message", result.getSummary());
             response.put("equipmentCount", result.getSuccessCount());
             response.put("errorCount", result.getErrors().size());
+            response.put("processedRows", result.getProcessedRows());
+            response.put("durationMs", result.getDurationMs());
+            response.put("rowsPerSecond", result.getRowsPerSecond());
 
             if (result.hasErrors()) {
                 response.put("errors", result.getErrors());
@@ -92,6 +100,92 @@ public class LocmatImportController {
         }
     }
 
+    /**
+     * Endpoint pour lancer un import en arrière-plan : retourne immédiatement l'identifiant du job
+     */
+    @PostMapping("/import/jobs")
+    public ResponseEntity<Map<String, Object>> submitImportJob(
+            @RequestParam("file") MultipartFile file) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (file.isEmpty()) {
+            response.put("success", false);
+            response.put("message", "Le fichier est vide");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        if (!isValidImportFile(file)) {
+            response.put("success", false);
+            response.put("message", "Le fichier doit être au format Excel (.xlsx) ou CSV (.csv)");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            LocmatImportJobService.ImportJob job = locmatImportJobService.submit(file);
+            response = toJobResponse(job);
+            response.put("success", true);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (IOException e) {
+            response.put("success", false);
+            response.put("message", "Erreur lors de la lecture du fichier: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Endpoint listant les jobs d'import (visibles depuis tous les onglets/clients)
+     */
+    @GetMapping("/import/jobs")
+    public ResponseEntity<List<Map<String, Object>>> getImportJobs() {
+        return ResponseEntity.ok(locmatImportJobService.getJobs().stream()
+                .map(this::toJobResponse)
+                .toList());
+    }
+
+    /**
+     * Endpoint de suivi de progression d'un job d'import
+     */
+    @GetMapping("/import/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImportJob(@PathVariable String jobId) {
+        return locmatImportJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(toJobResponse(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint d'annulation d'un job d'import
+     */
+    @PostMapping("/import/jobs/{jobId}/cancel")
+    public ResponseEntity<Map<String, Object>> cancelImportJob(@PathVariable String jobId) {
+        return locmatImportJobService.cancel(jobId)
+                .map(job -> ResponseEntity.ok(toJobResponse(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Endpoint retournant le résultat final d'un job (202 tant que l'import est en cours)
+     */
+    @GetMapping("/import/jobs/{jobId}/result")
+    public ResponseEntity<Map<String, Object>> getImportJobResult(@PathVariable String jobId) {
+        return locmatImportJobService.getJob(jobId)
+                .map(job -> {
+                    Map<String, Object> response = toJobResponse(job);
+                    if (!job.isFinished()) {
+                        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+                    }
+                    LocmatImportService.ImportResult result = job.getResult();
+                    response.put("success", job.getStatus() != LocmatImportJobService.JobStatus.FAILED);
+                    response.put("message", job.getFailureMessage() != null
+                            ? job.getFailureMessage()
+                            : result.getSummary());
+                    response.put("errors", result.getErrors());
+                    return ResponseEntity.ok(response);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Endpoint pour obtenir des statistiques sur les imports LOCMAT
      */
@@ -143,11 +237,12 @@ public class LocmatImportController {
     }
 
     /**
-     * Endpoint pour valider un fichier LOCMAT sans l'importer
+     * Endpoint pour valider un fichier LOCMAT sans l'importer (maxRows > 0 : validation sur échantillon)
      */
     @PostMapping("/import/validate")
     public ResponseEntity<Map<String, Object>> validateLocmatFile(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "maxRows", defaultValue = "0") int maxRows) {
 
         Map<String, Object> response = new HashMap<>();
 
@@ -166,7 +261,7 @@ public class LocmatImportController {
             }
 
             // Validation du contenu
-            LocmatImportService.ValidationResult validation = locmatImportService.validateFile(file);
+            LocmatImportService.ValidationResult validation = locmatImportService.validateFile(file, maxRows);
 
             response.put("valid", validation.isValid());
             response.put("message", validation.getMessage());
@@ -260,6 +355,29 @@ public class LocmatImportController {
         return importLocmatData(file);
     }
 
+    /**
+     * Construire la réponse de suivi d'un job d'import
+     */
+    private Map<String, Object> toJobResponse(LocmatImportJobService.ImportJob job) {
+        LocmatImportService.ImportResult result = job.getResult();
+        Map<String, Object> response = new HashMap<>();
+        response.put("jobId", job.getId());
+        response.put("filename", job.getFilename());
+        response.put("fileSize", job.getFileSize());
+        response.put("status", job.getStatus());
+        response.put("submittedAt", job.getSubmittedAt());
+        response.put("startedAt", job.getStartedAt());
+        response.put("finishedAt", job.getFinishedAt());
+        response.put("processedRows", result.getProcessedRows());
+        response.put("totalRows", result.getTotalRows());
+        response.put("progressPercent", job.getProgressPercent());
+        response.put("equipmentCount", result.getSuccessCount());
+        response.put("errorCount", result.getErrorCount());
+        response.put("rowsPerSecond", result.getRowsPerSecond());
+        response.put("durationMs", result.getDurationMs());
+        return response;
+    }
+
     /**
      * Vérifier si le fichier est au format Excel
      */
@@ -5,6 +5,7 @@ import com.magscene.magsav.backend.entity.Personnel;
 import com.magscene.magsav.backend.entity.Vehicle;
 import com.magscene.magsav.backend.repository.PersonnelRepository;
 import com.magscene.magsav.backend.repository.VehicleRepository;
+import com.magscene.magsav.backend.service.PlanningIndexService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,6 +13,8 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -32,6 +35,9 @@ public class PlanningController {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private PlanningIndexService planningIndexService;
+
     /**
      * Obtenir la vue complète du planning pour une période donnée
      */
@@ -117,56 +123,53 @@ public class PlanningController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
 
-        List<Map<String, Object>> conflicts = new ArrayList<>();
+        // Chevauchements de toutes les réservations d'une même ressource (index en mémoire)
+        List<PlanningIndexService.Conflict> found = planningIndexService.conflicts(startDate, endDate);
+        Map<PlanningIndexService.ResourceKey, String> names = resourceNames(found.stream()
+                .map(PlanningIndexService.Conflict::resource)
+                .collect(Collectors.toSet()));
 
-        // Récupérer tous les événements
-        List<PlanningEventDTO> events = new ArrayList<>();
-        events.addAll(getPersonnelEvents(startDate, endDate));
-        events.addAll(getVehicleEvents(startDate, endDate));
-
-        // Grouper par ressource
-        Map<String, List<PlanningEventDTO>> eventsByResource = events.stream()
-                .collect(Collectors.groupingBy(e -> e.getResourceType() + "_" + e.getResourceId()));
-
-        // Détecter chevauchements
-        for (Map.Entry<String, List<PlanningEventDTO>> entry : eventsByResource.entrySet()) {
-            List<PlanningEventDTO> resourceEvents = entry.getValue();
-            if (resourceEvents.size() > 1) {
-                resourceEvents.sort(Comparator.comparing(PlanningEventDTO::getStartDate));
-
-                for (int i = 0; i < resourceEvents.size() - 1; i++) {
-                    PlanningEventDTO current = resourceEvents.get(i);
-                    PlanningEventDTO next = resourceEvents.get(i + 1);
-
-                    if (current.getEndDate().isAfter(next.getStartDate())) {
-                        Map<String, Object> conflict = new HashMap<>();
-                        conflict.put("resourceType", current.getResourceType());
-                        conflict.put("resourceId", current.getResourceId());
-                        conflict.put("resourceName", current.getResourceName());
-
-                        Map<String, Object> event1 = new HashMap<>();
-                        event1.put("title", current.getTitle());
-                        event1.put("start", current.getStartDate());
-                        event1.put("end", current.getEndDate());
-                        conflict.put("event1", event1);
-
-                        Map<String, Object> event2 = new HashMap<>();
-                        event2.put("title", next.getTitle());
-                        event2.put("start", next.getStartDate());
-                        event2.put("end", next.getEndDate());
-                        conflict.put("event2", event2);
-
-                        conflict.put("overlapMinutes",
-                                java.time.Duration.between(next.getStartDate(), current.getEndDate()).toMinutes());
-                        conflicts.add(conflict);
-                    }
-                }
-            }
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+        for (PlanningIndexService.Conflict c : found) {
+            Map<String, Object> conflict = new HashMap<>();
+            conflict.put("resourceType", c.resource().type());
+            conflict.put("resourceId", c.resource().id());
+            conflict.put("resourceName", names.getOrDefault(c.resource(), ""));
+            conflict.put("event1", bookingToMap(c.first()));
+            conflict.put("event2", bookingToMap(c.second()));
+            conflict.put("overlapStart", c.overlapStart());
+            conflict.put("overlapEnd", c.overlapEnd());
+            conflict.put("overlapMinutes", c.overlapMinutes());
+            conflicts.add(conflict);
         }
 
         return ResponseEntity.ok(conflicts);
     }
 
+    /**
+     * Vérifier si une ressource est libre sur une période
+     */
+    @GetMapping("/{resourceType}/{resourceId}/free")
+    @Operation(summary = "Disponibilité d'une ressource", description = "Indique si la ressource (PERSONNEL ou VEHICLE) est libre sur la période et liste ses réservations")
+    public ResponseEntity<Map<String, Object>> isResourceFree(
+            @PathVariable String resourceType,
+            @PathVariable Long resourceId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        PlanningIndexService.ResourceKey resource = new PlanningIndexService.ResourceKey(
+                resourceType.toUpperCase(Locale.ROOT), resourceId);
+        List<PlanningIndexService.Booking> bookings = planningIndexService.bookings(resource, startDate, endDate);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("resourceType", resource.type());
+        result.put("resourceId", resourceId);
+        result.put("free", bookings.isEmpty());
+        result.put("bookings", bookings.stream().map(this::bookingToMap).collect(Collectors.toList()));
+        result.put("period", Map.of("start", startDate, "end", endDate));
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Vue planning pour une ressource spécifique
      */
@@ -265,30 +268,90 @@ public class PlanningController {
      * Rechercher des créneaux disponibles
      */
     @GetMapping("/find-slot")
-    @Operation(summary = "Trouver créneaux libres", description = "Cherche des créneaux où toutes les ressources demandées sont disponibles")
+    @Operation(summary = "Trouver créneaux libres", description = "Cherche les premiers créneaux de la durée demandée où une équipe complète (spécialités requises, véhicule de charge utile suffisante) est libre")
     public ResponseEntity<List<Map<String, Object>>> findAvailableSlots(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false) Integer personnelCount,
             @RequestParam(required = false) Integer vehicleCount,
-            @RequestParam(required = false) Integer durationHours) {
+            @RequestParam(required = false) Integer durationHours,
+            @RequestParam(required = false) List<String> specialties,
+            @RequestParam(required = false) BigDecimal minPayload,
+            @RequestParam(defaultValue = "5") int maxResults) {
+
+        // Sans durée, le créneau recherché couvre toute la période
+        Duration duration = durationHours != null ? Duration.ofHours(durationHours)
+                : Duration.between(startDate, endDate);
+        List<String> requiredSpecialties = specialties != null ? specialties : List.of();
+        int vehicles = vehicleCount != null ? vehicleCount : (minPayload != null ? 1 : 0);
+
+        // Un poste par spécialité demandée, puis des postes sans spécialité jusqu'à personnelCount
+        List<Personnel> activePersonnel = personnelRepository.findByStatus(Personnel.PersonnelStatus.ACTIVE);
+        List<List<PlanningIndexService.ResourceKey>> roles = new ArrayList<>();
+        List<String> roleLabels = new ArrayList<>();
+        for (String specialty : requiredSpecialties) {
+            roles.add(activePersonnel.stream()
+                    .filter(p -> hasSpecialty(p, specialty))
+                    .map(p -> new PlanningIndexService.ResourceKey(PlanningIndexService.PERSONNEL, p.getId()))
+                    .collect(Collectors.toList()));
+            roleLabels.add(specialty);
+        }
+        int extraPersonnel = (personnelCount != null ? personnelCount : 0) - requiredSpecialties.size();
+        List<PlanningIndexService.ResourceKey> anyPersonnel = activePersonnel.stream()
+                .map(p -> new PlanningIndexService.ResourceKey(PlanningIndexService.PERSONNEL, p.getId()))
+                .collect(Collectors.toList());
+        for (int i = 0; i < extraPersonnel; i++) {
+            roles.add(anyPersonnel);
+            roleLabels.add(null);
+        }
+        List<PlanningIndexService.ResourceKey> suitableVehicles = vehicleRepository.findAll().stream()
+                .filter(v -> v.getStatus() != Vehicle.VehicleStatus.OUT_OF_ORDER)
+                .filter(v -> minPayload == null
+                        || (v.getMaxPayload() != null && v.getMaxPayload().compareTo(minPayload) >= 0))
+                .map(v -> new PlanningIndexService.ResourceKey(PlanningIndexService.VEHICLE, v.getId()))
+                .collect(Collectors.toList());
+        for (int i = 0; i < vehicles; i++) {
+            roles.add(suitableVehicles);
+            roleLabels.add(null);
+        }
 
-        List<Map<String, Object>> slots = new ArrayList<>();
+        // Un poste sans aucun candidat : aucun créneau possible
+        if (roles.stream().anyMatch(List::isEmpty)) {
+            return ResponseEntity.ok(List.of());
+        }
 
-        // Récupérer disponibilités
-        List<Personnel> availablePersonnel = personnelRepository.findByStatus(Personnel.PersonnelStatus.ACTIVE);
-        List<Vehicle> availableVehicles = vehicleRepository.findByStatus(Vehicle.VehicleStatus.AVAILABLE);
+        List<PlanningIndexService.SlotProposal> proposals = planningIndexService.findSlots(roles, startDate, endDate,
+                duration, maxResults);
+        Map<PlanningIndexService.ResourceKey, String> names = resourceNames(proposals.stream()
+                .flatMap(p -> p.team().stream())
+                .collect(Collectors.toSet()));
 
-        boolean personnelOk = personnelCount == null || availablePersonnel.size() >= personnelCount;
-        boolean vehiclesOk = vehicleCount == null || availableVehicles.size() >= vehicleCount;
+        List<Map<String, Object>> slots = new ArrayList<>();
+        for (PlanningIndexService.SlotProposal proposal : proposals) {
+            List<Map<String, Object>> personnel = new ArrayList<>();
+            List<Map<String, Object>> vehicleList = new ArrayList<>();
+            for (int i = 0; i < proposal.team().size(); i++) {
+                PlanningIndexService.ResourceKey resource = proposal.team().get(i);
+                Map<String, Object> member = new HashMap<>();
+                member.put("id", resource.id());
+                member.put("name", names.getOrDefault(resource, ""));
+                if (PlanningIndexService.PERSONNEL.equals(resource.type())) {
+                    member.put("specialty", roleLabels.get(i) != null ? roleLabels.get(i) : "");
+                    personnel.add(member);
+                } else {
+                    vehicleList.add(member);
+                }
+            }
 
-        if (personnelOk && vehiclesOk) {
-            slots.add(Map.of(
-                    "startDate", startDate,
-                    "endDate", endDate,
-                    "availablePersonnel", availablePersonnel.size(),
-                    "availableVehicles", availableVehicles.size(),
-                    "suitable", true));
+            Map<String, Object> slot = new HashMap<>();
+            slot.put("rank", slots.size() + 1);
+            slot.put("startDate", proposal.start());
+            slot.put("endDate", proposal.end());
+            slot.put("personnel", personnel);
+            slot.put("vehicles", vehicleList);
+            slot.put("spareResources", proposal.spare());
+            slot.put("suitable", true);
+            slots.add(slot);
         }
 
         return ResponseEntity.ok(slots);
@@ -296,6 +359,56 @@ public class PlanningController {
 
     // --- Méthodes utilitaires privées ---
 
+    private Map<String, Object> bookingToMap(PlanningIndexService.Booking booking) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("source", booking.source());
+        map.put("sourceId", booking.sourceId());
+        map.put("title", booking.title());
+        map.put("start", booking.start());
+        map.put("end", booking.end());
+        return map;
+    }
+
+    // Noms des ressources en deux requêtes (personnel, véhicules), quel que soit le nombre de conflits
+    private Map<PlanningIndexService.ResourceKey, String> resourceNames(Set<PlanningIndexService.ResourceKey> resources) {
+        Map<PlanningIndexService.ResourceKey, String> names = new HashMap<>();
+        Set<Long> personnelIds = idsOfType(resources, PlanningIndexService.PERSONNEL);
+        if (!personnelIds.isEmpty()) {
+            for (Personnel p : personnelRepository.findAllById(personnelIds)) {
+                names.put(new PlanningIndexService.ResourceKey(PlanningIndexService.PERSONNEL, p.getId()),
+                        p.getFirstName() + " " + p.getLastName());
+            }
+        }
+        Set<Long> vehicleIds = idsOfType(resources, PlanningIndexService.VEHICLE);
+        if (!vehicleIds.isEmpty()) {
+            for (Vehicle v : vehicleRepository.findAllById(vehicleIds)) {
+                names.put(new PlanningIndexService.ResourceKey(PlanningIndexService.VEHICLE, v.getId()),
+                        v.getLicensePlate() + " - " + v.getType().getDisplayName());
+            }
+        }
+        return names;
+    }
+
+    // Spécialités stockées en texte séparé par des virgules
+    private static boolean hasSpecialty(Personnel personnel, String specialty) {
+        if (personnel.getSpecialties() == null) {
+            return false;
+        }
+        for (String value : personnel.getSpecialties().split(",")) {
+            if (value.trim().equalsIgnoreCase(specialty.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<Long> idsOfType(Set<PlanningIndexService.ResourceKey> resources, String type) {
+        return resources.stream()
+                .filter(r -> type.equals(r.type()))
+                .map(PlanningIndexService.ResourceKey::id)
+                .collect(Collectors.toSet());
+    }
+
     private List<PlanningEventDTO> getPersonnelEvents(LocalDateTime startDate, LocalDateTime endDate) {
         List<PlanningEventDTO> events = new ArrayList<>();
 
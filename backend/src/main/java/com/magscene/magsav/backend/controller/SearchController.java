@@ -0,0 +1,64 @@
+package com.magscene.magsav.backend.controller;
+
+import com.magscene.magsav.backend.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche unifiée (équipements, catalogue fournisseurs, SAV) sur l'index plein texte
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:3001", "http://localhost:8080" })
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * Recherche classée, tolérante aux accents, préfixes et fautes de frappe
+     * GET /api/search?q=micro%20shure&types=equipment,sav&limit=20
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(@RequestParam("q") String query,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "20") int limit) {
+        long start = System.nanoTime();
+        try {
+            SearchIndexService.SearchResult result = searchIndexService.search(query, types,
+                    Math.max(1, Math.min(limit, MAX_LIMIT)));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("query", query);
+            response.put("results", result.hits());
+            response.put("total", result.total());
+            response.put("totalIsLowerBound", result.totalIsLowerBound());
+            response.put("indexing", searchIndexService.isRebuilding());
+            response.put("tookMs", (System.nanoTime() - start) / 1_000_000);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    /**
+     * Reconstruire tout l'index en arrière-plan
+     * POST /api/search/reindex
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<Map<String, Object>> reindex() {
+        searchIndexService.rebuildInBackground();
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Reconstruction de l'index de recherche lancée");
+        return ResponseEntity.accepted().body(response);
+    }
+}
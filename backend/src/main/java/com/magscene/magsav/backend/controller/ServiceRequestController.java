@@ -49,37 +49,8 @@ public class ServiceRequestController {
      */
     @GetMapping
     public List<ServiceRequestDTO> getAllServiceRequests() {
-        List<ServiceRequest> requests = serviceRequestRepository.findAllWithEquipment();
-        return requests.stream().map(sr -> {
-            ServiceRequestDTO dto = new ServiceRequestDTO();
-            dto.id = sr.getId();
-            dto.title = sr.getTitle();
-            dto.description = sr.getDescription();
-            dto.priority = sr.getPriority() != null ? sr.getPriority().name() : null;
-            dto.status = sr.getStatus() != null ? sr.getStatus().name() : null;
-            dto.type = sr.getType() != null ? sr.getType().name() : null;
-            dto.requesterName = sr.getRequesterName();
-            dto.requesterEmail = sr.getRequesterEmail();
-            dto.assignedTechnician = sr.getAssignedTechnician();
-            dto.estimatedCost = sr.getEstimatedCost();
-            dto.actualCost = sr.getActualCost();
-            dto.resolutionNotes = sr.getResolutionNotes();
-            dto.createdAt = sr.getCreatedAt();
-            dto.updatedAt = sr.getUpdatedAt();
-            dto.resolvedAt = sr.getResolvedAt();
-            if (sr.getEquipment() != null) {
-                ServiceRequestDTO.EquipmentDTO eqDto = new ServiceRequestDTO.EquipmentDTO();
-                eqDto.id = sr.getEquipment().getId();
-                eqDto.name = sr.getEquipment().getName();
-                eqDto.brand = sr.getEquipment().getBrand();
-                eqDto.category = sr.getEquipment().getCategory();
-                eqDto.serialNumber = sr.getEquipment().getSerialNumber();
-                eqDto.locmatCode = sr.getEquipment().getInternalReference();
-                eqDto.model = sr.getEquipment().getModel();
-                dto.equipment = eqDto;
-            }
-            return dto;
-        }).toList();
+        // Projection JPQL : ni entité managée ni chargement complet de l'équipement lié
+        return serviceRequestRepository.findAllAsDto();
     }
 
     /**
@@ -90,33 +61,7 @@ public class ServiceRequestController {
     public ResponseEntity<ServiceRequestDTO> getServiceRequestById(@PathVariable Long id) {
         Optional<ServiceRequest> request = serviceRequestRepository.findById(id);
         return request.map(sr -> {
-            ServiceRequestDTO dto = new ServiceRequestDTO();
-            dto.id = sr.getId();
-            dto.title = sr.getTitle();
-            dto.description = sr.getDescription();
-            dto.priority = sr.getPriority() != null ? sr.getPriority().name() : null;
-            dto.status = sr.getStatus() != null ? sr.getStatus().name() : null;
-            dto.type = sr.getType() != null ? sr.getType().name() : null;
-            dto.requesterName = sr.getRequesterName();
-            dto.requesterEmail = sr.getRequesterEmail();
-            dto.assignedTechnician = sr.getAssignedTechnician();
-            dto.estimatedCost = sr.getEstimatedCost();
-            dto.actualCost = sr.getActualCost();
-            dto.resolutionNotes = sr.getResolutionNotes();
-            dto.createdAt = sr.getCreatedAt();
-            dto.updatedAt = sr.getUpdatedAt();
-            dto.resolvedAt = sr.getResolvedAt();
-            if (sr.getEquipment() != null) {
-                ServiceRequestDTO.EquipmentDTO eqDto = new ServiceRequestDTO.EquipmentDTO();
-                eqDto.id = sr.getEquipment().getId();
-                eqDto.name = sr.getEquipment().getName();
-                eqDto.brand = sr.getEquipment().getBrand();
-                eqDto.category = sr.getEquipment().getCategory();
-                eqDto.serialNumber = sr.getEquipment().getSerialNumber();
-                eqDto.locmatCode = sr.getEquipment().getInternalReference();
-                eqDto.model = sr.getEquipment().getModel();
-                dto.equipment = eqDto;
-            }
+            ServiceRequestDTO dto = new ServiceRequestDTO(sr);
             return ResponseEntity.ok(dto);
         }).orElse(ResponseEntity.notFound().build());
     }
@@ -151,33 +96,7 @@ public class ServiceRequestController {
         }
         logger.info("[SAV] ServiceRequest sauvegardé: id={}, equipment={}", savedRequest.getId(),
                 savedRequest.getEquipment());
-        ServiceRequestDTO dto = new ServiceRequestDTO();
-        dto.id = savedRequest.getId();
-        dto.title = savedRequest.getTitle();
-        dto.description = savedRequest.getDescription();
-        dto.priority = savedRequest.getPriority() != null ? savedRequest.getPriority().name() : null;
-        dto.status = savedRequest.getStatus() != null ? savedRequest.getStatus().name() : null;
-        dto.type = savedRequest.getType() != null ? savedRequest.getType().name() : null;
-        dto.requesterName = savedRequest.getRequesterName();
-        dto.requesterEmail = savedRequest.getRequesterEmail();
-        dto.assignedTechnician = savedRequest.getAssignedTechnician();
-        dto.estimatedCost = savedRequest.getEstimatedCost();
-        dto.actualCost = savedRequest.getActualCost();
-        dto.resolutionNotes = savedRequest.getResolutionNotes();
-        dto.createdAt = savedRequest.getCreatedAt();
-        dto.updatedAt = savedRequest.getUpdatedAt();
-        dto.resolvedAt = savedRequest.getResolvedAt();
-        if (savedRequest.getEquipment() != null) {
-            ServiceRequestDTO.EquipmentDTO eqDto = new ServiceRequestDTO.EquipmentDTO();
-            eqDto.id = savedRequest.getEquipment().getId();
-            eqDto.name = savedRequest.getEquipment().getName();
-            eqDto.brand = savedRequest.getEquipment().getBrand();
-            eqDto.category = savedRequest.getEquipment().getCategory();
-            eqDto.serialNumber = savedRequest.getEquipment().getSerialNumber();
-            eqDto.locmatCode = savedRequest.getEquipment().getInternalReference();
-            eqDto.model = savedRequest.getEquipment().getModel();
-            dto.equipment = eqDto;
-        }
+        ServiceRequestDTO dto = new ServiceRequestDTO(savedRequest);
         return ResponseEntity.ok(dto);
     }
 
@@ -228,33 +147,7 @@ public class ServiceRequestController {
                     }
 
                     ServiceRequest saved = serviceRequestRepository.save(existingRequest);
-                    ServiceRequestDTO dto = new ServiceRequestDTO();
-                    dto.id = saved.getId();
-                    dto.title = saved.getTitle();
-                    dto.description = saved.getDescription();
-                    dto.priority = saved.getPriority() != null ? saved.getPriority().name() : null;
-                    dto.status = saved.getStatus() != null ? saved.getStatus().name() : null;
-                    dto.type = saved.getType() != null ? saved.getType().name() : null;
-                    dto.requesterName = saved.getRequesterName();
-                    dto.requesterEmail = saved.getRequesterEmail();
-                    dto.assignedTechnician = saved.getAssignedTechnician();
-                    dto.estimatedCost = saved.getEstimatedCost();
-                    dto.actualCost = saved.getActualCost();
-                    dto.resolutionNotes = saved.getResolutionNotes();
-                    dto.createdAt = saved.getCreatedAt();
-                    dto.updatedAt = saved.getUpdatedAt();
-                    dto.resolvedAt = saved.getResolvedAt();
-                    if (saved.getEquipment() != null) {
-                        ServiceRequestDTO.EquipmentDTO eqDto = new ServiceRequestDTO.EquipmentDTO();
-                        eqDto.id = saved.getEquipment().getId();
-                        eqDto.name = saved.getEquipment().getName();
-                        eqDto.brand = saved.getEquipment().getBrand();
-                        eqDto.category = saved.getEquipment().getCategory();
-                        eqDto.serialNumber = saved.getEquipment().getSerialNumber();
-                        eqDto.locmatCode = saved.getEquipment().getInternalReference();
-                        eqDto.model = saved.getEquipment().getModel();
-                        dto.equipment = eqDto;
-                    }
+                    ServiceRequestDTO dto = new ServiceRequestDTO(saved);
                     return ResponseEntity.ok(dto);
                 })
                 .orElse(ResponseEntity.notFound().build());
@@ -10,7 +10,9 @@ import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -136,13 +138,32 @@ public class SupplierController {
                                                         @RequestParam String name,
                                                         @RequestParam MultipartFile file) {
         try {
+            // Import lancé en arrière-plan : suivre importStatus / importLog du catalogue
             SupplierCatalog catalog = supplierService.importCatalog(id, name, file);
-            return ResponseEntity.status(HttpStatus.CREATED).body(catalog);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(catalog);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
     
+    @GetMapping("/catalogs/{catalogId}/import-status")
+    public ResponseEntity<Map<String, Object>> getCatalogImportStatus(@PathVariable Long catalogId) {
+        return supplierService.findCatalogById(catalogId)
+            .map(catalog -> {
+                Map<String, Object> status = new HashMap<>();
+                status.put("catalogId", catalog.getId());
+                status.put("importStatus", catalog.getImportStatus());
+                status.put("itemsCount", catalog.getItemsCount());
+                status.put("importLog", catalog.getImportLog());
+                status.put("fileName", catalog.getFileName());
+                status.put("updatedAt", catalog.getUpdatedAt());
+                return ResponseEntity.ok(status);
+            })
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
     @DeleteMapping("/catalogs/{catalogId}")
     public ResponseEntity<Void> deleteCatalog(@PathVariable Long catalogId) {
         supplierService.deleteCatalog(catalogId);
@@ -165,6 +186,17 @@ public class SupplierController {
         return ResponseEntity.ok(items);
     }
     
+    @GetMapping("/catalog/filter")
+    public ResponseEntity<List<CatalogItem>> filterCatalogItems(
+            @RequestParam(required = false) List<Long> supplierIds,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice) {
+        List<CatalogItem> items = supplierService.filterCatalogItems(supplierIds, category, brand, minPrice, maxPrice);
+        return ResponseEntity.ok(items);
+    }
+    
     @GetMapping("/{id}/catalog-items")
     public ResponseEntity<List<CatalogItem>> getSupplierCatalogItems(@PathVariable Long id) {
         List<CatalogItem> items = supplierService.findItemsBySupplier(id);
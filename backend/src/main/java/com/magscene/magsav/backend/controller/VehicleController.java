@@ -1,7 +1,10 @@
 package com.magscene.magsav.backend.controller;
 
 import com.magscene.magsav.backend.entity.Vehicle;
+import com.magscene.magsav.backend.entity.VehicleReservation;
+import com.magscene.magsav.backend.exception.MagsavBusinessException;
 import com.magscene.magsav.backend.repository.VehicleRepository;
+import com.magscene.magsav.backend.service.VehicleReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,6 +15,8 @@ import jakarta.persistence.PersistenceContext;
 import jakarta.validation.Valid;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -28,6 +33,9 @@ public class VehicleController {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private VehicleReservationService reservationService;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -147,6 +155,7 @@ public class VehicleController {
             return ResponseEntity.notFound().build();
         }
 
+        reservationService.deleteForVehicle(id);
         vehicleRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
@@ -356,6 +365,7 @@ public class VehicleController {
         Map<String, Object> result = new HashMap<>();
         try {
             long count = vehicleRepository.count();
+            reservationService.deleteAll();
             vehicleRepository.deleteAll();
             result.put("success", true);
             result.put("deleted", count);
@@ -460,15 +470,26 @@ public class VehicleController {
             }
 
             Vehicle vehicle = vehicleOpt.get();
+            LocalDateTime start = parseDateTime(startDate, false);
+            LocalDateTime end = parseDateTime(endDate, true);
+            if (start == null || end == null || !end.isAfter(start)) {
+                throw MagsavBusinessException.Factory.invalidDateRange(startDate, endDate);
+            }
+
+            // Disponible si aucune réservation confirmée ne recoupe la période
+            List<VehicleReservation> conflicts = reservationService.findOverlapping(id, start, end);
             Map<String, Object> result = new HashMap<>();
             result.put("vehicleId", id);
             result.put("vehicleName", vehicle.getName());
-            result.put("available", vehicle.getStatus() == Vehicle.VehicleStatus.AVAILABLE);
+            result.put("available", conflicts.isEmpty() && vehicle.getStatus() != Vehicle.VehicleStatus.OUT_OF_ORDER);
             result.put("status", vehicle.getStatus().name());
             result.put("startDate", startDate);
             result.put("endDate", endDate);
+            result.put("conflicts", conflicts.stream().map(this::reservationToMap).toList());
 
             return ResponseEntity.ok(result);
+        } catch (MagsavBusinessException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -482,31 +503,30 @@ public class VehicleController {
             @PathVariable Long id,
             @RequestBody Map<String, Object> reservationData) {
         try {
-            Optional<Vehicle> vehicleOpt = vehicleRepository.findById(id);
-            if (vehicleOpt.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Vehicle vehicle = vehicleOpt.get();
-            if (vehicle.getStatus() != Vehicle.VehicleStatus.AVAILABLE) {
-                Map<String, Object> error = new HashMap<>();
-                error.put("success", false);
-                error.put("message", "Véhicule non disponible");
-                return ResponseEntity.badRequest().body(error);
-            }
-
-            vehicle.setStatus(Vehicle.VehicleStatus.IN_USE);
-            vehicleRepository.save(vehicle);
+            // Sans date de début, la réservation commence maintenant
+            Object startValue = reservationData.get("startDate");
+            LocalDateTime start = startValue != null ? parseDateTime(startValue.toString(), false) : LocalDateTime.now();
+            Object endValue = reservationData.get("endDate");
+            LocalDateTime end = endValue != null ? parseDateTime(endValue.toString(), true) : null;
+            String reservedBy = reservationData.get("reservedBy") != null
+                    ? reservationData.get("reservedBy").toString() : null;
+            String purpose = reservationData.get("purpose") != null ? reservationData.get("purpose").toString() : null;
+
+            // Verrou de la ligne du véhicule + contrôle des chevauchements (409 si déjà réservé)
+            VehicleReservation reservation = reservationService.reserve(id, start, end, reservedBy, purpose);
 
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
             result.put("vehicleId", id);
-            result.put("vehicleName", vehicle.getName());
-            result.put("reservedBy", reservationData.get("reservedBy"));
-            result.put("startDate", reservationData.get("startDate"));
-            result.put("endDate", reservationData.get("endDate"));
+            result.put("vehicleName", reservation.getVehicle().getName());
+            result.put("reservationId", reservation.getId());
+            result.put("reservedBy", reservedBy);
+            result.put("startDate", reservation.getStartDate());
+            result.put("endDate", reservation.getEndDate());
 
             return ResponseEntity.ok(result);
+        } catch (MagsavBusinessException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -518,14 +538,12 @@ public class VehicleController {
     @PostMapping("/{id}/release")
     public ResponseEntity<Map<String, Object>> releaseVehicle(@PathVariable Long id) {
         try {
-            Optional<Vehicle> vehicleOpt = vehicleRepository.findById(id);
-            if (vehicleOpt.isEmpty()) {
+            if (!vehicleRepository.existsById(id)) {
                 return ResponseEntity.notFound().build();
             }
 
-            Vehicle vehicle = vehicleOpt.get();
-            vehicle.setStatus(Vehicle.VehicleStatus.AVAILABLE);
-            vehicleRepository.save(vehicle);
+            // La réservation en cours se termine maintenant
+            Vehicle vehicle = reservationService.release(id);
 
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
@@ -555,7 +573,8 @@ public class VehicleController {
             planning.put("vehicleId", id);
             planning.put("vehicleName", vehicle.getName());
             planning.put("currentStatus", vehicle.getStatus().name());
-            planning.put("reservations", List.of()); // TODO: implémenter réservations
+            planning.put("reservations",
+                    reservationService.findUpcoming(id).stream().map(this::reservationToMap).toList());
             planning.put("maintenance", List.of()); // TODO: implémenter maintenances
 
             return ResponseEntity.ok(planning);
@@ -564,6 +583,27 @@ public class VehicleController {
         }
     }
 
+    /**
+     * Réservations en cours et à venir d'un véhicule
+     */
+    @GetMapping("/{id}/reservations")
+    public ResponseEntity<List<Map<String, Object>>> getReservations(@PathVariable Long id) {
+        if (!vehicleRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(reservationService.findUpcoming(id).stream().map(this::reservationToMap).toList());
+    }
+
+    /**
+     * Annuler une réservation
+     */
+    @DeleteMapping("/{id}/reservations/{reservationId}")
+    public ResponseEntity<Map<String, Object>> cancelReservation(@PathVariable Long id,
+            @PathVariable Long reservationId) {
+        VehicleReservation reservation = reservationService.cancel(id, reservationId);
+        return ResponseEntity.ok(reservationToMap(reservation));
+    }
+
     /**
      * Enregistrer un entretien
      */
@@ -598,4 +638,35 @@ public class VehicleController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    private Map<String, Object> reservationToMap(VehicleReservation reservation) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", reservation.getId());
+        map.put("startDate", reservation.getStartDate());
+        map.put("endDate", reservation.getEndDate());
+        map.put("reservedBy", reservation.getReservedBy());
+        map.put("purpose", reservation.getPurpose());
+        map.put("status", reservation.getStatus().name());
+        return map;
+    }
+
+    /**
+     * Date ISO avec ou sans heure ; une date seule vaut le début du jour, ou le début du
+     * lendemain pour une fin de période (le dernier jour est inclus)
+     */
+    private static LocalDateTime parseDateTime(String value, boolean endOfPeriod) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            if (trimmed.length() == 10) {
+                LocalDate date = LocalDate.parse(trimmed);
+                return endOfPeriod ? date.plusDays(1).atStartOfDay() : date.atStartOfDay();
+            }
+            return LocalDateTime.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            throw new MagsavBusinessException("INVALID_DATE", "Date invalide: " + value, HttpStatus.BAD_REQUEST);
+        }
+    }
 }
@@ -70,6 +70,46 @@ public class EquipmentDTO {
         this.photoPath = equipment.getPhotoPath();
     }
 
+    /**
+     * Constructeur de projection (JPQL "SELECT new" / Criteria construct) : les listes lisent
+     * directement les colonnes, sans charger d'entités managées
+     */
+    public EquipmentDTO(Long id, String name, String description, String category, String subCategory,
+            String specificCategory, Integer quantityInStock, Equipment.Status status, String qrCode, String brand,
+            String model, String serialNumber, Double purchasePrice, LocalDateTime purchaseDate,
+            LocalDateTime createdAt, LocalDateTime updatedAt, String location, String notes,
+            String internalReference, Double weight, String dimensions, LocalDateTime warrantyExpiration,
+            String supplier, Double insuranceValue, LocalDateTime lastMaintenanceDate,
+            LocalDateTime nextMaintenanceDate, String photoPath) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.category = category;
+        this.subCategory = subCategory;
+        this.specificCategory = specificCategory;
+        this.quantityInStock = quantityInStock;
+        this.status = status != null ? status.name() : null;
+        this.qrCode = qrCode;
+        this.brand = brand;
+        this.model = model;
+        this.serialNumber = serialNumber;
+        this.purchasePrice = purchasePrice;
+        this.purchaseDate = purchaseDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.location = location;
+        this.notes = notes;
+        this.internalReference = internalReference;
+        this.weight = weight;
+        this.dimensions = dimensions;
+        this.warrantyExpiration = warrantyExpiration;
+        this.supplier = supplier;
+        this.insuranceValue = insuranceValue;
+        this.lastMaintenanceDate = lastMaintenanceDate;
+        this.nextMaintenanceDate = nextMaintenanceDate;
+        this.photoPath = photoPath;
+    }
+
     // Getters et Setters
     public Long getId() {
         return id;
@@ -1,5 +1,8 @@
 package com.magscene.magsav.backend.dto;
 
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+
 import java.time.LocalDateTime;
 
 public class ServiceRequestDTO {
@@ -24,6 +27,65 @@ public class ServiceRequestDTO {
     public ServiceRequestDTO() {
     }
 
+    /**
+     * Copie d'une demande SAV chargée (l'équipement lié est lu s'il est présent)
+     */
+    public ServiceRequestDTO(ServiceRequest request) {
+        this(request.getId(), request.getTitle(), request.getDescription(), request.getPriority(),
+                request.getStatus(), request.getType(), request.getRequesterName(), request.getRequesterEmail(),
+                request.getAssignedTechnician(), request.getEstimatedCost(), request.getActualCost(),
+                request.getResolutionNotes(), request.getCreatedAt(), request.getUpdatedAt(),
+                request.getResolvedAt(), null, null, null, null, null, null, null);
+        Equipment equipment = request.getEquipment();
+        if (equipment != null) {
+            this.equipment = new EquipmentDTO();
+            this.equipment.id = equipment.getId();
+            this.equipment.name = equipment.getName();
+            this.equipment.brand = equipment.getBrand();
+            this.equipment.category = equipment.getCategory();
+            this.equipment.serialNumber = equipment.getSerialNumber();
+            this.equipment.locmatCode = equipment.getInternalReference();
+            this.equipment.model = equipment.getModel();
+        }
+    }
+
+    /**
+     * Constructeur de projection JPQL : demande SAV et résumé de l'équipement lus en une requête
+     */
+    public ServiceRequestDTO(Long id, String title, String description, ServiceRequest.Priority priority,
+            ServiceRequest.ServiceRequestStatus status, ServiceRequest.ServiceRequestType type,
+            String requesterName, String requesterEmail, String assignedTechnician, Double estimatedCost,
+            Double actualCost, String resolutionNotes, LocalDateTime createdAt, LocalDateTime updatedAt,
+            LocalDateTime resolvedAt, Long equipmentId, String equipmentName, String equipmentBrand,
+            String equipmentCategory, String equipmentSerialNumber, String equipmentLocmatCode,
+            String equipmentModel) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority != null ? priority.name() : null;
+        this.status = status != null ? status.name() : null;
+        this.type = type != null ? type.name() : null;
+        this.requesterName = requesterName;
+        this.requesterEmail = requesterEmail;
+        this.assignedTechnician = assignedTechnician;
+        this.estimatedCost = estimatedCost;
+        this.actualCost = actualCost;
+        this.resolutionNotes = resolutionNotes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.resolvedAt = resolvedAt;
+        if (equipmentId != null) {
+            this.equipment = new EquipmentDTO();
+            this.equipment.id = equipmentId;
+            this.equipment.name = equipmentName;
+            this.equipment.brand = equipmentBrand;
+            this.equipment.category = equipmentCategory;
+            this.equipment.serialNumber = equipmentSerialNumber;
+            this.equipment.locmatCode = equipmentLocmatCode;
+            this.equipment.model = equipmentModel;
+        }
+    }
+
     public static class EquipmentDTO {
         public Long id;
         public String name;
@@ -10,12 +10,21 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "equipment")
+// Index sur les colonnes filtrées et triées par la liste paginée
+@Table(name = "equipment", indexes = {
+        @Index(name = "idx_equipment_category", columnList = "category"),
+        @Index(name = "idx_equipment_status", columnList = "status"),
+        @Index(name = "idx_equipment_brand", columnList = "brand"),
+        @Index(name = "idx_equipment_location", columnList = "location"),
+        @Index(name = "idx_equipment_name_id", columnList = "name, id")
+})
 @JsonInclude(Include.NON_NULL)
 public class Equipment {
 
+    // Séquence (et non IDENTITY) pour permettre les inserts JDBC batch lors des imports LOCMAT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "equipment_seq")
+    @SequenceGenerator(name = "equipment_seq", sequenceName = "equipment_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
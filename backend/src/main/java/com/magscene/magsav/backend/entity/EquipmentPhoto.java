@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
  * Entité représentant une photo ou un document associé à un équipement
  */
 @Entity
-@Table(name = "equipment_photos")
+@Table(name = "equipment_photos", indexes = {
+        @Index(name = "idx_equipment_photos_content_hash", columnList = "content_hash")
+})
 public class EquipmentPhoto {
     
     @Id
@@ -32,6 +34,10 @@ public class EquipmentPhoto {
     // Taille du fichier en octets
     private Long fileSize;
     
+    // Empreinte SHA-256 du contenu, partagé par toutes les photos identiques (null : fichier stocké avant la déduplication)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+    
     // Type MIME du fichier
     @Column(length = 100)
     private String mimeType;
@@ -103,6 +109,14 @@ public class EquipmentPhoto {
         this.fileSize = fileSize;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public String getMimeType() {
         return mimeType;
     }
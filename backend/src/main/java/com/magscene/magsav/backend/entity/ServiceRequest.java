@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
  * Entity JPA pour le backend Spring Boot
  */
 @Entity
-@Table(name = "service_request")
+@Table(name = "service_request", indexes = {
+        @Index(name = "idx_service_request_created_at", columnList = "created_at")
+})
 public class ServiceRequest {
 
     // Énumérations internes
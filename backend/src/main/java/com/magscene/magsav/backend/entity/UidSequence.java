@@ -0,0 +1,62 @@
+package com.magscene.magsav.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compteur persistant des UID d'équipement par préfixe (ex: "SON" → SON0001, SON0002...).
+ * Chaque réservation avance {@code nextValue} d'un bloc complet : les numéros du bloc sont
+ * ensuite distribués en mémoire par UidAllocationService.
+ */
+@Entity
+@Table(name = "uid_sequences")
+public class UidSequence {
+
+    @Id
+    @Column(length = 10)
+    private String prefix;
+
+    // Premier numéro non encore réservé
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructeurs
+    public UidSequence() {
+    }
+
+    public UidSequence(String prefix, Long nextValue) {
+        this.prefix = prefix;
+        this.nextValue = nextValue;
+    }
+
+    // Getters et Setters
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public Long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,103 @@
+package com.magscene.magsav.backend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Réservation d'un véhicule sur une période [début, fin[. Deux réservations confirmées d'un
+ * même véhicule ne se chevauchent jamais : VehicleReservationService les crée sous verrou
+ * de la ligne du véhicule après avoir vérifié la période.
+ */
+@Entity
+@Table(name = "vehicle_reservations", indexes = {
+        @Index(name = "idx_vehicle_reservations_vehicle_period", columnList = "vehicle_id, start_date, end_date")
+})
+public class VehicleReservation {
+
+    public enum ReservationStatus {
+        CONFIRMED("Confirmée"),
+        CANCELLED("Annulée");
+
+        private final String displayName;
+
+        ReservationStatus(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() { return displayName; }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "vehicle_id", nullable = false)
+    @JsonIgnore
+    private Vehicle vehicle;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime endDate;
+
+    @Column(name = "reserved_by")
+    private String reservedBy;
+
+    @Column(length = 500)
+    private String purpose;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReservationStatus status = ReservationStatus.CONFIRMED;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Constructeurs
+    public VehicleReservation() {
+    }
+
+    public VehicleReservation(Vehicle vehicle, LocalDateTime startDate, LocalDateTime endDate) {
+        this.vehicle = vehicle;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters et Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Vehicle getVehicle() { return vehicle; }
+    public void setVehicle(Vehicle vehicle) { this.vehicle = vehicle; }
+
+    public Long getVehicleId() { return vehicle != null ? vehicle.getId() : null; }
+
+    public LocalDateTime getStartDate() { return startDate; }
+    public void setStartDate(LocalDateTime startDate) { this.startDate = startDate; }
+
+    public LocalDateTime getEndDate() { return endDate; }
+    public void setEndDate(LocalDateTime endDate) { this.endDate = endDate; }
+
+    public String getReservedBy() { return reservedBy; }
+    public void setReservedBy(String reservedBy) { this.reservedBy = reservedBy; }
+
+    public String getPurpose() { return purpose; }
+    public void setPurpose(String purpose) { this.purpose = purpose; }
+
+    public ReservationStatus getStatus() { return status; }
+    public void setStatus(ReservationStatus status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    /**
+     * Vrai si la réservation couvre l'instant donné
+     */
+    public boolean covers(LocalDateTime instant) {
+        return !startDate.isAfter(instant) && endDate.isAfter(instant);
+    }
+}
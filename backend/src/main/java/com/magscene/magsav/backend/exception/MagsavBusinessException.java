@@ -2,6 +2,7 @@ package com.magscene.magsav.backend.exception;
 
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -111,5 +112,23 @@ public class MagsavBusinessException extends RuntimeException {
                 Map.of("equipmentId", equipmentId, "period", period)
             );
         }
+
+        public static MagsavBusinessException vehicleNotFound(Long id) {
+            return new MagsavBusinessException(
+                "VEHICLE_NOT_FOUND",
+                "Véhicule non trouvé avec l'ID: " + id,
+                HttpStatus.NOT_FOUND,
+                Map.of("vehicleId", id)
+            );
+        }
+
+        public static MagsavBusinessException vehicleNotAvailable(Long vehicleId, String period, List<Long> reservationIds) {
+            return new MagsavBusinessException(
+                "VEHICLE_NOT_AVAILABLE",
+                "Véhicule déjà réservé sur la période demandée",
+                HttpStatus.CONFLICT,
+                Map.of("vehicleId", vehicleId, "period", period, "conflictingReservations", reservationIds)
+            );
+        }
     }
 }
\ No newline at end of file
@@ -3,16 +3,20 @@ package com.magscene.magsav.backend.repository;
 import com.magsav.entities.CatalogItem;
 import com.magsav.entities.SupplierCatalog;
 import com.magsav.entities.Supplier;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour la gestion des articles de catalogue
@@ -20,6 +24,22 @@ import java.util.Optional;
 @Repository
 public interface CatalogItemRepository extends JpaRepository<CatalogItem, Long> {
     
+    // Identifiants de tous les articles (reconstruction de l'index de recherche)
+    @Query("SELECT ci.id FROM CatalogItem ci")
+    List<Long> findAllIds();
+    
+    // Clés d'import d'un catalogue : id, référence, empreinte de ligne, disponibilité
+    @Query("SELECT ci.id, ci.reference, ci.rowHash, ci.available FROM CatalogItem ci WHERE ci.catalog.id = :catalogId")
+    List<Object[]> findImportKeysByCatalogId(@Param("catalogId") Long catalogId);
+    
+    @Query("SELECT COUNT(ci) FROM CatalogItem ci WHERE ci.catalog.id = :catalogId AND ci.available = true")
+    long countAvailableByCatalogId(@Param("catalogId") Long catalogId);
+    
+    // Lecture complète en flux (construction de l'index de requêtes du catalogue)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT ci FROM CatalogItem ci JOIN FETCH ci.catalog c JOIN FETCH c.supplier ORDER BY ci.id")
+    Stream<CatalogItem> streamAllWithSupplier();
+    
     // Recherche par catalogue
     List<CatalogItem> findByCatalog(SupplierCatalog catalog);
     
@@ -106,5 +106,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT c FROM Category c WHERE c.name = :name AND " +
            "(:parent IS NULL AND c.parent IS NULL OR c.parent = :parent)")
     java.util.Optional<Category> findByNameAndParent(@Param("name") String name, @Param("parent") Category parent);
+    
+    // Entrées de l'index des catégories : [id, nom, id du parent]
+    @Query("SELECT c.id, c.name, p.id FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findAllIndexEntries();
 }
 
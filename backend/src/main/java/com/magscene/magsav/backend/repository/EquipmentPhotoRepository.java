@@ -8,6 +8,7 @@ import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface EquipmentPhotoRepository extends JpaRepository<EquipmentPhoto, Long> {
@@ -96,6 +97,13 @@ public interface EquipmentPhotoRepository extends JpaRepository<EquipmentPhoto,
     // RÃƒÂ©cupÃƒÂ©rer une photo par son chemin complet
     Optional<EquipmentPhoto> findByFilePathAndFileName(String filePath, String fileName);
     
+    // Nombre de photos partageant un contenu (compteur de références du blob)
+    long countByContentHash(String contentHash);
+    
+    // Contenus référencés par au moins une photo
+    @Query("SELECT DISTINCT ep.contentHash FROM EquipmentPhoto ep WHERE ep.contentHash IS NOT NULL")
+    Set<String> findReferencedContentHashes();
+    
     // Supprimer toutes les photos d'un ÃƒÂ©quipement
     void deleteByEquipmentId(Long equipmentId);
     
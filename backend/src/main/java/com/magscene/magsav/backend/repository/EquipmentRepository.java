@@ -1,20 +1,72 @@
 package com.magscene.magsav.backend.repository;
 
+import com.magscene.magsav.backend.dto.EquipmentDTO;
 import com.magscene.magsav.backend.entity.Equipment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'entité Equipment avec Spring Data JPA
  * Utilise les nouvelles fonctionnalités Java 21 pour les requêtes
  */
 @Repository
-public interface EquipmentRepository extends JpaRepository<Equipment, Long> {
+public interface EquipmentRepository extends JpaRepository<Equipment, Long>, JpaSpecificationExecutor<Equipment> {
+
+    /**
+     * Parcours en flux de toute la table (exports), lu par paquets de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Equipment e")
+    Stream<Equipment> streamAll();
+
+    /**
+     * Colonnes de l'index de scan : id, nom, UID, numéro de série, référence interne,
+     * catégorie, marque, modèle, statut, emplacement
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e.id, e.name, e.qrCode, e.serialNumber, e.internalReference, e.category, e.brand, e.model, "
+            + "e.status, e.location FROM Equipment e")
+    Stream<Object[]> streamScanColumns();
+
+    /**
+     * Colonnes de EquipmentDTO, dans l'ordre de son constructeur de projection
+     */
+    String DTO_COLUMNS = "e.id, e.name, e.description, e.category, e.subCategory, e.specificCategory, "
+            + "e.quantityInStock, e.status, e.qrCode, e.brand, e.model, e.serialNumber, e.purchasePrice, "
+            + "e.purchaseDate, e.createdAt, e.updatedAt, e.location, e.notes, e.internalReference, e.weight, "
+            + "e.dimensions, e.warrantyExpiration, e.supplier, e.insuranceValue, e.lastMaintenanceDate, "
+            + "e.nextMaintenanceDate, e.photoPath";
+
+    /**
+     * Tous les équipements projetés en DTO (sans entité managée)
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.magscene.magsav.backend.dto.EquipmentDTO(" + DTO_COLUMNS + ") FROM Equipment e")
+    List<EquipmentDTO> findAllAsDto();
+
+    /**
+     * Nombre d'équipements par catégorie : [catégorie, nombre]
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT e.category, COUNT(e) FROM Equipment e GROUP BY e.category")
+    List<Object[]> countByCategory();
+
+    /**
+     * Identifiants de tous les équipements (reconstruction de l'index de recherche)
+     */
+    @Query("SELECT e.id FROM Equipment e")
+    List<Long> findAllIds();
 
     /**
      * Recherche par nom (insensible ÃƒÂ  la casse)
@@ -0,0 +1,78 @@
+package com.magscene.magsav.backend.repository;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de filtrage de la liste des équipements (Spring Data Specification)
+ */
+public final class EquipmentSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EquipmentSpecifications() {
+    }
+
+    /**
+     * Filtres combinés (ET) ; un critère null ou vide est ignoré
+     */
+    public static Specification<Equipment> matching(String category, Equipment.Status status, String brand,
+            String location, String owner) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (hasText(category)) {
+                predicates.add(cb.equal(root.get("category"), category.trim()));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (hasText(brand)) {
+                predicates.add(cb.equal(root.get("brand"), brand.trim()));
+            }
+            if (hasText(location)) {
+                predicates.add(cb.equal(root.get("location"), location.trim()));
+            }
+            if (hasText(owner)) {
+                // Pas de colonne propriétaire : l'import LOCMAT l'inscrit dans les notes
+                predicates.add(cb.like(root.get("notes"), "%Propriétaire: " + escapeLike(owner.trim()) + "%",
+                        LIKE_ESCAPE));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Position de keyset : lignes strictement après (property, id) dans l'ordre demandé.
+     * L'id départage les valeurs égales, ce qui rend l'ordre total.
+     */
+    public static Specification<Equipment> after(String property, Comparable<?> value, Long id,
+            Sort.Direction direction) {
+        return (root, query, cb) -> {
+            boolean asc = direction.isAscending();
+            if ("id".equals(property)) {
+                return asc ? cb.greaterThan(root.get("id"), id) : cb.lessThan(root.get("id"), id);
+            }
+            @SuppressWarnings("unchecked")
+            Comparable<Object> keyValue = (Comparable<Object>) value;
+            Predicate beyond = asc ? cb.greaterThan(root.get(property), keyValue)
+                    : cb.lessThan(root.get(property), keyValue);
+            Predicate tie = cb.and(cb.equal(root.get(property), keyValue),
+                    asc ? cb.greaterThan(root.get("id"), id) : cb.lessThan(root.get("id"), id));
+            return cb.or(beyond, tie);
+        };
+    }
+
+    // Saisie cherchée telle quelle : % et _ ne sont pas des jokers
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
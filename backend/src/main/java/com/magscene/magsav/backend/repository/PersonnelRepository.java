@@ -3,7 +3,12 @@ package com.magscene.magsav.backend.repository;
 import com.magscene.magsav.backend.entity.Personnel;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'entitÃƒÂ© Personnel
@@ -11,6 +16,13 @@ import java.util.List;
 @Repository
 public interface PersonnelRepository extends JpaRepository<Personnel, Long> {
 
+    /**
+     * Parcours en flux de toute la table (exports), lu par paquets de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Personnel p")
+    Stream<Personnel> streamAll();
+
     /**
      * Trouve le personnel par statut
      */
@@ -0,0 +1,25 @@
+package com.magscene.magsav.backend.repository;
+
+import com.magscene.magsav.model.planning.Event;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+/**
+ * Repository des événements de planning (table planning_events)
+ */
+@Repository
+public interface PlanningEventRepository extends JpaRepository<Event, Long> {
+
+    /**
+     * Parcours en flux des événements non annulés (chargement de l'index du planning)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Event e WHERE e.status IS NULL OR e.status <> com.magscene.magsav.model.planning.Event.EventStatus.CANCELLED")
+    Stream<Event> streamActive();
+}
@@ -8,14 +8,25 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RMARepository extends JpaRepository<RMA, Long> {
 
+    /**
+     * Parcours en flux de toute la table (exports), lu par paquets de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM RMA r")
+    Stream<RMA> streamAll();
+
     Optional<RMA> findByRmaNumber(String rmaNumber);
 
     List<RMA> findByStatus(RMAStatus status);
@@ -1,5 +1,6 @@
 package com.magscene.magsav.backend.repository;
 
+import com.magscene.magsav.backend.dto.ServiceRequestDTO;
 import com.magscene.magsav.backend.entity.ServiceRequest;
 import com.magscene.magsav.backend.entity.ServiceRequest.ServiceRequestStatus;
 import com.magscene.magsav.backend.entity.ServiceRequest.Priority;
@@ -7,9 +8,15 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 /**
  * Repository pour l'entitÃƒÂ© ServiceRequest avec Spring Data JPA
  * Utilise les nouvelles fonctionnalitÃƒÂ©s Java 21 pour les requÃƒÂªtes
@@ -17,11 +24,57 @@ import java.util.List;
 @Repository
 public interface ServiceRequestRepository extends JpaRepository<ServiceRequest, Long> {
 
+    /**
+     * Parcours en flux de toute la table (exports), lu par paquets de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT sr FROM ServiceRequest sr LEFT JOIN FETCH sr.equipment")
+    Stream<ServiceRequest> streamAll();
+
         /**
          * Récupère toutes les demandes avec l'équipement chargé (join fetch)
          */
         @Query("SELECT sr FROM ServiceRequest sr LEFT JOIN FETCH sr.equipment")
         List<ServiceRequest> findAllWithEquipment();
+
+        /**
+         * Liste des demandes SAV projetée en DTO : seules les colonnes affichées sont lues
+         */
+        @Query("SELECT new com.magscene.magsav.backend.dto.ServiceRequestDTO(sr.id, sr.title, sr.description, "
+                        + "sr.priority, sr.status, sr.type, sr.requesterName, sr.requesterEmail, "
+                        + "sr.assignedTechnician, sr.estimatedCost, sr.actualCost, sr.resolutionNotes, "
+                        + "sr.createdAt, sr.updatedAt, sr.resolvedAt, e.id, e.name, e.brand, e.category, "
+                        + "e.serialNumber, e.internalReference, e.model) "
+                        + "FROM ServiceRequest sr LEFT JOIN sr.equipment e")
+        @Transactional(readOnly = true)
+        List<ServiceRequestDTO> findAllAsDto();
+
+        /**
+         * Nombre de demandes créées par mois depuis une date : [année, mois, nombre]
+         */
+        @Query("SELECT YEAR(sr.createdAt), MONTH(sr.createdAt), COUNT(sr) FROM ServiceRequest sr "
+                        + "WHERE sr.createdAt >= :since GROUP BY YEAR(sr.createdAt), MONTH(sr.createdAt)")
+        @Transactional(readOnly = true)
+        List<Object[]> countByMonthSince(@Param("since") LocalDateTime since);
+
+        /**
+         * Identifiants de toutes les demandes (reconstruction de l'index de recherche)
+         */
+        @Query("SELECT sr.id FROM ServiceRequest sr")
+        List<Long> findAllIds();
+
+        /**
+         * Demandes à indexer, avec l'équipement chargé (join fetch)
+         */
+        @Query("SELECT sr FROM ServiceRequest sr LEFT JOIN FETCH sr.equipment WHERE sr.id IN :ids")
+        @Transactional(readOnly = true)
+        List<ServiceRequest> findAllWithEquipmentByIdIn(@Param("ids") Collection<Long> ids);
+
+        /**
+         * Identifiants des demandes liées à ces équipements (réindexation après modification d'un équipement)
+         */
+        @Query("SELECT sr.id FROM ServiceRequest sr WHERE sr.equipment.id IN :equipmentIds")
+        List<Long> findIdsByEquipmentIdIn(@Param("equipmentIds") Collection<Long> equipmentIds);
     
     /**
      * Recherche par statut
@@ -4,6 +4,7 @@ import com.magsav.entities.SupplierCatalog;
 import com.magsav.entities.Supplier;
 import com.magsav.enums.ImportStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -35,6 +36,16 @@ public interface SupplierCatalogRepository extends JpaRepository<SupplierCatalog
     
     List<SupplierCatalog> findByImportStatusAndActiveTrue(ImportStatus status);
     
+    // Progression d'un import, sans charger le catalogue ni ses articles
+    @Modifying
+    @Query("UPDATE SupplierCatalog c SET c.importStatus = :status, c.itemsCount = :itemsCount, " +
+           "c.importLog = :importLog, c.updatedAt = :now WHERE c.id = :catalogId")
+    int updateImportProgress(@Param("catalogId") Long catalogId,
+                             @Param("status") ImportStatus status,
+                             @Param("itemsCount") Integer itemsCount,
+                             @Param("importLog") String importLog,
+                             @Param("now") LocalDateTime now);
+    
     // Catalogues actifs
     List<SupplierCatalog> findByActiveTrueOrderByImportDateDesc();
     
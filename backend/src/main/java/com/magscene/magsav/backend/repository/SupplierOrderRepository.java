@@ -7,10 +7,14 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository pour la gestion des commandes fournisseurs
@@ -18,6 +22,13 @@ import java.util.List;
 @Repository
 public interface SupplierOrderRepository extends JpaRepository<SupplierOrder, Long> {
 
+    /**
+     * Parcours en flux de toute la table (exports), lu par paquets de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT so FROM SupplierOrder so")
+    Stream<SupplierOrder> streamAll();
+
     /**
      * Trouve une commande par son numÃƒÂ©ro
      */
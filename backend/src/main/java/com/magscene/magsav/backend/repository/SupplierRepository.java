@@ -1,7 +1,9 @@
 package com.magscene.magsav.backend.repository;
 
 import com.magsav.entities.Supplier;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,6 +17,14 @@ import java.util.Optional;
 @Repository
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     
+    /**
+     * Lire un fournisseur en verrouillant sa ligne jusqu'à la fin de la transaction :
+     * les dépôts de catalogues d'un même fournisseur sont ainsi vérifiés l'un après l'autre
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Supplier s WHERE s.id = :id")
+    Optional<Supplier> findByIdForUpdate(@Param("id") Long id);
+    
     // Recherche par nom
     Optional<Supplier> findByName(String name);
     
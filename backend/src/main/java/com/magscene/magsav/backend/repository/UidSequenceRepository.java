@@ -0,0 +1,25 @@
+package com.magscene.magsav.backend.repository;
+
+import com.magscene.magsav.backend.entity.UidSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository des compteurs d'UID par préfixe
+ */
+@Repository
+public interface UidSequenceRepository extends JpaRepository<UidSequence, String> {
+
+    /**
+     * Lire le compteur d'un préfixe en le verrouillant jusqu'à la fin de la transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UidSequence s WHERE s.prefix = :prefix")
+    Optional<UidSequence> findByPrefixForUpdate(@Param("prefix") String prefix);
+}
@@ -2,13 +2,19 @@ package com.magscene.magsav.backend.repository;
 
 import com.magscene.magsav.backend.entity.Vehicle;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
 import java.util.Optional;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository pour la gestion des vÃƒÂ©hicules
@@ -16,6 +22,21 @@ import java.util.List;
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
 
+    /**
+     * Parcours en flux de toute la table (exports), lu par paquets de 500 lignes
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT v FROM Vehicle v")
+    Stream<Vehicle> streamAll();
+
+    /**
+     * Lire un véhicule en verrouillant sa ligne jusqu'à la fin de la transaction :
+     * les réservations d'un même véhicule sont ainsi vérifiées et créées l'une après l'autre
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = :id")
+    Optional<Vehicle> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Recherche par nom (insensible ÃƒÂ  la casse)
      */
@@ -0,0 +1,50 @@
+package com.magscene.magsav.backend.repository;
+
+import com.magscene.magsav.backend.entity.VehicleReservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository des réservations de véhicules
+ */
+@Repository
+public interface VehicleReservationRepository extends JpaRepository<VehicleReservation, Long> {
+
+    /**
+     * Réservations confirmées d'un véhicule qui chevauchent [start, end[
+     * (index vehicle_id, start_date, end_date)
+     */
+    @Query("SELECT r FROM VehicleReservation r WHERE r.vehicle.id = :vehicleId " +
+           "AND r.status = com.magscene.magsav.backend.entity.VehicleReservation.ReservationStatus.CONFIRMED " +
+           "AND r.startDate < :end AND r.endDate > :start ORDER BY r.startDate")
+    List<VehicleReservation> findOverlapping(@Param("vehicleId") Long vehicleId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * Réservations confirmées d'un véhicule qui ne sont pas encore terminées
+     */
+    @Query("SELECT r FROM VehicleReservation r WHERE r.vehicle.id = :vehicleId " +
+           "AND r.status = com.magscene.magsav.backend.entity.VehicleReservation.ReservationStatus.CONFIRMED " +
+           "AND r.endDate > :after ORDER BY r.startDate")
+    List<VehicleReservation> findUpcoming(@Param("vehicleId") Long vehicleId, @Param("after") LocalDateTime after);
+
+    /**
+     * Parcours en flux des réservations confirmées (chargement de l'index du planning)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM VehicleReservation r " +
+           "WHERE r.status = com.magscene.magsav.backend.entity.VehicleReservation.ReservationStatus.CONFIRMED")
+    Stream<VehicleReservation> streamConfirmed();
+
+    // Supprimer les réservations d'un véhicule supprimé
+    void deleteByVehicle_Id(Long vehicleId);
+}
@@ -0,0 +1,628 @@
+package com.magscene.magsav.backend.service;
+
+import com.magsav.entities.CatalogItem;
+import com.magsav.entities.SupplierCatalog;
+import com.magsav.enums.ImportStatus;
+import com.magscene.magsav.backend.repository.CatalogItemRepository;
+import com.magscene.magsav.backend.repository.SupplierCatalogRepository;
+import com.magscene.magsav.backend.util.CatalogFileReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Import des catalogues fournisseurs (CSV, XLSX, XML, JSON).
+ *
+ * Le fichier est lu en flux sur un thread virtuel et comparé aux articles déjà connus du
+ * catalogue par clé naturelle (catalogue + référence) : seule une empreinte 64 bits de chaque
+ * ligne est gardée en mémoire, les lignes inchangées depuis le dernier import ne touchent pas
+ * la base. Les nouveautés et modifications sont écrites par lots (flush puis clear) ; les
+ * articles absents du fichier sont marqués indisponibles (ils peuvent être liés à des demandes
+ * de matériel). Le nombre d'articles et le journal du catalogue sont mis à jour à chaque lot.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+
+    // Erreurs détaillées dans le journal du catalogue, au-delà seul le compteur augmente
+    private static final int MAX_LOGGED_ERRORS = 50;
+
+    @Autowired
+    private CatalogItemRepository catalogItemRepository;
+
+    @Autowired
+    private SupplierCatalogRepository catalogRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CatalogQueryIndex catalogQueryIndex;
+
+    @Autowired
+    @Qualifier("virtualThreadExecutor")
+    private Executor executor;
+
+    // Taille des lots d'écriture
+    @Value("${app.catalog.import.chunk-size:500}")
+    private int chunkSize = 500;
+
+    /**
+     * Bilan d'un import
+     */
+    public record ImportSummary(int read, int inserted, int updated, int unchanged, int withdrawn, int errors,
+            long durationMs) {
+    }
+
+    /**
+     * Colonnes reconnues et leurs intitulés usuels (normalisés, par ordre de préférence)
+     */
+    private enum Field {
+        REFERENCE(100, "reference", "ref", "refarticle", "referencefournisseur", "reffournisseur", "sku",
+                "codearticle", "code", "itemcode", "partnumber", "productcode"),
+        NAME(300, "name", "nom", "designation", "libelle", "produit", "product", "productname", "title", "titre"),
+        DESCRIPTION(0, "description", "descriptif", "desc", "details"),
+        CATEGORY(100, "category", "categorie", "famille", "family", "rayon"),
+        SUBCATEGORY(100, "subcategory", "souscategorie", "sousfamille", "subfamily"),
+        BRAND(100, "brand", "marque", "fabricant", "manufacturer"),
+        MODEL(100, "model", "modele"),
+        UNIT_PRICE(0, "unitprice", "prixunitaireht", "prixunitaire", "prixht", "puht", "prixnet", "prix", "price",
+                "tarifht", "tarif"),
+        CURRENCY(3, "currency", "devise"),
+        UNIT(20, "unit", "unite"),
+        MINIMUM_QUANTITY(0, "minimumquantity", "quantiteminimum", "qtemin", "minqty"),
+        PACKAGE_QUANTITY(0, "packagequantity", "conditionnement", "colisage", "packqty"),
+        STOCK_QUANTITY(0, "stockquantity", "stock", "quantitestock", "qtestock"),
+        DELIVERY_TIME(255, "deliverytime", "delailivraison", "delai", "leadtime"),
+        WEIGHT(0, "weight", "poidskg", "poids"),
+        DIMENSIONS(100, "dimensions", "dimension"),
+        IMAGE_URL(500, "imageurl", "urlimage", "image", "photo"),
+        DATASHEET_URL(500, "datasheeturl", "urlfichetechnique", "fichetechnique", "datasheet"),
+        MANUFACTURER_URL(500, "manufacturerurl", "urlfabricant", "url"),
+        TECHNICAL_SPECS(0, "technicalspecs", "caracteristiquestechniques", "caracteristiques", "specifications"),
+        KEYWORDS(500, "keywords", "motscles", "tags");
+
+        private static final Field[] ALL = values();
+
+        // 0 : colonne TEXT ou numérique, pas de troncature
+        final int maxLength;
+        final String[] aliases;
+
+        Field(int maxLength, String... aliases) {
+            this.maxLength = maxLength;
+            this.aliases = aliases;
+        }
+    }
+
+    /**
+     * Lancer l'import en arrière-plan, après la validation de la transaction en cours
+     * (le catalogue doit être visible du thread d'import). Le fichier temporaire est supprimé
+     * à la fin de l'import.
+     */
+    public void submit(Long catalogId, Path file, String filename) {
+        Runnable job = () -> importFile(catalogId, file, filename);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(job);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        deleteQuietly(file);
+                    }
+                }
+            });
+        } else {
+            executor.execute(job);
+        }
+    }
+
+    /**
+     * Importer le fichier dans le catalogue (appel bloquant)
+     */
+    public ImportSummary importFile(Long catalogId, Path file, String filename) {
+        ImportRun run = new ImportRun(catalogId, filename);
+        try {
+            CatalogFileReader.Format format = CatalogFileReader.Format.fromFilename(filename);
+            if (format == null) {
+                throw new IllegalArgumentException("Format non pris en charge (CSV, XLSX, XML ou JSON attendu)");
+            }
+            logger.info("📥 Import du catalogue {} - Fichier: {}", catalogId, filename);
+            run.loadExistingItems();
+            run.progress(ImportStatus.IN_PROGRESS);
+
+            CatalogFileReader.read(file, format, run::onRecord);
+            run.flush();
+            run.withdrawMissingItems();
+
+            run.progress(ImportStatus.COMPLETED);
+            ImportSummary summary = run.summary();
+            logger.info("✅ Catalogue {} importé en {} ms - {}", catalogId, summary.durationMs(), run.counters());
+            return summary;
+        } catch (Exception e) {
+            logger.error("❌ Import du catalogue {} en échec: {}", catalogId, e.getMessage(), e);
+            run.addError("Import interrompu : " + e.getMessage());
+            try {
+                run.progress(ImportStatus.FAILED);
+            } catch (Exception ex) {
+                logger.error("❌ Statut d'import du catalogue {} non enregistré: {}", catalogId, ex.getMessage());
+            }
+            return run.summary();
+        } finally {
+            deleteQuietly(file);
+            if (run.hasChanges()) {
+                catalogQueryIndex.scheduleRebuild();
+            }
+        }
+    }
+
+    /**
+     * Les imports en cours lors d'un arrêt ne reprendront pas (fichier temporaire perdu)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedImports() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SupplierCatalog> interrupted = new ArrayList<>(catalogRepository.findByImportStatus(ImportStatus.PENDING));
+            interrupted.addAll(catalogRepository.findByImportStatus(ImportStatus.IN_PROGRESS));
+            for (SupplierCatalog catalog : interrupted) {
+                catalog.setImportStatus(ImportStatus.FAILED);
+                catalog.setImportLog((catalog.getImportLog() != null ? catalog.getImportLog() + "\n" : "")
+                        + "❌ Import interrompu par un redémarrage du serveur, relancer l'import");
+            }
+            if (!interrupted.isEmpty()) {
+                logger.warn("⚠️ {} import(s) de catalogue interrompu(s) marqué(s) en échec", interrupted.size());
+            }
+        });
+    }
+
+    /**
+     * État d'un import : articles connus du catalogue et lots en attente d'écriture
+     */
+    private class ImportRun {
+
+        private final Long catalogId;
+        private final String filename;
+        private final long startTime = System.currentTimeMillis();
+
+        private final Map<String, KnownItem> known = new HashMap<>();
+        private final List<CatalogRow> inserts = new ArrayList<>();
+        private final List<CatalogRow> updates = new ArrayList<>();
+        private final List<String> errorLines = new ArrayList<>();
+
+        private int availableBefore;
+        private int read;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+        private int withdrawn;
+        private int errors;
+
+        ImportRun(Long catalogId, String filename) {
+            this.catalogId = catalogId;
+            this.filename = filename;
+        }
+
+        void loadExistingItems() {
+            for (Object[] key : catalogItemRepository.findImportKeysByCatalogId(catalogId)) {
+                boolean available = Boolean.TRUE.equals(key[3]);
+                known.put((String) key[1], new KnownItem((Long) key[0], (Long) key[2], available));
+                if (available) {
+                    availableBefore++;
+                }
+            }
+        }
+
+        boolean onRecord(int recordNumber, Map<String, String> fields) {
+            read++;
+            CatalogRow row;
+            try {
+                row = CatalogRow.parse(recordNumber, fields);
+            } catch (IllegalArgumentException e) {
+                addError("Article " + recordNumber + " : " + e.getMessage());
+                // Référence lisible : l'article existant n'est pas retiré pour une ligne mal saisie
+                String reference = text(fields, Field.REFERENCE);
+                if (reference != null && known.containsKey(reference)) {
+                    known.get(reference).seen = true;
+                }
+                return true;
+            }
+
+            KnownItem item = known.get(row.values[Field.REFERENCE.ordinal()]);
+            if (item == null) {
+                KnownItem added = new KnownItem(null, row.hash, false);
+                added.seen = true;
+                known.put(row.values[Field.REFERENCE.ordinal()], added);
+                inserts.add(row);
+            } else if (item.seen) {
+                addError("Article " + recordNumber + " : référence " + row.values[Field.REFERENCE.ordinal()]
+                        + " en double dans le fichier, ligne ignorée");
+                return true;
+            } else {
+                item.seen = true;
+                if (item.id != null && item.available && item.rowHash != null && item.rowHash == row.hash) {
+                    unchanged++;
+                } else {
+                    row.id = item.id;
+                    updates.add(row);
+                }
+            }
+
+            if (inserts.size() + updates.size() >= chunkSize) {
+                flush();
+            }
+            return true;
+        }
+
+        /**
+         * Écrire le lot en cours en une transaction, repli article par article en cas d'échec
+         */
+        void flush() {
+            if (inserts.isEmpty() && updates.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    write(inserts, updates);
+                    writeProgress(ImportStatus.IN_PROGRESS, availableBefore + inserted + inserts.size());
+                });
+                inserted += inserts.size();
+                updated += updates.size();
+            } catch (Exception e) {
+                logger.warn("⚠️ Échec du lot de {} articles du catalogue {} ({}), repli article par article",
+                        inserts.size() + updates.size(), catalogId, e.getMessage());
+                for (CatalogRow row : inserts) {
+                    writeOne(row, true);
+                }
+                for (CatalogRow row : updates) {
+                    writeOne(row, false);
+                }
+                progress(ImportStatus.IN_PROGRESS);
+            }
+            inserts.clear();
+            updates.clear();
+        }
+
+        private void writeOne(CatalogRow row, boolean insert) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(insert ? List.of(row) : List.of(),
+                        insert ? List.of() : List.of(row)));
+                if (insert) {
+                    inserted++;
+                } else {
+                    updated++;
+                }
+            } catch (Exception e) {
+                addError("Article " + row.recordNumber + " (" + row.values[Field.REFERENCE.ordinal()] + ") : "
+                        + e.getMessage());
+            }
+        }
+
+        private void write(List<CatalogRow> newRows, List<CatalogRow> changedRows) {
+            SupplierCatalog catalog = entityManager.getReference(SupplierCatalog.class, catalogId);
+            for (CatalogRow row : newRows) {
+                CatalogItem item = new CatalogItem();
+                item.setCatalog(catalog);
+                row.applyTo(item);
+                entityManager.persist(item);
+            }
+            if (!changedRows.isEmpty()) {
+                Map<Long, CatalogRow> rowsById = new HashMap<>();
+                for (CatalogRow row : changedRows) {
+                    rowsById.put(row.id, row);
+                }
+                for (CatalogItem item : catalogItemRepository.findAllById(rowsById.keySet())) {
+                    rowsById.get(item.getId()).applyTo(item);
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        /**
+         * Articles du catalogue absents du fichier : indisponibles, jamais supprimés
+         */
+        void withdrawMissingItems() {
+            List<Long> missing = new ArrayList<>();
+            for (KnownItem item : known.values()) {
+                if (!item.seen && item.available) {
+                    missing.add(item.id);
+                }
+            }
+            for (int from = 0; from < missing.size(); from += chunkSize) {
+                List<Long> ids = missing.subList(from, Math.min(from + chunkSize, missing.size()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (CatalogItem item : catalogItemRepository.findAllById(ids)) {
+                        item.setAvailable(false);
+                        item.setRowHash(null);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                withdrawn += ids.size();
+            }
+        }
+
+        void progress(ImportStatus status) {
+            transactionTemplate.executeWithoutResult(tx -> {
+                int itemsCount = status == ImportStatus.IN_PROGRESS
+                        ? availableBefore + inserted
+                        : (int) catalogItemRepository.countAvailableByCatalogId(catalogId);
+                writeProgress(status, itemsCount);
+            });
+        }
+
+        private void writeProgress(ImportStatus status, int itemsCount) {
+            catalogRepository.updateImportProgress(catalogId, status, itemsCount, log(status), LocalDateTime.now());
+        }
+
+        void addError(String message) {
+            errors++;
+            if (errorLines.size() < MAX_LOGGED_ERRORS) {
+                errorLines.add(message);
+            }
+        }
+
+        String counters() {
+            return String.format("➕ %d nouveaux, ✏️ %d modifiés, ⏸️ %d inchangés, 🗑️ %d retirés, ❌ %d erreurs",
+                    inserted, updated, unchanged, withdrawn, errors);
+        }
+
+        private String log(ImportStatus status) {
+            StringBuilder log = new StringBuilder();
+            switch (status) {
+                case COMPLETED -> log.append("✅ Import de ").append(filename).append(" terminé en ")
+                        .append(System.currentTimeMillis() - startTime).append(" ms : ");
+                case FAILED -> log.append("❌ Import de ").append(filename).append(" en échec après ");
+                default -> log.append("⏳ Import de ").append(filename).append(" en cours : ");
+            }
+            log.append(read).append(" articles lus\n").append(counters());
+            for (String error : errorLines) {
+                log.append('\n').append(error);
+            }
+            if (errors > errorLines.size()) {
+                log.append("\n... ").append(errors - errorLines.size()).append(" autres erreurs");
+            }
+            return log.toString();
+        }
+
+        boolean hasChanges() {
+            return inserted + updated + withdrawn > 0;
+        }
+
+        ImportSummary summary() {
+            return new ImportSummary(read, inserted, updated, unchanged, withdrawn, errors,
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Article déjà présent dans le catalogue (id null : ajouté par le fichier en cours)
+     */
+    private static class KnownItem {
+        final Long id;
+        final Long rowHash;
+        final boolean available;
+        boolean seen;
+
+        KnownItem(Long id, Long rowHash, boolean available) {
+            this.id = id;
+            this.rowHash = rowHash;
+            this.available = available;
+        }
+    }
+
+    /**
+     * Ligne du fichier fournisseur, valeurs texte tronquées aux tailles des colonnes
+     */
+    private static class CatalogRow {
+        final int recordNumber;
+        final String[] values = new String[Field.ALL.length];
+        final long hash;
+        BigDecimal unitPrice;
+        BigDecimal weight;
+        Integer minimumQuantity;
+        Integer packageQuantity;
+        Integer stockQuantity;
+        Long id;
+
+        private CatalogRow(int recordNumber, Map<String, String> fields) {
+            this.recordNumber = recordNumber;
+            long h = 0xcbf29ce484222325L;
+            for (Field field : Field.ALL) {
+                String value = text(fields, field);
+                values[field.ordinal()] = value;
+                h = fnv(h, value);
+            }
+            this.hash = h;
+        }
+
+        static CatalogRow parse(int recordNumber, Map<String, String> fields) {
+            CatalogRow row = new CatalogRow(recordNumber, fields);
+            if (row.get(Field.REFERENCE) == null) {
+                throw new IllegalArgumentException("référence manquante");
+            }
+            if (row.get(Field.NAME) == null) {
+                String fallback = row.get(Field.DESCRIPTION) != null ? row.get(Field.DESCRIPTION) : row.get(Field.REFERENCE);
+                row.values[Field.NAME.ordinal()] = truncate(fallback, Field.NAME.maxLength);
+            }
+            row.unitPrice = decimal(row.get(Field.UNIT_PRICE), Field.UNIT_PRICE, 2);
+            row.weight = decimal(row.get(Field.WEIGHT), Field.WEIGHT, 3);
+            row.minimumQuantity = integer(row.get(Field.MINIMUM_QUANTITY), Field.MINIMUM_QUANTITY);
+            row.packageQuantity = integer(row.get(Field.PACKAGE_QUANTITY), Field.PACKAGE_QUANTITY);
+            row.stockQuantity = integer(row.get(Field.STOCK_QUANTITY), Field.STOCK_QUANTITY);
+            return row;
+        }
+
+        String get(Field field) {
+            return values[field.ordinal()];
+        }
+
+        // Toutes les colonnes sont écrites : une valeur retirée du fichier est effacée
+        void applyTo(CatalogItem item) {
+            item.setReference(get(Field.REFERENCE));
+            item.setName(get(Field.NAME));
+            item.setDescription(get(Field.DESCRIPTION));
+            item.setCategory(get(Field.CATEGORY));
+            item.setSubcategory(get(Field.SUBCATEGORY));
+            item.setBrand(get(Field.BRAND));
+            item.setModel(get(Field.MODEL));
+            item.setUnitPrice(unitPrice);
+            item.setCurrency(currency(get(Field.CURRENCY)));
+            item.setUnit(get(Field.UNIT));
+            item.setMinimumQuantity(minimumQuantity != null ? minimumQuantity : 1);
+            item.setPackageQuantity(packageQuantity != null ? packageQuantity : 1);
+            item.setStockQuantity(stockQuantity);
+            item.setDeliveryTime(get(Field.DELIVERY_TIME));
+            item.setWeight(weight);
+            item.setDimensions(get(Field.DIMENSIONS));
+            item.setImageUrl(get(Field.IMAGE_URL));
+            item.setDatasheetUrl(get(Field.DATASHEET_URL));
+            item.setManufacturerUrl(get(Field.MANUFACTURER_URL));
+            item.setTechnicalSpecs(get(Field.TECHNICAL_SPECS));
+            item.setKeywords(get(Field.KEYWORDS));
+            item.setAvailable(true);
+            item.setRowHash(hash);
+        }
+
+        // FNV-1a 64 bits, séparateur distinct entre valeur absente et valeur vide
+        private static long fnv(long h, String value) {
+            if (value != null) {
+                for (int i = 0; i < value.length(); i++) {
+                    h = (h ^ value.charAt(i)) * 0x100000001b3L;
+                }
+            }
+            return (h ^ (value != null ? 0x1F : 0x1E)) * 0x100000001b3L;
+        }
+    }
+
+    private static String text(Map<String, String> fields, Field field) {
+        for (String alias : field.aliases) {
+            String value = fields.get(alias);
+            if (value != null) {
+                return truncate(value, field.maxLength);
+            }
+        }
+        return null;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return maxLength > 0 && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static String currency(String value) {
+        if (value == null || value.equals("€")) {
+            return "EUR";
+        }
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    // Nombres au format français ou anglais : "1 234,50 €", "1234.50", "12,5 kg", "1.234", "1,234,567"
+    private static BigDecimal decimal(String value, Field field, int scale) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= '0' && c <= '9') || c == '-' || c == ',' || c == '.') {
+                digits.append(c);
+            }
+        }
+        // Pas de chiffre ("sur devis", "N/C") : valeur absente
+        if (digits.chars().noneMatch(Character::isDigit)) {
+            return null;
+        }
+        // Seul le dernier séparateur peut être décimal ("1.234,50" ou "1,234.50"), sauf s'il sépare des milliers
+        int last = Math.max(digits.lastIndexOf(","), digits.lastIndexOf("."));
+        boolean keepLast = last >= 0 && !isThousandsSeparator(digits, last);
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            char c = digits.charAt(i);
+            if (c == ',' || c == '.') {
+                if (i == last && keepLast) {
+                    digits.setCharAt(i, '.');
+                } else {
+                    digits.deleteCharAt(i);
+                }
+            }
+        }
+        try {
+            return new BigDecimal(digits.toString()).setScale(scale, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field.aliases[0] + " invalide '" + value + "'");
+        }
+    }
+
+    /**
+     * Groupage des milliers : 1 à 3 chiffres non nuls en tête puis des groupes de 3 chiffres,
+     * tous séparés par le même caractère ("1.234", "1,234", "12.345.678"). "0,250" reste décimal.
+     */
+    private static boolean isThousandsSeparator(CharSequence digits, int last) {
+        char separator = digits.charAt(last);
+        int groupStart = digits.length() > 0 && digits.charAt(0) == '-' ? 1 : 0;
+        int groupLength = 0;
+        boolean first = true;
+        for (int i = groupStart; i <= digits.length(); i++) {
+            char c = i < digits.length() ? digits.charAt(i) : separator;
+            if (c >= '0' && c <= '9') {
+                groupLength++;
+                continue;
+            }
+            if (c != separator) {
+                return false;
+            }
+            boolean valid = first
+                    ? groupLength >= 1 && groupLength <= 3 && digits.charAt(groupStart) != '0'
+                    : groupLength == 3;
+            if (!valid) {
+                return false;
+            }
+            first = false;
+            groupStart = i + 1;
+            groupLength = 0;
+        }
+        return true;
+    }
+
+    private static Integer integer(String value, Field field) {
+        BigDecimal decimal = decimal(value, field, 0);
+        return decimal != null ? decimal.intValue() : null;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("⚠️ Fichier temporaire {} non supprimé: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.magscene.magsav.backend.service;
+
+import com.magsav.entities.CatalogItem;
+import com.magsav.entities.Supplier;
+import com.magsav.entities.SupplierCatalog;
+import com.magscene.magsav.backend.repository.CatalogItemRepository;
+import com.magscene.magsav.backend.util.TrigramIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Index en mémoire des articles de catalogue pour les recherches filtrées par fournisseur,
+ * catégorie, marque et prix, sans requête en base.
+ *
+ * Stockage en colonnes (une case par article, par id croissant) : texte de recherche normalisé
+ * des cinq champs cherchés, codes de dictionnaire pour la catégorie et la marque, prix en
+ * centimes, ensembles de bits par fournisseur et pour la disponibilité ; les sous-chaînes sont
+ * cherchées par trigrammes ({@link TrigramIndex}). L'index est reconstruit en arrière-plan
+ * après chaque import de catalogue et remplacé d'un bloc : les lectures ne sont jamais
+ * bloquées. Chaque recherche renvoie des copies neuves des articles indexés : un appelant
+ * qui les modifie n'altère ni l'index ni les résultats des autres requêtes.
+ */
+@Service
+public class CatalogQueryIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogQueryIndex.class);
+
+    // Article sans prix
+    private static final long NO_PRICE = Long.MIN_VALUE;
+
+    // Séparateur des champs dans le texte de recherche (jamais saisi dans un motif)
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    @Autowired
+    private CatalogItemRepository catalogItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("virtualThreadExecutor")
+    private Executor executor;
+
+    // null tant que la première construction n'est pas terminée
+    private volatile Snapshot snapshot;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile boolean dirty;
+
+    /**
+     * Colonnes de l'index, figées une fois construites
+     */
+    private record Snapshot(CatalogItem[] items, TrigramIndex text, BitSet available,
+            Map<Long, BitSet> bySupplier, Map<String, Integer> categoryCodes, int[] category,
+            Map<String, Integer> brandCodes, int[] brand, long[] priceCents) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    public boolean isReady() {
+        return snapshot != null;
+    }
+
+    /**
+     * Demander une reconstruction (après validation de la transaction en cours s'il y en a une) ;
+     * les demandes rapprochées sont regroupées
+     */
+    public void scheduleRebuild() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    requestRebuild();
+                }
+            });
+        } else {
+            requestRebuild();
+        }
+    }
+
+    private void requestRebuild() {
+        dirty = true;
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebuildLoop);
+        }
+    }
+
+    private void rebuildLoop() {
+        try {
+            while (dirty) {
+                dirty = false;
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.error("❌ Erreur construction de l'index des catalogues: {}", e.getMessage(), e);
+        } finally {
+            rebuildScheduled.set(false);
+            // Demande arrivée pendant la sortie de boucle
+            if (dirty && rebuildScheduled.compareAndSet(false, true)) {
+                executor.execute(this::rebuildLoop);
+            }
+        }
+    }
+
+    /**
+     * Articles disponibles des fournisseurs donnés (tous si vide) dont la référence, le nom,
+     * la description, la marque ou la catégorie contient le texte cherché
+     *
+     * @return vide si l'index n'est pas encore construit
+     */
+    public Optional<List<CatalogItem>> search(String query, Collection<Long> supplierIds) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        BitSet scope = scope(current, supplierIds);
+        BitSet matches = current.text().matches(TrigramIndex.normalize(query != null ? query.trim() : ""), scope);
+        return Optional.of(items(current, matches));
+    }
+
+    /**
+     * Articles disponibles des fournisseurs donnés (tous si vide) ; catégorie et marque exactes,
+     * bornes de prix incluses, critères null ignorés
+     *
+     * @return vide si l'index n'est pas encore construit
+     */
+    public Optional<List<CatalogItem>> filter(Collection<Long> supplierIds, String category, String brand,
+            BigDecimal minPrice, BigDecimal maxPrice) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+        BitSet scope = scope(current, supplierIds);
+        int categoryCode = code(current.categoryCodes(), category);
+        int brandCode = code(current.brandCodes(), brand);
+        if (categoryCode == -1 || brandCode == -1) {
+            return Optional.of(List.of());
+        }
+        long min = minPrice != null ? cents(minPrice, RoundingMode.CEILING) : NO_PRICE;
+        long max = maxPrice != null ? cents(maxPrice, RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        BitSet matches = new BitSet(current.items().length);
+        for (int i = scope.nextSetBit(0); i >= 0; i = scope.nextSetBit(i + 1)) {
+            if (categoryCode >= 0 && current.category()[i] != categoryCode) {
+                continue;
+            }
+            if (brandCode >= 0 && current.brand()[i] != brandCode) {
+                continue;
+            }
+            long price = current.priceCents()[i];
+            if ((minPrice != null || maxPrice != null) && (price == NO_PRICE || price < min || price > max)) {
+                continue;
+            }
+            matches.set(i);
+        }
+        return Optional.of(items(current, matches));
+    }
+
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        List<CatalogItem> items = new ArrayList<>();
+        Map<Long, SupplierCatalog> catalogs = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<CatalogItem> stream = catalogItemRepository.streamAllWithSupplier()) {
+                int loaded = 0;
+                for (CatalogItem item : (Iterable<CatalogItem>) stream::iterator) {
+                    items.add(copyOf(item, catalogs));
+                    // Mémoire constante pendant la lecture
+                    if (++loaded % 1000 == 0) {
+                        entityManager.clear();
+                    }
+                }
+            }
+        });
+
+        int size = items.size();
+        String[] texts = new String[size];
+        BitSet available = new BitSet(size);
+        Map<Long, BitSet> bySupplier = new HashMap<>();
+        Map<String, Integer> categoryCodes = new HashMap<>();
+        Map<String, Integer> brandCodes = new HashMap<>();
+        int[] category = new int[size];
+        int[] brand = new int[size];
+        long[] priceCents = new long[size];
+        for (int i = 0; i < size; i++) {
+            CatalogItem item = items.get(i);
+            texts[i] = searchText(item);
+            if (item.isAvailable()) {
+                available.set(i);
+            }
+            bySupplier.computeIfAbsent(item.getCatalog().getSupplier().getId(), id -> new BitSet()).set(i);
+            category[i] = dictionaryCode(categoryCodes, item.getCategory());
+            brand[i] = dictionaryCode(brandCodes, item.getBrand());
+            priceCents[i] = item.getUnitPrice() != null ? cents(item.getUnitPrice(), RoundingMode.HALF_UP) : NO_PRICE;
+        }
+
+        snapshot = new Snapshot(items.toArray(CatalogItem[]::new), TrigramIndex.build(texts), available,
+                bySupplier, categoryCodes, category, brandCodes, brand, priceCents);
+        logger.info("🗂️ Index des catalogues construit: {} articles en {} ms", size,
+                System.currentTimeMillis() - start);
+    }
+
+    // Copie détachée : catalogue et fournisseur réduits à leur identité (sérialisation JSON sans relations)
+    private static CatalogItem copyOf(CatalogItem item, Map<Long, SupplierCatalog> catalogs) {
+        SupplierCatalog catalog = catalogs.computeIfAbsent(item.getCatalog().getId(), id -> {
+            Supplier supplier = new Supplier(item.getCatalog().getSupplier().getName());
+            supplier.setId(item.getCatalog().getSupplier().getId());
+            SupplierCatalog summary = new SupplierCatalog(supplier, item.getCatalog().getName());
+            summary.setId(id);
+            return summary;
+        });
+        CatalogItem copy = new CatalogItem(catalog, item.getReference(), item.getName());
+        copy.setId(item.getId());
+        copy.setDescription(item.getDescription());
+        copy.setCategory(item.getCategory());
+        copy.setSubcategory(item.getSubcategory());
+        copy.setBrand(item.getBrand());
+        copy.setModel(item.getModel());
+        copy.setUnitPrice(item.getUnitPrice());
+        copy.setCurrency(item.getCurrency());
+        copy.setUnit(item.getUnit());
+        copy.setMinimumQuantity(item.getMinimumQuantity());
+        copy.setPackageQuantity(item.getPackageQuantity());
+        copy.setStockQuantity(item.getStockQuantity());
+        copy.setAvailable(item.isAvailable());
+        copy.setDeliveryTime(item.getDeliveryTime());
+        copy.setWeight(item.getWeight());
+        copy.setDimensions(item.getDimensions());
+        copy.setImageUrl(item.getImageUrl());
+        copy.setDatasheetUrl(item.getDatasheetUrl());
+        copy.setManufacturerUrl(item.getManufacturerUrl());
+        copy.setTechnicalSpecs(item.getTechnicalSpecs());
+        copy.setKeywords(item.getKeywords());
+        copy.setRowHash(item.getRowHash());
+        copy.setCreatedAt(item.getCreatedAt());
+        copy.setUpdatedAt(item.getUpdatedAt());
+        return copy;
+    }
+
+    private static String searchText(CatalogItem item) {
+        return TrigramIndex.normalize(item.getReference()) + FIELD_SEPARATOR
+                + TrigramIndex.normalize(item.getName()) + FIELD_SEPARATOR
+                + TrigramIndex.normalize(item.getDescription()) + FIELD_SEPARATOR
+                + TrigramIndex.normalize(item.getBrand()) + FIELD_SEPARATOR
+                + TrigramIndex.normalize(item.getCategory());
+    }
+
+    private static BitSet scope(Snapshot current, Collection<Long> supplierIds) {
+        BitSet scope = new BitSet(current.items().length);
+        if (supplierIds == null || supplierIds.isEmpty()) {
+            scope.or(current.available());
+            return scope;
+        }
+        for (Long supplierId : supplierIds) {
+            BitSet items = current.bySupplier().get(supplierId);
+            if (items != null) {
+                scope.or(items);
+            }
+        }
+        scope.and(current.available());
+        return scope;
+    }
+
+    private static List<CatalogItem> items(Snapshot current, BitSet matches) {
+        List<CatalogItem> result = new ArrayList<>(matches.cardinality());
+        Map<Long, SupplierCatalog> catalogs = new HashMap<>();
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(copyOf(current.items()[i], catalogs));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static int dictionaryCode(Map<String, Integer> codes, String value) {
+        return value == null ? -1 : codes.computeIfAbsent(value, key -> codes.size());
+    }
+
+    // -2 : critère absent, -1 : valeur inconnue de l'index (aucun article)
+    private static int code(Map<String, Integer> codes, String value) {
+        if (value == null) {
+            return -2;
+        }
+        return codes.getOrDefault(value, -1);
+    }
+
+    private static long cents(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.setScale(2, roundingMode).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,160 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Category;
+import com.magscene.magsav.backend.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index applicatif des catégories (nom + parent → id), chargé au démarrage et tenu à jour
+ * par CategoryRestController. Les imports y résolvent toutes leurs catégories en une passe,
+ * sans requête par ligne ni cache jeté à la fin de chaque import.
+ */
+@Service
+public class CategoryIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryIndexService.class);
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<CategoryKey, Long> idsByKey = new ConcurrentHashMap<>();
+    private final Map<Long, CategoryKey> keysById = new ConcurrentHashMap<>();
+
+    // Sérialise les créations : deux imports simultanés ne créent pas deux fois la même catégorie
+    private final Object creationLock = new Object();
+
+    /**
+     * Charger toutes les catégories existantes
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        idsByKey.clear();
+        keysById.clear();
+        for (Object[] entry : categoryRepository.findAllIndexEntries()) {
+            put((Long) entry[0], new CategoryKey((String) entry[1], (Long) entry[2]));
+        }
+        logger.info("🗂️ Index des catégories chargé: {} catégories", idsByKey.size());
+    }
+
+    /**
+     * Identifiant d'une catégorie d'après son nom et son parent (null pour une catégorie racine)
+     */
+    public Optional<Long> findId(String name, Long parentId) {
+        return Optional.ofNullable(idsByKey.get(new CategoryKey(name, parentId)));
+    }
+
+    /**
+     * Prendre en compte une catégorie créée, renommée ou déplacée
+     */
+    public void register(Category category) {
+        Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+        CategoryKey previous = keysById.get(category.getId());
+        if (previous != null) {
+            idsByKey.remove(previous, category.getId());
+        }
+        put(category.getId(), new CategoryKey(category.getName(), parentId));
+    }
+
+    /**
+     * Retirer une catégorie supprimée
+     */
+    public void unregister(Long categoryId) {
+        CategoryKey previous = keysById.remove(categoryId);
+        if (previous != null) {
+            idsByKey.remove(previous, categoryId);
+        }
+    }
+
+    /**
+     * Résoudre en une seule étape un ensemble de catégories : les absentes de l'index sont
+     * recherchées en base puis, si besoin, créées ensemble dans une même transaction.
+     *
+     * @param keys    catégories recherchées (un parent doit déjà être résolu)
+     * @param factory construit la catégorie à créer (nom, description, couleur...) ; le parent est fixé ici
+     * @return identifiant de chaque catégorie demandée
+     */
+    public Map<CategoryKey, Long> resolveAll(Collection<CategoryKey> keys, Function<CategoryKey, Category> factory) {
+        Map<CategoryKey, Long> resolved = new HashMap<>();
+        List<CategoryKey> missing = new ArrayList<>();
+        for (CategoryKey key : keys) {
+            Long id = idsByKey.get(key);
+            if (id != null) {
+                resolved.put(key, id);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        synchronized (creationLock) {
+            List<Category> created = transactionTemplate.execute(status -> {
+                List<Category> toSave = new ArrayList<>();
+                for (CategoryKey key : missing) {
+                    // Créée entre-temps par un autre import, ou hors de l'index
+                    if (idsByKey.containsKey(key)) {
+                        continue;
+                    }
+                    Category parent = key.parentId() != null ? categoryRepository.getReferenceById(key.parentId())
+                            : null;
+                    Optional<Category> existing = categoryRepository.findByNameAndParent(key.name(), parent);
+                    if (existing.isPresent()) {
+                        put(existing.get().getId(), key);
+                        continue;
+                    }
+                    Category category = factory.apply(key);
+                    category.setParent(parent);
+                    toSave.add(category);
+                }
+                return categoryRepository.saveAll(toSave);
+            });
+
+            for (Category category : created) {
+                Long parentId = category.getParent() != null ? category.getParent().getId() : null;
+                put(category.getId(), new CategoryKey(category.getName(), parentId));
+            }
+            if (!created.isEmpty()) {
+                logger.info("🗂️ {} catégories créées en une transaction", created.size());
+            }
+        }
+
+        for (CategoryKey key : missing) {
+            resolved.put(key, idsByKey.get(key));
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return idsByKey.size();
+    }
+
+    private void put(Long id, CategoryKey key) {
+        idsByKey.put(key, id);
+        keysById.put(id, key);
+    }
+
+    /**
+     * Clé d'index : nom exact et identifiant du parent (null pour une racine)
+     */
+    public record CategoryKey(String name, Long parentId) {
+    }
+}
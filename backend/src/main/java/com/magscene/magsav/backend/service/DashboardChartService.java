@@ -0,0 +1,138 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.ServiceRequestRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Données des graphiques du tableau de bord, calculées par GROUP BY en base et gardées en cache
+ * jusqu'à la prochaine modification des entités concernées (signalée par
+ * DashboardStatsEventListener) ou au changement de mois.
+ */
+@Service
+public class DashboardChartService {
+
+    private static final int SAV_MONTHS = 6;
+    private static final String UNCATEGORIZED = "Non categorise";
+    private static final String[] MONTH_NAMES = { "", "Jan", "Fev", "Mar", "Avr", "Mai", "Juin",
+            "Juil", "Aout", "Sept", "Oct", "Nov", "Dec" };
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    // Horloge du mois courant (remplaçable en test)
+    Clock clock = Clock.systemDefaultZone();
+
+    private final CachedChart savByMonth = new CachedChart();
+    private final CachedChart equipmentByCategory = new CachedChart();
+
+    /**
+     * Demandes SAV créées sur les six derniers mois (mois courant inclus), du plus ancien au plus récent
+     */
+    public List<Map<String, Object>> getSavByMonth() {
+        YearMonth currentMonth = YearMonth.now(clock);
+        return savByMonth.get(currentMonth, () -> computeSavByMonth(currentMonth));
+    }
+
+    /**
+     * Nombre d'équipements par catégorie (sans catégorie : "Non categorise")
+     */
+    public List<Map<String, Object>> getEquipmentByCategory() {
+        return equipmentByCategory.get(null, this::computeEquipmentByCategory);
+    }
+
+    /**
+     * Demande SAV créée, supprimée ou dont la date de création a changé
+     */
+    public void invalidateSav() {
+        savByMonth.invalidate();
+    }
+
+    /**
+     * Équipement créé, supprimé ou changé de catégorie
+     */
+    public void invalidateEquipment() {
+        equipmentByCategory.invalidate();
+    }
+
+    public void invalidateAll() {
+        invalidateSav();
+        invalidateEquipment();
+    }
+
+    private List<Map<String, Object>> computeSavByMonth(YearMonth currentMonth) {
+        YearMonth firstMonth = currentMonth.minusMonths(SAV_MONTHS - 1);
+        Map<YearMonth, Long> counts = new HashMap<>();
+        for (Object[] row : serviceRequestRepository.countByMonthSince(firstMonth.atDay(1).atStartOfDay())) {
+            counts.put(YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue()),
+                    ((Number) row[2]).longValue());
+        }
+
+        List<Map<String, Object>> monthlyData = new ArrayList<>(SAV_MONTHS);
+        for (YearMonth month = firstMonth; !month.isAfter(currentMonth); month = month.plusMonths(1)) {
+            Map<String, Object> monthData = new HashMap<>();
+            monthData.put("month", MONTH_NAMES[month.getMonthValue()]);
+            monthData.put("count", counts.getOrDefault(month, 0L));
+            monthData.put("year", month.getYear());
+            monthlyData.add(Map.copyOf(monthData));
+        }
+        return List.copyOf(monthlyData);
+    }
+
+    private List<Map<String, Object>> computeEquipmentByCategory() {
+        Map<String, Long> categoryCounts = new LinkedHashMap<>();
+        for (Object[] row : equipmentRepository.countByCategory()) {
+            String category = row[0] != null ? (String) row[0] : UNCATEGORIZED;
+            categoryCounts.merge(category, (Long) row[1], Long::sum);
+        }
+
+        List<Map<String, Object>> categoryData = new ArrayList<>(categoryCounts.size());
+        categoryCounts.forEach((category, count) -> categoryData.add(Map.of("category", category, "count", count)));
+        return List.copyOf(categoryData);
+    }
+
+    /**
+     * Résultat en cache, valable pour une période (bucket) et une version des données.
+     * Une invalidation pendant le calcul empêche la mise en cache d'un résultat déjà périmé.
+     */
+    private static final class CachedChart {
+
+        private final AtomicLong version = new AtomicLong();
+        private volatile Entry entry;
+
+        List<Map<String, Object>> get(Object bucket, Supplier<List<Map<String, Object>>> compute) {
+            Entry current = entry;
+            long currentVersion = version.get();
+            if (current != null && current.version == currentVersion && Objects.equals(current.bucket, bucket)) {
+                return current.value;
+            }
+            List<Map<String, Object>> value = compute.get();
+            if (version.get() == currentVersion) {
+                entry = new Entry(bucket, currentVersion, value);
+            }
+            return value;
+        }
+
+        void invalidate() {
+            version.incrementAndGet();
+        }
+
+        private record Entry(Object bucket, long version, List<Map<String, Object>> value) {
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.magscene.magsav.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Met à jour les compteurs du tableau de bord après chaque commit (création, suppression
+ * et changement de statut des entités suivies) et invalide les graphiques concernés.
+ */
+@Component
+public class DashboardStatsEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private static final String STATUS = "status";
+    private static final String CATEGORY = "category";
+    private static final String CREATED_AT = "createdAt";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private DashboardChartService dashboardChartService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        String group = dashboardStatsService.groupOf(event.getEntity().getClass());
+        if (group != null) {
+            dashboardStatsService.added(group, property(event.getPersister(), event.getState(), STATUS));
+            invalidateCharts(group);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        String group = dashboardStatsService.groupOf(event.getEntity().getClass());
+        if (group == null) {
+            return;
+        }
+        if (event.getOldState() == null) {
+            // Entité mise à jour sans état initial connu : recalage
+            dashboardStatsService.requestReconcile();
+            invalidateCharts(group);
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        dashboardStatsService.statusChanged(group, property(persister, event.getOldState(), STATUS),
+                property(persister, event.getState(), STATUS));
+
+        String chartProperty = DashboardStatsService.EQUIPMENT.equals(group) ? CATEGORY
+                : DashboardStatsService.SAV.equals(group) ? CREATED_AT : null;
+        if (chartProperty != null && !Objects.equals(property(persister, event.getOldState(), chartProperty),
+                property(persister, event.getState(), chartProperty))) {
+            invalidateCharts(group);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        String group = dashboardStatsService.groupOf(event.getEntity().getClass());
+        if (group != null) {
+            dashboardStatsService.removed(group, property(event.getPersister(), event.getDeletedState(), STATUS));
+            invalidateCharts(group);
+        }
+    }
+
+    private void invalidateCharts(String group) {
+        if (DashboardStatsService.EQUIPMENT.equals(group)) {
+            dashboardChartService.invalidateEquipment();
+        } else if (DashboardStatsService.SAV.equals(group)) {
+            dashboardChartService.invalidateSav();
+        }
+    }
+
+    private static Object property(EntityPersister persister, Object[] state, String name) {
+        int index = Arrays.asList(persister.getPropertyNames()).indexOf(name);
+        return index >= 0 && state != null ? state[index] : null;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return dashboardStatsService.groupOf(persister.getMappedClass()) != null;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : compteurs inchangés
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : compteurs inchangés
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Transaction annulée : compteurs inchangés
+    }
+}
@@ -0,0 +1,239 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Client;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.Personnel;
+import com.magscene.magsav.backend.entity.Project;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+import com.magscene.magsav.backend.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs du tableau de bord tenus en mémoire : mis à jour à chaque commit par
+ * DashboardStatsEventListener et recalés périodiquement sur la base (une requête
+ * GROUP BY par entité). La lecture des statistiques ne fait aucune requête.
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    public static final String EQUIPMENT = "equipment";
+    public static final String SAV = "sav";
+    public static final String CLIENTS = "clients";
+    public static final String VEHICLES = "vehicles";
+    public static final String PERSONNEL = "personnel";
+    public static final String PROJECTS = "projects";
+
+    // Entités suivies ; toutes ont un attribut "status"
+    private static final Map<Class<?>, String> TRACKED = Map.of(
+            Equipment.class, EQUIPMENT,
+            ServiceRequest.class, SAV,
+            Client.class, CLIENTS,
+            Vehicle.class, VEHICLES,
+            Personnel.class, PERSONNEL,
+            Project.class, PROJECTS);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardChartService dashboardChartService;
+
+    @Autowired
+    @Qualifier("virtualThreadExecutor")
+    private Executor executor;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconcileScheduled = new AtomicBoolean();
+    private volatile boolean loaded;
+
+    /**
+     * Groupe de compteurs d'une classe d'entité (null si non suivie)
+     */
+    public String groupOf(Class<?> entityClass) {
+        for (Map.Entry<Class<?>, String> entry : TRACKED.entrySet()) {
+            if (entry.getKey().isAssignableFrom(entityClass)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Entité créée (après commit)
+     */
+    public void added(String group, Object status) {
+        counters(group).add(status, 1);
+    }
+
+    /**
+     * Entité supprimée (après commit)
+     */
+    public void removed(String group, Object status) {
+        counters(group).add(status, -1);
+    }
+
+    /**
+     * Changement de statut (après commit)
+     */
+    public void statusChanged(String group, Object oldStatus, Object newStatus) {
+        if (oldStatus == newStatus || (oldStatus != null && oldStatus.equals(newStatus))) {
+            return;
+        }
+        Counters groupCounters = counters(group);
+        groupCounters.byStatus(oldStatus).decrementAndGet();
+        groupCounters.byStatus(newStatus).incrementAndGet();
+    }
+
+    /**
+     * Recaler les compteurs au plus tôt, en arrière-plan (modification dont l'état
+     * précédent est inconnu, suppression en masse...)
+     */
+    public void requestReconcile() {
+        if (reconcileScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                reconcileScheduled.set(false);
+                reconcile();
+            });
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recompter depuis la base. Une modification validée pendant le recalage peut être
+     * comptée deux fois ou pas du tout : l'écart est corrigé au recalage suivant.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.dashboard.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        try {
+            Map<String, Counters> fresh = transactionTemplate.execute(status -> {
+                Map<String, Counters> result = new HashMap<>();
+                for (Map.Entry<Class<?>, String> entry : TRACKED.entrySet()) {
+                    result.put(entry.getValue(), countFromDatabase(entry.getKey()));
+                }
+                return result;
+            });
+            boolean drift = loaded && fresh.entrySet().stream()
+                    .anyMatch(entry -> !entry.getValue().snapshot().equals(counters(entry.getKey()).snapshot()));
+            counters.putAll(fresh);
+            loaded = true;
+            if (drift) {
+                // Modifications hors entités (requêtes en masse...) : les graphiques sont aussi périmés
+                dashboardChartService.invalidateAll();
+                logger.info("📊 Compteurs du tableau de bord recalés sur la base");
+            }
+            logger.debug("📊 Compteurs du tableau de bord recalculés en {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("❌ Erreur recalcul des compteurs du tableau de bord: {}", e.getMessage(), e);
+        }
+    }
+
+    private Counters countFromDatabase(Class<?> entityClass) {
+        List<Object[]> rows = entityManager.createQuery(
+                "SELECT x.status, COUNT(x) FROM " + entityClass.getSimpleName() + " x GROUP BY x.status",
+                Object[].class).getResultList();
+        Counters result = new Counters();
+        for (Object[] row : rows) {
+            long count = (Long) row[1];
+            result.byStatus(row[0]).set(count);
+            result.total.addAndGet(count);
+        }
+        return result;
+    }
+
+    /**
+     * Nombre total d'entités d'un groupe
+     */
+    public long total(String group) {
+        ensureLoaded();
+        return counters(group).total.get();
+    }
+
+    /**
+     * Nombre d'entités d'un groupe ayant l'un des statuts donnés
+     */
+    public long count(String group, Enum<?>... statuses) {
+        ensureLoaded();
+        Counters groupCounters = counters(group);
+        long sum = 0;
+        for (Enum<?> status : statuses) {
+            AtomicLong value = groupCounters.byStatus.get(status.name());
+            sum += value != null ? value.get() : 0;
+        }
+        return sum;
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reconcile();
+                }
+            }
+        }
+    }
+
+    private Counters counters(String group) {
+        return counters.computeIfAbsent(group, key -> new Counters());
+    }
+
+    /**
+     * Total et répartition par statut d'un groupe
+     */
+    private static final class Counters {
+
+        private static final String NO_STATUS = "";
+
+        private final AtomicLong total = new AtomicLong();
+        private final Map<String, AtomicLong> byStatus = new ConcurrentHashMap<>();
+
+        void add(Object status, int delta) {
+            total.addAndGet(delta);
+            byStatus(status).addAndGet(delta);
+        }
+
+        AtomicLong byStatus(Object status) {
+            String key = status instanceof Enum<?> value ? value.name() : status != null ? status.toString() : NO_STATUS;
+            return byStatus.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> values = new HashMap<>();
+            byStatus.forEach((status, value) -> {
+                if (value.get() != 0) {
+                    values.put(status, value.get());
+                }
+            });
+            values.put("total", total.get());
+            return values;
+        }
+    }
+}
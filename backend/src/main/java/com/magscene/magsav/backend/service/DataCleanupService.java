@@ -3,12 +3,16 @@ package com.magscene.magsav.backend.service;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 /**
  * Service de nettoyage des données au démarrage
  * Nettoie les codes LOCMAT en supprimant les caractères "*"
+ * et recale la séquence des équipements sur les données existantes
  */
 @Service
 public class DataCleanupService {
@@ -48,4 +52,35 @@ public class DataCleanupService {
             return 0;
         }
     }
+
+    /**
+     * Recale la séquence equipment_seq au-delà du plus grand ID existant.
+     * Nécessaire pour les bases créées avec l'ancienne stratégie IDENTITY :
+     * la séquence démarre à 1 alors que la table contient déjà des lignes.
+     * Requêtes propres à H2 : ignoré sur une autre base.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resyncEquipmentSequence() {
+        try {
+            String database = jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            if (!"H2".equals(database)) {
+                logger.debug("Recalage de la séquence equipment_seq ignoré (base {})", database);
+                return;
+            }
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM equipment", Long.class);
+            Long nextValue = jdbcTemplate.queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'EQUIPMENT_SEQ'",
+                    Long.class);
+
+            if (maxId != null && nextValue != null && nextValue <= maxId) {
+                // Optimiseur "pooled" : la valeur lue est la borne haute du bloc de 50 IDs
+                long restartValue = maxId + 50;
+                jdbcTemplate.execute("ALTER SEQUENCE equipment_seq RESTART WITH " + restartValue);
+                logger.info("✅ Séquence equipment_seq recalée à {} (max ID: {})", restartValue, maxId);
+            }
+        } catch (Exception e) {
+            logger.error("❌ Erreur lors du recalage de la séquence equipment_seq: {}", e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,162 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.dto.EquipmentDTO;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.EquipmentSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listing paginé des équipements : pagination classique (page/size/sort) ou par keyset
+ * (curseur opaque), dont le coût ne dépend pas de la profondeur de défilement.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EquipmentListingService {
+
+    // Colonnes triables (liste blanche)
+    private static final Set<String> SORTABLE = Set.of("id", "name", "category", "subCategory", "brand",
+            "location", "status", "qrCode", "createdAt", "updatedAt");
+
+    // Colonnes non nulles utilisables comme clé de keyset
+    private static final Set<String> KEYSET_SORTABLE = Set.of("id", "name");
+
+    private static final char CURSOR_SEPARATOR = '\u0000';
+
+    // Attributs projetés, dans l'ordre du constructeur de EquipmentDTO
+    private static final List<String> DTO_ATTRIBUTES = Arrays.stream(EquipmentRepository.DTO_COLUMNS.split(","))
+            .map(column -> column.trim().substring("e.".length()))
+            .toList();
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Page classique (offset)
+     */
+    public Page<EquipmentDTO> findPage(Specification<Equipment> filter, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Tri non supporté: " + order.getProperty());
+            }
+        }
+        List<EquipmentDTO> content = selectDtos(filter, pageable.getSort(), (int) pageable.getOffset(),
+                pageable.getPageSize());
+        // COUNT évité quand la page est incomplète
+        return PageableExecutionUtils.getPage(content, pageable, () -> equipmentRepository.count(filter));
+    }
+
+    /**
+     * Page suivant un curseur (keyset) : WHERE (tri, id) > (dernière valeur, dernier id) ORDER BY tri, id LIMIT size.
+     * Seul le premier critère de tri est utilisé ; l'id sert de départage.
+     *
+     * @param cursor curseur renvoyé par la page précédente (null pour la première page)
+     */
+    public KeysetPage findAfter(Specification<Equipment> filter, Sort sort, String cursor, int size) {
+        Sort.Order order = sort.isSorted() ? sort.iterator().next() : Sort.Order.asc("id");
+        String property = order.getProperty();
+        if (!KEYSET_SORTABLE.contains(property)) {
+            throw new IllegalArgumentException("Tri par curseur possible uniquement sur: " + KEYSET_SORTABLE);
+        }
+
+        Specification<Equipment> spec = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor, property);
+            Long lastId;
+            try {
+                lastId = Long.valueOf(position[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            spec = spec.and(EquipmentSpecifications.after(property, position[0], lastId, order.getDirection()));
+        }
+
+        Sort keysetSort = "id".equals(property) ? Sort.by(order.getDirection(), "id")
+                : Sort.by(order.getDirection(), property, "id");
+        // Une ligne de plus que demandé pour savoir s'il existe une page suivante, sans COUNT
+        List<EquipmentDTO> rows = selectDtos(spec, keysetSort, 0, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<EquipmentDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? encodeCursor(property, content.get(content.size() - 1)) : null;
+        return new KeysetPage(List.copyOf(content), nextCursor, hasNext);
+    }
+
+    /**
+     * Requête Criteria projetée directement en EquipmentDTO (SELECT new), sans entité managée
+     */
+    private List<EquipmentDTO> selectDtos(Specification<Equipment> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EquipmentDTO> query = cb.createQuery(EquipmentDTO.class);
+        Root<Equipment> root = query.from(Equipment.class);
+        query.select(cb.construct(EquipmentDTO.class,
+                DTO_ATTRIBUTES.stream().map(root::get).toArray(Selection[]::new)));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private String encodeCursor(String property, EquipmentDTO last) {
+        String raw = "id".equals(property) ? String.valueOf(last.getId())
+                : last.getName() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return [valeur de tri, id]
+     */
+    private String[] decodeCursor(String cursor, String property) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide");
+        }
+        if ("id".equals(property)) {
+            return new String[] { null, raw };
+        }
+        int separator = raw.lastIndexOf(CURSOR_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Curseur invalide pour le tri " + property);
+        }
+        return new String[] { raw.substring(0, separator), raw.substring(separator + 1) };
+    }
+
+    /**
+     * Page obtenue par curseur
+     */
+    public record KeysetPage(List<EquipmentDTO> content, String nextCursor, boolean hasNext) {
+    }
+}
@@ -0,0 +1,440 @@
+package com.magscene.magsav.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.TimeStampMilliVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moteur d'export en flux (CSV, XLSX, Arrow IPC) : les lignes sont lues par une requête en streaming
+ * (fetch size) et écrites directement dans la réponse HTTP, sans construire le fichier en mémoire.
+ * La mémoire utilisée ne dépend pas du nombre de lignes exportées.
+ */
+@Service
+public class ExportService {
+
+    private static final DateTimeFormatter CSV_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    // Entités détachées par paquets, au rythme du fetch size des requêtes streamAll()
+    private static final int CLEAR_INTERVAL = 500;
+
+    // Lignes par lot Arrow (record batch)
+    private static final int ARROW_BATCH_SIZE = 4096;
+
+    // Lignes XLSX gardées en mémoire avant écriture sur disque
+    private static final int XLSX_WINDOW_SIZE = 100;
+
+    // Limites d'Excel : 1 048 576 lignes par feuille (en-tête compris), 32 767 caractères par cellule
+    private static final int XLSX_MAX_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+    private static final int XLSX_MAX_CELL_LENGTH = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    // Montants : DECIMAL(18, 2), comme les colonnes monétaires en base
+    private static final int DECIMAL_PRECISION = 18;
+    private static final int DECIMAL_SCALE = 2;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private volatile Boolean arrowAvailable;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Corps de réponse CSV, écrit au fil de la lecture
+     *
+     * @param gzip compresser le flux (Content-Encoding: gzip)
+     */
+    public <T> StreamingResponseBody csv(Table<T> table, boolean gzip) {
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+            writeCsv(table, writer);
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+    }
+
+    /**
+     * Corps de réponse Arrow IPC (format stream), écrit par lots de ARROW_BATCH_SIZE lignes
+     */
+    public <T> StreamingResponseBody arrow(Table<T> table, boolean gzip) {
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+            writeArrow(table, target);
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        };
+    }
+
+    /**
+     * Arrow utilisable ? (la JVM doit être lancée avec --add-opens=java.base/java.nio=ALL-UNNAMED)
+     */
+    public boolean isArrowAvailable() {
+        Boolean available = arrowAvailable;
+        if (available == null) {
+            try (BufferAllocator allocator = new RootAllocator()) {
+                available = true;
+            } catch (Throwable e) {
+                logger.warn("⚠️ Export Arrow indisponible: {}", e.getMessage());
+                available = false;
+            }
+            arrowAvailable = available;
+        }
+        return available;
+    }
+
+    /**
+     * Écrire une table au format Arrow IPC : les types des colonnes sont conservés
+     * (entiers, décimaux, dates, horodatages) et seul le lot en cours est en mémoire.
+     */
+    public <T> void writeArrow(Table<T> table, OutputStream out) throws IOException {
+        Schema schema = new Schema(table.columns().stream()
+                .map(column -> Field.nullable(column.header(), arrowType(column.type())))
+                .toList());
+        try (BufferAllocator allocator = new RootAllocator();
+                VectorSchemaRoot root = VectorSchemaRoot.create(schema, allocator);
+                ArrowStreamWriter writer = new ArrowStreamWriter(root, null, Channels.newChannel(out))) {
+            writer.start();
+            List<FieldVector> vectors = root.getFieldVectors();
+            int[] index = { 0 };
+            root.allocateNew();
+            forEachRow(table, row -> {
+                for (int i = 0; i < vectors.size(); i++) {
+                    Column<T> column = table.columns().get(i);
+                    setArrowValue(vectors.get(i), column.type(), index[0], column.value().apply(row));
+                }
+                if (++index[0] == ARROW_BATCH_SIZE) {
+                    writeArrowBatch(root, writer, index[0]);
+                    index[0] = 0;
+                }
+            });
+            if (index[0] > 0) {
+                writeArrowBatch(root, writer, index[0]);
+            }
+            writer.end();
+        }
+    }
+
+    private static void writeArrowBatch(VectorSchemaRoot root, ArrowStreamWriter writer, int rowCount) {
+        try {
+            root.setRowCount(rowCount);
+            writer.writeBatch();
+            root.allocateNew();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ArrowType arrowType(ColumnType type) {
+        return switch (type) {
+            case STRING -> ArrowType.Utf8.INSTANCE;
+            case INTEGER -> new ArrowType.Int(32, true);
+            case LONG -> new ArrowType.Int(64, true);
+            case DOUBLE -> new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+            case DECIMAL -> new ArrowType.Decimal(DECIMAL_PRECISION, DECIMAL_SCALE, 128);
+            case DATE -> new ArrowType.Date(DateUnit.DAY);
+            case DATETIME -> new ArrowType.Timestamp(TimeUnit.MILLISECOND, null);
+        };
+    }
+
+    private static void setArrowValue(FieldVector vector, ColumnType type, int index, Object value) {
+        if (value == null) {
+            if (vector instanceof BaseVariableWidthVector variable) {
+                variable.setNull(index);
+            } else {
+                ((BaseFixedWidthVector) vector).setNull(index);
+            }
+            return;
+        }
+        switch (type) {
+            case STRING -> ((VarCharVector) vector).setSafe(index, value.toString().getBytes(StandardCharsets.UTF_8));
+            case INTEGER -> ((IntVector) vector).setSafe(index, ((Number) value).intValue());
+            case LONG -> ((BigIntVector) vector).setSafe(index, ((Number) value).longValue());
+            case DOUBLE -> ((Float8Vector) vector).setSafe(index, ((Number) value).doubleValue());
+            case DECIMAL -> ((DecimalVector) vector).setSafe(index,
+                    ((BigDecimal) value).setScale(DECIMAL_SCALE, RoundingMode.HALF_UP));
+            case DATE -> ((DateDayVector) vector).setSafe(index, (int) ((LocalDate) value).toEpochDay());
+            case DATETIME -> ((TimeStampMilliVector) vector).setSafe(index,
+                    ((LocalDateTime) value).toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+    }
+
+    /**
+     * Corps de réponse XLSX. Le classeur est construit en flux (SXSSF) : seules XLSX_WINDOW_SIZE
+     * lignes restent en mémoire, les autres sont écrites dans des fichiers temporaires compressés.
+     */
+    public <T> StreamingResponseBody xlsx(Table<T> table) {
+        return out -> writeXlsx(table, out);
+    }
+
+    /**
+     * Écrire une table au format XLSX : une feuille avec en-tête figé, cellules typées
+     * (nombres, dates) et nouvelle feuille au-delà de la limite de lignes d'Excel
+     */
+    public <T> void writeXlsx(Table<T> table, OutputStream out) throws IOException {
+        // close() supprime aussi les fichiers temporaires des feuilles
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_WINDOW_SIZE)) {
+            workbook.setCompressTempFiles(true);
+            XlsxSheetWriter<T> sheetWriter = new XlsxSheetWriter<>(workbook, table);
+            forEachRow(table, sheetWriter::write);
+            workbook.write(out);
+        }
+    }
+
+    /**
+     * Écrire une table au format CSV (en-tête puis une ligne par entité)
+     */
+    public <T> void writeCsv(Table<T> table, Writer writer) throws IOException {
+        writeCsvLine(writer, table.columns().stream().map(Column::header).toList());
+        forEachRow(table, row -> {
+            try {
+                Iterator<Column<T>> columns = table.columns().iterator();
+                while (columns.hasNext()) {
+                    writer.write(escapeCsv(formatCsv(columns.next().value().apply(row))));
+                    if (columns.hasNext()) {
+                        writer.write(',');
+                    }
+                }
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Parcourir toutes les lignes d'une table dans une transaction en lecture seule.
+     * Le contexte de persistance est vidé régulièrement : seul un paquet de lignes reste en mémoire.
+     */
+    public <T> void forEachRow(Table<T> table, Consumer<T> consumer) throws IOException {
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<T> rows = table.rows().get()) {
+                    int count = 0;
+                    Iterator<T> iterator = rows.iterator();
+                    while (iterator.hasNext()) {
+                        consumer.accept(iterator.next());
+                        if (++count % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private static String formatCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.format(CSV_DATE_FORMAT);
+        }
+        return value.toString();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Écriture des lignes d'une table dans le classeur, feuille après feuille
+     */
+    private static final class XlsxSheetWriter<T> {
+
+        private final SXSSFWorkbook workbook;
+        private final Table<T> table;
+        private final CellStyle[] styles;
+        private final CellStyle headerStyle;
+        private SXSSFSheet sheet;
+        private int sheetCount;
+        private int rowIndex;
+
+        XlsxSheetWriter(SXSSFWorkbook workbook, Table<T> table) {
+            this.workbook = workbook;
+            this.table = table;
+
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+
+            DataFormat format = workbook.createDataFormat();
+            styles = new CellStyle[table.columns().size()];
+            for (int i = 0; i < styles.length; i++) {
+                String pattern = switch (table.columns().get(i).type()) {
+                    case DECIMAL -> "#,##0.00";
+                    case DATE -> "dd/mm/yyyy";
+                    case DATETIME -> "dd/mm/yyyy hh:mm:ss";
+                    default -> null;
+                };
+                if (pattern != null) {
+                    styles[i] = workbook.createCellStyle();
+                    styles[i].setDataFormat(format.getFormat(pattern));
+                }
+            }
+            newSheet();
+        }
+
+        void write(T row) {
+            if (rowIndex > XLSX_MAX_ROW_INDEX) {
+                newSheet();
+            }
+            Row sheetRow = sheet.createRow(rowIndex++);
+            for (int i = 0; i < styles.length; i++) {
+                Column<T> column = table.columns().get(i);
+                Object value = column.value().apply(row);
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = sheetRow.createCell(i);
+                switch (column.type()) {
+                    case STRING -> cell.setCellValue(truncate(value.toString()));
+                    case INTEGER, LONG, DOUBLE, DECIMAL -> cell.setCellValue(((Number) value).doubleValue());
+                    case DATE -> cell.setCellValue((LocalDate) value);
+                    case DATETIME -> cell.setCellValue((LocalDateTime) value);
+                }
+                if (styles[i] != null) {
+                    cell.setCellStyle(styles[i]);
+                }
+            }
+        }
+
+        private void newSheet() {
+            sheetCount++;
+            String name = sheetCount == 1 ? table.name() : table.name() + "_" + sheetCount;
+            sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(name));
+            sheet.createFreezePane(0, 1);
+
+            Row header = sheet.createRow(0);
+            for (int i = 0; i < styles.length; i++) {
+                String title = table.columns().get(i).header();
+                Cell cell = header.createCell(i);
+                cell.setCellValue(title);
+                cell.setCellStyle(headerStyle);
+                sheet.setColumnWidth(i, Math.max(12, title.length() + 4) * 256);
+            }
+            rowIndex = 1;
+        }
+
+        // Limite d'une cellule texte dans Excel
+        private static String truncate(String value) {
+            return value.length() > XLSX_MAX_CELL_LENGTH ? value.substring(0, XLSX_MAX_CELL_LENGTH) : value;
+        }
+    }
+
+    /**
+     * Table exportable : colonnes et source des lignes (flux à fermer après lecture)
+     */
+    public record Table<T>(String name, List<Column<T>> columns, Supplier<Stream<T>> rows) {
+    }
+
+    /**
+     * Colonne exportée : en-tête, type de la valeur et extraction depuis l'entité
+     */
+    public record Column<T>(String header, ColumnType type, Function<T, Object> value) {
+
+        public static <T> Column<T> of(String header, ColumnType type, Function<T, Object> value) {
+            return new Column<>(header, type, value);
+        }
+    }
+
+    /**
+     * Type d'une colonne (les formats typés conservent l'information, le CSV la met en texte)
+     */
+    public enum ColumnType {
+        STRING, INTEGER, LONG, DOUBLE,
+        // BigDecimal (montant, 2 décimales)
+        DECIMAL,
+        // LocalDate
+        DATE,
+        // LocalDateTime (heure locale, sans fuseau)
+        DATETIME
+    }
+}
@@ -0,0 +1,203 @@
+package com.magscene.magsav.backend.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Envoi de fichiers stockés sur disque (photos, documents) :
+ * <ul>
+ * <li>requêtes conditionnelles (If-None-Match, If-Modified-Since) : 304 à partir des
+ * métadonnées gardées en mémoire, sans accès disque</li>
+ * <li>téléchargement partiel (Range, If-Range) : 206, ou 416 si la plage est invalide</li>
+ * <li>envoi sans copie : sendfile de Tomcat si disponible, sinon FileChannel.transferTo</li>
+ * </ul>
+ * Les fichiers servis ne sont jamais réécrits sur place (nouveau fichier à chaque upload) :
+ * leurs métadonnées restent valables tant que le fichier n'est pas supprimé (voir evict).
+ */
+@Service
+public class FileDownloadService {
+
+    // Attributs de requête du sendfile de Tomcat (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // En dessous, une copie classique coûte moins que la mise en place du sendfile (seuil de Tomcat)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    // Au-delà, le cache est vidé plutôt que de grossir sans limite
+    private static final int MAX_CACHED_FILES = 50_000;
+
+    private final Map<Path, FileMetadata> metadataCache = new ConcurrentHashMap<>();
+
+    /**
+     * Taille, date de modification et ETag d'un fichier stocké
+     */
+    public record FileMetadata(Path path, long length, long lastModified, String etag) {
+    }
+
+    /**
+     * Métadonnées d'un fichier, lues sur disque au premier accès puis gardées en mémoire.
+     *
+     * @return null si le fichier n'existe pas
+     */
+    public FileMetadata metadata(Path path) throws IOException {
+        FileMetadata cached = metadataCache.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(attributes.size()) + "\"";
+        FileMetadata metadata = new FileMetadata(path, attributes.size(), lastModified, etag);
+        if (metadataCache.size() >= MAX_CACHED_FILES) {
+            metadataCache.clear();
+        }
+        metadataCache.put(path, metadata);
+        return metadata;
+    }
+
+    /**
+     * Oublier les métadonnées d'un fichier supprimé ou remplacé
+     */
+    public void evict(Path path) {
+        metadataCache.remove(path);
+    }
+
+    /**
+     * Envoyer un fichier (GET ou HEAD), en tenant compte des en-têtes conditionnels et de Range
+     *
+     * @param filename nom proposé au navigateur (Content-Disposition inline)
+     */
+    public void serve(HttpServletRequest request, HttpServletResponse response, FileMetadata file,
+            MediaType mediaType, String filename, CacheControl cacheControl) throws IOException {
+        String cacheHeader = cacheControl.getHeaderValue();
+        if (cacheHeader != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheHeader);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // 304 (ou 412 pour If-Match) : ETag et Last-Modified sont posés par Spring
+        if (new ServletWebRequest(request, response).checkNotModified(file.etag(), file.lastModified())) {
+            return;
+        }
+
+        response.setContentType(mediaType.toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename.replace("\"", "") + "\"");
+
+        long start = 0;
+        long end = file.length() - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && file.length() > 0 && rangeApplies(request, file)) {
+            HttpRange range = singleRange(rangeHeader);
+            if (range != null) {
+                try {
+                    start = range.getRangeStart(file.length());
+                    end = range.getRangeEnd(file.length());
+                } catch (IllegalArgumentException e) {
+                    start = file.length();
+                }
+                if (start >= file.length()) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length());
+                    response.setContentLength(0);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + file.length());
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(Math.max(length, 0));
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length <= 0) {
+            return;
+        }
+
+        if (length >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat envoie le fichier après le retour du contrôleur, directement du cache disque à la socket
+            request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(file.path(), start, length, response);
+    }
+
+    private static void transfer(Path path, long start, long length, HttpServletResponse response) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Range ignoré si If-Range ne correspond plus au fichier (ETag fort ou date) : réponse complète
+     */
+    private static boolean rangeApplies(HttpServletRequest request, FileMetadata file) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(file.etag());
+        }
+        try {
+            long date = request.getDateHeader(HttpHeaders.IF_RANGE);
+            return date >= 0 && file.lastModified() / 1000 <= date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Une seule plage prise en charge ; une demande de plusieurs plages reçoit le fichier complet
+     */
+    private static HttpRange singleRange(String rangeHeader) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.magscene.magsav.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Service de gestion des imports LOCMAT asynchrones.
+ * Le fichier reçu est copié dans un fichier temporaire puis importé sur le virtualThreadExecutor :
+ * la requête HTTP rend la main immédiatement et les jobs restent consultables en mémoire
+ * (progression, annulation, résultat final) depuis n'importe quel client.
+ */
+@Service
+public class LocmatImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocmatImportJobService.class);
+
+    // Durée de conservation des jobs terminés
+    private static final Duration JOB_RETENTION = Duration.ofHours(2);
+
+    private final LocmatImportService locmatImportService;
+    private final Executor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public LocmatImportJobService(LocmatImportService locmatImportService,
+            @Qualifier("virtualThreadExecutor") Executor executor) {
+        this.locmatImportService = locmatImportService;
+        this.executor = executor;
+    }
+
+    /**
+     * Enregistrer le fichier et lancer l'import en arrière-plan
+     */
+    public ImportJob submit(MultipartFile file) throws IOException {
+        purgeExpiredJobs();
+
+        String filename = file.getOriginalFilename();
+        boolean isCsv = filename != null && filename.toLowerCase().endsWith(".csv");
+        Path tempFile = Files.createTempFile("locmat-import-", isCsv ? ".csv" : ".xlsx");
+        file.transferTo(tempFile);
+
+        // Nombre de lignes connu dès la première passe de l'import (résolution des catégories), en arrière-plan
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), filename, file.getSize());
+        jobs.put(job.getId(), job);
+
+        logger.info("📥 Job d'import {} créé - Fichier: {}, Taille: {} bytes", job.getId(), filename, file.getSize());
+        executor.execute(() -> runJob(job, tempFile));
+        return job;
+    }
+
+    private void runJob(ImportJob job, Path tempFile) {
+        job.markRunning();
+        try {
+            locmatImportService.importLocmatData(job.getFilename(), new FileSystemResource(tempFile),
+                    job.getResult());
+            job.markFinished(job.getResult().isCancelled() ? JobStatus.CANCELLED : JobStatus.COMPLETED, null);
+            logger.info("✅ Job d'import {} terminé ({}) - {}", job.getId(), job.getStatus(),
+                    job.getResult().getSummary());
+        } catch (Exception e) {
+            logger.error("❌ Job d'import {} en échec: {}", job.getId(), e.getMessage(), e);
+            job.markFinished(JobStatus.FAILED, e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                logger.warn("⚠️ Impossible de supprimer le fichier temporaire {}: {}", tempFile, e.getMessage());
+            }
+        }
+    }
+
+    public Optional<ImportJob> getJob(String jobId) {
+        purgeExpiredJobs();
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Tous les jobs connus, du plus récent au plus ancien
+     */
+    public List<ImportJob> getJobs() {
+        purgeExpiredJobs();
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ImportJob::getSubmittedAt).reversed())
+                .toList();
+    }
+
+    /**
+     * Demander l'annulation d'un job : la lecture s'arrête à la ligne suivante
+     */
+    public Optional<ImportJob> cancel(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job != null && !job.isFinished()) {
+            job.getResult().cancel();
+            logger.info("🛑 Annulation demandée pour le job d'import {}", jobId);
+        }
+        return Optional.ofNullable(job);
+    }
+
+    /**
+     * Oublier les jobs terminés depuis plus de JOB_RETENTION, y compris quand plus aucun import n'est lancé
+     */
+    @Scheduled(fixedDelayString = "${app.locmat.import.job-purge-interval-ms:600000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    /**
+     * Statut d'un job d'import
+     */
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * Job d'import asynchrone et sa progression
+     */
+    public static class ImportJob {
+        private final String id;
+        private final String filename;
+        private final long fileSize;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final LocmatImportService.ImportResult result = new LocmatImportService.ImportResult();
+        private volatile JobStatus status = JobStatus.PENDING;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String failureMessage;
+
+        ImportJob(String id, String filename, long fileSize) {
+            this.id = id;
+            this.filename = filename;
+            this.fileSize = fileSize;
+        }
+
+        void markRunning() {
+            result.start();
+            startedAt = LocalDateTime.now();
+            status = JobStatus.RUNNING;
+        }
+
+        void markFinished(JobStatus finalStatus, String message) {
+            if (!result.isFinished()) {
+                result.finish();
+            }
+            failureMessage = message;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        public boolean isFinished() {
+            return status == JobStatus.COMPLETED || status == JobStatus.CANCELLED || status == JobStatus.FAILED;
+        }
+
+        /**
+         * Pourcentage d'avancement (-1 si le nombre total de lignes est inconnu)
+         */
+        public int getProgressPercent() {
+            if (isFinished()) {
+                return 100;
+            }
+            int total = result.getTotalRows();
+            return total > 0 ? Math.min(99, result.getProcessedRows() * 100 / total) : -1;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+
+        public LocalDateTime getSubmittedAt() {
+            return submittedAt;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public LocalDateTime getFinishedAt() {
+            return finishedAt;
+        }
+
+        public JobStatus getStatus() {
+            return status;
+        }
+
+        public String getFailureMessage() {
+            return failureMessage;
+        }
+
+        public LocmatImportService.ImportResult getResult() {
+            return result;
+        }
+    }
+}
@@ -2,24 +2,36 @@ package com.magscene.magsav.backend.service;
 
 import com.magscene.magsav.backend.entity.Category;
 import com.magscene.magsav.backend.entity.Equipment;
-import com.magscene.magsav.backend.repository.CategoryRepository;
 import com.magscene.magsav.backend.repository.EquipmentRepository;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.magscene.magsav.backend.util.OrderedPipeline;
+import com.magscene.magsav.backend.util.XlsxStreamReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,96 +43,112 @@ public class LocmatImportService {
 
     private static final Logger logger = LoggerFactory.getLogger(LocmatImportService.class);
 
+    // Propriétaire des équipements importés
+    private static final String DEFAULT_OWNER = "MAG SCENE";
+
     @Autowired
     private EquipmentRepository equipmentRepository;
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private CategoryIndexService categoryIndexService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Étage de parsing (parallèle, CPU)
+    @Autowired
+    @Qualifier("importParserExecutor")
+    private Executor parserExecutor;
+
+    // Étage d'écriture (un seul thread, ordonné)
+    @Autowired
+    @Qualifier("virtualThreadExecutor")
+    private Executor writerExecutor;
+
+    // Taille des lots d'écriture : flush JDBC batch puis clear du contexte de persistance
+    @Value("${app.locmat.import.chunk-size:500}")
+    private int chunkSize = 500;
 
-    // UID basés sur les catégories (3 lettres + 4 chiffres)
-    // Cache pour les compteurs d'UID par préfixe (évite les requêtes répétitives)
-    private Map<String, Integer> uidCounterCache = new HashMap<>();
+    // UID basés sur les catégories (3 lettres + 4 chiffres), réservés par blocs
+    @Autowired
+    private UidAllocationService uidAllocationService;
 
     /**
      * Importer les données depuis le fichier Excel LOCMAT
      */
     public ImportResult importLocmatData(MultipartFile file) throws IOException {
-        String filename = file.getOriginalFilename();
-        logger.info("🚀 Début import LOCMAT - Fichier: {}, Taille: {} bytes", filename, file.getSize());
+        logger.info("🚀 Début import LOCMAT - Fichier: {}, Taille: {} bytes", file.getOriginalFilename(),
+                file.getSize());
+        return importLocmatData(file.getOriginalFilename(), file, new ImportResult());
+    }
 
+    /**
+     * Importer les données LOCMAT depuis une source quelconque (upload ou fichier temporaire d'un job).
+     * Le résultat fourni est mis à jour au fil de l'eau : il peut être lu depuis un autre thread
+     * pour suivre la progression, et son annulation interrompt la lecture.
+     */
+    public ImportResult importLocmatData(String filename, InputStreamSource source, ImportResult result)
+            throws IOException {
         // Détection automatique du format
         if (filename != null && filename.toLowerCase().endsWith(".csv")) {
             logger.info("📄 Format détecté: CSV");
-            return importFromCsv(file);
+            return importFromCsv(filename, source, result);
         } else {
             logger.info("📊 Format détecté: Excel");
-            return importFromExcel(file);
+            return importFromExcel(filename, source, result);
         }
     }
 
     /**
      * Importer directement depuis un fichier CSV
      */
-    private ImportResult importFromCsv(MultipartFile file) throws IOException {
-        logger.info("🚀 Import CSV - Fichier: {}", file.getOriginalFilename());
-        ImportResult result = new ImportResult();
-        uidCounterCache.clear();
-
-        try (InputStream inputStream = file.getInputStream();
-                BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
-                CSVParser csvParser = CSVFormat.DEFAULT.builder()
-                        .setHeader()
-                        .setSkipHeaderRecord(true)
-                        .setIgnoreHeaderCase(true)
-                        .setTrim(true)
-                        .build()
-                        .parse(reader)) {
-
-            // Caches pour optimiser les recherches
-            Map<String, Category> categoryCache = new HashMap<>();
-            Map<String, Category> subCategoryCache = new HashMap<>();
-            Map<String, Category> brandCache = new HashMap<>();
-            Map<String, Category> ownerCache = new HashMap<>();
-
-            List<CSVRecord> records = csvParser.getRecords();
-            int totalRows = records.size();
-            logger.info("📊 {} lignes CSV à traiter", totalRows);
-
-            int rowNumber = 2; // Ligne 1 = header, données commencent à 2
-            for (CSVRecord record : records) {
-                // Log progress every 50 rows
-                if (rowNumber % 50 == 0) {
-                    logger.info("🔄 Progression: {}/{} lignes traitées ({}%)", rowNumber - 1, totalRows,
-                            ((rowNumber - 1) * 100) / totalRows);
-                }
+    private ImportResult importFromCsv(String filename, InputStreamSource source, ImportResult result)
+            throws IOException {
+        logger.info("🚀 Import CSV - Fichier: {}", filename);
 
-                try {
-                    LocmatRow locmatRow = parseCsvRecord(record, rowNumber);
-                    if (locmatRow != null && locmatRow.isValid()) {
-                        processLocmatRow(locmatRow, categoryCache, subCategoryCache,
-                                brandCache, ownerCache, result);
-                        logger.info("✅ Ligne {} traitée: {} - {}", rowNumber, locmatRow.codeLocmat,
-                                locmatRow.description);
-                    } else {
-                        logger.warn("⏭️ Ligne {} ignorée - locmatRow={}, valid={}", rowNumber,
-                                locmatRow != null ? "not null" : "null",
-                                locmatRow != null ? locmatRow.isValid() : "N/A");
-                        if (locmatRow != null) {
-                            logger.warn("   ➜ categorie={}, description={}", locmatRow.categorie,
-                                    locmatRow.description);
-                        }
+        try {
+            // Première passe : résoudre toutes les catégories avant d'écrire la moindre ligne
+            CategoryPlan categories = new CategoryPlan();
+            try (CSVParser csvParser = openCsv(source)) {
+                int rowCount = 0;
+                for (CSVRecord record : csvParser) {
+                    rowCount++;
+                    // Seules les colonnes des catégories sont lues : le parsing complet se fait
+                    // en parallèle lors de la seconde passe
+                    if (record.size() >= 11) {
+                        categories.collect(getCsvValue(record, 0), getCsvValue(record, 1), getCsvValue(record, 3),
+                                getCsvValue(record, 6));
                     }
-                } catch (Exception e) {
-                    String errorMsg = "Ligne " + rowNumber + ": " + e.getMessage();
-                    logger.error("❌ {}", errorMsg, e);
-                    result.addError(errorMsg);
                 }
+                result.setTotalRows(rowCount);
+            }
+            categories.resolve();
+
+            // Lecture en flux : le fichier n'est jamais chargé entièrement en mémoire.
+            // Parsing en parallèle, écriture ordonnée par un seul thread.
+            ImportWriter writer = new ImportWriter(result, categories);
+            try (CSVParser csvParser = openCsv(source);
+                    OrderedPipeline<PreparedRow> pipeline = newPipeline(writer)) {
+                int rowNumber = 2; // Ligne 1 = header, données commencent à 2
+                for (CSVRecord record : csvParser) {
+                    if (result.isCancelled()) {
+                        logger.info("🛑 Import CSV annulé après {} lignes", result.getProcessedRows());
+                        break;
+                    }
 
-                rowNumber++;
+                    int currentRow = rowNumber++;
+                    pipeline.submit(() -> prepareRow(currentRow, () -> parseCsvRecord(record, currentRow)));
+                }
+                pipeline.complete();
             }
+            writer.flush();
+            result.finish();
 
-            logger.info("✅ Import CSV terminé - Succès: {}, Erreurs: {}", result.getSuccessCount(),
-                    result.getErrors().size());
+            logger.info("✅ Import CSV terminé - Succès: {}, Erreurs: {}, Débit: {} lignes/s",
+                    result.getSuccessCount(), result.getErrorCount(), result.getRowsPerSecond());
 
         } catch (IOException e) {
             logger.error("❌ Erreur lecture fichier CSV: {}", e.getMessage(), e);
@@ -133,6 +161,21 @@ public class LocmatImportService {
         return result;
     }
 
+    /**
+     * Ouvrir le fichier CSV (en-tête sur la première ligne)
+     */
+    private CSVParser openCsv(InputStreamSource source) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(source.getInputStream(), StandardCharsets.UTF_8));
+        return CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .build()
+                .parse(reader);
+    }
+
     /**
      * Parser un enregistrement CSV en objet LocmatRow
      */
@@ -164,19 +207,12 @@ public class LocmatImportService {
 
             // Log pour debug (première ligne seulement)
             if (rowNumber == 2) {
-                logger.info("🔍 DEBUG Ligne 2: categorie='{}', description='{}', record.size()={}",
+                logger.debug("🔍 DEBUG Ligne 2: categorie='{}', description='{}', record.size()={}",
                         locmatRow.categorie, locmatRow.description, record.size());
             }
 
             // Extraction du modèle depuis le nom (entre parenthèses)
-            if (locmatRow.description != null && locmatRow.description.contains("(")
-                    && locmatRow.description.contains(")")) {
-                int start = locmatRow.description.indexOf("(");
-                int end = locmatRow.description.indexOf(")", start);
-                if (end > start) {
-                    locmatRow.modele = locmatRow.description.substring(start + 1, end).trim();
-                }
-            }
+            locmatRow.modele = extractModelFromName(locmatRow.description);
 
             locmatRow.numSerie = getCsvValue(record, 7); // N° Série
             locmatRow.quantite = getCsvValueAsInteger(record, 8); // Qté
@@ -184,7 +220,7 @@ public class LocmatImportService {
             locmatRow.valeur = getCsvValueAsDouble(record, 10); // Valeur
 
             // Propriétaire par défaut
-            locmatRow.proprietaire = "MAG SCENE";
+            locmatRow.proprietaire = DEFAULT_OWNER;
 
         } catch (Exception e) {
             logger.error("❌ Erreur parsing CSV ligne {}: {}", rowNumber, e.getMessage());
@@ -194,6 +230,18 @@ public class LocmatImportService {
         return locmatRow;
     }
 
+    /**
+     * Modèle indiqué entre parenthèses dans le nom, par exemple "Micro SM58 (SM58)"
+     */
+    private String extractModelFromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        int start = name.indexOf("(");
+        int end = start >= 0 ? name.indexOf(")", start) : -1;
+        return end > start ? name.substring(start + 1, end).trim() : null;
+    }
+
     /**
      * Obtenir une valeur CSV en String
      */
@@ -231,77 +279,79 @@ public class LocmatImportService {
     }
 
     /**
-     * Importer depuis un fichier Excel (méthode existante)
+     * Importer depuis un fichier Excel, lu en flux (modèle événementiel POI) :
+     * les lignes sont traitées au fil de la lecture sans construire le classeur en mémoire
      */
-    private ImportResult importFromExcel(MultipartFile file) throws IOException {
-        logger.info("🚀 Import Excel - Fichier: {}", file.getOriginalFilename());
-        ImportResult result = new ImportResult();
+    private ImportResult importFromExcel(String filename, InputStreamSource source, ImportResult result)
+            throws IOException {
+        logger.info("🚀 Import Excel - Fichier: {}", filename);
 
-        // Réinitialiser le cache des UIDs au début de chaque import
-        uidCounterCache.clear();
+        // Deux lectures du même fichier : l'upload n'est recopié sur disque qu'une fois
+        Path tempFile = source instanceof FileSystemResource ? null : spoolToTempFile(source);
+        File file = tempFile != null ? tempFile.toFile() : ((FileSystemResource) source).getFile();
 
-        try (InputStream inputStream = file.getInputStream();
-                XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-
-            logger.debug("📊 Workbook ouvert, nombre de sheets: {}", workbook.getNumberOfSheets());
-
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-
-            logger.debug("📋 Sheet sélectionnée: {}, Nombre de lignes: {}", sheet.getSheetName(),
-                    sheet.getLastRowNum() + 1);
-
-            // Ignorer la ligne d'en-tête
-            if (rowIterator.hasNext()) {
-                Row headerRow = rowIterator.next();
-                logger.debug("📝 En-tête ignorée: {} colonnes", headerRow.getLastCellNum());
+        try {
+            importExcelFile(file, result);
+        } finally {
+            if (tempFile != null) {
+                Files.deleteIfExists(tempFile);
             }
+        }
 
-            Map<String, Category> categoryCache = new HashMap<>();
-            Map<String, Category> subCategoryCache = new HashMap<>();
-            Map<String, Category> brandCache = new HashMap<>();
-            Map<String, Category> ownerCache = new HashMap<>();
-
-            int rowNumber = 2; // Commence à 2 car ligne 1 = en-tête
-
-            int totalRows = sheet.getLastRowNum();
-
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
+        return result;
+    }
 
-                // Log progress every 50 rows
-                if (rowNumber % 50 == 0) {
-                    logger.info("🔄 Progression: {}/{} lignes traitées ({}%)", rowNumber - 1, totalRows,
-                            ((rowNumber - 1) * 100) / totalRows);
+    private void importExcelFile(File file, ImportResult result) throws IOException {
+        try {
+            // Première passe : résoudre toutes les catégories avant d'écrire la moindre ligne
+            CategoryPlan categories = new CategoryPlan();
+            int[] rowCount = { 0 };
+            XlsxStreamReader.readFirstSheet(file, (rowIndex, cells) -> {
+                if (rowCount[0]++ > 0) {
+                    collectCategories(categories, cells);
                 }
+                return !result.isCancelled();
+            });
+            result.setTotalRows(Math.max(rowCount[0] - 1, 0));
+            categories.resolve();
+
+            // Seconde passe : parsing parallèle, écriture ordonnée par un seul thread
+            ImportWriter writer = new ImportWriter(result, categories);
+            try (OrderedPipeline<PreparedRow> pipeline = newPipeline(writer)) {
+                XlsxStreamReader.readFirstSheet(file, new XlsxStreamReader.RowHandler() {
+                    private boolean headerSkipped = false;
+
+                    @Override
+                    public boolean onRow(int rowIndex, XlsxStreamReader.CellValue[] cells) {
+                        // Ignorer la ligne d'en-tête
+                        if (!headerSkipped) {
+                            headerSkipped = true;
+                            logger.debug("📝 En-tête ignorée: {} colonnes", cells.length);
+                            return true;
+                        }
 
-                try {
-                    LocmatRow locmatRow = parseRow(row);
-                    if (locmatRow != null && locmatRow.isValid()) {
-                        processLocmatRow(locmatRow, categoryCache, subCategoryCache,
-                                brandCache, ownerCache, result);
-                        logger.info("✅ Ligne {} traitée: {} - {}", rowNumber, locmatRow.codeLocmat,
-                                locmatRow.description);
-                    } else {
-                        logger.warn("⏭️ Ligne {} ignorée - locmatRow={}, valid={}", rowNumber,
-                                locmatRow != null ? "not null" : "null",
-                                locmatRow != null ? locmatRow.isValid() : "N/A");
-                        if (locmatRow != null) {
-                            logger.warn("   ➜ categorie={}, description={}", locmatRow.categorie,
-                                    locmatRow.description);
+                        if (result.isCancelled()) {
+                            logger.info("🛑 Import Excel annulé après {} lignes", result.getProcessedRows());
+                            return false;
                         }
-                    }
-                } catch (Exception e) {
-                    String errorMsg = "Ligne " + rowNumber + ": " + e.getMessage();
-                    logger.error("❌ {}", errorMsg, e);
-                    result.addError(errorMsg);
-                }
 
-                rowNumber++;
+                        int rowNumber = rowIndex + 1;
+                        try {
+                            pipeline.submit(() -> prepareRow(rowNumber, () -> parseRow(cells)));
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return false;
+                        }
+                        return true;
+                    }
+                });
+                pipeline.complete();
             }
+            writer.flush();
+            result.finish();
 
-            logger.info("✅ Import terminé - Succès: {}, Erreurs: {}", result.getSuccessCount(),
-                    result.getErrors().size());
+            logger.info("✅ Import terminé - Succès: {}, Erreurs: {}, Débit: {} lignes/s", result.getSuccessCount(),
+                    result.getErrorCount(), result.getRowsPerSecond());
 
         } catch (IOException e) {
             logger.error("❌ Erreur lecture fichier Excel: {}", e.getMessage(), e);
@@ -310,15 +360,43 @@ public class LocmatImportService {
             logger.error("❌ Erreur inattendue durant l'import: {}", e.getMessage(), e);
             result.addError("Erreur inattendue: " + e.getMessage());
         }
+    }
 
-        return result;
+    /**
+     * Lire la première feuille d'un fichier XLSX en flux.
+     * Les uploads sont d'abord recopiés sur disque : OPCPackage lit alors le zip par accès direct
+     * au lieu de décompresser toutes ses entrées en mémoire.
+     */
+    private void readXlsx(InputStreamSource source, XlsxStreamReader.RowHandler handler) throws IOException {
+        if (source instanceof FileSystemResource fileResource) {
+            XlsxStreamReader.readFirstSheet(fileResource.getFile(), handler);
+            return;
+        }
+
+        Path tempFile = spoolToTempFile(source);
+        try {
+            XlsxStreamReader.readFirstSheet(tempFile.toFile(), handler);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private Path spoolToTempFile(InputStreamSource source) throws IOException {
+        Path tempFile = Files.createTempFile("locmat-", ".xlsx");
+        try (InputStream inputStream = source.getInputStream()) {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        return tempFile;
     }
 
     /**
      * Parser une ligne Excel en objet LocmatRow
      */
-    private LocmatRow parseRow(Row row) {
-        if (row == null || isEmptyRow(row)) {
+    private LocmatRow parseRow(XlsxStreamReader.CellValue[] cells) {
+        if (cells == null || isEmptyRow(cells)) {
             return null;
         }
 
@@ -329,339 +407,431 @@ public class LocmatImportService {
         // [5] Code LOCMAT, [6] Nom, [7] N° Série, [8] Qté, [9] Prix, [10] Valeur
 
         // Famille (colonne 0) - Grande catégorie
-        locmatRow.categorie = getCellValueAsString(row.getCell(0));
+        locmatRow.categorie = getCellValueAsString(getCell(cells, 0));
 
         // Catégorie (colonne 1) - Sous-catégorie
-        locmatRow.sousCategorie = getCellValueAsString(row.getCell(1));
+        locmatRow.sousCategorie = getCellValueAsString(getCell(cells, 1));
 
         // Type (colonne 2) - Catégorie spécifique
-        locmatRow.categorieSpecifique = getCellValueAsString(row.getCell(2));
+        locmatRow.categorieSpecifique = getCellValueAsString(getCell(cells, 2));
 
         // Marque (colonne 3)
-        locmatRow.marque = getCellValueAsString(row.getCell(3));
+        locmatRow.marque = getCellValueAsString(getCell(cells, 3));
 
         // Emplacement (colonne 4)
-        locmatRow.emplacement = getCellValueAsString(row.getCell(4));
+        locmatRow.emplacement = getCellValueAsString(getCell(cells, 4));
 
         // Code LOCMAT (colonne 5)
-        String rawCode = getCellValueAsString(row.getCell(5));
+        String rawCode = getCellValueAsString(getCell(cells, 5));
         locmatRow.codeLocmat = rawCode != null ? rawCode.replace("*", "").trim() : null;
 
         // Nom (colonne 6)
-        locmatRow.description = getCellValueAsString(row.getCell(6));
+        locmatRow.description = getCellValueAsString(getCell(cells, 6));
 
         // N° de Série (colonne 7)
-        locmatRow.numSerie = getCellValueAsString(row.getCell(7));
+        locmatRow.numSerie = getCellValueAsString(getCell(cells, 7));
 
         // Qté (colonne 8)
-        locmatRow.quantite = getCellValueAsInteger(row.getCell(8));
+        locmatRow.quantite = getCellValueAsInteger(getCell(cells, 8));
 
         // Prix d'achat (colonne 9)
-        locmatRow.prixAchat = getCellValueAsDouble(row.getCell(9));
+        locmatRow.prixAchat = getCellValueAsDouble(getCell(cells, 9));
 
         // Valeur (colonne 10)
-        locmatRow.valeur = getCellValueAsDouble(row.getCell(10));
+        locmatRow.valeur = getCellValueAsDouble(getCell(cells, 10));
 
         // Extraire modèle du nom si format: "description•marque•modèle"
-        if (locmatRow.description != null && locmatRow.description.contains("•")) {
-            String[] parts = locmatRow.description.split("•");
-            if (parts.length >= 2) {
-                locmatRow.description = parts[0].trim();
-                // Si marque vide, prendre de la colonne Nom
-                if (locmatRow.marque == null || locmatRow.marque.trim().isEmpty()) {
-                    locmatRow.marque = parts[1].trim();
-                }
-                // Modèle si présent
-                if (parts.length >= 3) {
-                    locmatRow.modele = parts[2].trim();
-                }
+        String[] parts = splitBulletName(locmatRow.description);
+        if (parts != null) {
+            locmatRow.description = parts[0];
+            // Si marque vide, prendre de la colonne Nom
+            if (locmatRow.marque == null || locmatRow.marque.trim().isEmpty()) {
+                locmatRow.marque = parts[1];
             }
+            locmatRow.modele = parts[2];
+        } else if (locmatRow.description == null || !locmatRow.description.contains("•")) {
+            // Sinon modèle entre parenthèses, comme pour le CSV (fichiers produits par l'export LOCMAT)
+            locmatRow.modele = extractModelFromName(locmatRow.description);
         }
 
         // Propriétaire par défaut
-        locmatRow.proprietaire = "MAG SCENE";
+        locmatRow.proprietaire = DEFAULT_OWNER;
 
         return locmatRow;
     }
 
     /**
-     * Traiter une ligne LOCMAT et créer les équipements correspondants
+     * Première passe Excel : lire uniquement Famille, Catégorie, Marque et Nom (validité de la
+     * ligne, marque du format "description•marque•modèle")
      */
-    private void processLocmatRow(LocmatRow row, Map<String, Category> categoryCache,
-            Map<String, Category> subCategoryCache,
-            Map<String, Category> brandCache,
-            Map<String, Category> ownerCache,
-            ImportResult result) {
-
-        try {
-            // Créer ou récupérer les catégories
-            Category mainCategory = getOrCreateCategory(row.categorie, null, categoryCache, "Catégorie principale");
-            Category subCategory = null;
-
-            if (row.sousCategorie != null && !row.sousCategorie.trim().isEmpty()) {
-                subCategory = getOrCreateCategory(row.sousCategorie, mainCategory, subCategoryCache, "Sous-catégorie");
-            }
-
-            // Créer ou récupérer les marques comme catégories
-            Category brandCategory = null;
-            if (row.marque != null && !row.marque.trim().isEmpty()) {
-                brandCategory = getOrCreateCategory("Marque: " + row.marque, null, brandCache, "Marque");
-            }
-
-            // Créer ou récupérer les propriétaires comme catégories
-            Category ownerCategory = null;
-            if (row.proprietaire != null && !row.proprietaire.trim().isEmpty()) {
-                ownerCategory = getOrCreateCategory("Propriétaire: " + row.proprietaire, null, ownerCache,
-                        "Propriétaire");
+    private void collectCategories(CategoryPlan categories, XlsxStreamReader.CellValue[] cells) {
+        String description = getCellValueAsString(getCell(cells, 6));
+        String marque = getCellValueAsString(getCell(cells, 3));
+        String[] parts = splitBulletName(description);
+        if (parts != null) {
+            description = parts[0];
+            if (marque == null || marque.trim().isEmpty()) {
+                marque = parts[1];
             }
+        }
+        categories.collect(getCellValueAsString(getCell(cells, 0)), getCellValueAsString(getCell(cells, 1)), marque,
+                description);
+    }
 
-            // Logique métier LOCMAT :
-            // - Si équipement sérialisé (a un numéro de série) → 1 équipement par ligne
-            // - Si équipement non sérialisé avec quantité → 1 ligne avec la quantité
-            // stockée
-            // - Si pas de série ET pas de quantité → 1 équipement avec quantité = 0
+    /**
+     * Nom au format "description•marque•modèle" : [description, marque, modèle (ou null)],
+     * null si le nom n'a pas ce format
+     */
+    private static String[] splitBulletName(String name) {
+        if (name == null || !name.contains("•")) {
+            return null;
+        }
+        String[] parts = name.split("•");
+        if (parts.length < 2) {
+            return null;
+        }
+        return new String[] { parts[0].trim(), parts[1].trim(), parts.length >= 3 ? parts[2].trim() : null };
+    }
 
-            boolean hasSeries = row.numSerie != null && !row.numSerie.trim().isEmpty() && !row.numSerie.equals("N/A");
-            int quantity = row.quantite != null && row.quantite > 0 ? row.quantite : 0;
+    /**
+     * Journaliser une ligne ignorée (niveau DEBUG pour ne pas noyer les logs sur les gros fichiers)
+     */
+    private void logSkippedRow(int rowNumber, LocmatRow locmatRow) {
+        logger.debug("⏭️ Ligne {} ignorée - locmatRow={}, valid={}", rowNumber,
+                locmatRow != null ? "not null" : "null",
+                locmatRow != null ? locmatRow.isValid() : "N/A");
+        if (locmatRow != null) {
+            logger.debug("   ➜ categorie={}, description={}", locmatRow.categorie, locmatRow.description);
+        }
+    }
 
-            if (hasSeries) {
-                // Équipement sérialisé : 1 seul équipement, ignore la quantité
-                Equipment equipment = new Equipment();
+    /**
+     * Écrire un lot d'équipements en une transaction (inserts JDBC batch) puis vider
+     * le contexte de persistance pour garder une mémoire constante.
+     * En cas d'échec du lot, repli ligne par ligne pour isoler les lignes fautives.
+     * La catégorie (relation JPA) est associée dans la transaction qui persiste l'équipement.
+     */
+    private void flushEquipmentBatch(List<PendingEquipment> batch, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
 
-                // Informations de base
-                equipment.setName(row.description != null ? row.description : "Équipement LOCMAT");
-                equipment.setDescription(buildDescription(row, 1, 1));
-                equipment.setBrand(row.marque);
-                equipment.setInternalReference(row.codeLocmat);
-                equipment.setSerialNumber(row.numSerie);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingEquipment pending : batch) {
+                    persist(pending);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.incrementSuccess(batch.size());
+        } catch (Exception e) {
+            logger.warn("⚠️ Échec du lot de {} équipements ({}), repli ligne par ligne", batch.size(),
+                    e.getMessage());
+            for (PendingEquipment pending : batch) {
+                pending.equipment().setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(pending));
+                    result.incrementSuccess();
+                } catch (Exception ex) {
+                    result.addError("Erreur lors de la création de l'équipement " + pending.equipment().getQrCode()
+                            + ": " + ex.getMessage());
+                }
+            }
+        }
 
-                createSingleEquipment(equipment, row, mainCategory, subCategory, brandCategory, ownerCategory, result);
+        batch.clear();
+    }
 
-            } else {
-                // Équipement non sérialisé : 1 ligne avec quantité stockée
-                Equipment equipment = new Equipment();
+    private void persist(PendingEquipment pending) {
+        Equipment equipment = pending.equipment();
+        equipment.setCategoryEntity(entityManager.getReference(Category.class, pending.categoryId()));
+        entityManager.persist(equipment);
+    }
 
-                // Informations de base
-                equipment.setName(row.description != null ? row.description : "Équipement LOCMAT");
-                equipment.setDescription(buildDescriptionWithQuantity(row, quantity));
-                equipment.setBrand(row.marque);
-                equipment.setInternalReference(row.codeLocmat);
-                // Pas de numéro de série pour les équipements non sérialisés
+    /**
+     * Créer le pipeline d'import : parsing sur importParserExecutor, écriture ordonnée
+     * sur un thread unique. La file bornée (deux lots) freine la lecture si l'écriture ralentit.
+     */
+    private OrderedPipeline<PreparedRow> newPipeline(ImportWriter writer) {
+        return new OrderedPipeline<>(parserExecutor, writerExecutor, chunkSize * 2, writer::write);
+    }
 
-                createSingleEquipment(equipment, row, mainCategory, subCategory, brandCategory, ownerCategory, result);
+    /**
+     * Étape de parsing : transforme une ligne brute en équipement pré-construit.
+     * Sans accès à la base ni état partagé, elle s'exécute en parallèle.
+     */
+    private PreparedRow prepareRow(int rowNumber, Supplier<LocmatRow> parser) {
+        PreparedRow prepared = new PreparedRow(rowNumber);
+        try {
+            LocmatRow locmatRow = parser.get();
+            prepared.row = locmatRow;
+            if (locmatRow != null && locmatRow.isValid()) {
+                prepared.equipment = buildEquipment(locmatRow);
+                prepared.uidPrefix = uidAllocationService.prefixFor(locmatRow.categorie, locmatRow.proprietaire);
             }
         } catch (Exception e) {
-            String errorMsg = "Erreur lors du traitement de l'équipement '" + row.description + "': " + e.getMessage();
-            logger.error("❌ {}", errorMsg, e);
-            result.addError(errorMsg);
+            prepared.error = "Ligne " + rowNumber + ": " + e.getMessage();
+            logger.error("❌ {}", prepared.error, e);
         }
+        return prepared;
     }
 
     /**
-     * Créer un seul équipement avec toutes ses propriétés
+     * Construire l'équipement d'une ligne LOCMAT, hors UID et catégorie (attribués à l'écriture)
      */
-    private void createSingleEquipment(Equipment equipment, LocmatRow row, Category mainCategory,
-            Category subCategory, Category brandCategory,
-            Category ownerCategory, ImportResult result) {
-        try {
-            // Générer UID :
-            // - Pour MAG SCENE : basé sur la catégorie (3 lettres catégorie + 4 chiffres)
-            // - Pour autres propriétaires : basé sur le propriétaire (3 lettres
-            // propriétaire + 4 chiffres)
-            String uid = generateUID(row.categorie, row.proprietaire);
-
-            // QR Code = UID
-            equipment.setQrCode(uid);
-
-            // Mapping complet CSV → Equipment
-            // CSV[0] Famille → category
-            equipment.setCategory(row.categorie);
+    private Equipment buildEquipment(LocmatRow row) {
+        // Logique métier LOCMAT :
+        // - Si équipement sérialisé (a un numéro de série) → 1 équipement par ligne
+        // - Si équipement non sérialisé avec quantité → 1 ligne avec la quantité
+        // stockée
+        // - Si pas de série ET pas de quantité → 1 équipement avec quantité = 0
+
+        boolean hasSeries = row.numSerie != null && !row.numSerie.trim().isEmpty() && !row.numSerie.equals("N/A");
+        int quantity = row.quantite != null && row.quantite > 0 ? row.quantite : 0;
+
+        Equipment equipment = new Equipment();
+
+        // Informations de base
+        equipment.setName(row.description != null ? row.description : "Équipement LOCMAT");
+        equipment.setInternalReference(row.codeLocmat);
+        if (hasSeries) {
+            // Équipement sérialisé : 1 seul équipement, ignore la quantité
+            equipment.setDescription(buildDescription(row, 1, 1));
+            equipment.setSerialNumber(row.numSerie);
+        } else {
+            // Équipement non sérialisé : 1 ligne avec quantité stockée (pas de numéro de série)
+            equipment.setDescription(buildDescriptionWithQuantity(row, quantity));
+        }
 
-            // CSV[1] Catégorie → subCategory
-            equipment.setSubCategory(row.sousCategorie);
+        // Mapping complet CSV → Equipment
+        // CSV[0] Famille → category
+        equipment.setCategory(row.categorie);
 
-            // CSV[2] Type → specificCategory
-            equipment.setSpecificCategory(row.categorieSpecifique);
+        // CSV[1] Catégorie → subCategory
+        equipment.setSubCategory(row.sousCategorie);
 
-            // CSV[3] Marque → brand
-            equipment.setBrand(row.marque);
+        // CSV[2] Type → specificCategory
+        equipment.setSpecificCategory(row.categorieSpecifique);
 
-            // CSV[4] Emplacement → location
-            equipment.setLocation(row.emplacement);
+        // CSV[3] Marque → brand
+        equipment.setBrand(row.marque);
 
-            // CSV[5] Code LOCMAT → internalReference (déjà fait dans processLocmatRow)
-            // equipment.setInternalReference(row.codeLocmat);
+        // CSV[4] Emplacement → location
+        equipment.setLocation(row.emplacement);
 
-            // CSV[6] Nom → name (déjà fait dans processLocmatRow)
-            // equipment.setName(row.description);
+        // CSV[8] Qté → quantityInStock
+        equipment.setQuantityInStock(row.quantite != null ? row.quantite : 0);
 
-            // CSV[7] N° de Série → serialNumber (déjà fait dans processLocmatRow)
-            // equipment.setSerialNumber(row.numSerie);
+        // CSV[9] Prix d'achat → purchasePrice
+        equipment.setPurchasePrice(row.prixAchat);
 
-            // CSV[8] Qté → quantityInStock
-            equipment.setQuantityInStock(row.quantite != null ? row.quantite : 0);
+        // CSV[10] Valeur → insuranceValue
+        equipment.setInsuranceValue(row.valeur);
 
-            // CSV[9] Prix d'achat → purchasePrice
-            equipment.setPurchasePrice(row.prixAchat);
+        // Modèle si extrait
+        equipment.setModel(row.modele);
 
-            // CSV[10] Valeur → insuranceValue
-            equipment.setInsuranceValue(row.valeur);
+        // Statut par défaut
+        equipment.setStatus(Equipment.Status.AVAILABLE);
 
-            // Modèle si extrait
-            equipment.setModel(row.modele);
+        // Notes avec informations LOCMAT
+        equipment.setNotes(buildNotes(row));
 
-            // Associer les catégories (relation JPA)
-            if (subCategory != null) {
-                equipment.setCategoryEntity(subCategory);
-            } else {
-                equipment.setCategoryEntity(mainCategory);
-            }
+        // Dates
+        equipment.setCreatedAt(LocalDateTime.now());
+        equipment.setUpdatedAt(LocalDateTime.now());
 
-            // Statut par défaut
-            equipment.setStatus(Equipment.Status.AVAILABLE);
-
-            // Notes avec informations LOCMAT
-            equipment.setNotes(buildNotes(row, brandCategory, ownerCategory));
-
-            // Dates
-            equipment.setCreatedAt(LocalDateTime.now());
-            equipment.setUpdatedAt(LocalDateTime.now());
+        return equipment;
+    }
 
-            // Sauvegarder l'équipement
-            equipment = equipmentRepository.save(equipment);
-            logger.debug("💾 Équipement sauvegardé: {} (ID: {})", equipment.getName(), equipment.getId());
-            result.incrementSuccess();
+    /**
+     * Équipement en attente d'écriture et id de sa catégorie (référence JPA résolue à l'écriture)
+     */
+    private record PendingEquipment(Equipment equipment, Long categoryId) {
+    }
 
-        } catch (Exception e) {
-            result.addError("Erreur lors de la création de l'équipement: " + e.getMessage());
+    /**
+     * Ligne préparée par l'étape de parsing
+     */
+    private static class PreparedRow {
+        final int rowNumber;
+        LocmatRow row;
+        Equipment equipment;
+        String uidPrefix;
+        String error;
+
+        PreparedRow(int rowNumber) {
+            this.rowNumber = rowNumber;
         }
     }
 
     /**
-     * Créer ou récupérer une catégorie
+     * Étape d'écriture : reçoit les lignes dans l'ordre du fichier, associe les catégories
+     * déjà résolues, attribue les UID et persiste par lots. Un seul thread l'utilise à la fois.
      */
-    private Category getOrCreateCategory(String name, Category parent, Map<String, Category> cache, String type) {
-        String cacheKey = (parent != null ? parent.getId() + ":" : "") + name;
-
-        if (cache.containsKey(cacheKey)) {
-            return cache.get(cacheKey);
+    private class ImportWriter {
+        private final ImportResult result;
+        private final CategoryPlan categories;
+        private final List<PendingEquipment> pending = new ArrayList<>(chunkSize);
+
+        ImportWriter(ImportResult result, CategoryPlan categories) {
+            this.result = result;
+            this.categories = categories;
         }
 
-        // Chercher si elle existe déjà
-        Optional<Category> existingCategory = categoryRepository.findByNameAndParent(name, parent);
+        void write(PreparedRow prepared) {
+            if (prepared.error != null) {
+                result.addError(prepared.error);
+            } else if (prepared.equipment != null) {
+                processLocmatRow(prepared);
+                logger.debug("✅ Ligne {} traitée: {} - {}", prepared.rowNumber, prepared.row.codeLocmat,
+                        prepared.row.description);
+            } else {
+                logSkippedRow(prepared.rowNumber, prepared.row);
+            }
 
-        if (existingCategory.isPresent()) {
-            cache.put(cacheKey, existingCategory.get());
-            return existingCategory.get();
+            result.incrementProcessedRows();
+            if (pending.size() >= chunkSize) {
+                flush();
+                logger.info("🔄 Progression: {} lignes traitées ({} lignes/s)", result.getProcessedRows(),
+                        result.getRowsPerSecond());
+            }
         }
 
-        // Créer une nouvelle catégorie
-        Category newCategory = new Category(name);
-        newCategory.setDescription("Catégorie créée automatiquement depuis l'import LOCMAT (" + type + ")");
-        newCategory.setParent(parent);
-        newCategory.setColor(getDefaultColorForType(type));
-        newCategory.setIcon(getDefaultIconForType(type));
+        void flush() {
+            flushEquipmentBatch(pending, result);
+        }
+
+        /**
+         * Associer catégories et UID à l'équipement pré-construit puis l'ajouter au lot en attente
+         */
+        private void processLocmatRow(PreparedRow prepared) {
+            LocmatRow row = prepared.row;
+            Equipment equipment = prepared.equipment;
+
+            try {
+                // Catégorie : sous-catégorie si présente, sinon famille
+                Long categoryId = categories.categoryIdFor(row);
+                if (categoryId == null) {
+                    throw new IllegalStateException("catégorie " + row.categorie + " introuvable");
+                }
 
-        newCategory = categoryRepository.save(newCategory);
-        cache.put(cacheKey, newCategory);
+                // UID attribué dans l'ordre du fichier - QR Code = UID
+                equipment.setQrCode(uidAllocationService.nextUid(prepared.uidPrefix));
 
-        return newCategory;
+                // Sauvegarde différée : écrit avec le lot courant
+                pending.add(new PendingEquipment(equipment, categoryId));
+            } catch (Exception e) {
+                String errorMsg = "Erreur lors du traitement de l'équipement '" + row.description + "': "
+                        + e.getMessage();
+                logger.error("❌ {}", errorMsg, e);
+                result.addError(errorMsg);
+            }
+        }
     }
 
     /**
-     * Générer un UID (3 lettres + 4 chiffres)
-     * - Pour MAG SCENE : basé sur la catégorie
-     * - Pour autres propriétaires : basé sur les 3 premières lettres du
-     * propriétaire
+     * Catégories nécessaires à un import, collectées lors d'une première lecture du fichier puis
+     * résolues en bloc via l'index : familles, marques et propriétaires à la racine,
+     * sous-catégories sous leur famille
      */
-    private String generateUID(String category, String proprietaire) {
-        String prefix;
-
-        // Vérifier si c'est MAG SCENE ou autre propriétaire
-        boolean isMagScene = proprietaire == null ||
-                proprietaire.trim().isEmpty() ||
-                proprietaire.trim().toUpperCase().contains("MAG") ||
-                proprietaire.trim().toUpperCase().equals("MAG SCENE");
-
-        if (isMagScene) {
-            // MAG SCENE : préfixe basé sur la catégorie
-            prefix = getCategoryPrefix(category);
-        } else {
-            // Autre propriétaire : préfixe basé sur les 3 premières lettres du propriétaire
-            prefix = getOwnerPrefix(proprietaire);
+    private class CategoryPlan {
+        // Catégories racines → type (pour la description, la couleur et l'icône)
+        private final Map<String, String> rootTypes = new LinkedHashMap<>();
+        private final Map<String, Set<String>> subCategories = new LinkedHashMap<>();
+        private final Map<String, Long> rootIds = new HashMap<>();
+        private final Map<CategoryIndexService.CategoryKey, Long> subIds = new HashMap<>();
+
+        void collect(LocmatRow row) {
+            if (row != null) {
+                collect(row.categorie, row.sousCategorie, row.marque, row.description, row.proprietaire);
+            }
         }
 
-        // Utiliser le cache pour obtenir le prochain numéro
-        if (!uidCounterCache.containsKey(prefix)) {
-            // Première fois pour ce préfixe : récupérer le max depuis la DB
-            Integer maxNum = equipmentRepository.findMaxUidNumberByPrefix(prefix);
-            uidCounterCache.put(prefix, maxNum != null ? maxNum + 1 : 1);
+        /**
+         * Colonnes d'une ligne importée par DEFAULT_OWNER ; ignorée sans famille ni nom, comme
+         * une ligne invalide
+         */
+        void collect(String categorie, String sousCategorie, String marque, String description) {
+            collect(categorie, sousCategorie, marque, description, DEFAULT_OWNER);
         }
 
-        int counter = uidCounterCache.get(prefix);
-        String uid = prefix + String.format("%04d", counter);
-
-        // Incrémenter le compteur pour le prochain appel
-        uidCounterCache.put(prefix, counter + 1);
+        private void collect(String categorie, String sousCategorie, String marque, String description,
+                String proprietaire) {
+            if (description == null || description.trim().isEmpty() || categorie == null
+                    || categorie.trim().isEmpty()) {
+                return;
+            }
+            rootTypes.putIfAbsent(categorie, "Catégorie principale");
+            if (sousCategorie != null && !sousCategorie.trim().isEmpty()) {
+                subCategories.computeIfAbsent(categorie, key -> new LinkedHashSet<>()).add(sousCategorie);
+            }
 
-        return uid;
-    }
+            // Marques et propriétaires sont aussi représentés comme catégories
+            if (marque != null && !marque.trim().isEmpty()) {
+                rootTypes.putIfAbsent("Marque: " + marque, "Marque");
+            }
+            if (proprietaire != null && !proprietaire.trim().isEmpty()) {
+                rootTypes.putIfAbsent("Propriétaire: " + proprietaire, "Propriétaire");
+            }
+        }
 
-    /**
-     * Obtenir le préfixe de 3 lettres basé sur le propriétaire
-     */
-    private String getOwnerPrefix(String proprietaire) {
-        if (proprietaire == null || proprietaire.trim().isEmpty()) {
-            return "EXT"; // EXTerne par défaut
+        /**
+         * Résoudre (ou créer) toutes les catégories collectées : une étape par niveau
+         */
+        void resolve() {
+            List<CategoryIndexService.CategoryKey> rootKeys = rootTypes.keySet().stream()
+                    .map(name -> new CategoryIndexService.CategoryKey(name, null))
+                    .toList();
+            categoryIndexService.resolveAll(rootKeys,
+                    key -> newImportedCategory(key.name(), rootTypes.get(key.name())))
+                    .forEach((key, id) -> rootIds.put(key.name(), id));
+
+            List<CategoryIndexService.CategoryKey> subKeys = new ArrayList<>();
+            subCategories.forEach((parent, names) -> {
+                Long parentId = rootIds.get(parent);
+                names.forEach(name -> subKeys.add(new CategoryIndexService.CategoryKey(name, parentId)));
+            });
+            subIds.putAll(categoryIndexService.resolveAll(subKeys,
+                    key -> newImportedCategory(key.name(), "Sous-catégorie")));
+
+            logger.info("🗂️ Catégories de l'import résolues: {} racines, {} sous-catégories", rootIds.size(),
+                    subIds.size());
         }
 
-        String owner = proprietaire.trim().toUpperCase()
-                .replaceAll("[^A-Z]", ""); // Garder uniquement les lettres
+        /**
+         * Catégorie à associer à l'équipement d'une ligne
+         */
+        Long categoryIdFor(LocmatRow row) {
+            Long id = lookup(row);
+            if (id == null) {
+                // Ligne absente de la première passe : la résoudre à part
+                collect(row);
+                resolve();
+                id = lookup(row);
+            }
+            return id;
+        }
 
-        if (owner.length() >= 3) {
-            return owner.substring(0, 3);
-        } else if (owner.length() > 0) {
-            // Compléter avec des X si moins de 3 lettres
-            return (owner + "XXX").substring(0, 3);
-        } else {
-            return "EXT";
+        private Long lookup(LocmatRow row) {
+            Long mainId = rootIds.get(row.categorie);
+            if (mainId == null || row.sousCategorie == null || row.sousCategorie.trim().isEmpty()) {
+                return mainId;
+            }
+            return subIds.get(new CategoryIndexService.CategoryKey(row.sousCategorie, mainId));
         }
     }
 
     /**
-     * Obtenir le préfixe de 3 lettres basé sur la catégorie
+     * Nouvelle catégorie créée par l'import (le parent est fixé par l'index)
      */
-    private String getCategoryPrefix(String category) {
-        if (category == null || category.trim().isEmpty()) {
-            return "GEN"; // GENéral
-        }
-
-        String cat = category.trim().toUpperCase();
-
-        // Mapping des catégories vers les préfixes
-        return switch (cat) {
-            case "AUDIO", "SON", "SONORISATION" -> "SON";
-            case "ECLAIRAGE", "LUMIERE", "LIGHTING" -> "LUM";
-            case "VIDEO", "VIDÉO" -> "VID";
-            case "STRUCTURE", "TRUSS" -> "STR";
-            case "CONSOLE", "MIXAGE" -> "MIX";
-            case "MICROPHONE", "MICRO" -> "MIC";
-            case "PROJECTEUR", "SPOT" -> "PRO";
-            case "CÂBLE", "CABLE" -> "CAB";
-            case "AMPLIFICATEUR", "AMPLI" -> "AMP";
-            case "ENCEINTE", "HAUT-PARLEUR" -> "ENC";
-            case "EFFETS", "EFFET" -> "EFX";
-            case "TRANSPORT", "FLIGHT" -> "TRA";
-            case "ACCESSOIRE", "DIVERS" -> "ACC";
-            default -> {
-                // Générer un préfixe à partir des 3 premières lettres
-                if (cat.length() >= 3) {
-                    yield cat.substring(0, 3);
-                } else {
-                    yield (cat + "XXX").substring(0, 3);
-                }
-            }
-        };
+    private Category newImportedCategory(String name, String type) {
+        Category newCategory = new Category(name);
+        newCategory.setDescription("Catégorie créée automatiquement depuis l'import LOCMAT (" + type + ")");
+        newCategory.setColor(getDefaultColorForType(type));
+        newCategory.setIcon(getDefaultIconForType(type));
+        return newCategory;
     }
 
     /**
@@ -707,7 +877,7 @@ public class LocmatImportService {
     /**
      * Construire les notes avec toutes les informations LOCMAT
      */
-    private String buildNotes(LocmatRow row, Category brandCategory, Category ownerCategory) {
+    private String buildNotes(LocmatRow row) {
         StringBuilder notes = new StringBuilder("=== IMPORT LOCMAT ===\n");
 
         if (row.codeLocmat != null)
@@ -756,53 +926,49 @@ public class LocmatImportService {
 
     // Méthodes utilitaires pour Excel
 
-    private boolean isEmptyRow(Row row) {
-        if (row == null)
-            return true;
+    private XlsxStreamReader.CellValue getCell(XlsxStreamReader.CellValue[] cells, int index) {
+        return index < cells.length ? cells[index] : null;
+    }
 
+    private boolean isEmptyRow(XlsxStreamReader.CellValue[] cells) {
         for (int i = 0; i < 8; i++) { // 8 colonnes attendues
-            Cell cell = row.getCell(i);
-            if (cell != null && cell.getCellType() != CellType.BLANK) {
-                String value = getCellValueAsString(cell);
-                if (value != null && !value.trim().isEmpty()) {
-                    return false;
-                }
+            String value = getCellValueAsString(getCell(cells, i));
+            if (value != null && !value.trim().isEmpty()) {
+                return false;
             }
         }
         return true;
     }
 
-    private String getCellValueAsString(Cell cell) {
+    private String getCellValueAsString(XlsxStreamReader.CellValue cell) {
         if (cell == null)
             return null;
 
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue().trim();
-            case NUMERIC -> String.valueOf((long) cell.getNumericCellValue());
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> {
+        return switch (cell.kind()) {
+            case STRING -> cell.text().trim();
+            case NUMERIC -> {
                 try {
-                    yield String.valueOf((long) cell.getNumericCellValue());
-                } catch (Exception e) {
-                    yield cell.getStringCellValue().trim();
+                    yield String.valueOf((long) cell.asDouble());
+                } catch (NumberFormatException e) {
+                    yield cell.text().trim();
                 }
             }
+            case BOOLEAN -> cell.text();
             default -> null;
         };
     }
 
-    private Integer getCellValueAsInteger(Cell cell) {
+    private Integer getCellValueAsInteger(XlsxStreamReader.CellValue cell) {
         if (cell == null)
             return null;
 
         try {
-            return switch (cell.getCellType()) {
-                case NUMERIC -> (int) cell.getNumericCellValue();
+            return switch (cell.kind()) {
+                case NUMERIC -> (int) cell.asDouble();
                 case STRING -> {
-                    String value = cell.getStringCellValue().trim();
+                    String value = cell.text().trim();
                     yield value.isEmpty() ? null : Integer.parseInt(value);
                 }
-                case FORMULA -> (int) cell.getNumericCellValue();
                 default -> null;
             };
         } catch (NumberFormatException e) {
@@ -810,18 +976,17 @@ public class LocmatImportService {
         }
     }
 
-    private Double getCellValueAsDouble(Cell cell) {
+    private Double getCellValueAsDouble(XlsxStreamReader.CellValue cell) {
         if (cell == null)
             return null;
 
         try {
-            return switch (cell.getCellType()) {
-                case NUMERIC -> cell.getNumericCellValue();
+            return switch (cell.kind()) {
+                case NUMERIC -> cell.asDouble();
                 case STRING -> {
-                    String value = cell.getStringCellValue().trim();
+                    String value = cell.text().trim();
                     yield value.isEmpty() ? null : Double.parseDouble(value);
                 }
-                case FORMULA -> cell.getNumericCellValue();
                 default -> null;
             };
         } catch (NumberFormatException e) {
@@ -880,38 +1045,47 @@ public class LocmatImportService {
      * Valider un fichier LOCMAT sans l'importer
      */
     public ValidationResult validateFile(MultipartFile file) throws IOException {
-        ValidationResult result = new ValidationResult();
-
-        try (InputStream inputStream = file.getInputStream();
-                XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-
-            // Ignorer la ligne d'en-tête
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
+        return validateFile(file, 0);
+    }
 
-            int totalRows = 0;
-            int validRows = 0;
+    /**
+     * Valider un fichier LOCMAT sans l'importer, en s'arrêtant après maxRows lignes
+     * de données (0 = fichier complet, lu en flux)
+     */
+    public ValidationResult validateFile(MultipartFile file, int maxRows) throws IOException {
+        ValidationResult result = new ValidationResult();
+        int[] counters = new int[2]; // [0] lignes lues, [1] lignes valides
 
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                totalRows++;
+        try {
+            readXlsx(file, new XlsxStreamReader.RowHandler() {
+                private boolean headerSkipped = false;
+
+                @Override
+                public boolean onRow(int rowIndex, XlsxStreamReader.CellValue[] cells) {
+                    // Ignorer la ligne d'en-tête
+                    if (!headerSkipped) {
+                        headerSkipped = true;
+                        return true;
+                    }
 
-                LocmatRow locmatRow = parseRow(row);
-                if (locmatRow != null && locmatRow.isValid()) {
-                    validRows++;
-                } else {
-                    result.addError("Ligne " + (row.getRowNum() + 1) + ": Données invalides");
+                    counters[0]++;
+                    LocmatRow locmatRow = parseRow(cells);
+                    if (locmatRow != null && locmatRow.isValid()) {
+                        counters[1]++;
+                    } else {
+                        result.addError("Ligne " + (rowIndex + 1) + ": Données invalides");
+                    }
+                    return maxRows <= 0 || counters[0] < maxRows;
                 }
-            }
+            });
 
+            int totalRows = counters[0];
+            int validRows = counters[1];
             result.setRowCount(totalRows);
             result.setValidRowCount(validRows);
             result.setValid(validRows > 0 && result.getErrors().isEmpty());
-            result.setMessage(validRows + "/" + totalRows + " lignes valides");
+            result.setMessage(validRows + "/" + totalRows + " lignes valides"
+                    + (maxRows > 0 && totalRows >= maxRows ? " (échantillon)" : ""));
 
         } catch (Exception e) {
             result.setValid(false);
@@ -923,60 +1097,62 @@ public class LocmatImportService {
     }
 
     /**
-     * Prévisualiser les données d'un fichier LOCMAT
+     * Prévisualiser les données d'un fichier LOCMAT.
+     * La lecture s'arrête dès que maxRows lignes sont collectées. Le nombre total de lignes
+     * vient de la balise dimension de la feuille ; sans elle il est inconnu (-1).
      */
     public PreviewResult previewFile(MultipartFile file, int maxRows) throws IOException {
         PreviewResult result = new PreviewResult();
         List<Map<String, Object>> previewData = new ArrayList<>();
 
-        try (InputStream inputStream = file.getInputStream();
-                XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
+        // En-têtes
+        List<String> columns = Arrays.asList("Code LOCMAT", "Catégorie", "Sous-catégorie", "Description", "Marque",
+                "Propriétaire", "Numéro série");
+        result.setColumns(columns);
 
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
+        int[] announcedRows = { -1 };
 
-            // En-têtes
-            List<String> columns = Arrays.asList("Code LOCMAT", "Catégorie", "Sous-catégorie", "Description", "Marque",
-                    "Propriétaire", "Numéro série");
-            result.setColumns(columns);
-
-            // Ignorer la ligne d'en-tête
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
+        try {
+            readXlsx(file, new XlsxStreamReader.RowHandler() {
+                private boolean headerSkipped = false;
 
-            int totalRows = 0;
-            int previewRows = 0;
-
-            while (rowIterator.hasNext() && previewRows < maxRows) {
-                Row row = rowIterator.next();
-                totalRows++;
-
-                LocmatRow locmatRow = parseRow(row);
-                if (locmatRow != null) {
-                    Map<String, Object> rowData = new HashMap<>();
-                    rowData.put("Code LOCMAT", locmatRow.codeLocmat);
-                    rowData.put("Catégorie", locmatRow.categorie);
-                    rowData.put("Sous-catégorie", locmatRow.sousCategorie);
-                    rowData.put("Description", locmatRow.description);
-                    rowData.put("Marque", locmatRow.marque);
-                    rowData.put("Propriétaire", locmatRow.proprietaire);
-                    rowData.put("Numéro série", locmatRow.numSerie);
-
-                    previewData.add(rowData);
-                    previewRows++;
+                @Override
+                public void onSheetDimension(int rowCount) {
+                    announcedRows[0] = rowCount - 1;
                 }
-            }
 
-            // Compter le reste des lignes
-            while (rowIterator.hasNext()) {
-                rowIterator.next();
-                totalRows++;
-            }
+                @Override
+                public boolean onRow(int rowIndex, XlsxStreamReader.CellValue[] cells) {
+                    // Ignorer la ligne d'en-tête
+                    if (!headerSkipped) {
+                        headerSkipped = true;
+                        return true;
+                    }
+
+                    if (previewData.size() < maxRows) {
+                        LocmatRow locmatRow = parseRow(cells);
+                        if (locmatRow != null) {
+                            Map<String, Object> rowData = new HashMap<>();
+                            rowData.put("Code LOCMAT", locmatRow.codeLocmat);
+                            rowData.put("Catégorie", locmatRow.categorie);
+                            rowData.put("Sous-catégorie", locmatRow.sousCategorie);
+                            rowData.put("Description", locmatRow.description);
+                            rowData.put("Marque", locmatRow.marque);
+                            rowData.put("Propriétaire", locmatRow.proprietaire);
+                            rowData.put("Numéro série", locmatRow.numSerie);
+
+                            previewData.add(rowData);
+                        }
+                    }
+
+                    // Échantillon complet : inutile de lire la suite du fichier
+                    return previewData.size() < maxRows;
+                }
+            });
 
             result.setData(previewData);
-            result.setTotalRows(totalRows);
-            result.setPreviewRows(previewRows);
+            result.setTotalRows(announcedRows[0]);
+            result.setPreviewRows(previewData.size());
 
         } catch (Exception e) {
             result.setData(new ArrayList<>());
@@ -988,16 +1164,87 @@ public class LocmatImportService {
     }
 
     /**
-     * Classe pour les résultats d'import
+     * Classe pour les résultats d'import.
+     * Écrite par un seul thread (celui de l'import) et lisible depuis d'autres threads
+     * pour le suivi de progression des jobs asynchrones.
      */
     public static class ImportResult {
-        private int successCount = 0;
-        private final List<String> errors = new ArrayList<>();
+        private volatile int successCount = 0;
+        private volatile int processedRows = 0;
+        private volatile int totalRows = -1;
+        private volatile boolean cancelled = false;
+        private volatile long startTime = System.nanoTime();
+        private volatile long durationMs = -1;
+        private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
 
         public void incrementSuccess() {
             successCount++;
         }
 
+        public void incrementSuccess(int count) {
+            successCount += count;
+        }
+
+        public void incrementProcessedRows() {
+            processedRows++;
+        }
+
+        public int getProcessedRows() {
+            return processedRows;
+        }
+
+        /**
+         * Nombre total de lignes attendu (-1 si inconnu, estimation pour le CSV)
+         */
+        public int getTotalRows() {
+            return totalRows;
+        }
+
+        public void setTotalRows(int totalRows) {
+            this.totalRows = totalRows;
+        }
+
+        /**
+         * Demander l'arrêt de la lecture : les lignes déjà lues sont tout de même enregistrées
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public boolean isFinished() {
+            return durationMs >= 0;
+        }
+
+        /**
+         * Démarrer le chronomètre au début effectif de l'import (un job peut attendre avant d'être exécuté)
+         */
+        public void start() {
+            startTime = System.nanoTime();
+        }
+
+        /**
+         * Figer la durée de l'import
+         */
+        public void finish() {
+            durationMs = (System.nanoTime() - startTime) / 1_000_000;
+        }
+
+        public long getDurationMs() {
+            return durationMs >= 0 ? durationMs : (System.nanoTime() - startTime) / 1_000_000;
+        }
+
+        /**
+         * Débit de l'import en lignes lues par seconde
+         */
+        public long getRowsPerSecond() {
+            long elapsed = getDurationMs();
+            return elapsed > 0 ? processedRows * 1000L / elapsed : processedRows;
+        }
+
         public void addError(String error) {
             errors.add(error);
         }
@@ -1007,7 +1254,13 @@ public class LocmatImportService {
         }
 
         public List<String> getErrors() {
-            return errors;
+            synchronized (errors) {
+                return new ArrayList<>(errors);
+            }
+        }
+
+        public int getErrorCount() {
+            return errors.size();
         }
 
         public boolean hasErrors() {
@@ -1094,6 +1347,9 @@ public class LocmatImportService {
             this.data = data;
         }
 
+        /**
+         * Nombre de lignes annoncé par la feuille (-1 si inconnu)
+         */
         public int getTotalRows() {
             return totalRows;
         }
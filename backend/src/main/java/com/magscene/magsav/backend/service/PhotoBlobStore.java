@@ -0,0 +1,221 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.EquipmentPhoto;
+import com.magscene.magsav.backend.repository.EquipmentPhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stockage dédupliqué des photos et documents d'équipement : chaque contenu est écrit une
+ * seule fois sous {upload}/blobs/{2 premiers caractères}/{sha256}, quel que soit le nombre
+ * de photos qui le référencent (même notice pour tous les exemplaires d'un modèle LOCMAT...).
+ * Le compteur de références d'un blob est le nombre de lignes EquipmentPhoto portant son
+ * empreinte ; un blob qui n'est plus référencé est supprimé avec ses variantes.
+ */
+@Service
+public class PhotoBlobStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoBlobStore.class);
+
+    private static final String BLOBS_DIR = "blobs";
+    private static final String TEMP_DIR = "tmp";
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    // Fichier temporaire plus ancien : upload interrompu (arrêt du serveur...), supprimé par le ramasse-miettes
+    private static final Duration TEMP_MAX_AGE = Duration.ofHours(1);
+
+    // Verrous par empreinte : l'enregistrement d'une photo et la suppression du blob ne se croisent pas
+    private final ReentrantLock[] locks = new ReentrantLock[64];
+
+    @Autowired
+    private EquipmentPhotoRepository equipmentPhotoRepository;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Value("${app.upload.dir:${user.home}/magsav/uploads}")
+    private String uploadDir;
+
+    public PhotoBlobStore() {
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Contenu stocké
+     *
+     * @param existing true si le contenu était déjà présent (aucune écriture)
+     */
+    public record Blob(String hash, Path path, long size, boolean existing) {
+    }
+
+    /**
+     * Bilan du ramasse-miettes
+     */
+    public record GarbageCollection(int blobsDeleted, long bytesFreed) {
+    }
+
+    /**
+     * Stocker un contenu : copié dans un fichier temporaire en calculant son SHA-256 au fil de
+     * la lecture, puis renommé en blob, ou abandonné si le blob existe déjà. register (création
+     * de la photo) est appelé sous le verrou de l'empreinte, pour qu'une suppression concurrente
+     * ne retire pas le blob entre son stockage et son référencement.
+     */
+    public <T> T store(InputStream content, Function<Blob, T> register) throws IOException {
+        Path tempDir = blobsRoot().resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path blob = blobPath(hash);
+
+            ReentrantLock lock = lockFor(hash);
+            lock.lock();
+            try {
+                boolean existing = Files.exists(blob);
+                if (!existing) {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                } else {
+                    logger.debug("📦 Contenu {} déjà stocké, pas de nouvelle copie", hash);
+                }
+                return register.apply(new Blob(hash, blob, size, existing));
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Libérer le fichier d'une photo supprimée de la base : le blob n'est effacé que si plus
+     * aucune photo ne le référence ; une photo stockée avant la déduplication a ses propres fichiers.
+     */
+    public void release(EquipmentPhoto photo) throws IOException {
+        String hash = photo.getContentHash();
+        if (hash == null) {
+            photoVariantService.deleteFiles(photo);
+            return;
+        }
+        deleteIfUnreferenced(hash);
+    }
+
+    /**
+     * Supprimer les blobs qui ne sont plus référencés (photos supprimées avec leur équipement,
+     * ancienne photo principale remplacée...) et les fichiers temporaires abandonnés
+     */
+    public GarbageCollection collectGarbage() throws IOException {
+        Path root = blobsRoot();
+        if (!Files.isDirectory(root)) {
+            return new GarbageCollection(0, 0);
+        }
+        Set<String> referenced = equipmentPhotoRepository.findReferencedContentHashes();
+
+        List<Path> candidates = new ArrayList<>();
+        try (Stream<Path> prefixes = Files.list(root)) {
+            for (Path prefix : prefixes.filter(Files::isDirectory).toList()) {
+                if (prefix.getFileName().toString().equals(TEMP_DIR)) {
+                    deleteStaleTempFiles(prefix);
+                    continue;
+                }
+                try (Stream<Path> blobs = Files.list(prefix)) {
+                    blobs.filter(path -> HASH.matcher(path.getFileName().toString()).matches())
+                            .filter(path -> !referenced.contains(path.getFileName().toString()))
+                            .forEach(candidates::add);
+                }
+            }
+        }
+
+        int deleted = 0;
+        long freed = 0;
+        for (Path blob : candidates) {
+            long size = Files.size(blob);
+            // Photo enregistrée depuis la lecture des références : deleteIfUnreferenced le vérifie sous verrou
+            if (deleteIfUnreferenced(blob.getFileName().toString())) {
+                deleted++;
+                freed += size;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("🧹 {} contenus non référencés supprimés ({} octets libérés)", deleted, freed);
+        }
+        return new GarbageCollection(deleted, freed);
+    }
+
+    private boolean deleteIfUnreferenced(String hash) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (equipmentPhotoRepository.countByContentHash(hash) > 0) {
+                return false;
+            }
+            Path blob = blobPath(hash);
+            boolean existed = Files.exists(blob);
+            photoVariantService.deleteBlobFiles(blob);
+            return existed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void deleteStaleTempFiles(Path tempDir) throws IOException {
+        Instant limit = Instant.now().minus(TEMP_MAX_AGE);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            for (Path file : files.toList()) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(limit)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private Path blobsRoot() {
+        return Paths.get(uploadDir, BLOBS_DIR);
+    }
+
+    private Path blobPath(String hash) {
+        return blobsRoot().resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), locks.length)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
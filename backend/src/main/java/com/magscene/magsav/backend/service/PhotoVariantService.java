@@ -0,0 +1,407 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.EquipmentPhoto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Variantes redimensionnées des photos d'équipement (miniature, moyenne, grande), générées
+ * en arrière-plan avec ImageIO et stockées à côté de l'original :
+ * {dossier du blob}/variants/{sha256}-{taille}.jpg pour un contenu dédupliqué (voir PhotoBlobStore),
+ * {dossier de la photo}/variants/{id}-{taille}.jpg pour les photos stockées avant
+ * (.png pour les images transparentes). Un même contenu n'a donc qu'un jeu de variantes.
+ */
+@Service
+public class PhotoVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoVariantService.class);
+
+    private static final String VARIANTS_DIR = "variants";
+    private static final List<String> EXTENSIONS = List.of("jpg", "png");
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Tailles disponibles (plus grand côté en pixels)
+     */
+    public enum Size {
+        THUMBNAIL(256),
+        MEDIUM(1024),
+        LARGE(2048);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        public String parameter() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Taille demandée par le paramètre "size" (null ou "original" : fichier original)
+         */
+        public static Size fromParameter(String value) {
+            if (value == null || value.isBlank() || "original".equalsIgnoreCase(value.trim())) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Taille inconnue: " + value
+                        + " (thumbnail, medium, large ou original)");
+            }
+        }
+    }
+
+    @Autowired
+    @Qualifier("imageProcessingExecutor")
+    private Executor executor;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
+    // Contenus en cours de traitement : une seule génération à la fois par contenu
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    // Contenus illisibles par ImageIO (HEIC, fichier corrompu...) : pas de nouvel essai jusqu'au redémarrage
+    private final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Générer les variantes d'une photo en arrière-plan (sans effet pour un document)
+     */
+    public void generateAsync(EquipmentPhoto photo) {
+        if (!isImage(photo) || photo.getId() == null) {
+            return;
+        }
+        String key = variantKey(photo);
+        if (unreadable.contains(key)) {
+            return;
+        }
+        Path original = originalPath(photo);
+        Path variantsDir = variantsDir(photo);
+        if (pending.add(key)) {
+            executor.execute(() -> {
+                try {
+                    if (!generate(key, original, variantsDir)) {
+                        unreadable.add(key);
+                    }
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        }
+    }
+
+    /**
+     * Variante d'une photo si elle existe. Sinon (photo antérieure, génération en cours ou
+     * en échec) null est renvoyé et la génération est relancée en arrière-plan.
+     * Une variante déjà servie est retrouvée dans le cache de FileDownloadService, sans accès disque.
+     */
+    public Path findVariant(EquipmentPhoto photo, Size size) throws IOException {
+        if (!isImage(photo)) {
+            return null;
+        }
+        for (String extension : EXTENSIONS) {
+            Path variant = variantsDir(photo).resolve(variantName(variantKey(photo), size, extension));
+            if (fileDownloadService.metadata(variant) != null) {
+                return variant;
+            }
+        }
+        generateAsync(photo);
+        return null;
+    }
+
+    /**
+     * Supprimer les fichiers d'une photo : original, variantes et dossiers devenus vides
+     */
+    public void deleteFiles(EquipmentPhoto photo) throws IOException {
+        deleteFiles(originalPath(photo), variantsDir(photo), variantKey(photo));
+    }
+
+    /**
+     * Supprimer un blob du stockage dédupliqué et ses variantes (plus aucune photo ne le référence)
+     */
+    public void deleteBlobFiles(Path blob) throws IOException {
+        String hash = blob.getFileName().toString();
+        deleteFiles(blob, blob.resolveSibling(VARIANTS_DIR), hash);
+        unreadable.remove(hash);
+    }
+
+    private void deleteFiles(Path original, Path variantsDir, String key) throws IOException {
+        Files.deleteIfExists(original);
+        fileDownloadService.evict(original);
+        for (Size size : Size.values()) {
+            for (String extension : EXTENSIONS) {
+                Path variant = variantsDir.resolve(variantName(key, size, extension));
+                Files.deleteIfExists(variant);
+                fileDownloadService.evict(variant);
+            }
+        }
+        deleteIfEmpty(variantsDir);
+        deleteIfEmpty(variantsDir.getParent());
+    }
+
+    // Dossier partagé par d'autres photos (ancien rangement par équipement) : conservé
+    private static void deleteIfEmpty(Path dir) throws IOException {
+        try {
+            Files.deleteIfExists(dir);
+        } catch (DirectoryNotEmptyException e) {
+            // Encore utilisé
+        }
+    }
+
+    /**
+     * Fichier original d'une photo : le blob pour un contenu dédupliqué (filePath est alors le
+     * chemin du blob), sinon le dossier de la photo suivi du nom d'origine
+     */
+    public static Path originalPath(EquipmentPhoto photo) {
+        return photo.getContentHash() != null
+                ? Paths.get(photo.getFilePath())
+                : Paths.get(photo.getFilePath(), photo.getFileName());
+    }
+
+    private static Path variantsDir(EquipmentPhoto photo) {
+        return photo.getContentHash() != null
+                ? Paths.get(photo.getFilePath()).resolveSibling(VARIANTS_DIR)
+                : Paths.get(photo.getFilePath(), VARIANTS_DIR);
+    }
+
+    // Variantes partagées par toutes les photos d'un même contenu
+    private static String variantKey(EquipmentPhoto photo) {
+        return photo.getContentHash() != null ? photo.getContentHash() : String.valueOf(photo.getId());
+    }
+
+    private static String variantName(String key, Size size, String extension) {
+        return key + "-" + size.parameter() + "." + extension;
+    }
+
+    private static boolean isImage(EquipmentPhoto photo) {
+        return photo.getMimeType() != null && photo.getMimeType().startsWith("image/");
+    }
+
+    /**
+     * Décoder l'original une seule fois puis produire les variantes de la plus grande à la plus
+     * petite, chacune à partir de la précédente
+     *
+     * @return false si l'image n'a pas pu être lue ou redimensionnée
+     */
+    boolean generate(String key, Path original, Path variantsDir) {
+        long start = System.currentTimeMillis();
+        try {
+            BufferedImage image = readImage(original, Size.LARGE.maxDimension);
+            if (image == null) {
+                logger.debug("📷 Contenu {} : format non lu par ImageIO, pas de variantes", key);
+                return false;
+            }
+            image = applyOrientation(image, readExifOrientation(original));
+            boolean png = image.getColorModel().hasAlpha();
+
+            Files.createDirectories(variantsDir);
+            Size[] sizes = Size.values();
+            for (int i = sizes.length - 1; i >= 0; i--) {
+                image = scale(image, sizes[i].maxDimension);
+                Path target = variantsDir.resolve(variantName(key, sizes[i], png ? "png" : "jpg"));
+                write(image, target, png);
+                fileDownloadService.evict(target);
+            }
+            logger.debug("📷 Variantes du contenu {} générées en {} ms", key, System.currentTimeMillis() - start);
+            return true;
+        } catch (Exception e) {
+            logger.warn("⚠️ Variantes du contenu {} non générées: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lire l'image en sous-échantillonnant au décodage : une photo de 12 Mpx n'est jamais
+     * chargée en pleine résolution si la plus grande variante est bien plus petite.
+     * Le pas garde le plus grand côté au-dessus de maxDimension ; scale termine la réduction.
+     */
+    private static BufferedImage readImage(Path file, int maxDimension) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longest / maxDimension);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Réduire l'image pour que son plus grand côté tienne dans maxDimension (jamais d'agrandissement).
+     * Réduction par paliers de moitié en bilinéaire : rendu proche du bicubique, bien plus rapide.
+     */
+    private static BufferedImage scale(BufferedImage image, int maxDimension) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        if (width == targetWidth && height == targetHeight && image.getType() == type) {
+            return image;
+        }
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * Écrire la variante dans un fichier temporaire puis la renommer : un fichier
+     * à moitié écrit n'est jamais servi
+     */
+    private static void write(BufferedImage image, Path target, boolean png) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp.toFile());
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                    writer.setOutput(out);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Orientation EXIF d'un JPEG (1 = normale, 6 = pivotée de 90°...), ignorée par ImageIO
+     * alors que les téléphones l'utilisent pour les photos prises en portrait
+     */
+    static int readExifOrientation(Path file) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Début des données image (SOS) : pas de segment EXIF
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (marker == 0xFFE1 && length > 14) {
+                    byte[] segment = in.readNBytes(length);
+                    if ("Exif\0\0".equals(new String(segment, 0, 6, StandardCharsets.ISO_8859_1))) {
+                        return readTiffOrientation(ByteBuffer.wrap(segment, 6, segment.length - 6).slice());
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    private static int readTiffOrientation(ByteBuffer tiff) {
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                return tiff.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Redresser l'image selon l'orientation EXIF (valeurs 2 à 8 : miroirs et rotations)
+     */
+    private static BufferedImage applyOrientation(BufferedImage image, int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return image;
+        }
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+        boolean swap = orientation >= 5;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, type);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, transform, null);
+        graphics.dispose();
+        return oriented;
+    }
+}
@@ -0,0 +1,90 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.VehicleReservation;
+import com.magscene.magsav.model.planning.Event;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tient l'index du planning à jour après chaque commit (création, modification et
+ * suppression des événements de planning et des réservations de véhicules)
+ */
+@Component
+public class PlanningIndexEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlanningIndexService planningIndexService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Event planningEvent) {
+            planningIndexService.indexEvent(planningEvent);
+        } else if (event.getEntity() instanceof VehicleReservation reservation) {
+            planningIndexService.indexReservation(reservation);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Event planningEvent) {
+            planningIndexService.indexEvent(planningEvent);
+        } else if (event.getEntity() instanceof VehicleReservation reservation) {
+            planningIndexService.indexReservation(reservation);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Event planningEvent) {
+            planningIndexService.remove(PlanningIndexService.SOURCE_EVENT, planningEvent.getId());
+        } else if (event.getEntity() instanceof VehicleReservation reservation) {
+            planningIndexService.remove(PlanningIndexService.SOURCE_VEHICLE_RESERVATION, reservation.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> mappedClass = persister.getMappedClass();
+        return Event.class.isAssignableFrom(mappedClass) || VehicleReservation.class.isAssignableFrom(mappedClass);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Transaction annulée : index inchangé
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Transaction annulée : index inchangé
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Transaction annulée : index inchangé
+    }
+}
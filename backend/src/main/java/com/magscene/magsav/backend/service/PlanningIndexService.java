@@ -0,0 +1,428 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.VehicleReservation;
+import com.magscene.magsav.backend.repository.PlanningEventRepository;
+import com.magscene.magsav.backend.repository.VehicleReservationRepository;
+import com.magscene.magsav.backend.util.CommonSlotFinder;
+import com.magscene.magsav.backend.util.IntervalTree;
+import com.magscene.magsav.model.planning.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Index du planning : un arbre d'intervalles par ressource (personnel, véhicule) contenant
+ * ses réservations. Chargé au démarrage depuis planning_events et vehicle_reservations puis
+ * tenu à jour à chaque commit par PlanningIndexEventListener ; les recherches de conflits et
+ * de disponibilité ne font aucune requête (O(log n + k) par ressource).
+ */
+@Service
+public class PlanningIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlanningIndexService.class);
+
+    public static final String PERSONNEL = "PERSONNEL";
+    public static final String VEHICLE = "VEHICLE";
+
+    // Fenêtre initiale de recherche de créneaux (en secondes)
+    private static final long MIN_SEARCH_WINDOW = Duration.ofDays(14).toSeconds();
+
+    // Origine des réservations indexées
+    public static final String SOURCE_EVENT = "EVENT";
+    public static final String SOURCE_VEHICLE_RESERVATION = "VEHICLE_RESERVATION";
+
+    /**
+     * Ressource planifiable (PERSONNEL ou VEHICLE)
+     */
+    public record ResourceKey(String type, Long id) {
+    }
+
+    /**
+     * Réservation d'une ressource sur [start, end[, issue d'un événement, d'une location...
+     */
+    public record Booking(String source, Long sourceId, ResourceKey resource, LocalDateTime start,
+            LocalDateTime end, String title) {
+    }
+
+    /**
+     * Deux réservations d'une même ressource qui se chevauchent
+     */
+    public record Conflict(ResourceKey resource, Booking first, Booking second, LocalDateTime overlapStart,
+            LocalDateTime overlapEnd) {
+
+        public long overlapMinutes() {
+            return Duration.between(overlapStart, overlapEnd).toMinutes();
+        }
+    }
+
+    /**
+     * Créneau proposé : ressource retenue pour chaque poste demandé, et nombre de candidats
+     * encore libres en plus de cette équipe (marge en cas d'imprévu)
+     */
+    public record SlotProposal(LocalDateTime start, LocalDateTime end, List<ResourceKey> team, int spare) {
+    }
+
+    // Position d'une réservation dans l'arbre de sa ressource, pour la retirer
+    private record Indexed(ResourceKey resource, long start, long end, long id) {
+    }
+
+    @Autowired
+    private PlanningEventRepository planningEventRepository;
+
+    @Autowired
+    private VehicleReservationRepository vehicleReservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Map<ResourceKey, IntervalTree<Booking>> trees = new HashMap<>();
+    private final Map<String, List<Indexed>> indexedBySource = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    /**
+     * Reconstruire l'index depuis la base
+     */
+    public void reload() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            trees.clear();
+            indexedBySource.clear();
+            Integer count = transactionTemplate.execute(status -> {
+                int events = 0;
+                try (Stream<Event> stream = planningEventRepository.streamActive()) {
+                    for (Event event : (Iterable<Event>) stream::iterator) {
+                        put(SOURCE_EVENT, event.getId(), bookingsOf(event));
+                        events++;
+                    }
+                }
+                try (Stream<VehicleReservation> stream = vehicleReservationRepository.streamConfirmed()) {
+                    for (VehicleReservation reservation : (Iterable<VehicleReservation>) stream::iterator) {
+                        put(SOURCE_VEHICLE_RESERVATION, reservation.getId(), bookingsOf(reservation));
+                        events++;
+                    }
+                }
+                return events;
+            });
+            loaded = true;
+            logger.info("📅 Index du planning chargé: {} événements et réservations, {} ressources en {} ms", count, trees.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("❌ Erreur chargement de l'index du planning: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prendre en compte un événement créé ou modifié (un événement annulé ne réserve plus rien)
+     */
+    public void indexEvent(Event event) {
+        index(SOURCE_EVENT, event.getId(), bookingsOf(event));
+    }
+
+    /**
+     * Prendre en compte une réservation de véhicule créée, modifiée ou annulée
+     */
+    public void indexReservation(VehicleReservation reservation) {
+        index(SOURCE_VEHICLE_RESERVATION, reservation.getId(), bookingsOf(reservation));
+    }
+
+    /**
+     * Remplacer les réservations issues d'un élément (événement, location...)
+     */
+    public void index(String source, Long sourceId, List<Booking> bookings) {
+        lock.writeLock().lock();
+        try {
+            removeSource(source, sourceId);
+            put(source, sourceId, bookings);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer les réservations d'un élément supprimé
+     */
+    public void remove(String source, Long sourceId) {
+        lock.writeLock().lock();
+        try {
+            removeSource(source, sourceId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Réservations d'une ressource qui chevauchent [from, to[, par début croissant
+     */
+    public List<Booking> bookings(ResourceKey resource, LocalDateTime from, LocalDateTime to) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IntervalTree<Booking> tree = trees.get(resource);
+            List<Booking> result = new ArrayList<>();
+            if (tree != null) {
+                tree.forEachOverlapping(toEpoch(from), toEpoch(to), entry -> result.add(entry.value()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vrai si la ressource n'a aucune réservation sur [from, to[
+     */
+    public boolean isFree(ResourceKey resource, LocalDateTime from, LocalDateTime to) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            IntervalTree<Booking> tree = trees.get(resource);
+            return tree == null || tree.isFree(toEpoch(from), toEpoch(to));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Premiers créneaux communs de la durée demandée dans [from, to[ : chaque poste (liste des
+     * ressources qui peuvent le tenir) reçoit une ressource distincte libre sur tout le créneau.
+     * Créneaux sans chevauchement, du plus tôt au plus tard.
+     */
+    public List<SlotProposal> findSlots(List<List<ResourceKey>> roles, LocalDateTime from, LocalDateTime to,
+            Duration duration, int limit) {
+        ensureLoaded();
+        long windowStart = toEpoch(from);
+        long windowEnd = toEpoch(to);
+        long length = duration.toSeconds();
+        if (length <= 0 || limit <= 0 || windowEnd - windowStart < length) {
+            return List.of();
+        }
+
+        // Les premiers créneaux sont en général proches : recherche sur une fenêtre élargie
+        // par paliers plutôt que sur tout l'horizon (un créneau trouvé dans une fenêtre est
+        // identique à celui trouvé sur l'horizon complet)
+        long searchEnd = Math.min(windowEnd, windowStart + Math.max(length * limit * 2, MIN_SEARCH_WINDOW));
+        while (true) {
+            List<ResourceKey> resources = new ArrayList<>();
+            CommonSlotFinder finder = slotFinder(roles, windowStart, searchEnd, resources);
+            List<CommonSlotFinder.Slot> slots = finder.find(windowStart, searchEnd, length, limit);
+            if (slots.size() >= limit || searchEnd >= windowEnd) {
+                List<SlotProposal> proposals = new ArrayList<>(slots.size());
+                for (CommonSlotFinder.Slot slot : slots) {
+                    List<ResourceKey> team = new ArrayList<>(slot.assignment().length);
+                    for (int resource : slot.assignment()) {
+                        team.add(resources.get(resource));
+                    }
+                    proposals.add(new SlotProposal(fromEpoch(slot.start()), fromEpoch(slot.end()), team,
+                            slot.spare()));
+                }
+                return proposals;
+            }
+            searchEnd = Math.min(windowEnd, windowStart + (searchEnd - windowStart) * 4);
+        }
+    }
+
+    // Postes et périodes libres de leurs candidats sur [from, to[ ; resources reçoit les ressources par indice
+    private CommonSlotFinder slotFinder(List<List<ResourceKey>> roles, long from, long to,
+            List<ResourceKey> resources) {
+        CommonSlotFinder finder = new CommonSlotFinder();
+        Map<ResourceKey, Integer> indexes = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (List<ResourceKey> candidates : roles) {
+                int[] role = new int[candidates.size()];
+                for (int i = 0; i < role.length; i++) {
+                    role[i] = indexes.computeIfAbsent(candidates.get(i), resource -> {
+                        resources.add(resource);
+                        return finder.addResource(freeIntervals(resource, from, to));
+                    });
+                }
+                finder.addRole(role);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return finder;
+    }
+
+    // Périodes libres d'une ressource dans [from, to[ (début0, fin0, début1, fin1...)
+    private long[] freeIntervals(ResourceKey resource, long from, long to) {
+        IntervalTree<Booking> tree = trees.get(resource);
+        if (tree == null) {
+            return new long[] { from, to };
+        }
+        long[][] bounds = { new long[16] };
+        int[] count = { 0 };
+        long[] cursor = { from };
+        tree.forEachOverlapping(from, to, entry -> {
+            if (entry.start() > cursor[0]) {
+                append(bounds, count, cursor[0], entry.start());
+            }
+            cursor[0] = Math.max(cursor[0], entry.end());
+        });
+        if (cursor[0] < to) {
+            append(bounds, count, cursor[0], to);
+        }
+        return Arrays.copyOf(bounds[0], count[0]);
+    }
+
+    private static void append(long[][] bounds, int[] count, long start, long end) {
+        if (count[0] + 2 > bounds[0].length) {
+            bounds[0] = Arrays.copyOf(bounds[0], bounds[0].length * 2);
+        }
+        bounds[0][count[0]++] = start;
+        bounds[0][count[0]++] = end;
+    }
+
+    /**
+     * Tous les conflits (chevauchements de réservations d'une même ressource) dont la période
+     * commune recoupe [from, to[
+     */
+    public List<Conflict> conflicts(LocalDateTime from, LocalDateTime to) {
+        ensureLoaded();
+        long windowStart = toEpoch(from);
+        long windowEnd = toEpoch(to);
+        List<Conflict> conflicts = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<ResourceKey, IntervalTree<Booking>> tree : trees.entrySet()) {
+                if (tree.getValue().size() > 1) {
+                    sweep(tree.getKey(), tree.getValue().overlapping(windowStart, windowEnd), windowStart, windowEnd,
+                            conflicts);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        conflicts.sort(Comparator.comparing(Conflict::overlapStart));
+        return conflicts;
+    }
+
+    /**
+     * Balayage des réservations triées par début : chacune est en conflit avec les
+     * réservations encore en cours à son début
+     */
+    private static void sweep(ResourceKey resource, List<IntervalTree.Entry<Booking>> entries, long windowStart,
+            long windowEnd, List<Conflict> conflicts) {
+        PriorityQueue<IntervalTree.Entry<Booking>> active = new PriorityQueue<>(
+                Comparator.comparingLong(IntervalTree.Entry::end));
+        for (IntervalTree.Entry<Booking> entry : entries) {
+            while (!active.isEmpty() && active.peek().end() <= entry.start()) {
+                active.poll();
+            }
+            for (IntervalTree.Entry<Booking> other : active) {
+                long overlapStart = entry.start();
+                long overlapEnd = Math.min(entry.end(), other.end());
+                if (overlapStart < windowEnd && overlapEnd > windowStart) {
+                    conflicts.add(new Conflict(resource, other.value(), entry.value(), fromEpoch(overlapStart),
+                            fromEpoch(overlapEnd)));
+                }
+            }
+            active.add(entry);
+        }
+    }
+
+    private void put(String source, Long sourceId, List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Indexed> indexed = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            long start = toEpoch(booking.start());
+            long end = toEpoch(booking.end());
+            if (end <= start) {
+                continue;
+            }
+            long id = sequence.incrementAndGet();
+            trees.computeIfAbsent(booking.resource(), key -> new IntervalTree<>()).insert(start, end, id, booking);
+            indexed.add(new Indexed(booking.resource(), start, end, id));
+        }
+        indexedBySource.put(source + ":" + sourceId, indexed);
+    }
+
+    private void removeSource(String source, Long sourceId) {
+        List<Indexed> previous = indexedBySource.remove(source + ":" + sourceId);
+        if (previous == null) {
+            return;
+        }
+        for (Indexed indexed : previous) {
+            IntervalTree<Booking> tree = trees.get(indexed.resource());
+            if (tree != null) {
+                tree.remove(indexed.start(), indexed.end(), indexed.id());
+                if (tree.isEmpty()) {
+                    trees.remove(indexed.resource());
+                }
+            }
+        }
+    }
+
+    // Une réservation par membre du personnel assigné
+    private static List<Booking> bookingsOf(Event event) {
+        if (event.getStatus() == Event.EventStatus.CANCELLED || event.getStartDateTime() == null
+                || event.getEndDateTime() == null) {
+            return List.of();
+        }
+        List<Booking> bookings = new ArrayList<>();
+        for (Long personnelId : event.getAssignedPersonnelIds()) {
+            bookings.add(new Booking(SOURCE_EVENT, event.getId(), new ResourceKey(PERSONNEL, personnelId),
+                    event.getStartDateTime(), event.getEndDateTime(), event.getTitle()));
+        }
+        return bookings;
+    }
+
+    private static List<Booking> bookingsOf(VehicleReservation reservation) {
+        if (reservation.getStatus() != VehicleReservation.ReservationStatus.CONFIRMED
+                || reservation.getVehicleId() == null) {
+            return List.of();
+        }
+        String title = reservation.getPurpose() != null ? reservation.getPurpose() : reservation.getReservedBy();
+        return List.of(new Booking(SOURCE_VEHICLE_RESERVATION, reservation.getId(),
+                new ResourceKey(VEHICLE, reservation.getVehicleId()), reservation.getStartDate(),
+                reservation.getEndDate(), title != null ? title : "Réservation véhicule"));
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+
+    private static long toEpoch(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime fromEpoch(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,441 @@
+package com.magscene.magsav.backend.service;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.util.LabelSheetPdfWriter;
+import com.magscene.magsav.backend.util.OrderedPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rendu des QR codes d'équipements : images PNG/SVG unitaires, planches (sprites) et
+ * planches d'étiquettes PDF A4.
+ *
+ * Les équipements sont lus en une requête (findAllById) par lot et les QR codes encodés en
+ * parallèle sur le virtualThreadExecutor. Les images sont mises en cache par empreinte
+ * SHA-256 du contenu (données, format, taille) : un équipement renommé change de contenu,
+ * donc d'entrée, sans invalidation explicite. Les étiquettes PDF sont écrites en flux, page
+ * par page, dans l'ordre demandé.
+ */
+@Service
+public class QrCodeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrCodeService.class);
+
+    // Taille maximale d'une planche (sprite) : au-delà, passer par les étiquettes PDF
+    public static final int MAX_SPRITE_ITEMS = 2000;
+
+    // Côté maximal d'une planche PNG en pixels (image construite en mémoire sur le thread de la requête)
+    public static final int MAX_SPRITE_SIDE = 16384;
+
+    // Équipements lus par requête pour les étiquettes PDF
+    private static final int LABEL_FETCH_SIZE = 500;
+
+    // QR codes encodés d'avance pendant l'écriture du PDF
+    private static final int LABEL_PIPELINE_CAPACITY = 256;
+
+    // Zone blanche autour du QR code, en modules
+    private static final int QUIET_ZONE = 2;
+
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(EncodeHintType.CHARACTER_SET, "UTF-8");
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    @Qualifier("virtualThreadExecutor")
+    private Executor executor;
+
+    // Taille maximale du cache d'images, en octets
+    @Value("${app.qrcode.cache-max-bytes:33554432}")
+    private long cacheMaxBytes = 32L * 1024 * 1024;
+
+    private final LinkedHashMap<String, RenderedQr> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private long cacheBytes;
+
+    public enum ImageFormat {
+        PNG("image/png"),
+        SVG("image/svg+xml");
+
+        private final String mediaType;
+
+        ImageFormat(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String getMediaType() { return mediaType; }
+
+        public static ImageFormat fromParameter(String value) {
+            return "svg".equalsIgnoreCase(value) ? SVG : PNG;
+        }
+    }
+
+    /**
+     * Image rendue ; hash : empreinte du contenu, utilisable comme ETag
+     */
+    public record RenderedQr(String hash, byte[] content, ImageFormat format) {
+    }
+
+    /**
+     * Données portées par le QR code d'un équipement (JSON lu par les scanners)
+     */
+    public String payload(Equipment equipment) {
+        return "{\"type\":\"equipment\",\"id\":" + equipment.getId()
+                + ",\"name\":\"" + jsonEscape(equipment.getName())
+                + "\",\"serialNumber\":\"" + jsonEscape(equipment.getSerialNumber())
+                + "\",\"internalRef\":\"" + jsonEscape(equipment.getInternalReference()) + "\"}";
+    }
+
+    /**
+     * Équipements dans l'ordre demandé (ids inconnus ignorés, doublons conservés), en une requête
+     */
+    public List<Equipment> findAllInOrder(List<Long> ids) {
+        List<Equipment> result = findAllByPosition(ids);
+        result.removeIf(Objects::isNull);
+        return result;
+    }
+
+    // Une case par id demandé, null si l'id est inconnu
+    private List<Equipment> findAllByPosition(List<Long> ids) {
+        Map<Long, Equipment> byId = equipmentRepository.findAllById(ids.stream().distinct().toList()).stream()
+                .collect(Collectors.toMap(Equipment::getId, Function.identity()));
+        List<Equipment> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            result.add(byId.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Matrice de modules du QR code (niveau de correction M)
+     */
+    public ByteMatrix encode(String payload) {
+        try {
+            return Encoder.encode(payload, ErrorCorrectionLevel.M, HINTS).getMatrix();
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("QR code impossible à encoder: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Image d'un QR code, depuis le cache si le même contenu a déjà été rendu
+     *
+     * @param size côté de l'image PNG en pixels (ignoré en SVG, vectoriel)
+     */
+    public RenderedQr render(String payload, ImageFormat format, int size) {
+        int pixels = format == ImageFormat.PNG ? size : 0;
+        String hash = sha256(format + "|" + pixels + "|" + payload);
+        synchronized (cache) {
+            RenderedQr cached = cache.get(hash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        ByteMatrix matrix = encode(payload);
+        byte[] content = format == ImageFormat.PNG
+                ? png(singleImage(matrix, size))
+                : svg(List.of(matrix), List.of(""), 1, 0).getBytes(StandardCharsets.UTF_8);
+        RenderedQr rendered = new RenderedQr(hash, content, format);
+        remember(rendered);
+        return rendered;
+    }
+
+    /**
+     * Vrai si la planche PNG de count QR codes tient dans MAX_SPRITE_SIDE x MAX_SPRITE_SIDE pixels
+     * (toujours vrai en SVG, qui n'est pas rastérisé)
+     */
+    public static boolean spriteFits(int count, ImageFormat format, int cellSize, int columns) {
+        if (format == ImageFormat.SVG) {
+            return true;
+        }
+        long rows = Math.max(1, (count + (long) columns - 1) / columns);
+        return (long) columns * cellSize <= MAX_SPRITE_SIDE && rows * cellSize <= MAX_SPRITE_SIDE;
+    }
+
+    /**
+     * Planche de QR codes en grille, encodés en parallèle : la case i (ligne par ligne) porte
+     * l'équipement ids[i], case vide si l'id est inconnu
+     *
+     * @param cellSize côté d'une case en pixels (PNG) ou en unités utilisateur (SVG)
+     */
+    public RenderedQr sprite(List<Long> ids, ImageFormat format, int cellSize, int columns) {
+        if (ids.size() > MAX_SPRITE_ITEMS) {
+            throw new IllegalArgumentException("Planche limitée à " + MAX_SPRITE_ITEMS + " QR codes");
+        }
+        if (!spriteFits(ids.size(), format, cellSize, columns)) {
+            throw new IllegalArgumentException("Planche PNG limitée à " + MAX_SPRITE_SIDE + " pixels de côté");
+        }
+        List<Equipment> equipments = findAllByPosition(ids);
+        List<String> payloads = equipments.stream().map(e -> e != null ? payload(e) : "").toList();
+        String hash = sha256("sprite|" + format + "|" + cellSize + "|" + columns + "|" + String.join("\n", payloads));
+        synchronized (cache) {
+            RenderedQr cached = cache.get(hash);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<CompletableFuture<ByteMatrix>> futures = payloads.stream()
+                .map(payload -> payload.isEmpty()
+                        ? CompletableFuture.<ByteMatrix>completedFuture(null)
+                        : CompletableFuture.supplyAsync(() -> encode(payload), executor))
+                .toList();
+        List<ByteMatrix> matrices = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+
+        byte[] content;
+        if (format == ImageFormat.SVG) {
+            List<String> groupIds = equipments.stream().map(e -> e != null ? "equipment-" + e.getId() : "").toList();
+            content = svg(matrices, groupIds, columns, cellSize).getBytes(StandardCharsets.UTF_8);
+        } else {
+            int rows = Math.max(1, (matrices.size() + columns - 1) / columns);
+            BufferedImage image = new BufferedImage(columns * cellSize, rows * cellSize, BufferedImage.TYPE_BYTE_BINARY);
+            fillWhite(image);
+            for (int i = 0; i < matrices.size(); i++) {
+                if (matrices.get(i) == null) {
+                    continue;
+                }
+                draw(image, matrices.get(i), (i % columns) * cellSize, (i / columns) * cellSize, cellSize);
+            }
+            content = png(image);
+        }
+        RenderedQr rendered = new RenderedQr(hash, content, format);
+        remember(rendered);
+        return rendered;
+    }
+
+    /**
+     * Écrire la planche d'étiquettes PDF des équipements demandés (ordre conservé, doublons
+     * imprimés plusieurs fois) : lecture par lots, encodage parallèle, écriture ordonnée
+     *
+     * @return nombre d'étiquettes écrites
+     */
+    public int writeLabelSheet(List<Long> ids, LabelSheetPdfWriter.Layout layout, OutputStream target)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        OutputStream buffered = new BufferedOutputStream(target, 64 * 1024);
+        LabelSheetPdfWriter pdf = new LabelSheetPdfWriter(buffered, layout);
+        int[] written = { 0 };
+        try (OrderedPipeline<Label> pipeline = new OrderedPipeline<>(executor, executor, LABEL_PIPELINE_CAPACITY,
+                label -> {
+                    try {
+                        pdf.addLabel(label.matrix(), label.lines());
+                        written[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })) {
+            for (int from = 0; from < ids.size(); from += LABEL_FETCH_SIZE) {
+                for (Equipment equipment : findAllInOrder(ids.subList(from, Math.min(from + LABEL_FETCH_SIZE, ids.size())))) {
+                    String payload = payload(equipment);
+                    List<String> lines = labelLines(equipment);
+                    pipeline.submit(() -> new Label(encode(payload), lines));
+                }
+            }
+            pipeline.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Génération des étiquettes interrompue", e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        pdf.finish();
+        buffered.flush();
+        logger.info("🏷️ {} étiquettes QR générées ({} pages) en {} ms", written[0], pdf.getPageCount(),
+                System.currentTimeMillis() - start);
+        return written[0];
+    }
+
+    private record Label(ByteMatrix matrix, List<String> lines) {
+    }
+
+    private static List<String> labelLines(Equipment equipment) {
+        List<String> lines = new ArrayList<>(4);
+        lines.add(equipment.getName());
+        lines.add(equipment.getQrCode() != null ? equipment.getQrCode() : "#" + equipment.getId());
+        lines.add(equipment.getSerialNumber() != null ? "S/N " + equipment.getSerialNumber() : null);
+        lines.add(equipment.getInternalReference() != null ? "Réf. " + equipment.getInternalReference() : null);
+        return lines;
+    }
+
+    // --- Rendu ---
+
+    private static BufferedImage singleImage(ByteMatrix matrix, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_BYTE_BINARY);
+        fillWhite(image);
+        draw(image, matrix, 0, 0, size);
+        return image;
+    }
+
+    private static void fillWhite(BufferedImage image) {
+        int[] white = new int[image.getWidth()];
+        Arrays.fill(white, 0xFFFFFFFF);
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.setRGB(0, y, image.getWidth(), 1, white, 0, image.getWidth());
+        }
+    }
+
+    // Modules de taille entière (net à l'impression) quand la case le permet, sinon taille
+    // fractionnaire comme en SVG ; centrés et rognés à la case
+    private static void draw(BufferedImage image, ByteMatrix matrix, int x, int y, int cell) {
+        int modules = matrix.getWidth() + 2 * QUIET_ZONE;
+        double scale = cell >= modules ? cell / modules : (double) cell / modules;
+        double offset = Math.floor((cell - matrix.getWidth() * scale) / 2);
+        int[] black = new int[cell];
+        for (int row = 0; row < matrix.getHeight(); row++) {
+            int top = y + (int) (offset + row * scale);
+            int bottom = Math.min(y + (int) (offset + (row + 1) * scale), y + cell);
+            int column = 0;
+            while (column < matrix.getWidth()) {
+                if (matrix.get(column, row) != 1) {
+                    column++;
+                    continue;
+                }
+                int start = column;
+                while (column < matrix.getWidth() && matrix.get(column, row) == 1) {
+                    column++;
+                }
+                int left = x + (int) (offset + start * scale);
+                int right = Math.min(x + (int) (offset + column * scale), x + cell);
+                for (int py = top; py < bottom && right > left; py++) {
+                    image.setRGB(left, py, right - left, 1, black, 0, right - left);
+                }
+            }
+        }
+    }
+
+    private static byte[] png(BufferedImage image) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * SVG d'un ou plusieurs QR codes en grille ; un chemin par QR code (suites de modules noirs)
+     */
+    private static String svg(List<ByteMatrix> matrices, List<String> ids, int columns, int cellSize) {
+        int cell = matrices.size() == 1 && cellSize == 0
+                ? matrices.get(0).getWidth() + 2 * QUIET_ZONE
+                : cellSize;
+        int rows = Math.max(1, (matrices.size() + columns - 1) / columns);
+        int width = Math.min(columns, Math.max(1, matrices.size())) * cell;
+        StringBuilder svg = new StringBuilder(4096 * matrices.size());
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(width).append(' ')
+                .append(rows * cell).append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>");
+        for (int i = 0; i < matrices.size(); i++) {
+            ByteMatrix matrix = matrices.get(i);
+            if (matrix == null) {
+                continue;
+            }
+            double scale = (double) cell / (matrix.getWidth() + 2 * QUIET_ZONE);
+            svg.append("<g");
+            if (!ids.get(i).isEmpty()) {
+                svg.append(" id=\"").append(ids.get(i)).append('"');
+            }
+            svg.append(" transform=\"translate(").append((i % columns) * cell).append(' ')
+                    .append((i / columns) * cell).append(") scale(").append(scale)
+                    .append(")\"><path d=\"");
+            for (int row = 0; row < matrix.getHeight(); row++) {
+                int column = 0;
+                while (column < matrix.getWidth()) {
+                    if (matrix.get(column, row) != 1) {
+                        column++;
+                        continue;
+                    }
+                    int start = column;
+                    while (column < matrix.getWidth() && matrix.get(column, row) == 1) {
+                        column++;
+                    }
+                    svg.append('M').append(start + QUIET_ZONE).append(' ').append(row + QUIET_ZONE)
+                            .append('h').append(column - start).append("v1h-").append(column - start).append('z');
+                }
+            }
+            svg.append("\"/></g>");
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    // --- Cache ---
+
+    private void remember(RenderedQr rendered) {
+        synchronized (cache) {
+            if (cache.put(rendered.hash(), rendered) == null) {
+                cacheBytes += rendered.content().length;
+            }
+            var eldest = cache.entrySet().iterator();
+            while (cacheBytes > cacheMaxBytes && eldest.hasNext()) {
+                cacheBytes -= eldest.next().getValue().content().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String jsonEscape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escaped.append("\\\"");
+                case '\\' -> escaped.append("\\\\");
+                case '\n' -> escaped.append("\\n");
+                case '\r' -> escaped.append("\\r");
+                case '\t' -> escaped.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,276 @@
+package com.magscene.magsav.backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Index des codes scannés en entrepôt : UID (qrCode), numéro de série et référence interne
+ * vers un résumé immuable de l'équipement. Chargé au démarrage puis tenu à jour à chaque
+ * commit par ScanLookupEventListener ; une lecture ne fait aucune requête (accès par table
+ * de hachage sous verrou de lecture).
+ */
+@Service
+public class ScanLookupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScanLookupService.class);
+
+    public static final int MAX_BATCH = 5000;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * Résumé d'un équipement renvoyé au scanner
+     */
+    public record ScanSummary(Long id, String name, String qrCode, String serialNumber, String internalReference,
+            String category, String brand, String model, String status, String location) {
+
+        static ScanSummary of(Equipment equipment) {
+            return new ScanSummary(equipment.getId(), equipment.getName(), equipment.getQrCode(),
+                    equipment.getSerialNumber(), equipment.getInternalReference(), equipment.getCategory(),
+                    equipment.getBrand(), equipment.getModel(),
+                    equipment.getStatus() != null ? equipment.getStatus().name() : null, equipment.getLocation());
+        }
+    }
+
+    /**
+     * Clé ayant permis de reconnaître le code scanné
+     */
+    public enum MatchedBy {
+        ID, QR_CODE, SERIAL_NUMBER, INTERNAL_REFERENCE
+    }
+
+    /**
+     * Résultat d'un scan ; matchedBy et equipment sont null si le code est inconnu
+     */
+    public record ScanResult(String code, MatchedBy matchedBy, ScanSummary equipment) {
+    }
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Clés normalisées (voir key) ; la référence interne n'est pas unique : l'id le plus petit l'emporte
+    private final Map<Long, ScanSummary> byId = new HashMap<>();
+    private final Map<String, ScanSummary> byQrCode = new HashMap<>();
+    private final Map<String, ScanSummary> bySerialNumber = new HashMap<>();
+    private final Map<String, ScanSummary> byInternalReference = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reload();
+    }
+
+    /**
+     * Reconstruire l'index depuis la base
+     */
+    public void reload() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            byId.clear();
+            byQrCode.clear();
+            bySerialNumber.clear();
+            byInternalReference.clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = equipmentRepository.streamScanColumns()) {
+                    rows.forEach(row -> put(new ScanSummary((Long) row[0], (String) row[1], (String) row[2],
+                            (String) row[3], (String) row[4], (String) row[5], (String) row[6], (String) row[7],
+                            row[8] != null ? ((Equipment.Status) row[8]).name() : null, (String) row[9])));
+                }
+            });
+            loaded = true;
+            logger.info("📷 Index de scan chargé: {} équipements en {} ms", byId.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("❌ Erreur chargement de l'index de scan: {}", e.getMessage(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Prendre en compte un équipement créé ou modifié
+     */
+    public void index(Equipment equipment) {
+        ScanSummary summary = ScanSummary.of(equipment);
+        lock.writeLock().lock();
+        try {
+            removeKeys(byId.remove(summary.id()));
+            put(summary);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retirer un équipement supprimé
+     */
+    public void remove(Long equipmentId) {
+        lock.writeLock().lock();
+        try {
+            removeKeys(byId.remove(equipmentId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconnaître un code scanné : contenu JSON d'un QR code MAGSAV, UID, numéro de série ou
+     * référence interne (casse et espaces ignorés)
+     */
+    public ScanResult lookup(String code) {
+        return lookupAll(List.of(code == null ? "" : code)).get(0);
+    }
+
+    /**
+     * Reconnaître une palette de codes en un seul passage (ordre et doublons conservés)
+     */
+    public List<ScanResult> lookupAll(List<String> codes) {
+        ensureLoaded();
+        // Décodage JSON hors verrou
+        List<Object> keys = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            keys.add(parse(code));
+        }
+
+        List<ScanResult> results = new ArrayList<>(codes.size());
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < codes.size(); i++) {
+                results.add(resolve(codes.get(i), keys.get(i)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return results;
+    }
+
+    // Sous verrou de lecture
+    private ScanResult resolve(String code, Object key) {
+        if (key instanceof Payload payload) {
+            ScanSummary summary = payload.id() != null ? byId.get(payload.id()) : null;
+            if (summary != null) {
+                return new ScanResult(code, MatchedBy.ID, summary);
+            }
+            // QR code d'un équipement recréé : retrouvé par ses identifiants métier
+            return first(code, null, payload.serialNumber(), payload.internalReference());
+        }
+        String text = (String) key;
+        return first(code, text, text, text);
+    }
+
+    private ScanResult first(String code, String qrCode, String serialNumber, String internalReference) {
+        ScanSummary summary;
+        if (qrCode != null && (summary = byQrCode.get(qrCode)) != null) {
+            return new ScanResult(code, MatchedBy.QR_CODE, summary);
+        }
+        if (serialNumber != null && (summary = bySerialNumber.get(serialNumber)) != null) {
+            return new ScanResult(code, MatchedBy.SERIAL_NUMBER, summary);
+        }
+        if (internalReference != null && (summary = byInternalReference.get(internalReference)) != null) {
+            return new ScanResult(code, MatchedBy.INTERNAL_REFERENCE, summary);
+        }
+        return new ScanResult(code, null, null);
+    }
+
+    private record Payload(Long id, String serialNumber, String internalReference) {
+    }
+
+    // Payload pour un QR code JSON, sinon la clé normalisée (null si vide)
+    private static Object parse(String code) {
+        String text = code == null ? "" : code.strip();
+        if (text.startsWith("{")) {
+            try {
+                JsonNode node = JSON.readTree(text);
+                JsonNode id = node.get("id");
+                return new Payload(id != null && id.canConvertToLong() ? id.asLong() : null,
+                        key(node.path("serialNumber").asText(null)), key(node.path("internalRef").asText(null)));
+            } catch (IOException e) {
+                // Pas du JSON : cherché tel quel
+            }
+        }
+        return key(text);
+    }
+
+    private static String key(String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = value.strip();
+        return stripped.isEmpty() ? null : stripped.toUpperCase(Locale.ROOT);
+    }
+
+    // Sous verrou d'écriture
+    private void put(ScanSummary summary) {
+        byId.put(summary.id(), summary);
+        putKey(byQrCode, summary.qrCode(), summary);
+        putKey(bySerialNumber, summary.serialNumber(), summary);
+        String reference = key(summary.internalReference());
+        if (reference != null) {
+            byInternalReference.merge(reference, summary, (current, added) -> current.id() <= added.id() ? current : added);
+        }
+    }
+
+    private static void putKey(Map<String, ScanSummary> map, String value, ScanSummary summary) {
+        String key = key(value);
+        if (key != null) {
+            map.put(key, summary);
+        }
+    }
+
+    // Sous verrou d'écriture
+    private void removeKeys(ScanSummary old) {
+        if (old == null) {
+            return;
+        }
+        removeKey(byQrCode, old.qrCode(), old);
+        removeKey(bySerialNumber, old.serialNumber(), old);
+        String reference = key(old.internalReference());
+        if (reference != null && removeKey(byInternalReference, old.internalReference(), old)) {
+            // Référence partagée : passer à l'équipement suivant (cas rare, parcours complet)
+            for (ScanSummary other : byId.values()) {
+                if (reference.equals(key(other.internalReference()))) {
+                    byInternalReference.merge(reference, other,
+                            (current, added) -> current.id() <= added.id() ? current : added);
+                }
+            }
+        }
+    }
+
+    private static boolean removeKey(Map<String, ScanSummary> map, String value, ScanSummary old) {
+        String key = key(value);
+        return key != null && map.remove(key, old);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    reload();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,522 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+import com.magscene.magsav.backend.repository.CatalogItemRepository;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.ServiceRequestRepository;
+import com.magsav.entities.CatalogItem;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.ElisionFilter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Index de recherche plein texte (Lucene embarqué) des équipements, articles de catalogue
+ * et demandes SAV. Reconstruit au démarrage si besoin puis tenu à jour par
+ * SearchIndexEventListener après chaque commit : les recherches ne parcourent plus les tables.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public static final String TYPE_EQUIPMENT = "equipment";
+    public static final String TYPE_CATALOG = "catalog";
+    public static final String TYPE_SAV = "sav";
+    public static final List<String> TYPES = List.of(TYPE_EQUIPMENT, TYPE_CATALOG, TYPE_SAV);
+
+    // Champs de l'index
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_SUBTITLE = "subtitle";
+    private static final String FIELD_CODE = "code";
+    private static final String FIELD_BODY = "body";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_TERMS = 8;
+
+    // Regroupe les modifications rapprochées (import) en une seule mise à jour de l'index
+    private static final long FLUSH_DELAY_MS = 200;
+
+    // Sous app.data-dir par défaut (application.properties) ; vide = index en mémoire
+    @Value("${app.search.index-dir:}")
+    private String indexDir;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private CatalogItemRepository catalogItemRepository;
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    @Qualifier("virtualThreadExecutor")
+    private Executor executor;
+
+    private final Analyzer analyzer = new FoldingAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    // Identifiants modifiés en attente d'indexation, par type
+    private final Map<String, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock indexLock = new ReentrantLock();
+    private volatile boolean rebuilding = true;
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (indexDir == null || indexDir.isBlank()) {
+            directory = new ByteBuffersDirectory();
+        } else {
+            Path path = Path.of(indexDir);
+            Files.createDirectories(path);
+            directory = FSDirectory.open(path);
+        }
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        try {
+            writer = new IndexWriter(directory, config);
+        } catch (IOException e) {
+            // Index illisible (version, corruption) : il sera reconstruit depuis la base
+            logger.warn("⚠️ Index de recherche illisible, recréation: {}", e.getMessage());
+            writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        }
+        searcherManager = new SearcherManager(writer, null);
+        TYPES.forEach(type -> pending.put(type, ConcurrentHashMap.newKeySet()));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.commit();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Au démarrage, reconstruire en arrière-plan les types dont l'index ne correspond plus à la base
+     * (premier lancement, données chargées par script SQL...)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void synchronizeOnStartup() {
+        executor.execute(() -> rebuild(false));
+    }
+
+    /**
+     * Réindexer entièrement en arrière-plan
+     */
+    public void rebuildInBackground() {
+        executor.execute(() -> rebuild(true));
+    }
+
+    /**
+     * Reconstruire l'index
+     *
+     * @param force true pour tout réindexer, false pour ne reprendre que les types désynchronisés
+     */
+    public void rebuild(boolean force) {
+        rebuilding = true;
+        long start = System.currentTimeMillis();
+        try {
+            for (String type : TYPES) {
+                List<Long> ids = allIds(type);
+                if (!force && countDocuments(type) == ids.size()) {
+                    continue;
+                }
+                indexLock.lock();
+                try {
+                    writer.deleteDocuments(new Term(FIELD_TYPE, type));
+                    for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                        indexBatch(type, ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())));
+                    }
+                    writer.commit();
+                    searcherManager.maybeRefresh();
+                } finally {
+                    indexLock.unlock();
+                }
+                logger.info("🔎 Index de recherche '{}' reconstruit: {} documents", type, ids.size());
+            }
+            logger.info("🔎 Index de recherche prêt en {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("❌ Erreur reconstruction index de recherche: {}", e.getMessage(), e);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding;
+    }
+
+    /**
+     * Type indexé correspondant à une classe d'entité (null si non indexée)
+     */
+    public String typeOf(Class<?> entityClass) {
+        if (Equipment.class.isAssignableFrom(entityClass)) {
+            return TYPE_EQUIPMENT;
+        }
+        if (CatalogItem.class.isAssignableFrom(entityClass)) {
+            return TYPE_CATALOG;
+        }
+        if (ServiceRequest.class.isAssignableFrom(entityClass)) {
+            return TYPE_SAV;
+        }
+        return null;
+    }
+
+    /**
+     * Entité créée ou modifiée (après commit) : réindexée au prochain passage
+     */
+    public void markChanged(String type, Long id) {
+        pending.get(type).add(id);
+        scheduleFlush();
+    }
+
+    /**
+     * Entité supprimée (après commit)
+     */
+    public void markDeleted(String type, Long id) {
+        pending.get(type).remove(id);
+        try {
+            writer.deleteDocuments(new Term(FIELD_KEY, key(type, id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::flush);
+        }
+    }
+
+    /**
+     * Indexer les entités en attente, relues en base par lots
+     */
+    void flush() {
+        try {
+            Thread.sleep(FLUSH_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushScheduled.set(false);
+
+        indexLock.lock();
+        try {
+            for (String type : TYPES) {
+                List<Long> ids = drain(pending.get(type));
+                for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                    List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+                    Set<Long> indexed = indexBatch(type, batch);
+                    if (TYPE_EQUIPMENT.equals(type)) {
+                        // Les documents SAV reprennent nom, QR code et n° de série de l'équipement
+                        pending.get(TYPE_SAV).addAll(serviceRequestRepository.findIdsByEquipmentIdIn(batch));
+                    }
+                    // Supprimée depuis : retirer un éventuel document restant
+                    for (Long id : batch) {
+                        if (!indexed.contains(id)) {
+                            writer.deleteDocuments(new Term(FIELD_KEY, key(type, id)));
+                        }
+                    }
+                }
+            }
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            logger.error("❌ Erreur mise à jour index de recherche: {}", e.getMessage(), e);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private static List<Long> drain(Set<Long> ids) {
+        List<Long> drained = new ArrayList<>();
+        Iterator<Long> iterator = ids.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    /**
+     * (Ré)indexer un lot d'entités
+     *
+     * @return identifiants effectivement trouvés en base
+     */
+    private Set<Long> indexBatch(String type, Collection<Long> ids) throws IOException {
+        List<Document> documents = switch (type) {
+            case TYPE_EQUIPMENT -> toDocuments(equipmentRepository.findAllById(ids), this::toDocument);
+            case TYPE_CATALOG -> toDocuments(catalogItemRepository.findAllById(ids), this::toDocument);
+            case TYPE_SAV -> toDocuments(serviceRequestRepository.findAllWithEquipmentByIdIn(ids), this::toDocument);
+            default -> throw new IllegalArgumentException("Type inconnu: " + type);
+        };
+        Set<Long> indexed = new HashSet<>();
+        for (Document document : documents) {
+            writer.updateDocument(new Term(FIELD_KEY, document.get(FIELD_KEY)), document);
+            indexed.add(document.getField(FIELD_ID).numericValue().longValue());
+        }
+        return indexed;
+    }
+
+    private static <T> List<Document> toDocuments(List<T> entities, Function<T, Document> mapper) {
+        return entities.stream().map(mapper).toList();
+    }
+
+    private Document toDocument(Equipment equipment) {
+        return document(TYPE_EQUIPMENT, equipment.getId(), equipment.getName(),
+                join(" · ", equipment.getBrand(), equipment.getModel(), equipment.getQrCode(), equipment.getLocation()),
+                join(" ", equipment.getQrCode(), equipment.getSerialNumber(), equipment.getInternalReference()),
+                join(" ", equipment.getBrand(), equipment.getModel(), equipment.getCategory(),
+                        equipment.getSubCategory(), equipment.getSpecificCategory(), equipment.getLocation(),
+                        equipment.getDescription()));
+    }
+
+    private Document toDocument(CatalogItem item) {
+        return document(TYPE_CATALOG, item.getId(), item.getName(),
+                join(" · ", item.getReference(), item.getBrand(), item.getModel()),
+                item.getReference(),
+                join(" ", item.getBrand(), item.getModel(), item.getCategory(), item.getSubcategory(),
+                        item.getKeywords(), item.getDescription()));
+    }
+
+    private Document toDocument(ServiceRequest request) {
+        Equipment equipment = request.getEquipment();
+        return document(TYPE_SAV, request.getId(), request.getTitle(),
+                join(" · ", request.getStatus() != null ? request.getStatus().getDisplayName() : null,
+                        equipment != null ? equipment.getName() : null, request.getRequesterName()),
+                equipment != null ? join(" ", equipment.getQrCode(), equipment.getSerialNumber()) : null,
+                join(" ", request.getDescription(), request.getRequesterName(), request.getAssignedTechnician(),
+                        request.getResolutionNotes(), equipment != null ? equipment.getName() : null));
+    }
+
+    private static Document document(String type, Long id, String title, String subtitle, String codes,
+            String body) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, key(type, id), Field.Store.YES));
+        document.add(new StringField(FIELD_TYPE, type, Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, id));
+        document.add(new TextField(FIELD_TITLE, title != null ? title : "", Field.Store.YES));
+        document.add(new StoredField(FIELD_SUBTITLE, subtitle));
+        if (codes != null) {
+            document.add(new TextField(FIELD_CODE, codes, Field.Store.NO));
+        }
+        document.add(new TextField(FIELD_BODY, body, Field.Store.NO));
+        return document;
+    }
+
+    private static String join(String separator, String... values) {
+        return Stream.of(values).filter(value -> value != null && !value.isBlank())
+                .collect(Collectors.joining(separator));
+    }
+
+    private static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    private List<Long> allIds(String type) {
+        return switch (type) {
+            case TYPE_EQUIPMENT -> equipmentRepository.findAllIds();
+            case TYPE_CATALOG -> catalogItemRepository.findAllIds();
+            case TYPE_SAV -> serviceRequestRepository.findAllIds();
+            default -> throw new IllegalArgumentException("Type inconnu: " + type);
+        };
+    }
+
+    private int countDocuments(String type) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(new Term(FIELD_TYPE, type)));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Recherche classée : chaque mot doit correspondre (exact, préfixe ou approché),
+     * sans tenir compte de la casse ni des accents
+     *
+     * @param text  saisie utilisateur
+     * @param types types recherchés (vide pour tous)
+     * @param limit nombre maximal de résultats
+     */
+    public SearchResult search(String text, Collection<String> types, int limit) {
+        List<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return new SearchResult(List.of(), 0, false);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+        if (types != null && !types.isEmpty()) {
+            BooleanQuery.Builder typeFilter = new BooleanQuery.Builder();
+            for (String type : types) {
+                if (!TYPES.contains(type)) {
+                    throw new IllegalArgumentException("Type de recherche inconnu: " + type);
+                }
+                typeFilter.add(new TermQuery(new Term(FIELD_TYPE, type)), BooleanClause.Occur.SHOULD);
+            }
+            query.add(typeFilter.build(), BooleanClause.Occur.FILTER);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query.build(), limit);
+                StoredFields storedFields = searcher.storedFields();
+                List<SearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    Document document = storedFields.document(scoreDoc.doc);
+                    hits.add(new SearchHit(document.get(FIELD_TYPE),
+                            document.getField(FIELD_ID).numericValue().longValue(),
+                            document.get(FIELD_TITLE), document.get(FIELD_SUBTITLE), scoreDoc.score));
+                }
+                return new SearchResult(hits, top.totalHits.value,
+                        top.totalHits.relation == TotalHits.Relation.GREATER_THAN_OR_EQUAL_TO);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Un mot : exact (fort), préfixe (saisie en cours) ou approché (fautes de frappe)
+     */
+    private static Query termQuery(String term) {
+        BooleanQuery.Builder clauses = new BooleanQuery.Builder();
+        clauses.add(new BoostQuery(new TermQuery(new Term(FIELD_CODE, term)), 8f), BooleanClause.Occur.SHOULD);
+        clauses.add(new BoostQuery(new TermQuery(new Term(FIELD_TITLE, term)), 6f), BooleanClause.Occur.SHOULD);
+        clauses.add(new BoostQuery(new TermQuery(new Term(FIELD_BODY, term)), 2f), BooleanClause.Occur.SHOULD);
+        clauses.add(new BoostQuery(new PrefixQuery(new Term(FIELD_CODE, term)), 3f), BooleanClause.Occur.SHOULD);
+        clauses.add(new BoostQuery(new PrefixQuery(new Term(FIELD_TITLE, term)), 3f), BooleanClause.Occur.SHOULD);
+        clauses.add(new PrefixQuery(new Term(FIELD_BODY, term)), BooleanClause.Occur.SHOULD);
+        if (term.length() >= 4) {
+            int maxEdits = term.length() >= 8 ? 2 : 1;
+            clauses.add(new BoostQuery(new FuzzyQuery(new Term(FIELD_TITLE, term), maxEdits, 1), 1f),
+                    BooleanClause.Occur.SHOULD);
+            clauses.add(new BoostQuery(new FuzzyQuery(new Term(FIELD_BODY, term), maxEdits, 1), 0.5f),
+                    BooleanClause.Occur.SHOULD);
+        }
+        return clauses.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(FIELD_BODY, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken() && terms.size() < MAX_TERMS) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    /**
+     * Découpage standard, élisions françaises (l', d'...), minuscules et suppression des accents
+     */
+    private static final class FoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream stream = new ElisionFilter(source, FrenchAnalyzer.DEFAULT_ARTICLES);
+            stream = new LowerCaseFilter(stream);
+            stream = new ASCIIFoldingFilter(stream);
+            return new TokenStreamComponents(source, stream);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+
+    /**
+     * Résultat de recherche
+     */
+    public record SearchHit(String type, Long id, String title, String subtitle, float score) {
+    }
+
+    /**
+     * @param totalIsLowerBound true si le comptage s'est arrêté en route (total = minimum)
+     */
+    public record SearchResult(List<SearchHit> hits, long total, boolean totalIsLowerBound) {
+    }
+}
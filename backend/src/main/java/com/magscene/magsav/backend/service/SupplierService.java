@@ -3,12 +3,18 @@ package com.magscene.magsav.backend.service;
 import com.magsav.entities.*;
 import com.magsav.enums.ImportStatus;
 import com.magscene.magsav.backend.repository.*;
+import com.magscene.magsav.backend.util.CatalogFileReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +37,12 @@ public class SupplierService {
     @Autowired
     private GroupedOrderRepository groupedOrderRepository;
     
+    @Autowired
+    private CatalogImportService catalogImportService;
+    
+    @Autowired
+    private CatalogQueryIndex catalogQueryIndex;
+    
     // *** GESTION DES FOURNISSEURS ***
     
     public List<Supplier> findAll() {
@@ -73,6 +85,7 @@ public class SupplierService {
                 throw new IllegalStateException("Impossible de supprimer le fournisseur : commandes en cours");
             }
             supplierRepository.deleteById(id);
+            catalogQueryIndex.scheduleRebuild();
         }
     }
     
@@ -109,48 +122,84 @@ public class SupplierService {
         return catalogRepository.findBySupplierId(supplierId);
     }
     
+    public Optional<SupplierCatalog> findCatalogById(Long catalogId) {
+        return catalogRepository.findById(catalogId);
+    }
+    
     public List<SupplierCatalog> findActiveCatalogs() {
         return catalogRepository.findByActiveTrueOrderByImportDateDesc();
     }
     
+    /**
+     * Enregistrer un fichier catalogue et lancer son import en arrière-plan. Un catalogue de
+     * même nom chez ce fournisseur est réimporté (seules les lignes modifiées sont écrites).
+     *
+     * Le fournisseur est verrouillé jusqu'à la validation : deux dépôts simultanés du même
+     * catalogue sont vérifiés l'un après l'autre et le second est refusé.
+     *
+     * @throws IllegalStateException un import de ce catalogue est déjà en cours
+     */
     public SupplierCatalog importCatalog(Long supplierId, String catalogName, MultipartFile file) {
-        Optional<Supplier> supplierOpt = supplierRepository.findById(supplierId);
+        Optional<Supplier> supplierOpt = supplierRepository.findByIdForUpdate(supplierId);
         if (!supplierOpt.isPresent()) {
             throw new IllegalArgumentException("Fournisseur introuvable : " + supplierId);
         }
         
         Supplier supplier = supplierOpt.get();
+        String originalFilename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "";
         
-        // Créer le catalogue
-        SupplierCatalog catalog = new SupplierCatalog(supplier, catalogName);
-        catalog.setFileName(file.getOriginalFilename());
+        // Réimport d'un catalogue existant ou création
+        SupplierCatalog catalog = catalogRepository.findBySupplierAndName(supplier, catalogName)
+            .orElseGet(() -> new SupplierCatalog(supplier, catalogName));
+        if (catalog.getImportStatus() == ImportStatus.IN_PROGRESS
+                || (catalog.getId() != null && catalog.getImportStatus() == ImportStatus.PENDING)) {
+            throw new IllegalStateException("Import déjà en cours pour le catalogue " + catalogName);
+        }
+        catalog.setFileName(originalFilename);
         catalog.setFileSize(file.getSize());
-        catalog.setImportStatus(ImportStatus.PENDING);
+        catalog.setImportDate(LocalDateTime.now());
         
         // Déterminer le format
-        String filename = file.getOriginalFilename().toLowerCase();
+        String filename = originalFilename.toLowerCase();
         if (filename.endsWith(".xlsx") || filename.endsWith(".xls")) {
             catalog.setFileFormat(CatalogFormat.EXCEL);
         } else if (filename.endsWith(".pdf")) {
             catalog.setFileFormat(CatalogFormat.PDF);
         } else if (filename.endsWith(".csv")) {
             catalog.setFileFormat(CatalogFormat.CSV);
+        } else if (filename.endsWith(".xml")) {
+            catalog.setFileFormat(CatalogFormat.XML);
+        } else if (filename.endsWith(".json")) {
+            catalog.setFileFormat(CatalogFormat.JSON);
         } else {
             catalog.setFileFormat(CatalogFormat.CUSTOM_OTHER);
         }
         
-        catalog = catalogRepository.save(catalog);
+        // PDF, anciens .xls... : fichier enregistré mais pas d'import automatique
+        if (CatalogFileReader.Format.fromFilename(originalFilename) == null) {
+            catalog.setImportStatus(ImportStatus.FAILED);
+            catalog.setImportLog("❌ Format non pris en charge pour l'import automatique (CSV, XLSX, XML ou JSON)");
+            return catalogRepository.save(catalog);
+        }
         
-        // TODO: Implémenter l'import asynchrone du fichier
-        // Pour l'instant, marquer comme terminé
-        catalog.setImportStatus(ImportStatus.COMPLETED);
-        catalog.setImportLog("Import simulé - à implémenter");
+        catalog.setImportStatus(ImportStatus.PENDING);
+        catalog.setImportLog("⏳ Import de " + originalFilename + " en attente");
+        catalog = catalogRepository.save(catalog);
         
-        return catalogRepository.save(catalog);
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("catalog-import-", filename.substring(filename.lastIndexOf('.')));
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fichier catalogue illisible: " + e.getMessage(), e);
+        }
+        catalogImportService.submit(catalog.getId(), tempFile, originalFilename);
+        return catalog;
     }
     
     public void deleteCatalog(Long catalogId) {
         catalogRepository.deleteById(catalogId);
+        catalogQueryIndex.scheduleRebuild();
     }
     
     // *** RECHERCHE DANS LES CATALOGUES ***
@@ -164,10 +213,22 @@ public class SupplierService {
             return searchCatalogItems(query);
         }
         
-        List<CatalogItem> allItems = catalogItemRepository.findBySupplierIds(supplierIds);
-        return allItems.stream()
-            .filter(item -> matchesQuery(item, query))
-            .toList();
+        // Index en mémoire ; base de données tant qu'il n'est pas construit
+        return catalogQueryIndex.search(query, supplierIds)
+            .orElseGet(() -> catalogItemRepository.findBySupplierIds(supplierIds).stream()
+                .filter(item -> matchesQuery(item, query))
+                .toList());
+    }
+    
+    public List<CatalogItem> filterCatalogItems(List<Long> supplierIds, String category, String brand,
+                                                BigDecimal minPrice, BigDecimal maxPrice) {
+        return catalogQueryIndex.filter(supplierIds, category, brand, minPrice, maxPrice)
+            .orElseGet(() -> {
+                List<Long> ids = supplierIds != null && !supplierIds.isEmpty() ? supplierIds
+                    : supplierRepository.findAll().stream().map(Supplier::getId).toList();
+                return ids.isEmpty() ? List.of()
+                    : catalogItemRepository.findWithFilters(ids, category, brand, minPrice, maxPrice);
+            });
     }
     
     private boolean matchesQuery(CatalogItem item, String query) {
@@ -0,0 +1,249 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.UidSequence;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.UidSequenceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur d'UID d'équipement (3 lettres + 4 chiffres) partagé par toute l'application.
+ * Les numéros sont réservés par blocs dans la table uid_sequences (verrou pessimiste, transaction
+ * dédiée), puis distribués en mémoire sans verrou : imports LOCMAT concurrents et créations
+ * unitaires ne peuvent plus produire deux fois le même UID.
+ * Un arrêt brutal perd la fin du bloc en cours (trou dans la numérotation, jamais de doublon).
+ */
+@Service
+public class UidAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UidAllocationService.class);
+
+    // Plus grand numéro représentable sur 4 chiffres
+    static final long MAX_NUMBER = 9999;
+
+    @Autowired
+    private UidSequenceRepository uidSequenceRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Nombre de numéros réservés en base à chaque accès
+    @Value("${app.uid.block-size:500}")
+    private int blockSize = 500;
+
+    // Bloc courant par préfixe
+    private final Map<String, UidBlock> blocks = new ConcurrentHashMap<>();
+
+    // Verrou de renouvellement par préfixe (le chemin nominal n'en prend aucun)
+    private final Map<String, Object> refillLocks = new ConcurrentHashMap<>();
+
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    void init() {
+        // Transaction indépendante : le verrou sur le compteur est relâché aussitôt,
+        // sans attendre la fin de la transaction de l'appelant (lot d'import, création...)
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Générer le prochain UID pour un préfixe donné
+     *
+     * @throws IllegalStateException si les 9999 numéros du préfixe sont épuisés
+     */
+    public String nextUid(String prefix) {
+        return prefix + String.format("%04d", nextNumber(prefix));
+    }
+
+    /**
+     * Générer le prochain UID d'un équipement d'après sa catégorie et son propriétaire
+     */
+    public String nextUid(String category, String proprietaire) {
+        return nextUid(prefixFor(category, proprietaire));
+    }
+
+    private long nextNumber(String prefix) {
+        while (true) {
+            UidBlock block = blocks.get(prefix);
+            if (block != null) {
+                long number = block.next.getAndIncrement();
+                if (number < block.end) {
+                    return number;
+                }
+            }
+
+            // Bloc absent ou épuisé : un seul thread le renouvelle, les autres réessaient ensuite
+            synchronized (refillLocks.computeIfAbsent(prefix, key -> new Object())) {
+                if (blocks.get(prefix) == block) {
+                    blocks.put(prefix, reserveBlock(prefix));
+                }
+            }
+        }
+    }
+
+    /**
+     * Réserver en base le prochain bloc de numéros d'un préfixe
+     */
+    private UidBlock reserveBlock(String prefix) {
+        try {
+            return requiresNew.execute(status -> reserveBlockInTransaction(prefix));
+        } catch (DataIntegrityViolationException e) {
+            // Compteur créé en parallèle par une autre instance : il existe désormais
+            return requiresNew.execute(status -> reserveBlockInTransaction(prefix));
+        }
+    }
+
+    private UidBlock reserveBlockInTransaction(String prefix) {
+        UidSequence sequence = uidSequenceRepository.findByPrefixForUpdate(prefix)
+                .orElseGet(() -> {
+                    // Premier accès à ce préfixe : repartir du plus grand UID existant
+                    Integer maxNum = equipmentRepository.findMaxUidNumberByPrefix(prefix);
+                    long start = maxNum != null ? maxNum + 1L : 1L;
+                    logger.info("🔢 Nouveau compteur d'UID {} initialisé à {}", prefix, start);
+                    return new UidSequence(prefix, start);
+                });
+
+        long start = sequence.getNextValue();
+        if (start > MAX_NUMBER) {
+            // Un 5e chiffre casserait le format des UID (et des étiquettes déjà imprimées)
+            logger.error("❌ Plus aucun UID disponible pour le préfixe {} (limite {} atteinte)", prefix, MAX_NUMBER);
+            throw new IllegalStateException(
+                    "Plus aucun UID disponible pour le préfixe " + prefix + " (limite " + MAX_NUMBER + " atteinte)");
+        }
+        long end = Math.min(start + blockSize, MAX_NUMBER + 1);
+        sequence.setNextValue(end);
+        uidSequenceRepository.saveAndFlush(sequence);
+
+        logger.debug("🔢 Bloc d'UID réservé pour {} : {} à {}", prefix, start, end - 1);
+        return new UidBlock(start, end);
+    }
+
+    /**
+     * Rendre à la base la fin des blocs inutilisés, pour éviter des trous à chaque redémarrage.
+     * Seulement si aucun autre bloc n'a été réservé depuis (sinon les numéros restent perdus).
+     */
+    @PreDestroy
+    void releaseUnusedBlocks() {
+        blocks.forEach((prefix, block) -> {
+            long firstUnused = block.next.getAndSet(block.end);
+            if (firstUnused >= block.end) {
+                return;
+            }
+            try {
+                requiresNew.executeWithoutResult(status -> uidSequenceRepository.findByPrefixForUpdate(prefix)
+                        .filter(sequence -> sequence.getNextValue() == block.end)
+                        .ifPresent(sequence -> {
+                            sequence.setNextValue(firstUnused);
+                            uidSequenceRepository.save(sequence);
+                        }));
+            } catch (Exception e) {
+                logger.warn("⚠️ Impossible de restituer les UID {} non utilisés: {}", prefix, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Préfixe d'UID (3 lettres)
+     * - Pour MAG SCENE : basé sur la catégorie
+     * - Pour autres propriétaires : basé sur les 3 premières lettres du
+     * propriétaire
+     */
+    public String prefixFor(String category, String proprietaire) {
+        // Vérifier si c'est MAG SCENE ou autre propriétaire
+        boolean isMagScene = proprietaire == null ||
+                proprietaire.trim().isEmpty() ||
+                proprietaire.trim().toUpperCase().contains("MAG") ||
+                proprietaire.trim().toUpperCase().equals("MAG SCENE");
+
+        // MAG SCENE : préfixe basé sur la catégorie
+        // Autre propriétaire : préfixe basé sur les 3 premières lettres du propriétaire
+        return isMagScene ? getCategoryPrefix(category) : getOwnerPrefix(proprietaire);
+    }
+
+    /**
+     * Obtenir le préfixe de 3 lettres basé sur le propriétaire
+     */
+    private String getOwnerPrefix(String proprietaire) {
+        if (proprietaire == null || proprietaire.trim().isEmpty()) {
+            return "EXT"; // EXTerne par défaut
+        }
+
+        String owner = proprietaire.trim().toUpperCase()
+                .replaceAll("[^A-Z]", ""); // Garder uniquement les lettres
+
+        if (owner.length() >= 3) {
+            return owner.substring(0, 3);
+        } else if (owner.length() > 0) {
+            // Compléter avec des X si moins de 3 lettres
+            return (owner + "XXX").substring(0, 3);
+        } else {
+            return "EXT";
+        }
+    }
+
+    /**
+     * Obtenir le préfixe de 3 lettres basé sur la catégorie
+     */
+    private String getCategoryPrefix(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return "GEN"; // GENéral
+        }
+
+        String cat = category.trim().toUpperCase();
+
+        // Mapping des catégories vers les préfixes
+        return switch (cat) {
+            case "AUDIO", "SON", "SONORISATION" -> "SON";
+            case "ECLAIRAGE", "LUMIERE", "LIGHTING" -> "LUM";
+            case "VIDEO", "VIDÉO" -> "VID";
+            case "STRUCTURE", "TRUSS" -> "STR";
+            case "CONSOLE", "MIXAGE" -> "MIX";
+            case "MICROPHONE", "MICRO" -> "MIC";
+            case "PROJECTEUR", "SPOT" -> "PRO";
+            case "CÂBLE", "CABLE" -> "CAB";
+            case "AMPLIFICATEUR", "AMPLI" -> "AMP";
+            case "ENCEINTE", "HAUT-PARLEUR" -> "ENC";
+            case "EFFETS", "EFFET" -> "EFX";
+            case "TRANSPORT", "FLIGHT" -> "TRA";
+            case "ACCESSOIRE", "DIVERS" -> "ACC";
+            default -> {
+                // Générer un préfixe à partir des 3 premières lettres
+                if (cat.length() >= 3) {
+                    yield cat.substring(0, 3);
+                } else {
+                    yield (cat + "XXX").substring(0, 3);
+                }
+            }
+        };
+    }
+
+    /**
+     * Plage [next, end[ de numéros réservés en base pour un préfixe
+     */
+    private static class UidBlock {
+        private final AtomicLong next;
+        private final long end;
+
+        UidBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Vehicle;
+import com.magscene.magsav.backend.entity.VehicleReservation;
+import com.magscene.magsav.backend.exception.MagsavBusinessException;
+import com.magscene.magsav.backend.repository.VehicleRepository;
+import com.magscene.magsav.backend.repository.VehicleReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Registre des réservations de véhicules. Une réservation est créée sous verrou de la ligne
+ * du véhicule (SELECT ... FOR UPDATE) après vérification des chevauchements : deux demandes
+ * simultanées pour le même véhicule sont traitées l'une après l'autre et la seconde est
+ * refusée si les périodes se recoupent.
+ */
+@Service
+@Transactional
+public class VehicleReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleReservationService.class);
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private VehicleReservationRepository reservationRepository;
+
+    /**
+     * Réserver un véhicule sur [start, end[
+     *
+     * @throws MagsavBusinessException période invalide, véhicule inconnu, hors service ou déjà réservé
+     */
+    public VehicleReservation reserve(Long vehicleId, LocalDateTime start, LocalDateTime end, String reservedBy,
+            String purpose) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw MagsavBusinessException.Factory.invalidDateRange(String.valueOf(start), String.valueOf(end));
+        }
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId)
+                .orElseThrow(() -> MagsavBusinessException.Factory.vehicleNotFound(vehicleId));
+        if (vehicle.getStatus() == Vehicle.VehicleStatus.OUT_OF_ORDER) {
+            throw new MagsavBusinessException("VEHICLE_OUT_OF_ORDER", "Véhicule hors service", HttpStatus.CONFLICT);
+        }
+
+        List<VehicleReservation> overlapping = reservationRepository.findOverlapping(vehicleId, start, end);
+        if (!overlapping.isEmpty()) {
+            throw MagsavBusinessException.Factory.vehicleNotAvailable(vehicleId, start + " - " + end,
+                    overlapping.stream().map(VehicleReservation::getId).toList());
+        }
+
+        VehicleReservation reservation = new VehicleReservation(vehicle, start, end);
+        reservation.setReservedBy(reservedBy);
+        reservation.setPurpose(purpose);
+        reservation = reservationRepository.save(reservation);
+
+        // Réservation en cours : le statut du véhicule le reflète, comme avant le registre
+        if (reservation.covers(LocalDateTime.now()) && vehicle.getStatus() == Vehicle.VehicleStatus.AVAILABLE) {
+            vehicle.setStatus(Vehicle.VehicleStatus.IN_USE);
+        }
+        logger.info("🚚 Véhicule {} réservé du {} au {} (réservation {})", vehicleId, start, end, reservation.getId());
+        return reservation;
+    }
+
+    /**
+     * Annuler une réservation, sous le même verrou du véhicule que {@link #reserve}
+     */
+    public VehicleReservation cancel(Long vehicleId, Long reservationId) {
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId)
+                .orElseThrow(() -> MagsavBusinessException.Factory.vehicleNotFound(vehicleId));
+        VehicleReservation reservation = reservationRepository.findById(reservationId)
+                .filter(r -> vehicleId.equals(r.getVehicleId()))
+                .orElseThrow(() -> new MagsavBusinessException("RESERVATION_NOT_FOUND",
+                        "Réservation non trouvée avec l'ID: " + reservationId, HttpStatus.NOT_FOUND));
+        if (reservation.getStatus() != VehicleReservation.ReservationStatus.CANCELLED) {
+            reservation.setStatus(VehicleReservation.ReservationStatus.CANCELLED);
+            releaseStatusIfFree(vehicle, LocalDateTime.now());
+        }
+        return reservation;
+    }
+
+    /**
+     * Libérer un véhicule maintenant : la réservation en cours se termine à cet instant
+     */
+    public Vehicle release(Long vehicleId) {
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId)
+                .orElseThrow(() -> MagsavBusinessException.Factory.vehicleNotFound(vehicleId));
+        LocalDateTime now = LocalDateTime.now();
+        for (VehicleReservation reservation : reservationRepository.findOverlapping(vehicleId, now, now.plusSeconds(1))) {
+            if (reservation.getStartDate().isBefore(now)) {
+                reservation.setEndDate(now);
+            } else {
+                reservation.setStatus(VehicleReservation.ReservationStatus.CANCELLED);
+            }
+        }
+        vehicle.setStatus(Vehicle.VehicleStatus.AVAILABLE);
+        return vehicle;
+    }
+
+    /**
+     * Réservations confirmées qui chevauchent [start, end[
+     */
+    @Transactional(readOnly = true)
+    public List<VehicleReservation> findOverlapping(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return reservationRepository.findOverlapping(vehicleId, start, end);
+    }
+
+    /**
+     * Réservations confirmées en cours ou à venir
+     */
+    @Transactional(readOnly = true)
+    public List<VehicleReservation> findUpcoming(Long vehicleId) {
+        return reservationRepository.findUpcoming(vehicleId, LocalDateTime.now());
+    }
+
+    /**
+     * Supprimer les réservations d'un véhicule avant sa suppression
+     */
+    public void deleteForVehicle(Long vehicleId) {
+        reservationRepository.deleteByVehicle_Id(vehicleId);
+    }
+
+    /**
+     * Supprimer toutes les réservations (suppression de tout le parc avant import)
+     */
+    public void deleteAll() {
+        reservationRepository.deleteAll();
+    }
+
+    private void releaseStatusIfFree(Vehicle vehicle, LocalDateTime now) {
+        if (vehicle.getStatus() == Vehicle.VehicleStatus.IN_USE
+                && reservationRepository.findOverlapping(vehicle.getId(), now, now.plusSeconds(1)).isEmpty()) {
+            vehicle.setStatus(Vehicle.VehicleStatus.AVAILABLE);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.magscene.magsav.backend.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lecture en flux des catalogues fournisseurs (CSV, XLSX, XML, JSON). Chaque article est
+ * remis au {@link RecordHandler} sous forme de champs texte indexés par nom de colonne
+ * normalisé (minuscules, sans accents ni ponctuation : "Prix unitaire HT" devient
+ * "prixunitaireht"). Le fichier n'est jamais chargé entièrement en mémoire.
+ */
+public final class CatalogFileReader {
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    private CatalogFileReader() {
+    }
+
+    /**
+     * Formats lisibles
+     */
+    public enum Format {
+        CSV, XLSX, XML, JSON;
+
+        /**
+         * Format déduit de l'extension du fichier, null si non pris en charge
+         */
+        public static Format fromFilename(String filename) {
+            String lower = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+            if (lower.endsWith(".csv") || lower.endsWith(".txt")) {
+                return CSV;
+            }
+            if (lower.endsWith(".xlsx")) {
+                return XLSX;
+            }
+            if (lower.endsWith(".xml")) {
+                return XML;
+            }
+            if (lower.endsWith(".json")) {
+                return JSON;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Réception des articles lus
+     */
+    public interface RecordHandler {
+
+        /**
+         * @param recordNumber numéro de l'article dans le fichier (base 1)
+         * @param fields       valeurs non vides par nom de colonne normalisé
+         * @return false pour arrêter la lecture
+         */
+        boolean onRecord(int recordNumber, Map<String, String> fields);
+    }
+
+    public static void read(Path file, Format format, RecordHandler handler) throws IOException {
+        switch (format) {
+            case CSV -> readCsv(file, handler);
+            case XLSX -> readXlsx(file, handler);
+            case XML -> readXml(file, handler);
+            case JSON -> readJson(file, handler);
+        }
+    }
+
+    /**
+     * Nom de colonne normalisé : minuscules, sans accents, lettres et chiffres uniquement
+     */
+    public static String normalizeKey(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder key = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = Character.toLowerCase(decomposed.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    // --- CSV ---
+
+    private static void readCsv(Path file, RecordHandler handler) throws IOException {
+        Charset charset = detectCharset(file);
+        try (BufferedReader reader = Files.newBufferedReader(file, charset)) {
+            reader.mark(64 * 1024);
+            String firstLine = reader.readLine();
+            if (firstLine == null) {
+                return;
+            }
+            reader.reset();
+
+            CSVFormat format = CSVFormat.DEFAULT.builder()
+                    .setDelimiter(detectDelimiter(firstLine))
+                    .setTrim(true)
+                    .setIgnoreEmptyLines(true)
+                    .build();
+            try (CSVParser parser = format.parse(reader)) {
+                Iterator<CSVRecord> records = parser.iterator();
+                if (!records.hasNext()) {
+                    return;
+                }
+                String[] header = normalizedHeader(records.next());
+                int recordNumber = 0;
+                while (records.hasNext()) {
+                    CSVRecord record = records.next();
+                    Map<String, String> fields = new HashMap<>();
+                    for (int i = 0; i < Math.min(header.length, record.size()); i++) {
+                        put(fields, header[i], record.get(i));
+                    }
+                    if (!fields.isEmpty() && !handler.onRecord(++recordNumber, fields)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static String[] normalizedHeader(CSVRecord record) {
+        String[] header = new String[record.size()];
+        for (int i = 0; i < header.length; i++) {
+            // Marque d'ordre d'octets éventuelle en tête de fichier
+            header[i] = normalizeKey(record.get(i).replace("﻿", ""));
+        }
+        return header;
+    }
+
+    // Séparateur le plus fréquent de la ligne d'en-tête (les exports Excel français utilisent ';')
+    private static char detectDelimiter(String headerLine) {
+        char best = ',';
+        long bestCount = 0;
+        for (char candidate : new char[] { ';', ',', '\t', '|' }) {
+            long count = headerLine.chars().filter(c -> c == candidate).count();
+            if (count > bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    // UTF-8 si le début du fichier est décodable, sinon Windows-1252 (exports Excel)
+    private static Charset detectCharset(Path file) throws IOException {
+        byte[] head = new byte[64 * 1024];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = in.readNBytes(head, 0, head.length);
+        }
+        // Ne pas couper un caractère multi-octets en fin d'échantillon
+        int end = length;
+        if (length == head.length) {
+            while (end > 0 && (head[end - 1] & 0xC0) == 0x80) {
+                end--;
+            }
+            if (end > 0 && (head[end - 1] & 0x80) != 0) {
+                end--;
+            }
+        }
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        try {
+            decoder.decode(ByteBuffer.wrap(head, 0, end));
+            return StandardCharsets.UTF_8;
+        } catch (CharacterCodingException e) {
+            return WINDOWS_1252;
+        }
+    }
+
+    // --- XLSX ---
+
+    private static void readXlsx(Path file, RecordHandler handler) throws IOException {
+        XlsxStreamReader.readFirstSheet(file.toFile(), new XlsxStreamReader.RowHandler() {
+            private String[] header;
+            private int recordNumber;
+
+            @Override
+            public boolean onRow(int rowIndex, XlsxStreamReader.CellValue[] cells) {
+                if (header == null) {
+                    // Première ligne non vide : en-tête
+                    header = new String[cells.length];
+                    for (int i = 0; i < cells.length; i++) {
+                        header[i] = cells[i] != null ? normalizeKey(cells[i].text()) : "";
+                    }
+                    return true;
+                }
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < Math.min(header.length, cells.length); i++) {
+                    if (cells[i] != null) {
+                        put(fields, header[i], cells[i].text());
+                    }
+                }
+                return fields.isEmpty() || handler.onRecord(++recordNumber, fields);
+            }
+        });
+    }
+
+    // --- JSON ---
+
+    /**
+     * Le premier tableau d'objets rencontré (racine ou propriété, ex: {"items": [...]}) contient
+     * les articles ; les objets imbriqués sont aplatis ("prix": {"ht": 10} donne "prixht")
+     */
+    private static void readJson(Path file, RecordHandler handler) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonFactory factory = mapper.getFactory();
+        try (InputStream in = Files.newInputStream(file); JsonParser parser = factory.createParser(in)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.START_ARRAY) {
+                // Recherche du tableau d'articles
+            }
+            if (token == null) {
+                return;
+            }
+            int recordNumber = 0;
+            while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                JsonNode node = mapper.readTree(parser);
+                Map<String, String> fields = new HashMap<>();
+                flatten("", node, fields);
+                if (!fields.isEmpty() && !handler.onRecord(++recordNumber, fields)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void flatten(String prefix, JsonNode node, Map<String, String> fields) {
+        for (Map.Entry<String, JsonNode> property : node.properties()) {
+            String key = prefix + normalizeKey(property.getKey());
+            JsonNode value = property.getValue();
+            if (value.isObject()) {
+                flatten(key, value, fields);
+            } else if (value.isArray()) {
+                List<String> values = new ArrayList<>();
+                value.forEach(element -> {
+                    if (element.isValueNode()) {
+                        values.add(element.asText());
+                    }
+                });
+                put(fields, key, String.join(", ", values));
+            } else if (!value.isNull()) {
+                put(fields, key, value.asText());
+            }
+        }
+    }
+
+    // --- XML ---
+
+    /**
+     * Les articles sont le premier élément répété (même nom, même profondeur) dont tous les
+     * enfants sont des feuilles, ex: &lt;catalogue&gt;&lt;article&gt;&lt;ref&gt;... ; un bloc d'en-tête isolé
+     * est ignoré. Attributs de l'article et de ses champs inclus ("prix devise=EUR" donne "prixdevise").
+     */
+    private static void readXml(Path file, RecordHandler handler) throws IOException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        try (InputStream in = Files.newInputStream(file)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                Deque<XmlElement> stack = new ArrayDeque<>();
+                // Élément article (profondeur:nom), fixé dès qu'un candidat se répète
+                String recordKey = null;
+                XmlElement pending = null;
+                String pendingKey = null;
+                int[] recordNumber = { 0 };
+                while (reader.hasNext()) {
+                    switch (reader.next()) {
+                        case XMLStreamConstants.START_ELEMENT -> {
+                            XmlElement element = new XmlElement(normalizeKey(reader.getLocalName()));
+                            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                                element.attributes.put(normalizeKey(reader.getAttributeLocalName(i)),
+                                        reader.getAttributeValue(i));
+                            }
+                            if (!stack.isEmpty()) {
+                                stack.peek().hasChildren = true;
+                            }
+                            stack.push(element);
+                        }
+                        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> {
+                            if (!stack.isEmpty()) {
+                                stack.peek().text.append(reader.getText());
+                            }
+                        }
+                        case XMLStreamConstants.END_ELEMENT -> {
+                            XmlElement element = stack.pop();
+                            XmlElement parent = stack.peek();
+                            if (!element.hasChildren) {
+                                if (parent != null) {
+                                    put(parent.fields, element.name, element.text.toString());
+                                    element.attributes.forEach((name, value) ->
+                                            put(parent.fields, element.name + name, value));
+                                }
+                            } else if (parent != null) {
+                                parent.leafChildrenOnly = false;
+                            }
+                            if (!element.hasChildren || !element.leafChildrenOnly) {
+                                continue;
+                            }
+                            String key = stack.size() + ":" + element.name;
+                            if (recordKey == null) {
+                                if (!key.equals(pendingKey)) {
+                                    // Premier candidat (ou bloc d'en-tête isolé) : en attente
+                                    pending = element;
+                                    pendingKey = key;
+                                    continue;
+                                }
+                                recordKey = key;
+                                if (!emit(pending, recordNumber, handler)) {
+                                    return;
+                                }
+                            }
+                            if (key.equals(recordKey) && !emit(element, recordNumber, handler)) {
+                                return;
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                }
+                // Catalogue d'un seul article
+                if (recordKey == null && pending != null) {
+                    emit(pending, recordNumber, handler);
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Fichier XML illisible: " + e.getMessage(), e);
+        }
+    }
+
+    private static class XmlElement {
+        final String name;
+        final Map<String, String> attributes = new HashMap<>(4);
+        final Map<String, String> fields = new HashMap<>();
+        final StringBuilder text = new StringBuilder();
+        boolean hasChildren;
+        boolean leafChildrenOnly = true;
+
+        XmlElement(String name) {
+            this.name = name;
+        }
+    }
+
+    private static boolean emit(XmlElement element, int[] recordNumber, RecordHandler handler) {
+        Map<String, String> fields = element.fields;
+        element.attributes.forEach((name, value) -> put(fields, name, value));
+        return fields.isEmpty() || handler.onRecord(++recordNumber[0], fields);
+    }
+
+    // Seules les valeurs non vides sont conservées ; la première colonne d'un nom l'emporte
+    private static void put(Map<String, String> fields, String key, String value) {
+        if (key.isEmpty() || value == null) {
+            return;
+        }
+        String trimmed = value.trim();
+        if (!trimmed.isEmpty()) {
+            fields.putIfAbsent(key, trimmed);
+        }
+    }
+
+}
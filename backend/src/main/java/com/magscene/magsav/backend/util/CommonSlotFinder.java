@@ -0,0 +1,191 @@
+package com.magscene.magsav.backend.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Recherche des premiers créneaux communs d'une durée donnée pour une équipe : chaque poste
+ * (rôle) doit être tenu par une ressource distincte, libre pendant tout le créneau.
+ *
+ * Chaque ressource est décrite par ses périodes libres [début, fin[ ; on en déduit les
+ * instants de début possibles [début, fin - durée] puis on balaie ces bornes dans l'ordre
+ * chronologique en maintenant un couplage postes/ressources (chemins augmentants). La
+ * faisabilité ne change qu'aux bornes : O(E log E) pour le tri plus une augmentation par
+ * poste libéré, au lieu d'un test par pas de temps. Non synchronisé.
+ */
+public class CommonSlotFinder {
+
+    /**
+     * Créneau trouvé : ressource retenue pour chaque poste (dans l'ordre d'ajout des postes)
+     * et nombre de ressources candidates encore disponibles en plus de l'équipe retenue
+     */
+    public record Slot(long start, long end, int[] assignment, int spare) {
+    }
+
+    private static final long ENTER = 1;
+    private static final long LEAVE = 0;
+
+    private final List<long[]> freeIntervals = new ArrayList<>();
+    private final List<int[]> roles = new ArrayList<>();
+
+    /**
+     * Déclarer une ressource par ses périodes libres, triées et disjointes
+     * (début0, fin0, début1, fin1...)
+     *
+     * @return indice de la ressource
+     */
+    public int addResource(long[] free) {
+        freeIntervals.add(free);
+        return freeIntervals.size() - 1;
+    }
+
+    /**
+     * Déclarer un poste et les ressources (indices) qui peuvent le tenir
+     */
+    public void addRole(int[] candidates) {
+        roles.add(candidates);
+    }
+
+    /**
+     * Les premiers créneaux [t, t + durée[ inclus dans [from, to[, sans chevauchement entre eux,
+     * par début croissant
+     */
+    public List<Slot> find(long from, long to, long duration, int limit) {
+        List<Slot> slots = new ArrayList<>();
+        if (duration <= 0 || limit <= 0 || to - from < duration) {
+            return slots;
+        }
+        int resources = freeIntervals.size();
+        long[][] events = startEvents(from, to, duration);
+
+        boolean[] available = new boolean[resources];
+        int[] roleOfResource = new int[resources];
+        int[] resourceOfRole = new int[roles.size()];
+        Arrays.fill(roleOfResource, -1);
+        Arrays.fill(resourceOfRole, -1);
+        // Postes sans candidat disponible : test de faisabilité inutile tant qu'il en reste
+        int[] availableCandidates = new int[roles.size()];
+        List<List<Integer>> rolesOfResource = rolesOfResource(resources);
+        int[] visited = new int[resources];
+        int visitStamp = 0;
+
+        long cursor = from;
+        int next = 0;
+        boolean changed = true;
+        while (slots.size() < limit && cursor + duration <= to) {
+            // Appliquer toutes les bornes jusqu'au curseur
+            while (next < events.length && events[next][0] <= cursor) {
+                boolean enter = events[next][1] == ENTER;
+                int resource = (int) events[next][2];
+                available[resource] = enter;
+                for (int role : rolesOfResource.get(resource)) {
+                    availableCandidates[role] += enter ? 1 : -1;
+                }
+                if (!enter && roleOfResource[resource] >= 0) {
+                    resourceOfRole[roleOfResource[resource]] = -1;
+                    roleOfResource[resource] = -1;
+                }
+                changed |= enter;
+                next++;
+            }
+
+            if (changed && allRolesHaveCandidates(availableCandidates)) {
+                boolean feasible = true;
+                for (int role = 0; role < roles.size() && feasible; role++) {
+                    if (resourceOfRole[role] < 0) {
+                        visitStamp++;
+                        feasible = augment(role, available, roleOfResource, resourceOfRole, visited, visitStamp);
+                    }
+                }
+                if (feasible) {
+                    slots.add(new Slot(cursor, cursor + duration, resourceOfRole.clone(),
+                            spare(available, roleOfResource)));
+                    // Créneau suivant : juste après celui-ci, avec la même équipe si elle reste libre
+                    cursor += duration;
+                    changed = true;
+                    continue;
+                }
+            }
+            changed = false;
+            // Rien ne peut changer avant la prochaine borne
+            if (next >= events.length) {
+                break;
+            }
+            cursor = events[next][0];
+        }
+        return slots;
+    }
+
+    // Bornes des instants de début possibles, triées : (instant, ENTER ou LEAVE, ressource)
+    private long[][] startEvents(long from, long to, long duration) {
+        List<long[]> raw = new ArrayList<>();
+        for (int resource = 0; resource < freeIntervals.size(); resource++) {
+            long[] free = freeIntervals.get(resource);
+            for (int i = 0; i + 1 < free.length; i += 2) {
+                long start = Math.max(free[i], from);
+                long end = Math.min(free[i + 1], to);
+                if (end - start >= duration) {
+                    // Débuts possibles [start, end - duration], soit [start, end - duration + 1[
+                    raw.add(new long[] { start, ENTER, resource });
+                    raw.add(new long[] { end - duration + 1, LEAVE, resource });
+                }
+            }
+        }
+        raw.sort((a, b) -> Long.compare(a[0], b[0]));
+        return raw.toArray(long[][]::new);
+    }
+
+    private List<List<Integer>> rolesOfResource(int resources) {
+        List<List<Integer>> result = new ArrayList<>(resources);
+        for (int i = 0; i < resources; i++) {
+            result.add(new ArrayList<>(2));
+        }
+        for (int role = 0; role < roles.size(); role++) {
+            for (int candidate : roles.get(role)) {
+                result.get(candidate).add(role);
+            }
+        }
+        return result;
+    }
+
+    private boolean augment(int role, boolean[] available, int[] roleOfResource, int[] resourceOfRole,
+            int[] visited, int stamp) {
+        for (int candidate : roles.get(role)) {
+            if (!available[candidate] || visited[candidate] == stamp) {
+                continue;
+            }
+            visited[candidate] = stamp;
+            int holder = roleOfResource[candidate];
+            if (holder < 0 || augment(holder, available, roleOfResource, resourceOfRole, visited, stamp)) {
+                roleOfResource[candidate] = role;
+                resourceOfRole[role] = candidate;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int spare(boolean[] available, int[] roleOfResource) {
+        boolean[] counted = new boolean[available.length];
+        int spare = 0;
+        for (int[] candidates : roles) {
+            for (int candidate : candidates) {
+                if (available[candidate] && roleOfResource[candidate] < 0 && !counted[candidate]) {
+                    counted[candidate] = true;
+                    spare++;
+                }
+            }
+        }
+        return spare;
+    }
+
+    private static boolean allRolesHaveCandidates(int[] availableCandidates) {
+        for (int count : availableCandidates) {
+            if (count <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,180 @@
+package com.magscene.magsav.backend.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Requêtes HTTP groupées au format multipart/mixed des API Google (jusqu'à 50 appels par
+ * requête) : encodage des sous-requêtes et décodage des sous-réponses, reliées par Content-ID.
+ */
+public final class HttpBatchCodec {
+
+    private static final String CRLF = "\r\n";
+
+    private HttpBatchCodec() {
+    }
+
+    /**
+     * Sous-requête : méthode, chemin absolu (/calendar/v3/...) et corps JSON éventuel
+     */
+    public record Part(String contentId, String method, String path, String jsonBody) {
+    }
+
+    /**
+     * Sous-réponse ; contentId sans le préfixe "response-" ajouté par le serveur
+     */
+    public record PartResponse(String contentId, int status, Map<String, String> headers, String body) {
+    }
+
+    public static String newBoundary() {
+        return "batch_" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static String contentType(String boundary) {
+        return "multipart/mixed; boundary=" + boundary;
+    }
+
+    public static String encode(String boundary, List<Part> parts) {
+        StringBuilder body = new StringBuilder(parts.size() * 512);
+        for (Part part : parts) {
+            body.append("--").append(boundary).append(CRLF)
+                    .append("Content-Type: application/http").append(CRLF)
+                    .append("Content-ID: <").append(part.contentId()).append('>').append(CRLF)
+                    .append(CRLF)
+                    .append(part.method()).append(' ').append(part.path()).append(" HTTP/1.1").append(CRLF);
+            if (part.jsonBody() != null) {
+                body.append("Content-Type: application/json; charset=UTF-8").append(CRLF)
+                        .append(CRLF)
+                        .append(part.jsonBody()).append(CRLF);
+            } else {
+                body.append(CRLF);
+            }
+        }
+        return body.append("--").append(boundary).append("--").append(CRLF).toString();
+    }
+
+    /**
+     * Sous-requêtes d'un corps multipart/mixed (utilisé côté serveur, par les bouchons de test)
+     */
+    public static List<Part> decodeRequest(String contentType, String body) {
+        List<Part> parts = new ArrayList<>();
+        for (RawPart raw : split(contentType, body)) {
+            String[] requestLine = raw.firstLine().split(" ");
+            String json = raw.body().isEmpty() ? null : raw.body();
+            parts.add(new Part(raw.contentId(), requestLine[0], requestLine.length > 1 ? requestLine[1] : "", json));
+        }
+        return parts;
+    }
+
+    /**
+     * Sous-réponses d'une réponse multipart/mixed, dans l'ordre reçu
+     */
+    public static List<PartResponse> decodeResponse(String contentType, String body) {
+        List<PartResponse> responses = new ArrayList<>();
+        for (RawPart raw : split(contentType, body)) {
+            // "HTTP/1.1 200 OK"
+            String[] statusLine = raw.firstLine().split(" ", 3);
+            int status = statusLine.length > 1 ? Integer.parseInt(statusLine[1]) : 500;
+            String contentId = raw.contentId();
+            if (contentId != null && contentId.startsWith("response-")) {
+                contentId = contentId.substring("response-".length());
+            }
+            responses.add(new PartResponse(contentId, status, raw.headers(), raw.body()));
+        }
+        return responses;
+    }
+
+    /**
+     * Encoder des sous-réponses (utilisé par les bouchons de test)
+     */
+    public static String encodeResponse(String boundary, List<PartResponse> responses) {
+        StringBuilder body = new StringBuilder();
+        for (PartResponse response : responses) {
+            body.append("--").append(boundary).append(CRLF)
+                    .append("Content-Type: application/http").append(CRLF)
+                    .append("Content-ID: <response-").append(response.contentId()).append('>').append(CRLF)
+                    .append(CRLF)
+                    .append("HTTP/1.1 ").append(response.status()).append(CRLF);
+            response.headers().forEach((name, value) -> body.append(name).append(": ").append(value).append(CRLF));
+            body.append("Content-Type: application/json; charset=UTF-8").append(CRLF)
+                    .append(CRLF)
+                    .append(response.body() != null ? response.body() : "").append(CRLF);
+        }
+        return body.append("--").append(boundary).append("--").append(CRLF).toString();
+    }
+
+    static String boundaryOf(String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.toLowerCase(Locale.ROOT).startsWith("boundary=")) {
+                    String boundary = trimmed.substring("boundary=".length());
+                    return boundary.startsWith("\"") && boundary.endsWith("\"") && boundary.length() > 1
+                            ? boundary.substring(1, boundary.length() - 1)
+                            : boundary;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Réponse groupée sans boundary: " + contentType);
+    }
+
+    // Partie brute : en-têtes de la partie, puis message HTTP (ligne, en-têtes, corps)
+    private record RawPart(String contentId, String firstLine, Map<String, String> headers, String body) {
+    }
+
+    private static List<RawPart> split(String contentType, String body) {
+        String delimiter = "--" + boundaryOf(contentType);
+        List<RawPart> parts = new ArrayList<>();
+        String[] chunks = body.split(Pattern.quote(delimiter), -1);
+        // chunks[0] : préambule ; la dernière partie commence par "--" (fin)
+        for (int i = 1; i < chunks.length; i++) {
+            String chunk = chunks[i];
+            if (chunk.startsWith("--")) {
+                break;
+            }
+            String normalized = chunk.replace("\r\n", "\n");
+            int headersEnd = normalized.indexOf("\n\n");
+            if (headersEnd < 0) {
+                continue;
+            }
+            Map<String, String> partHeaders = headers(normalized.substring(0, headersEnd));
+            String message = normalized.substring(headersEnd + 2);
+            int lineEnd = message.indexOf('\n');
+            String firstLine = (lineEnd < 0 ? message : message.substring(0, lineEnd)).trim();
+            String rest = lineEnd < 0 ? "" : message.substring(lineEnd + 1);
+            int messageHeadersEnd = rest.startsWith("\n") ? 0 : rest.indexOf("\n\n");
+            Map<String, String> messageHeaders;
+            String messageBody;
+            if (messageHeadersEnd < 0) {
+                messageHeaders = headers(rest);
+                messageBody = "";
+            } else {
+                messageHeaders = headers(rest.substring(0, messageHeadersEnd));
+                messageBody = rest.substring(messageHeadersEnd + (messageHeadersEnd == 0 ? 1 : 2));
+            }
+            String contentId = partHeaders.get("content-id");
+            if (contentId != null && contentId.startsWith("<") && contentId.endsWith(">")) {
+                contentId = contentId.substring(1, contentId.length() - 1);
+            }
+            parts.add(new RawPart(contentId, firstLine, messageHeaders, messageBody.strip()));
+        }
+        return parts;
+    }
+
+    // Noms d'en-têtes en minuscules
+    private static Map<String, String> headers(String block) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String line : block.split("\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,226 @@
+package com.magscene.magsav.backend.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Arbre d'intervalles semi-ouverts [début, fin[ : arbre binaire de recherche équilibré
+ * (treap) trié par début, chaque nœud connaissant la plus grande fin de son sous-arbre.
+ * Insertion et suppression en O(log n), recherche des k intervalles qui chevauchent une
+ * période en O(log n + k). Non synchronisé.
+ *
+ * @param <T> valeur associée à chaque intervalle
+ */
+public class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Intervalle stocké ; id départage les intervalles de mêmes bornes
+     */
+    public record Entry<T>(long start, long end, long id, T value) {
+    }
+
+    private static final class Node<T> {
+        final Entry<T> entry;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node<T> left;
+        Node<T> right;
+        long maxEnd;
+
+        Node(Entry<T> entry) {
+            this.entry = entry;
+            this.maxEnd = entry.end();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Ajouter un intervalle (ignoré s'il est vide : fin avant ou égale au début)
+     */
+    public void insert(long start, long end, long id, T value) {
+        if (end <= start) {
+            return;
+        }
+        root = insert(root, new Node<>(new Entry<>(start, end, id, value)));
+        size++;
+    }
+
+    /**
+     * Retirer un intervalle ajouté avec les mêmes bornes et le même id
+     *
+     * @return false s'il n'était pas présent
+     */
+    public boolean remove(long start, long end, long id) {
+        int before = size;
+        root = remove(root, start, end, id);
+        return size < before;
+    }
+
+    /**
+     * Intervalles qui chevauchent [from, to[, triés par début
+     */
+    public List<Entry<T>> overlapping(long from, long to) {
+        List<Entry<T>> result = new ArrayList<>();
+        forEachOverlapping(from, to, result::add);
+        return result;
+    }
+
+    /**
+     * Parcourir les intervalles qui chevauchent [from, to[, par début croissant
+     */
+    public void forEachOverlapping(long from, long to, Consumer<Entry<T>> action) {
+        if (to > from) {
+            collect(root, from, to, action);
+        }
+    }
+
+    /**
+     * Vrai si aucun intervalle ne chevauche [from, to[ (arrêt au premier trouvé)
+     */
+    public boolean isFree(long from, long to) {
+        Node<T> node = root;
+        while (node != null) {
+            if (overlaps(node.entry, from, to)) {
+                return false;
+            }
+            // Un intervalle à gauche finit après from : s'il ne chevauche pas, il commence après to,
+            // comme tous ceux de droite ; la réponse est donc à gauche
+            node = node.left != null && node.left.maxEnd > from ? node.left : node.right;
+        }
+        return true;
+    }
+
+    /**
+     * Tous les intervalles, triés par début
+     */
+    public List<Entry<T>> entries() {
+        List<Entry<T>> result = new ArrayList<>(size);
+        forEachOverlapping(Long.MIN_VALUE, Long.MAX_VALUE, result::add);
+        return result;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    private void collect(Node<T> node, long from, long to, Consumer<Entry<T>> action) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, action);
+        if (node.entry.start() >= to) {
+            // Sous-arbre droit : débuts encore plus tardifs
+            return;
+        }
+        if (node.entry.end() > from) {
+            action.accept(node.entry);
+        }
+        collect(node.right, from, to, action);
+    }
+
+    private static boolean overlaps(Entry<?> entry, long from, long to) {
+        return entry.start() < to && entry.end() > from;
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.entry.start(), added.entry.end(), added.entry.id(), node.entry) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> remove(Node<T> node, long start, long end, long id) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(start, end, id, node.entry);
+        if (comparison < 0) {
+            node.left = remove(node.left, start, end, id);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, start, end, id);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <T> void update(Node<T> node) {
+        long maxEnd = node.entry.end();
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int compare(long start, long end, long id, Entry<?> entry) {
+        int comparison = Long.compare(start, entry.start());
+        if (comparison == 0) {
+            comparison = Long.compare(end, entry.end());
+        }
+        return comparison != 0 ? comparison : Long.compare(id, entry.id());
+    }
+}
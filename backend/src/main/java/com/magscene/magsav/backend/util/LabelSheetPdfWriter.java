@@ -0,0 +1,297 @@
+package com.magscene.magsav.backend.util;
+
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Écriture en flux de planches d'étiquettes A4 au format PDF : chaque étiquette porte un
+ * QR code vectoriel (un rectangle par suite de modules noirs) et quelques lignes de texte
+ * en Helvetica. Seule la page en cours est gardée en mémoire (flux compressé) : chaque
+ * page est écrite dès qu'elle est pleine, la table des objets est écrite à la fin.
+ * Non synchronisé.
+ */
+public class LabelSheetPdfWriter implements Closeable {
+
+    // A4 en points (1/72 de pouce)
+    private static final float PAGE_WIDTH = 595.28f;
+    private static final float PAGE_HEIGHT = 841.89f;
+
+    // Zone blanche autour du QR code, en modules
+    private static final int QUIET_ZONE = 2;
+
+    // Objets fixes : catalogue, arbre des pages (écrit à la fin), police
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT = 3;
+
+    private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+    /**
+     * Découpage de la page : colonnes x lignes d'étiquettes, marges en points
+     */
+    public record Layout(int columns, int rows, float marginX, float marginY, float padding) {
+
+        /**
+         * Planche 3 x 8 pleine page (étiquettes 70 x 37 mm)
+         */
+        public static final Layout A4_3X8 = new Layout(3, 8, 0, 0, 6);
+
+        public Layout {
+            if (columns < 1 || rows < 1 || columns > 10 || rows > 20) {
+                throw new IllegalArgumentException("Planche invalide: " + columns + " x " + rows);
+            }
+        }
+
+        float cellWidth() {
+            return (PAGE_WIDTH - 2 * marginX) / columns;
+        }
+
+        float cellHeight() {
+            return (PAGE_HEIGHT - 2 * marginY) / rows;
+        }
+    }
+
+    private final CountingOutputStream out;
+    private final Layout layout;
+    private final CharsetEncoder encoder = WIN_ANSI.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private long[] offsets = new long[64];
+    private int nextObject = FONT + 1;
+    private int[] pageObjects = new int[16];
+    private int pageCount;
+
+    // Page en cours
+    private final StringBuilder content = new StringBuilder(64 * 1024);
+    private int labelsOnPage;
+    private boolean closed;
+
+    public LabelSheetPdfWriter(OutputStream target, Layout layout) throws IOException {
+        this.out = new CountingOutputStream(target);
+        this.layout = layout;
+        write("%PDF-1.4\n%âãÏÓ\n");
+        beginObject(CATALOG);
+        write("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+        beginObject(FONT);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+    }
+
+    public int getPageCount() {
+        return pageCount + (labelsOnPage > 0 ? 1 : 0);
+    }
+
+    /**
+     * Ajouter une étiquette : QR code (matrice de modules, null pour une case sans code) et
+     * lignes de texte, la première en plus gros ; le texte trop long est tronqué
+     */
+    public void addLabel(ByteMatrix qr, List<String> lines) throws IOException {
+        int column = labelsOnPage % layout.columns();
+        int row = labelsOnPage / layout.columns();
+        float cellWidth = layout.cellWidth();
+        float cellHeight = layout.cellHeight();
+        float left = layout.marginX() + column * cellWidth;
+        float top = PAGE_HEIGHT - layout.marginY() - row * cellHeight;
+        float padding = layout.padding();
+
+        float side = Math.min(cellHeight, cellWidth / 2) - 2 * padding;
+        if (qr != null) {
+            drawQr(qr, left + padding, top - padding - side, side);
+        }
+
+        float textLeft = left + 2 * padding + side;
+        float textWidth = left + cellWidth - padding - textLeft;
+        float y = top - padding;
+        for (int i = 0; i < lines.size() && y > top - cellHeight + padding; i++) {
+            String line = lines.get(i);
+            if (line == null || line.isBlank()) {
+                continue;
+            }
+            float fontSize = i == 0 ? 9 : 7.5f;
+            y -= fontSize * 1.25f;
+            drawText(line, textLeft, y, fontSize, textWidth);
+        }
+
+        if (++labelsOnPage == layout.columns() * layout.rows()) {
+            flushPage();
+        }
+    }
+
+    /**
+     * Terminer le document (arbre des pages, table des objets) sans fermer le flux cible
+     */
+    public void finish() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (labelsOnPage > 0 || pageCount == 0) {
+            flushPage();
+        }
+
+        beginObject(PAGES);
+        StringBuilder kids = new StringBuilder("<< /Type /Pages /Count ").append(pageCount).append(" /Kids [");
+        for (int i = 0; i < pageCount; i++) {
+            kids.append(pageObjects[i]).append(" 0 R ");
+        }
+        write(kids.append("] >>\nendobj\n").toString());
+
+        long xref = out.count;
+        StringBuilder table = new StringBuilder("xref\n0 ").append(nextObject).append("\n0000000000 65535 f \n");
+        for (int i = 1; i < nextObject; i++) {
+            String offset = Long.toString(offsets[i]);
+            table.append("0".repeat(10 - offset.length())).append(offset).append(" 00000 n \n");
+        }
+        table.append("trailer\n<< /Size ").append(nextObject).append(" /Root ").append(CATALOG)
+                .append(" 0 R >>\nstartxref\n").append(xref).append("\n%%EOF\n");
+        write(table.toString());
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+    }
+
+    // Modules en coordonnées entières : le repère (cm) met à l'échelle et retourne l'axe vertical
+    private void drawQr(ByteMatrix qr, float x, float y, float side) {
+        int size = qr.getWidth();
+        float module = side / (size + 2 * QUIET_ZONE);
+        content.append("q ").append(decimal(module)).append(" 0 0 ").append(decimal(-module)).append(' ')
+                .append(decimal(x + QUIET_ZONE * module)).append(' ')
+                .append(decimal(y + side - QUIET_ZONE * module)).append(" cm\n");
+        for (int row = 0; row < size; row++) {
+            int column = 0;
+            while (column < size) {
+                if (qr.get(column, row) != 1) {
+                    column++;
+                    continue;
+                }
+                int start = column;
+                while (column < size && qr.get(column, row) == 1) {
+                    column++;
+                }
+                content.append(start).append(' ').append(row).append(' ').append(column - start).append(" 1 re\n");
+            }
+        }
+        content.append("f Q\n");
+    }
+
+    private void drawText(String text, float x, float y, float fontSize, float maxWidth) {
+        // Largeur moyenne des caractères Helvetica, suffisante pour tronquer
+        int maxChars = (int) (maxWidth / (fontSize * 0.55f));
+        if (text.length() > maxChars) {
+            text = text.substring(0, Math.max(0, maxChars - 3)) + "...";
+        }
+        content.append("BT /F1 ").append(decimal(fontSize)).append(" Tf ")
+                .append(decimal(x)).append(' ').append(decimal(y)).append(" Td (");
+        appendPdfString(text);
+        content.append(") Tj ET\n");
+    }
+
+    // Chaîne PDF en WinAnsi, octets non ASCII en octal pour garder un flux de contenu ASCII
+    private void appendPdfString(String text) {
+        ByteBuffer bytes;
+        try {
+            bytes = encoder.reset().encode(CharBuffer.wrap(text));
+        } catch (IOException e) {
+            bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        }
+        while (bytes.hasRemaining()) {
+            int b = bytes.get() & 0xFF;
+            if (b == '(' || b == ')' || b == '\\') {
+                content.append('\\').append((char) b);
+            } else if (b < 0x20 || b > 0x7E) {
+                content.append('\\').append((char) ('0' + (b >> 6))).append((char) ('0' + ((b >> 3) & 7)))
+                        .append((char) ('0' + (b & 7)));
+            } else {
+                content.append((char) b);
+            }
+        }
+    }
+
+    private void flushPage() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length() / 4 + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(compressed, deflater, 8192)) {
+            deflate.write(content.toString().getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            deflater.end();
+        }
+
+        int contentObject = nextObject++;
+        beginObject(contentObject);
+        write("<< /Length " + compressed.size() + " /Filter /FlateDecode >>\nstream\n");
+        compressed.writeTo(out);
+        write("\nendstream\nendobj\n");
+
+        int pageObject = nextObject++;
+        beginObject(pageObject);
+        write("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + decimal(PAGE_WIDTH) + " "
+                + decimal(PAGE_HEIGHT) + "] /Resources << /Font << /F1 " + FONT + " 0 R >> >> /Contents "
+                + contentObject + " 0 R >>\nendobj\n");
+        if (pageCount == pageObjects.length) {
+            pageObjects = Arrays.copyOf(pageObjects, pageCount * 2);
+        }
+        pageObjects[pageCount++] = pageObject;
+
+        content.setLength(0);
+        labelsOnPage = 0;
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, Math.max(number + 1, offsets.length * 2));
+        }
+        offsets[number] = out.count;
+        write(number + " 0 obj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    // Deux décimales, sans passer par String.format (des centaines de milliers d'appels par document)
+    private static String decimal(float value) {
+        long hundredths = Math.round(value * 100.0);
+        String sign = hundredths < 0 ? "-" : "";
+        hundredths = Math.abs(hundredths);
+        long fraction = hundredths % 100;
+        return sign + hundredths / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream target) {
+            super(target);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
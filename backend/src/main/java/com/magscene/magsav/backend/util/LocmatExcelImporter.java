@@ -1,15 +1,14 @@
 package com.magscene.magsav.backend.util;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Component;
 
-import java.io.FileInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Utilitaire pour importer les données depuis LOCMAT_Materiel.xlsx
@@ -46,67 +45,77 @@ public class LocmatExcelImporter {
      */
     public List<EquipmentData> importFromExcel(String filePath) throws IOException {
         List<EquipmentData> equipmentList = new ArrayList<>();
+        importFromExcel(filePath, equipmentList::add);
+        return equipmentList;
+    }
         
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-            
-            Sheet sheet = workbook.getSheetAt(0);
+    /**
+     * Importe le fichier Excel en flux : chaque équipement est remis au consommateur
+     * dès sa lecture, sans charger le classeur en mémoire
+     *
+     * @param filePath Chemin vers le fichier Excel
+     * @param consumer Destinataire des équipements lus
+     * @throws IOException Si erreur de lecture du fichier
+     */
+    public void importFromExcel(String filePath, Consumer<EquipmentData> consumer) throws IOException {
+        XlsxStreamReader.readFirstSheet(new File(filePath), new XlsxStreamReader.RowHandler() {
+            // Colonnes détectées depuis la première ligne
+            private Map<String, Integer> columnMap;
             
-            // Lire la première ligne pour détecter les colonnes
-            Row headerRow = sheet.getRow(0);
-            Map<String, Integer> columnMap = buildColumnMap(headerRow);
+            @Override
+            public boolean onRow(int rowIndex, XlsxStreamReader.CellValue[] cells) {
+                if (columnMap == null) {
+                    columnMap = buildColumnMap(cells);
+                    return true;
+                }
             
-            // Parcourir les lignes de données (à partir de la ligne 1)
-            for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                Row row = sheet.getRow(i);
-                if (row == null) continue;
-                
-                EquipmentData equipment = parseEquipmentRow(row, columnMap);
+                EquipmentData equipment = parseEquipmentRow(cells, columnMap);
                 if (equipment != null && equipment.reference != null) {
-                    equipmentList.add(equipment);
+                    consumer.accept(equipment);
                 }
+                return true;
             }
-        }
-        
-        return equipmentList;
+        });
     }
     
     /**
      * Construit une map des colonnes depuis l'en-tête
      */
-    private Map<String, Integer> buildColumnMap(Row headerRow) {
+    private Map<String, Integer> buildColumnMap(XlsxStreamReader.CellValue[] headerRow) {
         Map<String, Integer> map = new HashMap<>();
         
-        for (Cell cell : headerRow) {
-            String header = getCellValueAsString(cell).toLowerCase().trim();
+        for (int columnIndex = 0; columnIndex < headerRow.length; columnIndex++) {
+            String value = getCellValueAsString(headerRow[columnIndex]);
+            if (value == null) continue;
+            String header = value.toLowerCase().trim();
             
             // Mapping des colonnes possibles
             if (header.contains("ref") || header.equals("reference")) {
-                map.put("reference", cell.getColumnIndex());
+                map.put("reference", columnIndex);
             } else if (header.contains("nom") || header.contains("désignation") || header.contains("designation")) {
-                map.put("name", cell.getColumnIndex());
+                map.put("name", columnIndex);
             } else if (header.contains("marque") || header.contains("brand")) {
-                map.put("brand", cell.getColumnIndex());
+                map.put("brand", columnIndex);
             } else if (header.contains("modèle") || header.contains("modele") || header.contains("model")) {
-                map.put("model", cell.getColumnIndex());
+                map.put("model", columnIndex);
             } else if (header.contains("catégorie") || header.contains("categorie") || header.contains("category")) {
-                map.put("category", cell.getColumnIndex());
+                map.put("category", columnIndex);
             } else if (header.contains("série") || header.contains("serie") || header.contains("serial")) {
-                map.put("serialNumber", cell.getColumnIndex());
+                map.put("serialNumber", columnIndex);
             } else if (header.contains("achat") || header.contains("purchase")) {
                 if (header.contains("date")) {
-                    map.put("purchaseDate", cell.getColumnIndex());
+                    map.put("purchaseDate", columnIndex);
                 } else if (header.contains("prix") || header.contains("price")) {
-                    map.put("purchasePrice", cell.getColumnIndex());
+                    map.put("purchasePrice", columnIndex);
                 }
             } else if (header.contains("fournisseur") || header.contains("supplier")) {
-                map.put("supplier", cell.getColumnIndex());
+                map.put("supplier", columnIndex);
             } else if (header.contains("emplacement") || header.contains("location")) {
-                map.put("location", cell.getColumnIndex());
+                map.put("location", columnIndex);
             } else if (header.contains("statut") || header.contains("état") || header.contains("status")) {
-                map.put("status", cell.getColumnIndex());
+                map.put("status", columnIndex);
             } else if (header.contains("notes") || header.contains("remarques") || header.contains("commentaire")) {
-                map.put("notes", cell.getColumnIndex());
+                map.put("notes", columnIndex);
             }
         }
         
@@ -116,7 +125,7 @@ public class LocmatExcelImporter {
     /**
      * Parse une ligne de données en EquipmentData
      */
-    private EquipmentData parseEquipmentRow(Row row, Map<String, Integer> columnMap) {
+    private EquipmentData parseEquipmentRow(XlsxStreamReader.CellValue[] row, Map<String, Integer> columnMap) {
         EquipmentData equipment = new EquipmentData();
         
         equipment.reference = getCellValue(row, columnMap.get("reference"));
@@ -135,20 +144,22 @@ public class LocmatExcelImporter {
         return equipment;
     }
     
-    private String getCellValue(Row row, Integer columnIndex) {
-        if (columnIndex == null) return null;
-        Cell cell = row.getCell(columnIndex);
-        return cell != null ? getCellValueAsString(cell) : null;
+    private XlsxStreamReader.CellValue getCell(XlsxStreamReader.CellValue[] row, Integer columnIndex) {
+        if (columnIndex == null || columnIndex >= row.length) return null;
+        return row[columnIndex];
     }
     
-    private LocalDate getCellValueAsDate(Row row, Integer columnIndex) {
-        if (columnIndex == null) return null;
-        Cell cell = row.getCell(columnIndex);
+    private String getCellValue(XlsxStreamReader.CellValue[] row, Integer columnIndex) {
+        return getCellValueAsString(getCell(row, columnIndex));
+    }
+
+    private LocalDate getCellValueAsDate(XlsxStreamReader.CellValue[] row, Integer columnIndex) {
+        XlsxStreamReader.CellValue cell = getCell(row, columnIndex);
         if (cell == null) return null;
         
         try {
-            if (cell.getCellType() == CellType.NUMERIC && DateUtil.isCellDateFormatted(cell)) {
-                Date date = cell.getDateCellValue();
+            if (cell.isNumeric() && cell.dateFormatted()) {
+                Date date = cell.asDate();
                 return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
             }
         } catch (Exception e) {
@@ -157,16 +168,15 @@ public class LocmatExcelImporter {
         return null;
     }
     
-    private BigDecimal getCellValueAsBigDecimal(Row row, Integer columnIndex) {
-        if (columnIndex == null) return null;
-        Cell cell = row.getCell(columnIndex);
+    private BigDecimal getCellValueAsBigDecimal(XlsxStreamReader.CellValue[] row, Integer columnIndex) {
+        XlsxStreamReader.CellValue cell = getCell(row, columnIndex);
         if (cell == null) return null;
         
         try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return BigDecimal.valueOf(cell.getNumericCellValue());
-            } else if (cell.getCellType() == CellType.STRING) {
-                String value = cell.getStringCellValue().replaceAll("[^0-9.,]", "");
+            if (cell.isNumeric()) {
+                return BigDecimal.valueOf(cell.asDouble());
+            } else if (cell.kind() == XlsxStreamReader.CellKind.STRING) {
+                String value = cell.text().replaceAll("[^0-9.,]", "");
                 return new BigDecimal(value.replace(',', '.'));
             }
         } catch (Exception e) {
@@ -175,21 +185,19 @@ public class LocmatExcelImporter {
         return null;
     }
     
-    private String getCellValueAsString(Cell cell) {
+    private String getCellValueAsString(XlsxStreamReader.CellValue cell) {
         if (cell == null) return null;
         
-        switch (cell.getCellType()) {
+        switch (cell.kind()) {
             case STRING:
-                return cell.getStringCellValue().trim();
+                return cell.text().trim();
             case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getDateCellValue().toString();
+                if (cell.dateFormatted()) {
+                    return cell.asDate().toString();
                 }
-                return String.valueOf((long) cell.getNumericCellValue());
+                return String.valueOf((long) cell.asDouble());
             case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                return cell.getCellFormula();
+                return cell.text();
             default:
                 return null;
         }
@@ -0,0 +1,122 @@
+package com.magscene.magsav.backend.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline à deux étages : les tâches soumises s'exécutent en parallèle sur l'executor de
+ * traitement, puis leurs résultats sont remis à un unique consommateur dans l'ordre de soumission.
+ * La file entre les deux étages est bornée : quand le consommateur prend du retard,
+ * {@link #submit(Supplier)} bloque le producteur (back-pressure).
+ *
+ * @param <T> type des résultats produits par l'étage parallèle
+ */
+public class OrderedPipeline<T> implements AutoCloseable {
+
+    private static final Object END = new Object();
+
+    private final Executor workerExecutor;
+    private final Consumer<T> consumer;
+    private final BlockingQueue<Object> queue;
+    private final CompletableFuture<Void> consumerDone;
+    private volatile boolean aborted = false;
+    private boolean completed = false;
+
+    /**
+     * @param workerExecutor   executor de l'étage parallèle
+     * @param consumerExecutor executor sur lequel tourne le consommateur unique
+     * @param capacity         nombre maximal de résultats en attente de consommation
+     * @param consumer         consommateur ordonné des résultats
+     */
+    public OrderedPipeline(Executor workerExecutor, Executor consumerExecutor, int capacity, Consumer<T> consumer) {
+        this.workerExecutor = workerExecutor;
+        this.consumer = consumer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.consumerDone = CompletableFuture.runAsync(this::drain, consumerExecutor);
+    }
+
+    /**
+     * Soumettre une tâche ; bloque tant que la file est pleine
+     */
+    public void submit(Supplier<T> task) throws InterruptedException {
+        enqueue(CompletableFuture.supplyAsync(task, workerExecutor));
+    }
+
+    /**
+     * Attendre la consommation de tous les résultats soumis.
+     * Relance l'éventuelle erreur du consommateur ou d'une tâche.
+     */
+    public void complete() throws InterruptedException {
+        enqueue(END);
+        completed = true;
+        try {
+            consumerDone.join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Interrompre le pipeline si {@link #complete()} n'a pas été appelé (erreur du producteur).
+     * Ne rend la main qu'une fois le consommateur arrêté : aucun résultat n'est plus consommé
+     * après la sortie du bloc try-with-resources.
+     */
+    @Override
+    public void close() {
+        if (!completed) {
+            aborted = true;
+            queue.clear();
+            queue.offer(END);
+            try {
+                consumerDone.join();
+            } catch (CompletionException e) {
+                // Erreur du consommateur : l'erreur du producteur, déjà en cours de propagation, prime
+            }
+        }
+    }
+
+    private void enqueue(Object item) throws InterruptedException {
+        while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+            if (consumerDone.isDone()) {
+                // Le consommateur s'est arrêté : remonter son erreur plutôt que d'attendre indéfiniment
+                try {
+                    consumerDone.join();
+                } catch (CompletionException e) {
+                    throw unwrap(e);
+                }
+                throw new IllegalStateException("Pipeline arrêté");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        try {
+            while (true) {
+                Object item = queue.take();
+                if (item == END || aborted) {
+                    return;
+                }
+                T result = ((CompletableFuture<T>) item).join();
+                if (aborted) {
+                    return;
+                }
+                consumer.accept(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause() instanceof CompletionException inner ? inner.getCause() : e.getCause();
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+}
@@ -0,0 +1,163 @@
+package com.magscene.magsav.backend.util;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Recherche de sous-chaînes dans un ensemble figé de textes par listes de trigrammes :
+ * pour chaque suite de 3 caractères, la liste triée des textes qui la contiennent. Une
+ * recherche intersecte les listes des trigrammes du motif (en partant de la plus courte)
+ * puis vérifie les candidats restants avec contains(). Les motifs de moins de 3 caractères
+ * sont cherchés par balayage. Immuable une fois construit, donc partageable entre threads.
+ */
+public final class TrigramIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final String[] texts;
+    private final Map<Long, int[]> postings;
+
+    private TrigramIndex(String[] texts, Map<Long, int[]> postings) {
+        this.texts = texts;
+        this.postings = postings;
+    }
+
+    /**
+     * Indexer des textes déjà normalisés (voir {@link #normalize(String)}) ; le numéro d'un
+     * texte est sa position dans le tableau
+     */
+    public static TrigramIndex build(String[] texts) {
+        Map<Long, IntList> lists = new HashMap<>();
+        for (int doc = 0; doc < texts.length; doc++) {
+            String text = texts[doc];
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                IntList list = lists.computeIfAbsent(trigram(text, i), key -> new IntList());
+                // Textes parcourus dans l'ordre : liste triée, doublons consécutifs
+                if (list.size == 0 || list.values[list.size - 1] != doc) {
+                    list.add(doc);
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+        lists.forEach((key, list) -> postings.put(key, list.toArray()));
+        return new TrigramIndex(texts, postings);
+    }
+
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * Textes du périmètre qui contiennent le motif (normalisé) ; motif vide : tout le périmètre
+     */
+    public BitSet matches(String needle, BitSet scope) {
+        BitSet result = new BitSet(texts.length);
+        if (needle.isEmpty()) {
+            result.or(scope);
+            return result;
+        }
+        if (needle.length() < 3) {
+            for (int doc = scope.nextSetBit(0); doc >= 0; doc = scope.nextSetBit(doc + 1)) {
+                if (texts[doc].contains(needle)) {
+                    result.set(doc);
+                }
+            }
+            return result;
+        }
+
+        int[][] lists = new int[needle.length() - 2][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.getOrDefault(trigram(needle, i), EMPTY);
+            if (lists[i].length == 0) {
+                return result;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        int[] cursors = new int[lists.length];
+        candidates:
+        for (int doc : lists[0]) {
+            if (!scope.get(doc)) {
+                continue;
+            }
+            for (int l = 1; l < lists.length; l++) {
+                int position = seek(lists[l], cursors[l], doc);
+                cursors[l] = position;
+                if (position >= lists[l].length) {
+                    break candidates;
+                }
+                if (lists[l][position] != doc) {
+                    continue candidates;
+                }
+            }
+            // Trigrammes présents mais pas forcément consécutifs
+            if (texts[doc].contains(needle)) {
+                result.set(doc);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forme de recherche : minuscules, sans accents
+     */
+    public static String normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        boolean ascii = true;
+        for (int i = 0; i < value.length() && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+        if (!ascii) {
+            value = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32) | ((long) text.charAt(offset + 1) << 16) | text.charAt(offset + 2);
+    }
+
+    // Première position >= from dont la valeur est >= doc (recherche exponentielle puis dichotomique)
+    private static int seek(int[] list, int from, int doc) {
+        int step = 1;
+        int high = from;
+        while (high < list.length && list[high] < doc) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        int low = from;
+        high = Math.min(high, list.length);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (list[mid] < doc) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.magscene.magsav.backend.util;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Lecteur XLSX en flux basé sur le modèle événementiel de POI (XSSFReader + SAX).
+ * Contrairement à XSSFWorkbook, aucun DOM du classeur n'est construit : les lignes de la
+ * première feuille sont remises une par une au {@link RowHandler}, qui peut interrompre
+ * la lecture à tout moment. La mémoire utilisée ne dépend plus de la taille du fichier.
+ */
+public final class XlsxStreamReader {
+
+    private XlsxStreamReader() {
+    }
+
+    /**
+     * Nature d'une cellule telle que stockée dans le fichier
+     */
+    public enum CellKind {
+        STRING, NUMERIC, BOOLEAN, ERROR
+    }
+
+    /**
+     * Valeur brute d'une cellule (texte non formaté, nombres au format XML)
+     */
+    public record CellValue(String text, CellKind kind, boolean dateFormatted) {
+
+        public boolean isNumeric() {
+            return kind == CellKind.NUMERIC;
+        }
+
+        public double asDouble() {
+            return Double.parseDouble(text);
+        }
+
+        public Date asDate() {
+            return DateUtil.getJavaDate(asDouble());
+        }
+    }
+
+    /**
+     * Réception des lignes lues
+     */
+    public interface RowHandler {
+
+        /**
+         * Nombre de lignes annoncé par l'en-tête de la feuille (balise dimension), si présent
+         */
+        default void onSheetDimension(int rowCount) {
+        }
+
+        /**
+         * @param rowIndex index de ligne (base 0, les lignes vides sont absentes du fichier)
+         * @param cells    cellules indexées par colonne, null pour une cellule absente
+         * @return false pour arrêter la lecture
+         */
+        boolean onRow(int rowIndex, CellValue[] cells);
+    }
+
+    /**
+     * Lire la première feuille du classeur
+     */
+    public static void readFirstSheet(File file, RowHandler handler) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new SheetHandler(sharedStrings, styles, handler));
+                parser.parse(new InputSource(sheet));
+            } catch (StopReadingException e) {
+                // Arrêt demandé par le RowHandler
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Fichier XLSX illisible: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Convertir une référence de cellule (ex: "AB12") en index de colonne (base 0)
+     */
+    static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static class StopReadingException extends SAXException {
+        StopReadingException() {
+            super("Lecture interrompue");
+        }
+    }
+
+    /**
+     * Handler SAX d'une feuille : accumule les cellules de la ligne courante
+     */
+    private static class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final StylesTable styles;
+        private final RowHandler rowHandler;
+
+        private final List<CellValue> rowCells = new ArrayList<>();
+        private final StringBuilder text = new StringBuilder();
+        private int rowIndex = -1;
+        private int column = -1;
+        private String cellType;
+        private int styleIndex = -1;
+        private boolean collectingText;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, StylesTable styles, RowHandler rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.styles = styles;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "dimension" -> {
+                    String ref = attributes.getValue("ref");
+                    int separator = ref != null ? ref.indexOf(':') : -1;
+                    if (separator > 0) {
+                        String last = ref.substring(separator + 1);
+                        int digits = 0;
+                        while (digits < last.length() && !Character.isDigit(last.charAt(digits))) {
+                            digits++;
+                        }
+                        if (digits < last.length()) {
+                            rowHandler.onSheetDimension(Integer.parseInt(last.substring(digits)));
+                        }
+                    }
+                }
+                case "row" -> {
+                    String r = attributes.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    rowCells.clear();
+                    column = -1;
+                }
+                case "c" -> {
+                    String r = attributes.getValue("r");
+                    column = r != null ? columnIndex(r) : column + 1;
+                    cellType = attributes.getValue("t");
+                    String s = attributes.getValue("s");
+                    styleIndex = s != null ? Integer.parseInt(s) : -1;
+                    text.setLength(0);
+                }
+                case "v", "t" -> {
+                    collectingText = true;
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collectingText) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v", "t" -> collectingText = false;
+                case "c" -> {
+                    CellValue value = toCellValue();
+                    if (value != null && column >= 0) {
+                        while (rowCells.size() <= column) {
+                            rowCells.add(null);
+                        }
+                        rowCells.set(column, value);
+                    }
+                }
+                case "row" -> {
+                    if (!rowHandler.onRow(rowIndex, rowCells.toArray(new CellValue[0]))) {
+                        throw new StopReadingException();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        private CellValue toCellValue() {
+            if (text.isEmpty()) {
+                return null;
+            }
+            String raw = text.toString();
+
+            if (cellType == null || cellType.equals("n")) {
+                return new CellValue(raw, CellKind.NUMERIC, isDateStyle());
+            }
+            return switch (cellType) {
+                case "s" -> new CellValue(
+                        sharedStrings.getItemAt(Integer.parseInt(raw.trim())).getString(), CellKind.STRING, false);
+                case "inlineStr", "str" -> new CellValue(raw, CellKind.STRING, false);
+                case "b" -> new CellValue(String.valueOf("1".equals(raw)), CellKind.BOOLEAN, false);
+                case "e" -> new CellValue(raw, CellKind.ERROR, false);
+                default -> new CellValue(raw, CellKind.STRING, false);
+            };
+        }
+
+        private boolean isDateStyle() {
+            if (styles == null || styleIndex < 0 || styleIndex >= styles.getNumCellStyles()) {
+                return false;
+            }
+            XSSFCellStyle style = styles.getStyleAt(styleIndex);
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        }
+    }
+}
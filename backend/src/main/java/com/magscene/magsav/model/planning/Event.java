@@ -1,5 +1,6 @@
 package com.magscene.magsav.model.planning;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -376,6 +377,41 @@ public class Event {
         account.getSynchronizedEvents().remove(this);
     }
     
+    /**
+     * Identifiant de l'événement dans l'agenda Google d'un compte (null si jamais poussé)
+     */
+    public String getGoogleEventId(Long accountId) {
+        String prefix = accountId + ":";
+        if (googleEventIds != null) {
+            for (String part : googleEventIds.split(";")) {
+                if (part.startsWith(prefix) && part.length() > prefix.length()) {
+                    return part.substring(prefix.length());
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Enregistre (ou retire si null) l'identifiant Google de l'événement pour un compte
+     * Format stocké : "idCompteGoogle:idEvenementGoogle;..."
+     */
+    public void setGoogleEventId(Long accountId, String googleEventId) {
+        String prefix = accountId + ":";
+        StringBuilder ids = new StringBuilder();
+        if (googleEventIds != null) {
+            for (String part : googleEventIds.split(";")) {
+                if (!part.isBlank() && !part.startsWith(prefix)) {
+                    ids.append(ids.length() > 0 ? ";" : "").append(part);
+                }
+            }
+        }
+        if (googleEventId != null) {
+            ids.append(ids.length() > 0 ? ";" : "").append(prefix).append(googleEventId);
+        }
+        this.googleEventIds = ids.length() > 0 ? ids.toString() : null;
+    }
+    
     /**
      * Retourne les spécialités requises sous forme de liste
      */
@@ -403,6 +439,28 @@ public class Event {
         }
     }
     
+    /**
+     * Retourne les identifiants du personnel assigné (format "idPersonnel:spécialité;...").
+     * Usage interne (index du planning) : absent du JSON, qui expose déjà assignedPersonnel.
+     */
+    @JsonIgnore
+    public Set<Long> getAssignedPersonnelIds() {
+        Set<Long> ids = new HashSet<>();
+        if (assignedPersonnel != null && !assignedPersonnel.trim().isEmpty()) {
+            for (String part : assignedPersonnel.split(";")) {
+                String id = part.split(":", 2)[0].trim();
+                if (!id.isEmpty()) {
+                    try {
+                        ids.add(Long.valueOf(id));
+                    } catch (NumberFormatException e) {
+                        // Affectation mal formée : ignorée
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+    
     @Override
     public String toString() {
         return "Event{" +
@@ -123,6 +123,20 @@ public class GoogleCalendarAccount {
     @Column(name = "last_sync_date")
     private LocalDateTime lastSyncDate;
     
+    /**
+     * Jeton de synchronisation incrémentale de l'agenda Google (nextSyncToken), null avant
+     * la première synchronisation complète ou après expiration (410)
+     */
+    @Column(name = "google_sync_token", columnDefinition = "TEXT")
+    private String googleSyncToken;
+    
+    /**
+     * Début du dernier envoi MAGSAV → Google terminé sans erreur : les événements modifiés
+     * depuis sont renvoyés
+     */
+    @Column(name = "last_push_date")
+    private LocalDateTime lastPushDate;
+    
     @Column(name = "last_sync_status")
     @Enumerated(EnumType.STRING)
     private SyncStatus lastSyncStatus = SyncStatus.NEVER_SYNCED;
@@ -320,6 +334,22 @@ public class GoogleCalendarAccount {
         this.lastSyncDate = lastSyncDate;
     }
     
+    public String getGoogleSyncToken() {
+        return googleSyncToken;
+    }
+    
+    public void setGoogleSyncToken(String googleSyncToken) {
+        this.googleSyncToken = googleSyncToken;
+    }
+    
+    public LocalDateTime getLastPushDate() {
+        return lastPushDate;
+    }
+    
+    public void setLastPushDate(LocalDateTime lastPushDate) {
+        this.lastPushDate = lastPushDate;
+    }
+    
     public SyncStatus getLastSyncStatus() {
         return lastSyncStatus;
     }
@@ -1,24 +1,37 @@
 package com.magscene.magsav.service.planning;
 
+import com.magscene.magsav.backend.util.HttpBatchCodec;
 import com.magscene.magsav.model.planning.Event;
 import com.magscene.magsav.model.planning.GoogleCalendarAccount;
 import com.magscene.magsav.model.planning.GoogleCalendarAccount.SyncDirection;
 import com.magscene.magsav.model.planning.GoogleCalendarAccount.SyncStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.URI;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 
 /**
  * Service de synchronisation avec Google Calendar
@@ -38,6 +51,26 @@ public class GoogleCalendarService {
     @Value("${google.oauth.redirect-uri:http://localhost:8080/oauth/google/callback}")
     private String redirectUri;
     
+    @Value("${google.calendar.api-base-url:" + GOOGLE_CALENDAR_API_BASE + "}")
+    private String calendarApiBaseUrl = GOOGLE_CALENDAR_API_BASE;
+    
+    @Value("${google.calendar.batch-url:" + GOOGLE_CALENDAR_BATCH_URL + "}")
+    private String calendarBatchUrl = GOOGLE_CALENDAR_BATCH_URL;
+    
+    // Fuseau des dates MAGSAV (LocalDateTime) envoyées à Google
+    @Value("${google.calendar.time-zone:Europe/Paris}")
+    private String timeZone = "Europe/Paris";
+    
+    @Value("${google.calendar.retry.max-attempts:5}")
+    private int maxAttempts = 5;
+    
+    @Value("${google.calendar.retry.initial-backoff-ms:1000}")
+    private long initialBackoffMs = 1000;
+    
+    // Enregistrement des modifications Google ; sans lui, le jeton de synchronisation n'avance pas
+    @Autowired(required = false)
+    private GoogleEventSink eventSink;
+    
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final Map<Long, SyncStatus> syncStatuses = new ConcurrentHashMap<>();
@@ -45,14 +78,21 @@ public class GoogleCalendarService {
     // URLs Google Calendar API
     private static final String GOOGLE_AUTH_URL = "https://accounts.google.com/o/oauth2/auth";
     private static final String GOOGLE_TOKEN_URL = "https://oauth2.googleapis.com/token";
-    @SuppressWarnings("unused")
     private static final String GOOGLE_CALENDAR_API_BASE = "https://www.googleapis.com/calendar/v3";
+    private static final String GOOGLE_CALENDAR_BATCH_URL = "https://www.googleapis.com/batch/calendar/v3";
     private static final String GOOGLE_USERINFO_URL = "https://www.googleapis.com/oauth2/v2/userinfo";
     
     // Scopes Google Calendar
     private static final String CALENDAR_SCOPE = "https://www.googleapis.com/auth/calendar";
     private static final String USERINFO_SCOPE = "https://www.googleapis.com/auth/userinfo.email";
     
+    // Limites de l'API : 50 appels par requête groupée ; taille de page des lectures
+    private static final int MAX_BATCH_SIZE = 50;
+    private static final int PAGE_SIZE = 250;
+    private static final long MAX_BACKOFF_MS = 32_000;
+    
+    private static final DateTimeFormatter GOOGLE_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
     public GoogleCalendarService() {
         this.httpClient = HttpClient.newHttpClient();
         this.objectMapper = new ObjectMapper();
@@ -200,7 +240,10 @@ public class GoogleCalendarService {
     // === SYNCHRONISATION ÉVÉNEMENTS ===
     
     /**
-     * Synchronise un compte Google Calendar
+     * Synchronise un compte Google Calendar, de façon incrémentale : seuls les événements
+     * modifiés depuis leur dernier envoi partent vers Google (par requêtes groupées), seules
+     * les modifications Google depuis le dernier jeton de synchronisation sont lues.
+     * Le compte et les événements sont mis à jour en mémoire ; l'appelant les enregistre.
      */
     public CompletableFuture<SyncResult> synchronizeAccount(GoogleCalendarAccount account) {
         syncStatuses.put(account.getId(), SyncStatus.IN_PROGRESS);
@@ -249,60 +292,73 @@ public class GoogleCalendarService {
     }
     
     /**
-     * Synchronise les événements de MAGSAV vers Google Calendar
+     * Envoie vers Google Calendar les événements MAGSAV modifiés depuis leur dernier envoi,
+     * par requêtes groupées de 50
      */
     private void syncMagsavToGoogle(GoogleCalendarAccount account, SyncResult result) throws Exception {
-        // Récupérer les événements MAGSAV à synchroniser
-        Set<Event> eventsToSync = account.getSynchronizedEvents();
+        LocalDateTime pushStart = LocalDateTime.now();
+        int errorsBefore = result.getErrors();
         
-        for (Event event : eventsToSync) {
-            try {
-                // Vérifier si l'événement correspond aux spécialités à synchroniser
-                if (!shouldSyncEvent(event, account)) {
-                    continue;
-                }
-                
-                // Convertir l'événement MAGSAV en format Google
-                GoogleCalendarEvent googleEvent = convertToGoogleEvent(event, account);
-                
-                // Créer ou mettre à jour l'événement dans Google Calendar
-                String googleEventId = createOrUpdateGoogleEvent(account, googleEvent);
-                
-                // Mettre à jour l'ID Google dans l'événement MAGSAV
-                updateEventGoogleId(event, account.getId(), googleEventId);
-                
-                result.incrementCreatedOrUpdated();
-                
-            } catch (Exception e) {
-                logger.warn("Erreur lors de la synchronisation de l'événement {} vers Google", event.getTitle(), e);
-                result.incrementErrors();
+        List<Event> eventsToPush = new ArrayList<>();
+        for (Event event : account.getSynchronizedEvents()) {
+            if (!shouldSyncEvent(event, account)) {
+                continue;
             }
+            if (needsPush(event, account)) {
+                eventsToPush.add(event);
+            } else {
+                result.incrementUnchanged();
+            }
+        }
+        
+        for (int from = 0; from < eventsToPush.size(); from += MAX_BATCH_SIZE) {
+            pushBatch(account, eventsToPush.subList(from, Math.min(from + MAX_BATCH_SIZE, eventsToPush.size())), result);
+        }
+        
+        // Repère d'envoi avancé seulement si tout est parti : les événements en erreur restent à renvoyer
+        if (result.getErrors() == errorsBefore) {
+            account.setLastPushDate(pushStart);
         }
     }
     
     /**
-     * Synchronise les événements de Google Calendar vers MAGSAV
+     * Synchronise les événements de Google Calendar vers MAGSAV (modifications depuis le
+     * dernier jeton de synchronisation). Le jeton n'avance que si toutes les modifications
+     * ont été enregistrées : sinon elles sont relues à la synchronisation suivante.
      */
     private void syncGoogleToMagsav(GoogleCalendarAccount account, SyncResult result) throws Exception {
-        // Récupérer les événements Google Calendar
-        List<GoogleCalendarEvent> googleEvents = fetchGoogleEvents(account);
+        if (eventSink == null) {
+            logger.debug("Import Google vers MAGSAV non branché : jeton de {} conservé", account.getGoogleAccountEmail());
+            return;
+        }
+        ChangeFeed feed = fetchGoogleEvents(account);
+        boolean allApplied = true;
         
-        for (GoogleCalendarEvent googleEvent : googleEvents) {
+        for (GoogleCalendarEvent googleEvent : feed.events()) {
             try {
-                // Convertir l'événement Google en format MAGSAV
-                @SuppressWarnings("unused")
-                Event magsavEvent = convertToMagsavEvent(googleEvent, account);
-                
-                // Créer ou mettre à jour l'événement dans MAGSAV
-                // (Cette partie nécessitera l'intégration avec les repositories)
+                if ("cancelled".equals(googleEvent.getStatus())) {
+                    eventSink.delete(account, googleEvent.getId());
+                    result.incrementDeleted();
+                    continue;
+                }
+                if (googleEvent.getMagsavEventId() != null) {
+                    // Événement envoyé par MAGSAV : déjà à jour
+                    continue;
+                }
                 
+                eventSink.save(account, convertToMagsavEvent(googleEvent, account));
                 result.incrementImported();
-                
+            
             } catch (Exception e) {
                 logger.warn("Erreur lors de l'import de l'événement Google {}", googleEvent.getSummary(), e);
                 result.incrementErrors();
+                allApplied = false;
             }
         }
+        
+        if (allApplied) {
+            account.setGoogleSyncToken(feed.nextSyncToken());
+        }
     }
     
     // === MÉTHODES UTILITAIRES ===
@@ -325,6 +381,20 @@ public class GoogleCalendarService {
         return true;
     }
     
+    /**
+     * Vérifie si un événement doit être envoyé : jamais envoyé à ce compte, ou modifié depuis
+     * son dernier envoi (lastSyncDate, commun à tous les comptes) ou depuis le dernier envoi
+     * réussi de ce compte
+     */
+    boolean needsPush(Event event, GoogleCalendarAccount account) {
+        LocalDateTime modified = event.getModifiedDate();
+        if (event.getGoogleEventId(account.getId()) == null || event.getLastSyncDate() == null
+                || modified == null || account.getLastPushDate() == null) {
+            return true;
+        }
+        return modified.isAfter(event.getLastSyncDate()) || modified.isAfter(account.getLastPushDate());
+    }
+    
     /**
      * Convertit un événement MAGSAV en événement Google Calendar
      */
@@ -336,6 +406,8 @@ public class GoogleCalendarService {
             title = account.getEventTitlePrefix() + " " + title;
         }
         
+        googleEvent.setId(event.getGoogleEventId(account.getId()));
+        googleEvent.setMagsavEventId(event.getId() != null ? String.valueOf(event.getId()) : null);
         googleEvent.setSummary(title);
         googleEvent.setDescription(event.getDescription());
         googleEvent.setLocation(event.getLocation());
@@ -354,7 +426,7 @@ public class GoogleCalendarService {
     private Event convertToMagsavEvent(GoogleCalendarEvent googleEvent, GoogleCalendarAccount account) {
         Event event = new Event();
         
-        String title = googleEvent.getSummary();
+        String title = googleEvent.getSummary() != null ? googleEvent.getSummary() : "(sans titre)";
         // Enlever le préfixe si présent
         if (account.getEventTitlePrefix() != null && title.startsWith(account.getEventTitlePrefix())) {
             title = title.substring(account.getEventTitlePrefix().length()).trim();
@@ -366,35 +438,287 @@ public class GoogleCalendarService {
         event.setStartDateTime(googleEvent.getStartDateTime());
         event.setEndDateTime(googleEvent.getEndDateTime());
         event.setType(Event.EventType.AUTRE); // Type par défaut
+        event.setGoogleEventId(account.getId(), googleEvent.getId());
         
         return event;
     }
     
-    // Ces méthodes nécessiteraient l'implémentation complète de l'API Google Calendar
-    // Pour l'instant, elles sont simulées
+    // === API GOOGLE CALENDAR ===
     
-    private String createOrUpdateGoogleEvent(GoogleCalendarAccount account, GoogleCalendarEvent event) throws Exception {
-        // TODO: Implémentation réelle de l'API Google Calendar
-        return "google-event-" + UUID.randomUUID().toString();
+    // Envoi en attente dans une requête groupée ; proposedId : id imposé à la création
+    private record PendingPush(Event event, String proposedId) {
     }
     
-    private List<GoogleCalendarEvent> fetchGoogleEvents(GoogleCalendarAccount account) throws Exception {
-        // TODO: Implémentation réelle de l'API Google Calendar
-        return new ArrayList<>();
+    /**
+     * Envoie un lot d'au plus 50 événements en une requête groupée. Les sous-requêtes limitées
+     * (429, 403 rateLimitExceeded, 5xx) sont renvoyées après un délai exponentiel ; un événement
+     * supprimé côté Google (404/410) est recréé.
+     */
+    private void pushBatch(GoogleCalendarAccount account, List<Event> events, SyncResult result)
+            throws IOException, InterruptedException {
+        Map<String, PendingPush> pending = new LinkedHashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            pending.put("event-" + i, new PendingPush(events.get(i), newGoogleEventId()));
+        }
+        
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            // Date capturée avant l'envoi : une modification pendant l'envoi reste à renvoyer
+            LocalDateTime sentAt = LocalDateTime.now();
+            String boundary = HttpBatchCodec.newBoundary();
+            List<HttpBatchCodec.Part> parts = new ArrayList<>(pending.size());
+            pending.forEach((contentId, push) -> parts.add(toBatchPart(contentId, push, account)));
+            
+            HttpRequest request = authorized(account, URI.create(calendarBatchUrl))
+                    .header("Content-Type", HttpBatchCodec.contentType(boundary))
+                    .POST(HttpRequest.BodyPublishers.ofString(HttpBatchCodec.encode(boundary, parts)))
+                    .build();
+            HttpResponse<String> response = sendWithRetry(request);
+            if (response.statusCode() != 200) {
+                logger.warn("Envoi groupé refusé par Google ({}): {}", response.statusCode(), response.body());
+                pending.values().forEach(push -> result.incrementErrors());
+                return;
+            }
+            
+            Map<String, HttpBatchCodec.PartResponse> responses = new HashMap<>();
+            for (HttpBatchCodec.PartResponse part : HttpBatchCodec.decodeResponse(
+                    response.headers().firstValue("Content-Type").orElse(""), response.body())) {
+                responses.put(part.contentId(), part);
+            }
+            
+            Map<String, PendingPush> retry = new LinkedHashMap<>();
+            boolean throttled = false;
+            long retryAfterMs = 0;
+            for (Map.Entry<String, PendingPush> entry : pending.entrySet()) {
+                PendingPush push = entry.getValue();
+                Event event = push.event();
+                HttpBatchCodec.PartResponse part = responses.get(entry.getKey());
+                int status = part != null ? part.status() : 503;
+                boolean inserting = event.getGoogleEventId(account.getId()) == null;
+                
+                if (status == 200 || status == 201 || (status == 409 && inserting)) {
+                    // 409 à la création : l'id imposé existe déjà, un essai précédent a abouti
+                    String googleId = status == 409 ? push.proposedId()
+                            : objectMapper.readTree(part.body()).path("id").asText(push.proposedId());
+                    event.setGoogleEventId(account.getId(), googleId);
+                    event.setLastSyncDate(sentAt);
+                    result.incrementCreatedOrUpdated();
+                } else if ((status == 404 || status == 410) && !inserting) {
+                    // Supprimé dans Google : recréé au prochain essai
+                    event.setGoogleEventId(account.getId(), null);
+                    retry.put(entry.getKey(), new PendingPush(event, newGoogleEventId()));
+                } else if (isRetryable(status, part != null ? part.body() : null)) {
+                    throttled = true;
+                    if (part != null) {
+                        retryAfterMs = Math.max(retryAfterMs, retryAfterMs(part.headers().get("retry-after")));
+                    }
+                    retry.put(entry.getKey(), push);
+                } else {
+                    logger.warn("Événement {} refusé par Google ({}): {}", event.getTitle(), status,
+                            part != null ? part.body() : "");
+                    result.incrementErrors();
+                }
+            }
+            
+            if (!retry.isEmpty() && attempt >= maxAttempts) {
+                logger.warn("{} événements non envoyés à Google après {} essais", retry.size(), attempt);
+                retry.values().forEach(push -> result.incrementErrors());
+                return;
+            }
+            if (throttled) {
+                Thread.sleep(backoffMs(attempt, retryAfterMs));
+            }
+            pending = retry;
+        }
     }
     
-    private void updateEventGoogleId(Event event, Long accountId, String googleEventId) {
-        // TODO: Mettre à jour l'ID Google dans l'événement
-        // Format: "idCompteGoogle:idEvenementGoogle"
-        String currentIds = event.getGoogleEventIds();
-        if (currentIds == null) {
-            currentIds = "";
+    private HttpBatchCodec.Part toBatchPart(String contentId, PendingPush push, GoogleCalendarAccount account) {
+        GoogleCalendarEvent googleEvent = convertToGoogleEvent(push.event(), account);
+        String eventsPath = URI.create(calendarApiBaseUrl).getRawPath() + "/calendars/"
+                + encodePath(calendarId(account)) + "/events";
+        ObjectNode json = toGoogleJson(googleEvent);
+        if (googleEvent.getId() != null) {
+            // PATCH : les champs gérés dans Google (invités, rappels...) sont conservés
+            return new HttpBatchCodec.Part(contentId, "PATCH", eventsPath + "/" + encodePath(googleEvent.getId()),
+                    json.toString());
         }
+        json.put("id", push.proposedId());
+        return new HttpBatchCodec.Part(contentId, "POST", eventsPath, json.toString());
+    }
+    
+    // Résultat d'une lecture de l'agenda : modifications et jeton pour la lecture suivante
+    private record ChangeFeed(List<GoogleCalendarEvent> events, String nextSyncToken) {
+    }
+    
+    /**
+     * Lit les modifications de l'agenda Google depuis le jeton du compte (toutes les pages) ;
+     * sans jeton ou jeton expiré (410), relit tout l'agenda
+     */
+    private ChangeFeed fetchGoogleEvents(GoogleCalendarAccount account) throws IOException, InterruptedException {
+        String syncToken = account.getGoogleSyncToken();
+        String pageToken = null;
+        List<GoogleCalendarEvent> events = new ArrayList<>();
         
-        // Ajouter ou mettre à jour l'ID pour ce compte
-        event.setGoogleEventIds(currentIds + ";" + accountId + ":" + googleEventId);
+        while (true) {
+            StringBuilder url = new StringBuilder(calendarApiBaseUrl).append("/calendars/")
+                    .append(encodePath(calendarId(account))).append("/events?maxResults=").append(PAGE_SIZE);
+            if (syncToken != null) {
+                url.append("&syncToken=").append(URLEncoder.encode(syncToken, StandardCharsets.UTF_8));
+            }
+            if (pageToken != null) {
+                url.append("&pageToken=").append(URLEncoder.encode(pageToken, StandardCharsets.UTF_8));
+            }
+            
+            HttpResponse<String> response = sendWithRetry(authorized(account, URI.create(url.toString())).GET().build());
+            if (response.statusCode() == 410 && syncToken != null) {
+                logger.info("Jeton de synchronisation expiré pour {} : relecture complète de l'agenda",
+                        account.getGoogleAccountEmail());
+                syncToken = null;
+                pageToken = null;
+                events.clear();
+                continue;
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Lecture de l'agenda Google refusée (" + response.statusCode() + "): "
+                        + response.body());
+            }
+            
+            JsonNode page = objectMapper.readTree(response.body());
+            for (JsonNode item : page.path("items")) {
+                events.add(fromGoogleJson(item));
+            }
+            pageToken = page.path("nextPageToken").asText(null);
+            if (pageToken == null) {
+                return new ChangeFeed(events, page.path("nextSyncToken").asText(null));
+            }
+        }
+    }
+    
+    /**
+     * Envoie une requête en la répétant tant que Google la limite (429, 403 rateLimitExceeded,
+     * 5xx) ou que le réseau échoue, avec un délai exponentiel (ou celui de Retry-After)
+     */
+    private HttpResponse<String> sendWithRetry(HttpRequest request) throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.warn("Appel Google échoué ({}), nouvel essai {}/{}", e.getMessage(), attempt + 1, maxAttempts);
+                Thread.sleep(backoffMs(attempt, 0));
+                continue;
+            }
+            if (!isRetryable(response.statusCode(), response.body()) || attempt >= maxAttempts) {
+                return response;
+            }
+            long delay = backoffMs(attempt, retryAfterMs(response.headers().firstValue("Retry-After").orElse(null)));
+            logger.info("Google limite les appels ({}), nouvel essai dans {} ms", response.statusCode(), delay);
+            Thread.sleep(delay);
+        }
+    }
+    
+    private static boolean isRetryable(int status, String body) {
+        if (status == 429 || status == 500 || status == 502 || status == 503 || status == 504) {
+            return true;
+        }
+        return status == 403 && body != null
+                && (body.contains("rateLimitExceeded") || body.contains("userRateLimitExceeded"));
+    }
+    
+    // Délai exponentiel avec gigue (1, 2, 4... x le délai initial, au plus 32 s), ou Retry-After s'il est plus long
+    private long backoffMs(int attempt, long retryAfterMs) {
+        long exponential = Math.min(MAX_BACKOFF_MS, initialBackoffMs << Math.min(attempt - 1, 20));
+        long jitter = ThreadLocalRandom.current().nextLong(initialBackoffMs + 1);
+        return Math.max(retryAfterMs, exponential + jitter);
+    }
+    
+    private static long retryAfterMs(String retryAfter) {
+        if (retryAfter == null) {
+            return 0;
+        }
+        try {
+            return Math.min(MAX_BACKOFF_MS, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            return 0; // Format date HTTP : délai exponentiel
+        }
+    }
+    
+    private HttpRequest.Builder authorized(GoogleCalendarAccount account, URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + account.getAccessToken())
+                .timeout(Duration.ofSeconds(60));
+    }
+    
+    private static String calendarId(GoogleCalendarAccount account) {
+        return account.getGoogleCalendarId() != null && !account.getGoogleCalendarId().isBlank()
+                ? account.getGoogleCalendarId() : "primary";
+    }
+    
+    private static String encodePath(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+    
+    // Id d'événement imposé à la création (base32hex : 0-9 a-v) : un renvoi après une réponse perdue ne crée pas de doublon
+    private static String newGoogleEventId() {
+        return "magsav" + UUID.randomUUID().toString().replace("-", "");
+    }
+    
+    private ObjectNode toGoogleJson(GoogleCalendarEvent googleEvent) {
+        ObjectNode json = objectMapper.createObjectNode();
+        json.put("summary", googleEvent.getSummary());
+        if (googleEvent.getDescription() != null) {
+            json.put("description", googleEvent.getDescription());
+        }
+        if (googleEvent.getLocation() != null) {
+            json.put("location", googleEvent.getLocation());
+        }
+        if (googleEvent.getColorId() != null) {
+            json.put("colorId", googleEvent.getColorId());
+        }
+        json.set("start", objectMapper.createObjectNode()
+                .put("dateTime", GOOGLE_DATE_TIME.format(googleEvent.getStartDateTime()))
+                .put("timeZone", timeZone));
+        json.set("end", objectMapper.createObjectNode()
+                .put("dateTime", GOOGLE_DATE_TIME.format(googleEvent.getEndDateTime()))
+                .put("timeZone", timeZone));
+        if (googleEvent.getMagsavEventId() != null) {
+            ObjectNode properties = objectMapper.createObjectNode();
+            properties.set("private", objectMapper.createObjectNode().put("magsavEventId", googleEvent.getMagsavEventId()));
+            json.set("extendedProperties", properties);
+        }
+        return json;
     }
     
+    private GoogleCalendarEvent fromGoogleJson(JsonNode item) {
+        GoogleCalendarEvent googleEvent = new GoogleCalendarEvent();
+        googleEvent.setId(item.path("id").asText(null));
+        googleEvent.setStatus(item.path("status").asText(null));
+        googleEvent.setSummary(item.path("summary").asText(null));
+        googleEvent.setDescription(item.path("description").asText(null));
+        googleEvent.setLocation(item.path("location").asText(null));
+        googleEvent.setColorId(item.path("colorId").asText(null));
+        googleEvent.setStartDateTime(parseGoogleDate(item.path("start")));
+        googleEvent.setEndDateTime(parseGoogleDate(item.path("end")));
+        googleEvent.setMagsavEventId(item.path("extendedProperties").path("private").path("magsavEventId").asText(null));
+        return googleEvent;
+    }
+    
+    // "dateTime" RFC 3339 ramené au fuseau MAGSAV, ou "date" (journée entière)
+    private LocalDateTime parseGoogleDate(JsonNode node) {
+        String dateTime = node.path("dateTime").asText(null);
+        if (dateTime != null) {
+            try {
+                return OffsetDateTime.parse(dateTime).atZoneSameInstant(ZoneId.of(timeZone)).toLocalDateTime();
+            } catch (DateTimeParseException e) {
+                return LocalDateTime.parse(dateTime);
+            }
+        }
+        String date = node.path("date").asText(null);
+        return date != null ? LocalDate.parse(date).atStartOfDay() : null;
+    }
+
     /**
      * Retourne le statut de synchronisation d'un compte
      */
@@ -434,6 +758,9 @@ public class GoogleCalendarService {
     }
     
     public static class GoogleCalendarEvent {
+        private String id;
+        private String status;
+        private String magsavEventId;
         private String summary;
         private String description;
         private String location;
@@ -442,6 +769,12 @@ public class GoogleCalendarService {
         private String colorId;
         
         // Getters et setters
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getMagsavEventId() { return magsavEventId; }
+        public void setMagsavEventId(String magsavEventId) { this.magsavEventId = magsavEventId; }
         public String getSummary() { return summary; }
         public void setSummary(String summary) { this.summary = summary; }
         public String getDescription() { return description; }
@@ -458,24 +791,30 @@ public class GoogleCalendarService {
     
     public static class SyncResult {
         private int createdOrUpdated = 0;
+        private int unchanged = 0;
         private int imported = 0;
+        private int deleted = 0;
         private int errors = 0;
         private String errorMessage;
         
         public void incrementCreatedOrUpdated() { createdOrUpdated++; }
+        public void incrementUnchanged() { unchanged++; }
         public void incrementImported() { imported++; }
+        public void incrementDeleted() { deleted++; }
         public void incrementErrors() { errors++; }
         
         public int getCreatedOrUpdated() { return createdOrUpdated; }
+        public int getUnchanged() { return unchanged; }
         public int getImported() { return imported; }
+        public int getDeleted() { return deleted; }
         public int getErrors() { return errors; }
         public String getErrorMessage() { return errorMessage; }
         public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
         
         @Override
         public String toString() {
-            return String.format("SyncResult{created/updated: %d, imported: %d, errors: %d}", 
-                               createdOrUpdated, imported, errors);
+            return String.format("SyncResult{created/updated: %d, unchanged: %d, imported: %d, deleted: %d, errors: %d}", 
+                               createdOrUpdated, unchanged, imported, deleted, errors);
         }
     }
 }
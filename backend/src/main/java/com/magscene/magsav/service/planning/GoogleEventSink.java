@@ -0,0 +1,23 @@
+package com.magscene.magsav.service.planning;
+
+import com.magscene.magsav.model.planning.Event;
+import com.magscene.magsav.model.planning.GoogleCalendarAccount;
+
+/**
+ * Enregistrement dans MAGSAV des modifications lues dans Google Calendar.
+ * Tant qu'aucune implémentation n'est déclarée, GoogleCalendarService lit les modifications
+ * sans avancer le jeton de synchronisation : elles seront relues une fois l'import branché.
+ */
+public interface GoogleEventSink {
+
+    /**
+     * Créer ou mettre à jour l'événement MAGSAV correspondant à un événement Google
+     * (identifiant Google porté par {@link Event#getGoogleEventId(Long)})
+     */
+    void save(GoogleCalendarAccount account, Event event);
+
+    /**
+     * Supprimer l'événement MAGSAV importé depuis cet événement Google, s'il existe
+     */
+    void delete(GoogleCalendarAccount account, String googleEventId);
+}
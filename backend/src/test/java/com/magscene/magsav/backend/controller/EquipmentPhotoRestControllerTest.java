@@ -0,0 +1,180 @@
+package com.magscene.magsav.backend.controller;
+
+import com.magscene.magsav.backend.entity.EquipmentPhoto;
+import com.magscene.magsav.backend.repository.EquipmentPhotoRepository;
+import com.magscene.magsav.backend.service.FileDownloadService;
+import com.magscene.magsav.backend.service.PhotoVariantService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Tests unitaires pour EquipmentPhotoRestController : téléchargement partiel (Range, If-Range)
+ */
+@ExtendWith(MockitoExtension.class)
+class EquipmentPhotoRestControllerTest {
+
+    private static final int LENGTH = 1000;
+
+    @Mock
+    private EquipmentPhotoRepository equipmentPhotoRepository;
+
+    @Mock
+    private PhotoVariantService photoVariantService;
+
+    @Spy
+    private FileDownloadService fileDownloadService;
+
+    @InjectMocks
+    private EquipmentPhotoRestController controller;
+
+    @TempDir
+    Path tempDir;
+
+    private MockMvc mockMvc;
+    private byte[] content;
+    private FileDownloadService.FileMetadata metadata;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            content[i] = (byte) i;
+        }
+        Path blob = Files.write(tempDir.resolve("3f9a"), content);
+
+        EquipmentPhoto photo = new EquipmentPhoto();
+        photo.setId(1L);
+        photo.setFileName("notice.pdf");
+        photo.setFilePath(blob.toString());
+        photo.setContentHash("3f9a");
+        photo.setMimeType("application/pdf");
+        when(equipmentPhotoRepository.findById(1L)).thenReturn(Optional.of(photo));
+
+        metadata = fileDownloadService.metadata(blob);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void downloadPhoto_OpenEndedRange_ShouldReturnWholeFileAsPartialContent() throws Exception {
+        // Act
+        MockHttpServletResponse response = download(HttpHeaders.RANGE, "bytes=0-");
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-999/1000");
+        assertThat(response.getContentLengthLong()).isEqualTo(LENGTH);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void downloadPhoto_SuffixRange_ShouldReturnLastBytes() throws Exception {
+        // Act
+        MockHttpServletResponse response = download(HttpHeaders.RANGE, "bytes=-100");
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 900-999/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 900, LENGTH));
+    }
+
+    @Test
+    void downloadPhoto_RangeEndPastFile_ShouldBeClampedToLastByte() throws Exception {
+        // Act
+        MockHttpServletResponse response = download(HttpHeaders.RANGE, "bytes=990-5000");
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 990-999/1000");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 990, LENGTH));
+    }
+
+    @Test
+    void downloadPhoto_UnsatisfiableRange_ShouldReturn416WithFileLength() throws Exception {
+        // Act
+        MockHttpServletResponse response = download(HttpHeaders.RANGE, "bytes=1000-1099");
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */1000");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void downloadPhoto_MultipleRanges_ShouldReturnWholeFile() throws Exception {
+        // Act
+        MockHttpServletResponse response = download(HttpHeaders.RANGE, "bytes=0-9,20-29");
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void downloadPhoto_IfRangeMatchingEtag_ShouldApplyRange() throws Exception {
+        // Act
+        MockHttpServletResponse response = mockMvc.perform(get("/api/equipment-photos/1/download")
+                .header(HttpHeaders.RANGE, "bytes=0-9")
+                .header(HttpHeaders.IF_RANGE, metadata.etag())).andReturn().getResponse();
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 10));
+    }
+
+    @Test
+    void downloadPhoto_StaleIfRangeEtag_ShouldReturnFullBody() throws Exception {
+        // Act - le client reprend un téléchargement d'une version précédente du fichier
+        MockHttpServletResponse response = mockMvc.perform(get("/api/equipment-photos/1/download")
+                .header(HttpHeaders.RANGE, "bytes=500-")
+                .header(HttpHeaders.IF_RANGE, "\"0-0\"")).andReturn().getResponse();
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void downloadPhoto_StaleIfRangeDate_ShouldReturnFullBody() throws Exception {
+        // Arrange - date antérieure à la dernière modification du fichier
+        String before = DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.now(ZoneOffset.UTC).minusDays(1));
+
+        // Act
+        MockHttpServletResponse response = mockMvc.perform(get("/api/equipment-photos/1/download")
+                .header(HttpHeaders.RANGE, "bytes=500-")
+                .header(HttpHeaders.IF_RANGE, before)).andReturn().getResponse();
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    private MockHttpServletResponse download(String header, String value) throws Exception {
+        return mockMvc.perform(get("/api/equipment-photos/1/download").header(header, value))
+                .andReturn().getResponse();
+    }
+}
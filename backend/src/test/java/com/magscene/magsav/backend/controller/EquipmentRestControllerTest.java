@@ -0,0 +1,190 @@
+package com.magscene.magsav.backend.controller;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.service.EquipmentListingService;
+import com.magscene.magsav.backend.service.QrCodeService;
+import com.magscene.magsav.backend.service.ScanLookupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests unitaires pour EquipmentRestController
+ */
+@ExtendWith(MockitoExtension.class)
+class EquipmentRestControllerTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private QrCodeService qrCodeService;
+
+    @Mock
+    private ScanLookupService scanLookupService;
+
+    @Mock
+    private EquipmentListingService equipmentListingService;
+
+    @InjectMocks
+    private EquipmentRestController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    void generateQRCodeSprite_PngLargerThanMaxSide_ShouldReturn400() throws Exception {
+        // Act / Assert - 100 colonnes de 1024 px : 102400 px de large
+        mockMvc.perform(post("/api/equipment/qrcode/sprite?format=png&size=1024&columns=100")
+                .contentType(MediaType.APPLICATION_JSON).content(ids(2000)))
+                .andExpect(status().isBadRequest());
+        verify(qrCodeService, never()).sprite(anyList(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void generateQRCodeSprite_TooManyRows_ShouldReturn400() throws Exception {
+        // Act / Assert - 2000 cases sur 10 colonnes de 256 px : 51200 px de haut
+        mockMvc.perform(post("/api/equipment/qrcode/sprite?format=png&size=256&columns=10")
+                .contentType(MediaType.APPLICATION_JSON).content(ids(2000)))
+                .andExpect(status().isBadRequest());
+        verify(qrCodeService, never()).sprite(anyList(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void scan_KnownCode_ShouldReturnSummaryAndMatchedKey() throws Exception {
+        // Arrange
+        when(scanLookupService.lookup("sh2024010")).thenReturn(found("sh2024010",
+                ScanLookupService.MatchedBy.SERIAL_NUMBER, 30L));
+
+        // Act / Assert
+        mockMvc.perform(get("/api/equipment/scan/sh2024010"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matchedBy").value("SERIAL_NUMBER"))
+                .andExpect(jsonPath("$.equipment.id").value(30))
+                .andExpect(jsonPath("$.equipment.qrCode").value("MAG-30"));
+    }
+
+    @Test
+    void scan_UnknownCode_ShouldReturn404() throws Exception {
+        // Arrange
+        when(scanLookupService.lookup("INCONNU")).thenReturn(new ScanLookupService.ScanResult("INCONNU", null, null));
+
+        // Act / Assert
+        mockMvc.perform(get("/api/equipment/scan/INCONNU"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void scanBatch_DuplicatesAndUnknownCodes_ShouldBeReported() throws Exception {
+        // Arrange - le même équipement lu par son UID puis par son numéro de série
+        List<String> codes = List.of("MAG-10", "X-1", "MV2024001", "MAG-20", "X-2");
+        when(scanLookupService.lookupAll(codes)).thenReturn(List.of(
+                found("MAG-10", ScanLookupService.MatchedBy.QR_CODE, 10L),
+                new ScanLookupService.ScanResult("X-1", null, null),
+                found("MV2024001", ScanLookupService.MatchedBy.SERIAL_NUMBER, 10L),
+                found("MAG-20", ScanLookupService.MatchedBy.QR_CODE, 20L),
+                new ScanLookupService.ScanResult("X-2", null, null)));
+
+        // Act / Assert
+        mockMvc.perform(post("/api/equipment/scan/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"MAG-10\",\"X-1\",\"MV2024001\",\"MAG-20\",\"X-2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.found").value(3))
+                .andExpect(jsonPath("$.unknownCodes").value(contains("X-1", "X-2")))
+                .andExpect(jsonPath("$.duplicateEquipmentIds").value(contains(10)))
+                .andExpect(jsonPath("$.results[2].matchedBy").value("SERIAL_NUMBER"));
+    }
+
+    @Test
+    void scanBatch_TooManyCodes_ShouldReturn400() throws Exception {
+        // Act / Assert
+        mockMvc.perform(post("/api/equipment/scan/batch")
+                .contentType(MediaType.APPLICATION_JSON).content(ids(ScanLookupService.MAX_BATCH + 1)))
+                .andExpect(status().isBadRequest());
+        verify(scanLookupService, never()).lookupAll(anyList());
+    }
+
+    @Test
+    void getEquipmentByQrCode_IndexMiss_ShouldFallBackToRepository() throws Exception {
+        // Arrange - index vide (chargement en échec) : la base connaît le code
+        when(scanLookupService.lookup("MAG-LED-001"))
+                .thenReturn(new ScanLookupService.ScanResult("MAG-LED-001", null, null));
+        Equipment equipment = new Equipment();
+        equipment.setId(42L);
+        equipment.setName("Projecteur LED RGBW 200W");
+        equipment.setQrCode("MAG-LED-001");
+        when(equipmentRepository.findByQrCode("MAG-LED-001")).thenReturn(Optional.of(equipment));
+
+        // Act / Assert
+        mockMvc.perform(get("/api/equipment/qr/MAG-LED-001"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(42));
+    }
+
+    @Test
+    void getEquipmentByQrCode_UnknownEverywhere_ShouldReturn404() throws Exception {
+        // Arrange
+        when(scanLookupService.lookup("INCONNU")).thenReturn(new ScanLookupService.ScanResult("INCONNU", null, null));
+        when(equipmentRepository.findByQrCode("INCONNU")).thenReturn(Optional.empty());
+
+        // Act / Assert
+        mockMvc.perform(get("/api/equipment/qr/INCONNU"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllEquipment_BadCursor_ShouldReturn400() throws Exception {
+        // Arrange
+        when(equipmentListingService.findAfter(any(), any(), eq("abc"), anyInt()))
+                .thenThrow(new IllegalArgumentException("Curseur invalide"));
+
+        // Act / Assert
+        mockMvc.perform(get("/api/equipment?mode=keyset&sort=name&cursor=abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Curseur invalide"));
+    }
+
+    private static ScanLookupService.ScanResult found(String code, ScanLookupService.MatchedBy matchedBy, Long id) {
+        return new ScanLookupService.ScanResult(code, matchedBy, new ScanLookupService.ScanSummary(id,
+                "Lyre Beam 230W", "MAG-" + id, null, null, null, null, null, "AVAILABLE", null));
+    }
+
+    private static String ids(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(Long::toString)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+}
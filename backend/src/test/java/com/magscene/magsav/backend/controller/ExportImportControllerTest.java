@@ -1,15 +1,27 @@
 package com.magscene.magsav.backend.controller;
 
+import com.magscene.magsav.backend.exception.MagsavBusinessException;
 import com.magscene.magsav.backend.repository.*;
+import com.magscene.magsav.backend.service.ExportService;
+import com.magscene.magsav.backend.service.ExportService.ColumnType;
+import com.magscene.magsav.backend.service.ExportService.Table;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.stream.Stream;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 
 import static org.mockito.Mockito.*;
 
@@ -43,6 +55,12 @@ class ExportImportControllerTest {
     @Mock
     private PersonnelRepository personnelRepository;
 
+    @Mock
+    private SupplierOrderRepository supplierOrderRepository;
+
+    @Mock
+    private ExportService exportService;
+
     @InjectMocks
     private ExportImportController exportImportController;
 
@@ -77,44 +95,142 @@ class ExportImportControllerTest {
     }
 
     @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
     void exportEquipmentCSV_ShouldReturnCsvContent() {
         // Arrange
-        when(equipmentRepository.findAll()).thenReturn(java.util.Collections.emptyList());
+        when(equipmentRepository.streamAll()).thenReturn(Stream.empty());
+        when(exportService.csv(any(), eq(false))).thenReturn(out -> { });
 
         // Act
-        ResponseEntity<?> response = exportImportController.exportEquipmentCSV();
+        ResponseEntity<?> response = exportImportController.exportEquipmentCSV(null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        verify(equipmentRepository, times(1)).findAll();
+        ArgumentCaptor<Table> table = ArgumentCaptor.forClass(Table.class);
+        verify(exportService).csv(table.capture(), eq(false));
+        assertThat(table.getValue().columns()).isNotEmpty();
+        table.getValue().rows().get();
+        verify(equipmentRepository, times(1)).streamAll();
     }
 
     @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
     void exportVehiclesCSV_ShouldReturnCsvContent() {
         // Arrange
-        when(vehicleRepository.findAll()).thenReturn(java.util.Collections.emptyList());
+        when(vehicleRepository.streamAll()).thenReturn(Stream.empty());
+        when(exportService.csv(any(), eq(false))).thenReturn(out -> { });
 
         // Act
-        ResponseEntity<?> response = exportImportController.exportVehiclesCSV();
+        ResponseEntity<?> response = exportImportController.exportVehiclesCSV(null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        verify(vehicleRepository, times(1)).findAll();
+        ArgumentCaptor<Table> table = ArgumentCaptor.forClass(Table.class);
+        verify(exportService).csv(table.capture(), eq(false));
+        assertThat(table.getValue().columns()).isNotEmpty();
+        table.getValue().rows().get();
+        verify(vehicleRepository, times(1)).streamAll();
     }
 
     @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
     void exportPersonnelCSV_ShouldReturnCsvContent() {
         // Arrange
-        when(personnelRepository.findAll()).thenReturn(java.util.Collections.emptyList());
+        when(personnelRepository.streamAll()).thenReturn(Stream.empty());
+        when(exportService.csv(any(), eq(false))).thenReturn(out -> { });
 
         // Act
-        ResponseEntity<?> response = exportImportController.exportPersonnelCSV();
+        ResponseEntity<?> response = exportImportController.exportPersonnelCSV(null);
 
         // Assert
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        verify(personnelRepository, times(1)).findAll();
+        ArgumentCaptor<Table> table = ArgumentCaptor.forClass(Table.class);
+        verify(exportService).csv(table.capture(), eq(false));
+        assertThat(table.getValue().columns()).isNotEmpty();
+        table.getValue().rows().get();
+        verify(personnelRepository, times(1)).streamAll();
+    }
+
+    @Test
+    void exportEquipmentCSV_GzipAccepted_ShouldCompressStream() {
+        // Arrange
+        when(exportService.csv(any(), eq(true))).thenReturn(out -> { });
+
+        // Act
+        ResponseEntity<?> response = exportImportController.exportEquipmentCSV("gzip, deflate");
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        verify(exportService).csv(any(), eq(true));
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void exportSupplierOrdersArrow_ShouldReturnArrowStream() {
+        // Arrange
+        when(supplierOrderRepository.streamAll()).thenReturn(Stream.empty());
+        when(exportService.isArrowAvailable()).thenReturn(true);
+        when(exportService.arrow(any(), eq(false))).thenReturn(out -> { });
+
+        // Act
+        ResponseEntity<?> response = exportImportController.exportSupplierOrdersArrow(null);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString()).isEqualTo("application/vnd.apache.arrow.stream");
+        ArgumentCaptor<Table> table = ArgumentCaptor.forClass(Table.class);
+        verify(exportService).arrow(table.capture(), eq(false));
+        assertThat(table.getValue().columns()).extracting("type").contains(ColumnType.DECIMAL, ColumnType.DATE);
+        table.getValue().rows().get();
+        verify(supplierOrderRepository, times(1)).streamAll();
+    }
+
+    @Test
+    void exportEquipmentArrow_ArrowUnavailable_ShouldThrowServiceUnavailable() {
+        // Arrange
+        when(exportService.isArrowAvailable()).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> exportImportController.exportEquipmentArrow(null))
+                .isInstanceOf(MagsavBusinessException.class)
+                .extracting("httpStatus").isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(exportService, never()).arrow(any(), anyBoolean());
+    }
+
+    @Test
+    void exportEquipmentXlsx_ShouldReturnSpreadsheet() {
+        // Arrange
+        when(exportService.xlsx(any())).thenReturn(out -> { });
+
+        // Act
+        ResponseEntity<?> response = exportImportController.exportEquipmentXlsx();
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType().toString())
+                .isEqualTo("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).endsWith(".xlsx");
+        verify(exportService).xlsx(any());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void exportLocmatXlsx_ShouldUseLocmatImportColumns() {
+        // Arrange
+        when(exportService.xlsx(any())).thenReturn(out -> { });
+
+        // Act
+        exportImportController.exportLocmatXlsx();
+
+        // Assert
+        ArgumentCaptor<Table> table = ArgumentCaptor.forClass(Table.class);
+        verify(exportService).xlsx(table.capture());
+        assertThat(table.getValue().columns()).extracting("header").containsExactly(
+                "Famille", "Catégorie", "Type", "Marque", "Emplacement", "Code LOCMAT", "Nom", "N° Série",
+                "Qté", "Prix", "Valeur");
     }
 }
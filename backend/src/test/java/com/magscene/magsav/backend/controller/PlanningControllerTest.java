@@ -4,17 +4,23 @@ import com.magscene.magsav.backend.entity.Personnel;
 import com.magscene.magsav.backend.entity.Vehicle;
 import com.magscene.magsav.backend.repository.PersonnelRepository;
 import com.magscene.magsav.backend.repository.VehicleRepository;
+import com.magscene.magsav.backend.service.PlanningIndexService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -31,6 +37,9 @@ class PlanningControllerTest {
     @Mock
     private VehicleRepository vehicleRepository;
 
+    @Mock
+    private PlanningIndexService planningIndexService;
+
     @InjectMocks
     private PlanningController planningController;
 
@@ -106,6 +115,90 @@ class PlanningControllerTest {
         assertThat(response.getBody()).isNotNull();
     }
 
+    @Test
+    void detectConflicts_ShouldReturnIndexedConflictsWithResourceNames() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 3, 31, 0, 0);
+        PlanningIndexService.ResourceKey resource = new PlanningIndexService.ResourceKey(PlanningIndexService.PERSONNEL, 1L);
+        PlanningIndexService.Booking first = new PlanningIndexService.Booking(PlanningIndexService.SOURCE_EVENT, 10L,
+                resource, LocalDateTime.of(2026, 3, 5, 8, 0), LocalDateTime.of(2026, 3, 5, 18, 0), "Montage");
+        PlanningIndexService.Booking second = new PlanningIndexService.Booking(PlanningIndexService.SOURCE_EVENT, 11L,
+                resource, LocalDateTime.of(2026, 3, 5, 16, 0), LocalDateTime.of(2026, 3, 5, 23, 0), "Concert");
+        when(planningIndexService.conflicts(start, end)).thenReturn(List.of(new PlanningIndexService.Conflict(
+                resource, first, second, second.start(), first.end())));
+        when(personnelRepository.findAllById(any())).thenReturn(List.of(testPersonnel));
+
+        // Act
+        ResponseEntity<List<Map<String, Object>>> response = planningController.detectConflicts(start, end);
+
+        // Assert
+        assertThat(response.getBody()).hasSize(1);
+        Map<String, Object> conflict = response.getBody().get(0);
+        assertThat(conflict.get("resourceName")).isEqualTo("Jean Dupont");
+        assertThat(conflict.get("overlapMinutes")).isEqualTo(120L);
+        verify(vehicleRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findAvailableSlots_ShouldRequireSpecialtyAndPayload() {
+        // Arrange - seul Jean a la spécialité Son, seul le premier véhicule porte 3 tonnes
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 9, 1, 0, 0);
+        testPersonnel.setSpecialties("Lumière, Son");
+        Personnel other = new Personnel();
+        other.setId(2L);
+        other.setFirstName("Marie");
+        other.setLastName("Martin");
+        other.setSpecialties("Vidéo");
+        testVehicle.setType(Vehicle.VehicleType.VL_20M3);
+        testVehicle.setMaxPayload(new BigDecimal("3500"));
+        Vehicle small = new Vehicle();
+        small.setId(2L);
+        small.setStatus(Vehicle.VehicleStatus.AVAILABLE);
+        small.setMaxPayload(new BigDecimal("800"));
+        when(personnelRepository.findByStatus(Personnel.PersonnelStatus.ACTIVE)).thenReturn(List.of(testPersonnel, other));
+        when(vehicleRepository.findAll()).thenReturn(List.of(testVehicle, small));
+        PlanningIndexService.ResourceKey jean = new PlanningIndexService.ResourceKey(PlanningIndexService.PERSONNEL, 1L);
+        PlanningIndexService.ResourceKey truck = new PlanningIndexService.ResourceKey(PlanningIndexService.VEHICLE, 1L);
+        when(planningIndexService.findSlots(any(), eq(start), eq(end), eq(Duration.ofHours(8)), eq(5)))
+                .thenReturn(List.of(new PlanningIndexService.SlotProposal(LocalDateTime.of(2026, 3, 2, 8, 0),
+                        LocalDateTime.of(2026, 3, 2, 16, 0), List.of(jean, truck), 1)));
+        when(personnelRepository.findAllById(any())).thenReturn(List.of(testPersonnel));
+        when(vehicleRepository.findAllById(any())).thenReturn(List.of(testVehicle));
+
+        // Act
+        ResponseEntity<List<Map<String, Object>>> response = planningController.findAvailableSlots(start, end, null,
+                null, 8, List.of("son"), new BigDecimal("3000"), 5);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<List<PlanningIndexService.ResourceKey>>> roles = ArgumentCaptor.forClass(List.class);
+        verify(planningIndexService).findSlots(roles.capture(), eq(start), eq(end), eq(Duration.ofHours(8)), eq(5));
+        assertThat(roles.getValue()).containsExactly(List.of(jean), List.of(truck));
+        assertThat(response.getBody()).hasSize(1);
+        Map<String, Object> slot = response.getBody().get(0);
+        assertThat(slot.get("rank")).isEqualTo(1);
+        assertThat((List<?>) slot.get("personnel")).hasSize(1);
+        assertThat((List<?>) slot.get("vehicles")).hasSize(1);
+    }
+
+    @Test
+    void findAvailableSlots_ShouldReturnNothingWhenNoCandidateHasTheSpecialty() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2026, 3, 8, 0, 0);
+        when(personnelRepository.findByStatus(Personnel.PersonnelStatus.ACTIVE)).thenReturn(List.of(testPersonnel));
+
+        // Act
+        ResponseEntity<List<Map<String, Object>>> response = planningController.findAvailableSlots(start, end, null,
+                null, 4, List.of("Pyrotechnie"), null, 5);
+
+        // Assert
+        assertThat(response.getBody()).isEmpty();
+        verifyNoInteractions(planningIndexService);
+    }
+
     @Test
     void getCompleteSchedule_ShouldReturnAllEvents() {
         // Arrange
@@ -0,0 +1,85 @@
+package com.magscene.magsav.backend.repository;
+
+import com.magscene.magsav.backend.dto.EquipmentDTO;
+import com.magscene.magsav.backend.entity.Equipment;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour EquipmentRepository (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EquipmentRepositoryTest {
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @AfterEach
+    void tearDown() {
+        equipmentRepository.deleteAll();
+    }
+
+    @Test
+    void findAllAsDto_ShouldMatchEntityConstructorFieldForField() {
+        // Arrange - un équipement entièrement renseigné, un autre réduit au strict minimum
+        equipmentRepository.save(complete());
+        Equipment minimal = new Equipment();
+        minimal.setName("Câble XLR");
+        minimal.setStatus(Equipment.Status.AVAILABLE);
+        equipmentRepository.save(minimal);
+
+        // Act
+        List<EquipmentDTO> projected = sorted(equipmentRepository.findAllAsDto());
+        List<EquipmentDTO> mapped = sorted(equipmentRepository.findAll().stream().map(EquipmentDTO::new).toList());
+
+        // Assert
+        assertThat(projected).hasSize(2);
+        assertThat(projected.get(0)).hasNoNullFieldsOrProperties();
+        assertThat(projected).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(mapped);
+    }
+
+    private static List<EquipmentDTO> sorted(List<EquipmentDTO> dtos) {
+        return dtos.stream().sorted(Comparator.comparing(EquipmentDTO::getId)).toList();
+    }
+
+    private static Equipment complete() {
+        LocalDateTime date = LocalDateTime.of(2024, 3, 10, 9, 30);
+        Equipment equipment = new Equipment();
+        equipment.setName("Lyre LED Beam 230W");
+        equipment.setDescription("Lyre à faisceau LED haute puissance");
+        equipment.setCategory("Éclairage");
+        equipment.setSubCategory("Projecteur motorisé");
+        equipment.setSpecificCategory("Beam");
+        equipment.setQuantityInStock(4);
+        equipment.setStatus(Equipment.Status.MAINTENANCE);
+        equipment.setQrCode("MAG-LYR-001");
+        equipment.setBrand("Martin");
+        equipment.setModel("MAC Viper AirFX");
+        equipment.setSerialNumber("MV2024001");
+        equipment.setPurchasePrice(4500.0);
+        equipment.setPurchaseDate(date);
+        equipment.setLocation("Entrepôt A");
+        equipment.setNotes("Propriétaire: Mag Scène");
+        equipment.setInternalReference("LYR-230");
+        equipment.setWeight(18.5);
+        equipment.setDimensions("40x30x60");
+        equipment.setWarrantyExpiration(date.plusYears(2));
+        equipment.setSupplier("Algam");
+        equipment.setInsuranceValue(5000.0);
+        equipment.setLastMaintenanceDate(date.plusMonths(6));
+        equipment.setNextMaintenanceDate(date.plusMonths(12));
+        equipment.setPhotoPath("photos/lyre.jpg");
+        return equipment;
+    }
+}
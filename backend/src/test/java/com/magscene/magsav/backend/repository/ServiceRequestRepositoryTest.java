@@ -0,0 +1,86 @@
+package com.magscene.magsav.backend.repository;
+
+import com.magscene.magsav.backend.dto.ServiceRequestDTO;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour ServiceRequestRepository (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ServiceRequestRepositoryTest {
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @AfterEach
+    void tearDown() {
+        serviceRequestRepository.deleteAll();
+        equipmentRepository.deleteAll();
+    }
+
+    @Test
+    void findAllAsDto_ShouldMatchEntityConstructorFieldForField() {
+        // Arrange - une demande liée à un équipement, une autre sans équipement (LEFT JOIN sans ligne)
+        Equipment equipment = new Equipment();
+        equipment.setName("Lyre LED Beam 230W");
+        equipment.setStatus(Equipment.Status.MAINTENANCE);
+        equipment.setBrand("Martin");
+        equipment.setModel("MAC Viper AirFX");
+        equipment.setCategory("Éclairage");
+        equipment.setSerialNumber("MV2024001");
+        equipment.setInternalReference("LYR-230");
+        equipment = equipmentRepository.save(equipment);
+        serviceRequestRepository.save(complete(equipment));
+        serviceRequestRepository.save(new ServiceRequest("Demande libre", ServiceRequest.ServiceRequestType.WARRANTY,
+                null));
+
+        // Act
+        List<ServiceRequestDTO> projected = sorted(serviceRequestRepository.findAllAsDto());
+        List<ServiceRequestDTO> mapped = sorted(serviceRequestRepository.findAllWithEquipment().stream()
+                .map(ServiceRequestDTO::new).toList());
+
+        // Assert
+        assertThat(projected).hasSize(2);
+        assertThat(projected.get(0)).hasNoNullFieldsOrProperties();
+        assertThat(projected.get(0).equipment).hasNoNullFieldsOrProperties();
+        assertThat(projected.get(1).equipment).isNull();
+        assertThat(projected).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(mapped);
+    }
+
+    private static List<ServiceRequestDTO> sorted(List<ServiceRequestDTO> dtos) {
+        return dtos.stream().sorted(Comparator.comparing(dto -> dto.id)).toList();
+    }
+
+    private static ServiceRequest complete(Equipment equipment) {
+        ServiceRequest request = new ServiceRequest("Moteur pan bruyant", ServiceRequest.ServiceRequestType.REPAIR,
+                equipment);
+        request.setDescription("Bruit au démarrage");
+        request.setPriority(ServiceRequest.Priority.HIGH);
+        request.setStatus(ServiceRequest.ServiceRequestStatus.VALIDATED);
+        request.setRequesterName("Régie lumière");
+        request.setRequesterEmail("regie@example.com");
+        request.setAssignedTechnician("Technicien SAV");
+        request.setEstimatedCost(120.0);
+        request.setActualCost(95.5);
+        request.setResolutionNotes("Roulement remplacé");
+        request.setResolvedAt(LocalDateTime.of(2024, 5, 2, 17, 0));
+        return request;
+    }
+}
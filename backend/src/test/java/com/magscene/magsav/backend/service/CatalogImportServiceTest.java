@@ -0,0 +1,181 @@
+package com.magscene.magsav.backend.service;
+
+import com.magsav.entities.CatalogItem;
+import com.magsav.entities.Supplier;
+import com.magsav.entities.SupplierCatalog;
+import com.magsav.enums.ImportStatus;
+import com.magscene.magsav.backend.repository.CatalogItemRepository;
+import com.magscene.magsav.backend.repository.SupplierCatalogRepository;
+import com.magscene.magsav.backend.repository.SupplierRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour CatalogImportService (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(CatalogImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogImportServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean("virtualThreadExecutor")
+        Executor virtualThreadExecutor() {
+            return Runnable::run;
+        }
+    }
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private SupplierCatalogRepository catalogRepository;
+
+    @Autowired
+    private CatalogItemRepository catalogItemRepository;
+
+    @MockitoBean
+    private CatalogQueryIndex catalogQueryIndex;
+
+    @TempDir
+    Path tempDir;
+
+    private Long catalogId;
+
+    @BeforeEach
+    void setUp() {
+        Supplier supplier = supplierRepository.save(new Supplier("Fournisseur Test"));
+        catalogId = catalogRepository.save(new SupplierCatalog(supplier, "Tarif 2026")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogItemRepository.deleteAll();
+        catalogRepository.deleteAll();
+        supplierRepository.deleteAll();
+    }
+
+    @Test
+    void importFile_Reimport_ShouldInsertUpdateAndWithdrawByReference() throws Exception {
+        // Arrange
+        catalogImportService.importFile(catalogId, csv("Référence;Désignation;Prix HT\n"
+                + "A1;Câble XLR 5m;10\nA2;Pied micro;20\nA3;DI active;30\n"), "tarif.csv");
+
+        // Act - A1 inchangé, A2 modifié, A3 absent, A4 nouveau
+        CatalogImportService.ImportSummary summary = catalogImportService.importFile(catalogId,
+                csv("Référence;Désignation;Prix HT\nA1;Câble XLR 5m;10\nA2;Pied micro;22,50\nA4;Splitter;40\n"),
+                "tarif.csv");
+
+        // Assert
+        assertThat(summary.read()).isEqualTo(3);
+        assertThat(summary.inserted()).isEqualTo(1);
+        assertThat(summary.updated()).isEqualTo(1);
+        assertThat(summary.unchanged()).isEqualTo(1);
+        assertThat(summary.withdrawn()).isEqualTo(1);
+        assertThat(summary.errors()).isZero();
+
+        Map<String, CatalogItem> items = itemsByReference();
+        assertThat(items).hasSize(4);
+        assertThat(items.get("A2").getUnitPrice()).isEqualByComparingTo(new BigDecimal("22.50"));
+        assertThat(items.get("A3").isAvailable()).isFalse();
+        assertThat(items.get("A4").isAvailable()).isTrue();
+
+        SupplierCatalog catalog = catalogRepository.findById(catalogId).orElseThrow();
+        assertThat(catalog.getImportStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(catalog.getItemsCount()).isEqualTo(3);
+    }
+
+    @Test
+    void importFile_WithdrawnItemBackInFile_ShouldBeAvailableAgain() throws Exception {
+        // Arrange
+        catalogImportService.importFile(catalogId, csv("Référence;Désignation\nA1;Câble\nA2;Pied\n"), "tarif.csv");
+        catalogImportService.importFile(catalogId, csv("Référence;Désignation\nA1;Câble\n"), "tarif.csv");
+
+        // Act
+        CatalogImportService.ImportSummary summary = catalogImportService.importFile(catalogId,
+                csv("Référence;Désignation\nA1;Câble\nA2;Pied\n"), "tarif.csv");
+
+        // Assert - même article (clé naturelle), pas de doublon
+        assertThat(summary.inserted()).isZero();
+        assertThat(summary.updated()).isEqualTo(1);
+        assertThat(itemsByReference()).hasSize(2);
+        assertThat(itemsByReference().get("A2").isAvailable()).isTrue();
+    }
+
+    @Test
+    void importFile_PriceFormats_ShouldTellThousandsFromDecimals() throws Exception {
+        // Arrange - séparateur suivi de 3 chiffres : milliers ; sinon le dernier séparateur est décimal
+        Path file = csv("Référence;Désignation;Prix HT\n"
+                + "P1;Console;1,234\nP2;Console;1.234\nP3;Console;1.234.567\nP4;Console;1 234,50 €\n"
+                + "P5;Console;1.234,50\nP6;Console;1,234.50\nP7;Console;12,5\nP8;Console;0,250\n"
+                + "P9;Console;1234,567\n");
+
+        // Act
+        CatalogImportService.ImportSummary summary = catalogImportService.importFile(catalogId, file, "tarif.csv");
+
+        // Assert
+        assertThat(summary.errors()).isZero();
+        Map<String, String> prices = itemsByReference().values().stream().collect(Collectors.toMap(
+                CatalogItem::getReference, item -> item.getUnitPrice().stripTrailingZeros().toPlainString()));
+        assertThat(prices).containsEntry("P1", "1234").containsEntry("P2", "1234")
+                .containsEntry("P3", "1234567").containsEntry("P4", "1234.5").containsEntry("P5", "1234.5")
+                .containsEntry("P6", "1234.5").containsEntry("P7", "12.5").containsEntry("P8", "0.25")
+                .containsEntry("P9", "1234.57");
+    }
+
+    @Test
+    void importFile_ChunkFlushFails_ShouldFallBackRowByRow() throws Exception {
+        // Arrange - lots de 2 articles ; B2 dépasse la précision de la colonne prix (12,2)
+        ReflectionTestUtils.setField(catalogImportService, "chunkSize", 2);
+        Path file = csv("Référence;Désignation;Prix HT\n"
+                + "B1;Console;100\nB2;Ampli;1000000000000000\nB3;Lyre;300\nB4;Par LED;400\n");
+
+        // Act
+        CatalogImportService.ImportSummary summary = catalogImportService.importFile(catalogId, file, "tarif.csv");
+
+        // Assert - seul l'article invalide est rejeté, son lot est écrit article par article
+        assertThat(summary.inserted()).isEqualTo(3);
+        assertThat(summary.errors()).isEqualTo(1);
+        assertThat(itemsByReference()).containsOnlyKeys("B1", "B3", "B4");
+
+        SupplierCatalog catalog = catalogRepository.findById(catalogId).orElseThrow();
+        assertThat(catalog.getImportStatus()).isEqualTo(ImportStatus.COMPLETED);
+        assertThat(catalog.getImportLog()).contains("(B2)");
+    }
+
+    private Path csv(String content) throws Exception {
+        Path file = Files.createTempFile(tempDir, "tarif-", ".csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private Map<String, CatalogItem> itemsByReference() {
+        return catalogItemRepository.findAll().stream()
+                .collect(Collectors.toMap(CatalogItem::getReference, item -> item));
+    }
+}
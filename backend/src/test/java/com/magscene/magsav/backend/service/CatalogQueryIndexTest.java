@@ -0,0 +1,105 @@
+package com.magscene.magsav.backend.service;
+
+import com.magsav.entities.CatalogItem;
+import com.magsav.entities.Supplier;
+import com.magsav.entities.SupplierCatalog;
+import com.magscene.magsav.backend.repository.CatalogItemRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour CatalogQueryIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogQueryIndexTest {
+
+    @Mock
+    private CatalogItemRepository catalogItemRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private CatalogQueryIndex catalogQueryIndex;
+
+    private Long supplierId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Supplier supplier = new Supplier("Fournisseur Test");
+        supplier.setId(7L);
+        supplierId = supplier.getId();
+        SupplierCatalog catalog = new SupplierCatalog(supplier, "Tarif 2026");
+        catalog.setId(3L);
+        CatalogItem item = new CatalogItem(catalog, "A1", "Câble XLR 5m");
+        item.setId(11L);
+        item.setBrand("Neutrik");
+        item.setUnitPrice(new BigDecimal("12.50"));
+        item.setAvailable(true);
+
+        ReflectionTestUtils.setField(catalogQueryIndex, "executor", (Executor) Runnable::run);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(catalogItemRepository.streamAllWithSupplier()).thenReturn(Stream.of(item));
+        catalogQueryIndex.scheduleRebuild();
+    }
+
+    @Test
+    void search_CallerModifiesResult_ShouldNotAlterIndexedItem() {
+        // Arrange
+        CatalogItem first = catalogQueryIndex.search("xlr", List.of(supplierId)).orElseThrow().get(0);
+
+        // Act - un appelant modifie l'article reçu
+        first.setName("Renommé");
+        first.setUnitPrice(BigDecimal.ONE);
+        first.setAvailable(false);
+        first.getCatalog().getSupplier().setName("Autre fournisseur");
+
+        // Assert
+        CatalogItem again = catalogQueryIndex.search("xlr", List.of(supplierId)).orElseThrow().get(0);
+        assertThat(again).isNotSameAs(first);
+        assertThat(again.getName()).isEqualTo("Câble XLR 5m");
+        assertThat(again.getUnitPrice()).isEqualByComparingTo("12.50");
+        assertThat(again.isAvailable()).isTrue();
+        assertThat(again.getCatalog().getSupplier().getName()).isEqualTo("Fournisseur Test");
+        assertThat(catalogQueryIndex.filter(List.of(supplierId), null, "Neutrik", null, null).orElseThrow())
+                .extracting(CatalogItem::getName).containsExactly("Câble XLR 5m");
+    }
+
+    @Test
+    void filter_Result_ShouldBeUnmodifiable() {
+        // Act
+        List<CatalogItem> items = catalogQueryIndex.filter(List.of(supplierId), null, null, null, null)
+                .orElseThrow();
+
+        // Assert
+        assertThat(items).hasSize(1);
+        assertThatThrownBy(items::clear).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,188 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.ServiceRequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour DashboardChartService (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(DashboardChartService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardChartServiceTest {
+
+    private static final String[] MONTH_NAMES = { "", "Jan", "Fev", "Mar", "Avr", "Mai", "Juin",
+            "Juil", "Aout", "Sept", "Oct", "Nov", "Dec" };
+
+    @Autowired
+    private DashboardChartService dashboardChartService;
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        setToday(LocalDate.of(2026, 3, 15));
+        // Bornes de la fenêtre de six mois (octobre 2025 - mars 2026) et demandes hors fenêtre
+        for (LocalDateTime createdAt : List.of(
+                LocalDateTime.of(2025, 9, 30, 23, 59),
+                LocalDateTime.of(2025, 10, 1, 0, 0),
+                LocalDateTime.of(2025, 12, 31, 23, 59),
+                LocalDateTime.of(2026, 1, 5, 10, 0),
+                LocalDateTime.of(2026, 1, 20, 10, 0),
+                LocalDateTime.of(2026, 3, 15, 8, 0),
+                LocalDateTime.of(2026, 4, 1, 9, 0))) {
+            ServiceRequest request = new ServiceRequest("Demande", ServiceRequest.ServiceRequestType.REPAIR, null);
+            request.setCreatedAt(createdAt);
+            serviceRequestRepository.save(request);
+        }
+        for (String category : new String[] { "Éclairage", "Son", "Éclairage", null, "Vidéo", null }) {
+            Equipment equipment = new Equipment();
+            equipment.setName("Équipement");
+            equipment.setCategory(category);
+            equipment.setStatus(Equipment.Status.AVAILABLE);
+            equipmentRepository.save(equipment);
+        }
+        dashboardChartService.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceRequestRepository.deleteAll();
+        equipmentRepository.deleteAll();
+        dashboardChartService.clock = Clock.systemDefaultZone();
+        dashboardChartService.invalidateAll();
+    }
+
+    @Test
+    void getSavByMonth_ShouldCountLastSixMonthsIncludingEmptyOnes() {
+        // Act
+        List<Map<String, Object>> months = dashboardChartService.getSavByMonth();
+
+        // Assert
+        assertThat(months).extracting(month -> month.get("month"))
+                .containsExactly("Oct", "Nov", "Dec", "Jan", "Fev", "Mar");
+        assertThat(months).extracting(month -> month.get("count")).containsExactly(1L, 0L, 1L, 2L, 0L, 1L);
+        assertThat(months).extracting(month -> month.get("year"))
+                .containsExactly(2025, 2025, 2025, 2026, 2026, 2026);
+    }
+
+    @Test
+    void getSavByMonth_ShouldMatchPreviousInMemoryAggregation() {
+        // Act
+        List<Map<String, Object>> months = dashboardChartService.getSavByMonth();
+
+        // Assert
+        assertThat(months).isEqualTo(inMemorySavByMonth(LocalDate.of(2026, 3, 15)));
+    }
+
+    @Test
+    void getEquipmentByCategory_ShouldMatchPreviousInMemoryAggregation() {
+        // Act
+        List<Map<String, Object>> categories = dashboardChartService.getEquipmentByCategory();
+
+        // Assert - ordre non garanti, ni avant ni après
+        assertThat(categories).containsExactlyInAnyOrderElementsOf(inMemoryEquipmentByCategory());
+        assertThat(categories).contains(Map.of("category", "Non categorise", "count", 2L),
+                Map.of("category", "Éclairage", "count", 2L));
+    }
+
+    @Test
+    void getSavByMonth_SameMonth_ShouldServeCacheUntilInvalidated() {
+        // Arrange
+        dashboardChartService.getSavByMonth();
+        // Insertion SQL directe : aucun événement ne signale la modification
+        jdbcTemplate.update("INSERT INTO service_request (title, type, status, priority, created_at, updated_at) "
+                + "VALUES ('Directe', 'REPAIR', 'PENDING', 'MEDIUM', ?, ?)",
+                LocalDateTime.of(2026, 3, 2, 9, 0), LocalDateTime.of(2026, 3, 2, 9, 0));
+
+        // Act
+        Object cached = dashboardChartService.getSavByMonth().get(5).get("count");
+        dashboardChartService.invalidateSav();
+        Object recomputed = dashboardChartService.getSavByMonth().get(5).get("count");
+
+        // Assert
+        assertThat(cached).isEqualTo(1L);
+        assertThat(recomputed).isEqualTo(2L);
+    }
+
+    @Test
+    void getSavByMonth_MonthRollover_ShouldRecomputeWithoutInvalidation() {
+        // Arrange - résultat de mars en cache
+        assertThat(dashboardChartService.getSavByMonth().get(5).get("month")).isEqualTo("Mar");
+
+        // Act - passage en avril, sans aucune modification des données
+        setToday(LocalDate.of(2026, 4, 1));
+        List<Map<String, Object>> months = dashboardChartService.getSavByMonth();
+
+        // Assert - fenêtre décalée : octobre sort, avril entre
+        assertThat(months).extracting(month -> month.get("month"))
+                .containsExactly("Nov", "Dec", "Jan", "Fev", "Mar", "Avr");
+        assertThat(months).extracting(month -> month.get("count")).containsExactly(0L, 1L, 2L, 0L, 1L, 1L);
+        assertThat(months).isEqualTo(inMemorySavByMonth(LocalDate.of(2026, 4, 1)));
+    }
+
+    private void setToday(LocalDate today) {
+        ZoneId zone = ZoneId.systemDefault();
+        dashboardChartService.clock = Clock.fixed(today.atStartOfDay(zone).plusHours(12).toInstant(), zone);
+    }
+
+    // Calcul d'origine de DashboardController : toutes les demandes chargées puis filtrées mois par mois
+    private List<Map<String, Object>> inMemorySavByMonth(LocalDate now) {
+        List<ServiceRequest> allRequests = serviceRequestRepository.findAll();
+        List<Map<String, Object>> monthlyData = new ArrayList<>();
+        for (int i = 5; i >= 0; i--) {
+            YearMonth targetMonth = YearMonth.from(now.minusMonths(i));
+            long count = allRequests.stream()
+                    .filter(r -> r.getCreatedAt() != null)
+                    .filter(r -> YearMonth.from(r.getCreatedAt()).equals(targetMonth))
+                    .count();
+            Map<String, Object> monthData = new HashMap<>();
+            monthData.put("month", MONTH_NAMES[targetMonth.getMonthValue()]);
+            monthData.put("count", count);
+            monthData.put("year", targetMonth.getYear());
+            monthlyData.add(monthData);
+        }
+        return monthlyData;
+    }
+
+    private List<Map<String, Object>> inMemoryEquipmentByCategory() {
+        Map<String, Long> categoryCounts = new HashMap<>();
+        for (Equipment eq : equipmentRepository.findAll()) {
+            String cat = eq.getCategory() != null ? eq.getCategory() : "Non categorise";
+            categoryCounts.merge(cat, 1L, Long::sum);
+        }
+        List<Map<String, Object>> categoryData = new ArrayList<>();
+        categoryCounts.forEach((category, count) -> categoryData.add(Map.of("category", category, "count", count)));
+        return categoryData;
+    }
+}
@@ -0,0 +1,133 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.ServiceRequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour DashboardStatsService et DashboardStatsEventListener
+ * (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ DashboardStatsService.class, DashboardStatsEventListener.class, DashboardChartService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardStatsServiceTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean("virtualThreadExecutor")
+        Executor virtualThreadExecutor() {
+            return Runnable::run;
+        }
+    }
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private ServiceRequestRepository serviceRequestRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        equipmentRepository.save(equipment("Console", Equipment.Status.AVAILABLE));
+        equipmentRepository.save(equipment("Enceinte", Equipment.Status.IN_USE));
+        // Compteurs chargés avant les modifications : seul l'écouteur peut les tenir à jour
+        dashboardStatsService.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        serviceRequestRepository.deleteAll();
+        equipmentRepository.deleteAll();
+    }
+
+    @Test
+    void counters_AfterCreateStatusChangeAndDelete_ShouldMatchRepositoryCounts() {
+        // Act - création, changement de statut puis suppression, chacun dans sa transaction
+        Equipment lyre = equipmentRepository.save(equipment("Lyre", Equipment.Status.AVAILABLE));
+        Equipment micro = equipmentRepository.save(equipment("Micro", Equipment.Status.AVAILABLE));
+        lyre.setStatus(Equipment.Status.MAINTENANCE);
+        equipmentRepository.save(lyre);
+        equipmentRepository.delete(micro);
+
+        // Assert
+        assertMatchesRepository();
+        assertThat(dashboardStatsService.total(DashboardStatsService.EQUIPMENT)).isEqualTo(3);
+        assertThat(dashboardStatsService.count(DashboardStatsService.EQUIPMENT, Equipment.Status.MAINTENANCE))
+                .isEqualTo(1);
+    }
+
+    @Test
+    void counters_ServiceRequestLifecycle_ShouldMatchRepositoryCounts() {
+        // Act
+        ServiceRequest request = serviceRequestRepository.save(new ServiceRequest("Moteur pan bruyant",
+                ServiceRequest.ServiceRequestType.REPAIR, null));
+        serviceRequestRepository.save(new ServiceRequest("Révision annuelle",
+                ServiceRequest.ServiceRequestType.MAINTENANCE, null));
+        request.setStatus(ServiceRequest.ServiceRequestStatus.VALIDATED);
+        serviceRequestRepository.save(request);
+
+        // Assert
+        assertThat(dashboardStatsService.total(DashboardStatsService.SAV)).isEqualTo(serviceRequestRepository.count());
+        for (ServiceRequest.ServiceRequestStatus status : ServiceRequest.ServiceRequestStatus.values()) {
+            assertThat(dashboardStatsService.count(DashboardStatsService.SAV, status))
+                    .as("statut %s", status)
+                    .isEqualTo(serviceRequestRepository.findAll().stream()
+                            .filter(sr -> sr.getStatus() == status).count());
+        }
+    }
+
+    @Test
+    void reconcile_AfterBulkUpdateOutsideEntities_ShouldRealignCounters() {
+        // Arrange - requête SQL directe : aucun événement Hibernate
+        jdbcTemplate.update("UPDATE equipment SET status = 'MAINTENANCE'");
+        assertThat(dashboardStatsService.count(DashboardStatsService.EQUIPMENT, Equipment.Status.MAINTENANCE))
+                .isZero();
+
+        // Act
+        dashboardStatsService.reconcile();
+
+        // Assert
+        assertMatchesRepository();
+        assertThat(dashboardStatsService.count(DashboardStatsService.EQUIPMENT, Equipment.Status.MAINTENANCE))
+                .isEqualTo(2);
+    }
+
+    private void assertMatchesRepository() {
+        assertThat(dashboardStatsService.total(DashboardStatsService.EQUIPMENT)).isEqualTo(equipmentRepository.count());
+        for (Equipment.Status status : Equipment.Status.values()) {
+            assertThat(dashboardStatsService.count(DashboardStatsService.EQUIPMENT, status))
+                    .as("statut %s", status)
+                    .isEqualTo(equipmentRepository.findAll().stream().filter(e -> e.getStatus() == status).count());
+        }
+    }
+
+    private static Equipment equipment(String name, Equipment.Status status) {
+        Equipment equipment = new Equipment();
+        equipment.setName(name);
+        equipment.setStatus(status);
+        return equipment;
+    }
+}
@@ -0,0 +1,171 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.dto.EquipmentDTO;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.EquipmentSpecifications;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests d'intégration pour EquipmentListingService (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(EquipmentListingService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EquipmentListingServiceTest {
+
+    @Autowired
+    private EquipmentListingService equipmentListingService;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    private final Specification<Equipment> all = EquipmentSpecifications.matching(null, null, null, null, null);
+
+    @BeforeEach
+    void setUp() {
+        // Noms en double : l'id départage
+        for (String name : List.of("Console", "Enceinte", "Lyre", "Lyre", "Lyre", "Micro", "Projecteur")) {
+            equipmentRepository.save(equipment(name, null));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        equipmentRepository.deleteAll();
+    }
+
+    @Test
+    void findPage_SecondPageByName_ShouldReturnOffsetSliceAndTotal() {
+        // Act
+        Page<EquipmentDTO> page = equipmentListingService.findPage(all,
+                PageRequest.of(1, 3, Sort.by("name").and(Sort.by(Sort.Direction.DESC, "id"))));
+
+        // Assert
+        assertThat(page.getContent()).extracting(EquipmentDTO::getName).containsExactly("Lyre", "Lyre", "Micro");
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getTotalPages()).isEqualTo(3);
+    }
+
+    @Test
+    void findPage_SortOutsideWhitelist_ShouldThrow() {
+        // Act / Assert
+        assertThatThrownBy(() -> equipmentListingService.findPage(all, PageRequest.of(0, 10, Sort.by("notes"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("notes");
+    }
+
+    @Test
+    void findAfter_FollowingCursors_ShouldVisitEveryRowOnceInOrder() {
+        // Arrange
+        List<EquipmentDTO> expected = equipmentListingService.findPage(all,
+                PageRequest.of(0, 100, Sort.by("name", "id"))).getContent();
+
+        // Act - pages de 2 : les trois "Lyre" sont à cheval sur deux pages
+        List<EquipmentDTO> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            EquipmentListingService.KeysetPage page = equipmentListingService.findAfter(all, Sort.by("name"),
+                    cursor, 2);
+            visited.addAll(page.content());
+            cursor = page.nextCursor();
+            assertThat(page.hasNext()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertThat(pages).isEqualTo(4);
+        assertThat(visited).extracting(EquipmentDTO::getId)
+                .containsExactlyElementsOf(expected.stream().map(EquipmentDTO::getId).toList());
+    }
+
+    @Test
+    void findAfter_DescendingById_ShouldContinueBelowLastId() {
+        // Arrange
+        EquipmentListingService.KeysetPage first = equipmentListingService.findAfter(all,
+                Sort.by(Sort.Direction.DESC, "id"), null, 4);
+
+        // Act
+        EquipmentListingService.KeysetPage second = equipmentListingService.findAfter(all,
+                Sort.by(Sort.Direction.DESC, "id"), first.nextCursor(), 4);
+
+        // Assert
+        Long lastOfFirst = first.content().get(3).getId();
+        assertThat(second.content()).hasSize(3).allSatisfy(dto -> assertThat(dto.getId()).isLessThan(lastOfFirst));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void findAfter_SortOutsideKeysetColumns_ShouldThrow() {
+        // Act / Assert
+        assertThatThrownBy(() -> equipmentListingService.findAfter(all, Sort.by("category"), null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findAfter_MalformedCursor_ShouldThrow() {
+        // Arrange - base64 invalide, séparateur absent, id non numérique
+        String noSeparator = encode("Lyre");
+        String badId = encode("Lyre\u0000abc");
+
+        // Act / Assert
+        assertThatThrownBy(() -> equipmentListingService.findAfter(all, Sort.by("name"), "%%%", 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Curseur invalide");
+        assertThatThrownBy(() -> equipmentListingService.findAfter(all, Sort.by("name"), noSeparator, 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Curseur invalide");
+        assertThatThrownBy(() -> equipmentListingService.findAfter(all, Sort.by("name"), badId, 10))
+                .isInstanceOf(IllegalArgumentException.class).hasMessage("Curseur invalide");
+    }
+
+    @Test
+    void findPage_OwnerWithLikeWildcards_ShouldMatchLiterally() {
+        // Arrange
+        equipmentRepository.save(equipment("Ampli", "Propriétaire: 100% Son"));
+        equipmentRepository.save(equipment("Ampli", "Propriétaire: 1000 Son"));
+        equipmentRepository.save(equipment("Câble", "Propriétaire: A_B"));
+        equipmentRepository.save(equipment("Câble", "Propriétaire: AXB"));
+
+        // Act
+        List<EquipmentDTO> percent = equipmentListingService.findPage(
+                EquipmentSpecifications.matching(null, null, null, null, "100%"), PageRequest.of(0, 10)).getContent();
+        List<EquipmentDTO> underscore = equipmentListingService.findPage(
+                EquipmentSpecifications.matching(null, null, null, null, "A_B"), PageRequest.of(0, 10)).getContent();
+
+        // Assert
+        assertThat(percent).extracting(EquipmentDTO::getNotes).containsExactly("Propriétaire: 100% Son");
+        assertThat(underscore).extracting(EquipmentDTO::getNotes).containsExactly("Propriétaire: A_B");
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Equipment equipment(String name, String notes) {
+        Equipment equipment = new Equipment();
+        equipment.setName(name);
+        equipment.setNotes(notes);
+        equipment.setStatus(Equipment.Status.AVAILABLE);
+        return equipment;
+    }
+}
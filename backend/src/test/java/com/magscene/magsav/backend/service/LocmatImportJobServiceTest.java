@@ -0,0 +1,87 @@
+package com.magscene.magsav.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour LocmatImportJobService
+ */
+@ExtendWith(MockitoExtension.class)
+class LocmatImportJobServiceTest {
+
+    @Mock
+    private LocmatImportService locmatImportService;
+
+    private final List<Runnable> queued = new ArrayList<>();
+
+    @Test
+    void runJob_AfterWaitingInQueue_ShouldMeasureDurationFromStart() throws Exception {
+        // Arrange - le job attend son tour avant d'être exécuté
+        LocmatImportJobService service = new LocmatImportJobService(locmatImportService, queued::add);
+        LocmatImportJobService.ImportJob job = service.submit(csv());
+        Thread.sleep(300);
+
+        // Act
+        queued.forEach(Runnable::run);
+
+        // Assert - l'attente n'entre ni dans la durée ni dans le débit
+        assertThat(job.getStatus()).isEqualTo(LocmatImportJobService.JobStatus.COMPLETED);
+        assertThat(job.getResult().getDurationMs()).isLessThan(300);
+    }
+
+    @Test
+    void getJob_FinishedLongerThanRetention_ShouldBePurged() throws Exception {
+        // Arrange
+        LocmatImportJobService service = new LocmatImportJobService(locmatImportService, Runnable::run);
+        LocmatImportJobService.ImportJob old = service.submit(csv());
+        LocmatImportJobService.ImportJob recent = service.submit(csv());
+        ReflectionTestUtils.setField(old, "finishedAt", LocalDateTime.now().minusHours(3));
+
+        // Act / Assert - purgé à la lecture, sans nouvel import
+        assertThat(service.getJob(old.getId())).isEmpty();
+        assertThat(service.getJobs()).extracting(LocmatImportJobService.ImportJob::getId)
+                .containsExactly(recent.getId());
+    }
+
+    @Test
+    void purgeExpiredJobs_RunningJob_ShouldBeKept() throws Exception {
+        // Arrange
+        LocmatImportJobService service = new LocmatImportJobService(locmatImportService, queued::add);
+        LocmatImportJobService.ImportJob pending = service.submit(csv());
+
+        // Act
+        service.purgeExpiredJobs();
+
+        // Assert
+        assertThat(service.getJob(pending.getId())).contains(pending);
+    }
+
+    @Test
+    void submit_Csv_ShouldLeaveRowCountToBackgroundImport() throws Exception {
+        // Arrange
+        LocmatImportJobService service = new LocmatImportJobService(locmatImportService, queued::add);
+
+        // Act - le job n'a pas encore démarré
+        LocmatImportJobService.ImportJob job = service.submit(csv());
+
+        // Assert - aucune lecture du fichier sur le thread de la requête : total inconnu
+        assertThat(job.getResult().getTotalRows()).isEqualTo(-1);
+        assertThat(job.getStatus()).isEqualTo(LocmatImportJobService.JobStatus.PENDING);
+    }
+
+    private static MockMultipartFile csv() {
+        return new MockMultipartFile("file", "parc.csv", "text/csv",
+                "Famille;Catégorie\nSon;Micros\n".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,68 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.util.XlsxTestFiles;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour LocmatImportService : prévisualisation des fichiers Excel
+ */
+class LocmatImportServiceTest {
+
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final LocmatImportService locmatImportService = new LocmatImportService();
+
+    @Test
+    void previewFile_NoDimension_ShouldStopAtMaxRowsAndReportUnknownTotal() throws Exception {
+        // Arrange - feuille sans balise dimension, tronquée après l'échantillon
+        String sheet = header() + row(2, "MAG-001") + row(3, "MAG-002") + row(4, "MAG-003") + row(5, "MAG-004")
+                + "<row r=\"6\"><c r=\"A6\" t=\"inlineStr\"><is><t>Son";
+        MockMultipartFile file = new MockMultipartFile("file", "parc.xlsx", XLSX,
+                XlsxTestFiles.workbook(sheet, null));
+
+        // Act
+        LocmatImportService.PreviewResult preview = locmatImportService.previewFile(file, 3);
+
+        // Assert - la fin du fichier n'est jamais lue
+        assertThat(preview.getPreviewRows()).isEqualTo(3);
+        assertThat(preview.getTotalRows()).isEqualTo(-1);
+        assertThat(preview.getData()).extracting(rowData -> rowData.get("Code LOCMAT"))
+                .containsExactly("MAG-001", "MAG-002", "MAG-003");
+        assertThat(preview.getData().get(0)).containsEntry("Catégorie", "Son")
+                .containsEntry("Marque", "Shure")
+                .containsEntry("Description", "Micro SM58");
+    }
+
+    @Test
+    void previewFile_WithDimension_ShouldReportAnnouncedTotal() throws Exception {
+        // Arrange
+        String sheet = header() + row(2, "MAG-001") + row(3, "MAG-002") + row(4, "MAG-003");
+        MockMultipartFile file = new MockMultipartFile("file", "parc.xlsx", XLSX,
+                XlsxTestFiles.workbook(sheet, "A1:K4"));
+
+        // Act
+        LocmatImportService.PreviewResult preview = locmatImportService.previewFile(file, 2);
+
+        // Assert
+        assertThat(preview.getPreviewRows()).isEqualTo(2);
+        assertThat(preview.getTotalRows()).isEqualTo(3);
+    }
+
+    private static String header() {
+        return "<row r=\"1\">" + cell("A1", "Famille") + cell("B1", "Catégorie") + cell("D1", "Marque")
+                + cell("F1", "Code LOCMAT") + cell("G1", "Nom") + "</row>";
+    }
+
+    private static String row(int number, String code) {
+        return "<row r=\"" + number + "\">" + cell("A" + number, "Son") + cell("B" + number, "Micros")
+                + cell("D" + number, "Shure") + cell("F" + number, code) + cell("G" + number, "Micro SM58")
+                + "</row>";
+    }
+
+    private static String cell(String reference, String text) {
+        return "<c r=\"" + reference + "\" t=\"inlineStr\"><is><t>" + text + "</t></is></c>";
+    }
+}
@@ -0,0 +1,180 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.EquipmentPhoto;
+import com.magscene.magsav.backend.repository.EquipmentPhotoRepository;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour PhotoBlobStore : déduplication, compteur de références et
+ * ramasse-miettes (base H2 en mémoire, fichiers dans un dossier temporaire)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ PhotoBlobStore.class, PhotoVariantService.class, FileDownloadService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PhotoBlobStoreTest {
+
+    @TempDir
+    static Path uploadDir;
+
+    @DynamicPropertySource
+    static void uploadDir(DynamicPropertyRegistry registry) {
+        registry.add("app.upload.dir", uploadDir::toString);
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean("imageProcessingExecutor")
+        Executor imageProcessingExecutor() {
+            return Runnable::run;
+        }
+    }
+
+    @Autowired
+    private PhotoBlobStore photoBlobStore;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @Autowired
+    private EquipmentPhotoRepository equipmentPhotoRepository;
+
+    private Equipment first;
+    private Equipment second;
+    private byte[] notice;
+
+    @BeforeEach
+    void setUp() {
+        first = equipmentRepository.save(equipment("Lyre Beam 1"));
+        second = equipmentRepository.save(equipment("Lyre Beam 2"));
+        notice = new byte[50_000];
+        new Random(7).nextBytes(notice);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        equipmentPhotoRepository.deleteAll();
+        equipmentRepository.deleteAll();
+        photoBlobStore.collectGarbage();
+    }
+
+    @Test
+    void store_SameContentTwice_ShouldKeepOneBlobForBothPhotos() throws Exception {
+        // Act
+        EquipmentPhoto photo1 = upload(first, notice);
+        EquipmentPhoto photo2 = upload(second, notice);
+
+        // Assert
+        assertThat(photo2.getContentHash()).isEqualTo(photo1.getContentHash());
+        assertThat(photo2.getFilePath()).isEqualTo(photo1.getFilePath());
+        assertThat(blobFiles()).containsExactly(Path.of(photo1.getFilePath()));
+        assertThat(Files.readAllBytes(Path.of(photo1.getFilePath()))).isEqualTo(notice);
+        assertThat(equipmentPhotoRepository.countByContentHash(photo1.getContentHash())).isEqualTo(2);
+    }
+
+    @Test
+    void release_OtherOwnerStillReferencesBlob_ShouldKeepBlob() throws Exception {
+        // Arrange
+        EquipmentPhoto photo1 = upload(first, notice);
+        EquipmentPhoto photo2 = upload(second, notice);
+
+        // Act - suppression de la photo du premier équipement, comme le contrôleur
+        equipmentPhotoRepository.deleteById(photo1.getId());
+        photoBlobStore.release(photo1);
+        PhotoBlobStore.GarbageCollection gc = photoBlobStore.collectGarbage();
+
+        // Assert
+        assertThat(gc.blobsDeleted()).isZero();
+        assertThat(Path.of(photo2.getFilePath())).exists();
+        assertThat(Files.readAllBytes(Path.of(photo2.getFilePath()))).isEqualTo(notice);
+    }
+
+    @Test
+    void release_LastOwner_ShouldDeleteBlob() throws Exception {
+        // Arrange
+        EquipmentPhoto photo1 = upload(first, notice);
+        EquipmentPhoto photo2 = upload(second, notice);
+
+        // Act
+        equipmentPhotoRepository.deleteById(photo1.getId());
+        photoBlobStore.release(photo1);
+        equipmentPhotoRepository.deleteById(photo2.getId());
+        photoBlobStore.release(photo2);
+
+        // Assert
+        assertThat(blobFiles()).isEmpty();
+    }
+
+    @Test
+    void collectGarbage_LastOwnerDeletedWithoutRelease_ShouldDeleteBlob() throws Exception {
+        // Arrange - photos supprimées en base sans passer par release (suppression de l'équipement...)
+        EquipmentPhoto photo1 = upload(first, notice);
+        upload(second, notice);
+        EquipmentPhoto other = upload(first, "autre contenu".getBytes());
+        equipmentPhotoRepository.deleteAll(equipmentPhotoRepository.findAll().stream()
+                .filter(photo -> photo.getContentHash().equals(photo1.getContentHash()))
+                .toList());
+        assertThat(Path.of(photo1.getFilePath())).exists();
+
+        // Act
+        PhotoBlobStore.GarbageCollection gc = photoBlobStore.collectGarbage();
+
+        // Assert - seul le contenu encore référencé reste
+        assertThat(gc.blobsDeleted()).isEqualTo(1);
+        assertThat(gc.bytesFreed()).isEqualTo(notice.length);
+        assertThat(blobFiles()).containsExactly(Path.of(other.getFilePath()));
+    }
+
+    private EquipmentPhoto upload(Equipment equipment, byte[] content) throws IOException {
+        return photoBlobStore.store(new ByteArrayInputStream(content), blob -> {
+            EquipmentPhoto photo = new EquipmentPhoto(equipment, "notice.pdf", blob.path().toString());
+            photo.setContentHash(blob.hash());
+            photo.setFileSize(blob.size());
+            photo.setMimeType("application/pdf");
+            return equipmentPhotoRepository.save(photo);
+        });
+    }
+
+    private static List<Path> blobFiles() throws IOException {
+        Path root = uploadDir.resolve("blobs");
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(path -> !path.getParent().getFileName().toString().equals("tmp"))
+                    .toList();
+        }
+    }
+
+    private static Equipment equipment(String name) {
+        Equipment equipment = new Equipment();
+        equipment.setName(name);
+        equipment.setStatus(Equipment.Status.AVAILABLE);
+        return equipment;
+    }
+}
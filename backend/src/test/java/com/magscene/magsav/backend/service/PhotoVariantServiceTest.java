@@ -0,0 +1,108 @@
+package com.magscene.magsav.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour PhotoVariantService
+ */
+@ExtendWith(MockitoExtension.class)
+class PhotoVariantServiceTest {
+
+    @Mock
+    private FileDownloadService fileDownloadService;
+
+    @InjectMocks
+    private PhotoVariantService photoVariantService;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void generate_LargePhoto_ShouldProduceEveryVariantAtExactSize() throws IOException {
+        // Arrange - 6001 px : sous-échantillonnée d'un pas de 2 au décodage (3001 px) puis réduite
+        Path original = image(6001, 3001, BufferedImage.TYPE_INT_RGB, "jpg");
+        Path variants = dir.resolve("variants");
+
+        // Act
+        boolean generated = photoVariantService.generate("abc", original, variants);
+
+        // Assert
+        assertThat(generated).isTrue();
+        assertSize(variants.resolve("abc-large.jpg"), 2048, 1024);
+        assertSize(variants.resolve("abc-medium.jpg"), 1024, 512);
+        assertSize(variants.resolve("abc-thumbnail.jpg"), 256, 128);
+    }
+
+    @Test
+    void generate_JustAboveLargestVariant_ShouldNotUndershoot() throws IOException {
+        // Arrange - pas de 2 : le plus grand côté décodé (2049 px) reste au-dessus de 2048
+        Path original = image(1200, 4097, BufferedImage.TYPE_INT_RGB, "jpg");
+        Path variants = dir.resolve("variants");
+
+        // Act
+        photoVariantService.generate("portrait", original, variants);
+
+        // Assert
+        assertSize(variants.resolve("portrait-large.jpg"), 600, 2048);
+    }
+
+    @Test
+    void generate_SmallTransparentImage_ShouldKeepSizeAndPng() throws IOException {
+        // Arrange - plus petite que LARGE et MEDIUM : jamais agrandie
+        Path original = image(800, 400, BufferedImage.TYPE_INT_ARGB, "png");
+        Path variants = dir.resolve("variants");
+
+        // Act
+        photoVariantService.generate("logo", original, variants);
+
+        // Assert
+        assertSize(variants.resolve("logo-large.png"), 800, 400);
+        assertSize(variants.resolve("logo-medium.png"), 800, 400);
+        assertSize(variants.resolve("logo-thumbnail.png"), 256, 128);
+        assertThat(variants.resolve("logo-large.jpg")).doesNotExist();
+    }
+
+    @Test
+    void generate_UnreadableContent_ShouldReturnFalse() throws IOException {
+        // Arrange
+        Path original = Files.write(dir.resolve("photo.heic"), new byte[] { 0, 0, 0, 24, 'f', 't', 'y', 'p' });
+
+        // Act
+        boolean generated = photoVariantService.generate("heic", original, dir.resolve("variants"));
+
+        // Assert
+        assertThat(generated).isFalse();
+    }
+
+    private Path image(int width, int height, int type, String format) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height / 2);
+        graphics.dispose();
+        Path file = dir.resolve("original." + format);
+        ImageIO.write(image, format, file.toFile());
+        return file;
+    }
+
+    private static void assertSize(Path file, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(file.toFile());
+        assertThat(image.getWidth()).isEqualTo(width);
+        assertThat(image.getHeight()).isEqualTo(height);
+    }
+}
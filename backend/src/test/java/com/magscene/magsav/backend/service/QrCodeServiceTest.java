@@ -0,0 +1,127 @@
+package com.magscene.magsav.backend.service;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour QrCodeService
+ */
+@ExtendWith(MockitoExtension.class)
+class QrCodeServiceTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @InjectMocks
+    private QrCodeService qrCodeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(qrCodeService, "executor", (Executor) Runnable::run);
+    }
+
+    @Test
+    void sprite_MinimumCellSmallerThanMatrix_ShouldDrawInsideEachCell() throws Exception {
+        // Arrange - 32 px par case alors que le plus petit QR code fait 37 modules avec la marge
+        when(equipmentRepository.findAllById(anyList())).thenReturn(List.of(equipment(1L, "Lyre"), equipment(2L, "Par LED")));
+
+        // Act
+        QrCodeService.RenderedQr sprite = qrCodeService.sprite(List.of(1L, 2L, 3L), QrCodeService.ImageFormat.PNG, 32, 2);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(sprite.content()));
+
+        // Assert - 2 colonnes x 2 lignes, case de l'id inconnu restée blanche
+        assertThat(image.getWidth()).isEqualTo(64);
+        assertThat(image.getHeight()).isEqualTo(64);
+        assertThat(countBlack(image, 0, 0, 32)).isPositive();
+        assertThat(countBlack(image, 32, 0, 32)).isPositive();
+        assertThat(countBlack(image, 0, 32, 32)).isZero();
+    }
+
+    @Test
+    void sprite_PngLargerThanMaxSide_ShouldBeRejectedBeforeRendering() {
+        // Arrange - 100 colonnes de 1024 px
+        List<Long> ids = LongStream.rangeClosed(1, 200).boxed().toList();
+
+        // Act / Assert
+        assertThatThrownBy(() -> qrCodeService.sprite(ids, QrCodeService.ImageFormat.PNG, 1024, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(QrCodeService.spriteFits(2000, QrCodeService.ImageFormat.PNG, 128, 100)).isTrue();
+        assertThat(QrCodeService.spriteFits(2000, QrCodeService.ImageFormat.SVG, 1024, 100)).isTrue();
+        verifyNoInteractions(equipmentRepository);
+    }
+
+    @Test
+    void render_LongPayloadAtMinimumSize_ShouldNotOverflowImage() throws Exception {
+        // Arrange
+        Equipment equipment = equipment(42L, "Console numérique ".repeat(20));
+        String payload = qrCodeService.payload(equipment);
+
+        // Act
+        QrCodeService.RenderedQr rendered = qrCodeService.render(payload, QrCodeService.ImageFormat.PNG, 64);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(rendered.content()));
+
+        // Assert
+        assertThat(qrCodeService.encode(payload).getWidth()).isGreaterThan(64);
+        assertThat(image.getWidth()).isEqualTo(64);
+        assertThat(countBlack(image, 0, 0, 64)).isPositive();
+    }
+
+    @Test
+    void render_CellLargeEnough_ShouldStayReadable() throws Exception {
+        // Arrange
+        String payload = qrCodeService.payload(equipment(7L, "Enceinte L-Acoustics K2"));
+
+        // Act
+        QrCodeService.RenderedQr rendered = qrCodeService.render(payload, QrCodeService.ImageFormat.PNG, 256);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(rendered.content()));
+        String decoded = new QRCodeReader().decode(new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(image)))).getText();
+
+        // Assert
+        assertThat(decoded).isEqualTo(payload);
+    }
+
+    private static Equipment equipment(Long id, String name) {
+        Equipment equipment = new Equipment();
+        equipment.setId(id);
+        equipment.setName(name);
+        equipment.setSerialNumber("SN-" + id);
+        return equipment;
+    }
+
+    private static int countBlack(BufferedImage image, int x, int y, int size) {
+        int black = 0;
+        for (int py = y; py < y + size; py++) {
+            for (int px = x; px < x + size; px++) {
+                if ((image.getRGB(px, py) & 0xFFFFFF) == 0) {
+                    black++;
+                }
+            }
+        }
+        return black;
+    }
+}
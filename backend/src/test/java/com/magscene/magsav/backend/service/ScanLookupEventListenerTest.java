@@ -0,0 +1,91 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour ScanLookupEventListener (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import({ ScanLookupService.class, ScanLookupEventListener.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ScanLookupEventListenerTest {
+
+    @Autowired
+    private ScanLookupService scanLookupService;
+
+    @Autowired
+    private EquipmentRepository equipmentRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Index chargé avant toute modification : seul l'écouteur peut le tenir à jour
+        scanLookupService.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        equipmentRepository.deleteAll();
+    }
+
+    @Test
+    void insert_AfterCommit_ShouldBeScannable() {
+        // Act
+        Equipment saved = equipmentRepository.save(equipment("MAG-LED-001", "CZ2023001"));
+
+        // Assert
+        ScanLookupService.ScanResult result = scanLookupService.lookup("mag-led-001");
+        assertThat(result.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.QR_CODE);
+        assertThat(result.equipment().id()).isEqualTo(saved.getId());
+    }
+
+    @Test
+    void update_AfterCommit_ShouldReplaceCodes() {
+        // Arrange
+        Equipment saved = equipmentRepository.save(equipment("MAG-LED-001", "CZ2023001"));
+
+        // Act
+        saved.setQrCode("MAG-LED-002");
+        saved.setStatus(Equipment.Status.MAINTENANCE);
+        equipmentRepository.save(saved);
+
+        // Assert
+        assertThat(scanLookupService.lookup("MAG-LED-001").equipment()).isNull();
+        ScanLookupService.ScanResult result = scanLookupService.lookup("MAG-LED-002");
+        assertThat(result.equipment().id()).isEqualTo(saved.getId());
+        assertThat(result.equipment().status()).isEqualTo("MAINTENANCE");
+    }
+
+    @Test
+    void delete_AfterCommit_ShouldForgetCodes() {
+        // Arrange
+        Equipment saved = equipmentRepository.save(equipment("MAG-LED-001", "CZ2023001"));
+        assertThat(scanLookupService.lookup("CZ2023001").equipment()).isNotNull();
+
+        // Act
+        equipmentRepository.deleteById(saved.getId());
+
+        // Assert
+        assertThat(scanLookupService.lookup("MAG-LED-001").equipment()).isNull();
+        assertThat(scanLookupService.lookup("CZ2023001").equipment()).isNull();
+    }
+
+    private static Equipment equipment(String qrCode, String serialNumber) {
+        Equipment equipment = new Equipment();
+        equipment.setName("Projecteur LED RGBW 200W");
+        equipment.setQrCode(qrCode);
+        equipment.setSerialNumber(serialNumber);
+        equipment.setStatus(Equipment.Status.AVAILABLE);
+        return equipment;
+    }
+}
@@ -0,0 +1,197 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour ScanLookupService
+ */
+@ExtendWith(MockitoExtension.class)
+class ScanLookupServiceTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private ScanLookupService scanLookupService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        // Deux lyres partagent la référence interne LOCMAT "LYR-230"
+        when(equipmentRepository.streamScanColumns()).thenReturn(Stream.of(
+                row(10L, "Lyre Beam 230W", "MAG-LYR-001", "MV2024001", "LYR-230"),
+                row(20L, "Lyre Beam 230W", "MAG-LYR-002", "MV2024002", "LYR-230"),
+                row(30L, "Micro-cravate", "MAG-MIC-001", "SH2024010", "MIC-HF")));
+        scanLookupService.reload();
+    }
+
+    @Test
+    void lookup_LowerCaseWithSpaces_ShouldMatchQrCode() {
+        // Act
+        ScanLookupService.ScanResult result = scanLookupService.lookup("  mag-mic-001 \t");
+
+        // Assert
+        assertThat(result.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.QR_CODE);
+        assertThat(result.equipment().id()).isEqualTo(30L);
+        assertThat(result.code()).isEqualTo("  mag-mic-001 \t");
+    }
+
+    @Test
+    void lookup_SerialNumberOrReference_ShouldReportMatchedKey() {
+        // Act
+        ScanLookupService.ScanResult bySerial = scanLookupService.lookup("mv2024002");
+        ScanLookupService.ScanResult byReference = scanLookupService.lookup("mic-hf");
+
+        // Assert
+        assertThat(bySerial.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.SERIAL_NUMBER);
+        assertThat(bySerial.equipment().id()).isEqualTo(20L);
+        assertThat(byReference.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.INTERNAL_REFERENCE);
+        assertThat(byReference.equipment().id()).isEqualTo(30L);
+    }
+
+    @Test
+    void lookup_JsonPayloadWithKnownId_ShouldMatchById() {
+        // Act
+        ScanLookupService.ScanResult result = scanLookupService.lookup(
+                "{\"type\":\"equipment\",\"id\":20,\"serialNumber\":\"AUTRE\",\"internalRef\":\"MIC-HF\"}");
+
+        // Assert
+        assertThat(result.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.ID);
+        assertThat(result.equipment().id()).isEqualTo(20L);
+    }
+
+    @Test
+    void lookup_JsonPayloadWithUnknownId_ShouldFallBackToSerialThenReference() {
+        // Act - équipement recréé : l'id du QR code imprimé n'existe plus
+        ScanLookupService.ScanResult bySerial = scanLookupService.lookup(
+                "{\"type\":\"equipment\",\"id\":999,\"serialNumber\":\" sh2024010 \",\"internalRef\":\"LYR-230\"}");
+        ScanLookupService.ScanResult byReference = scanLookupService.lookup(
+                "{\"type\":\"equipment\",\"id\":999,\"internalRef\":\"lyr-230\"}");
+
+        // Assert
+        assertThat(bySerial.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.SERIAL_NUMBER);
+        assertThat(bySerial.equipment().id()).isEqualTo(30L);
+        assertThat(byReference.matchedBy()).isEqualTo(ScanLookupService.MatchedBy.INTERNAL_REFERENCE);
+        assertThat(byReference.equipment().id()).isEqualTo(10L);
+    }
+
+    @Test
+    void lookup_JsonPayloadDoesNotMatchQrCodeKey() {
+        // Act - le payload JSON ne porte pas d'UID : seul l'id et les identifiants métier comptent
+        ScanLookupService.ScanResult result = scanLookupService.lookup("{\"id\":999,\"qrCode\":\"MAG-MIC-001\"}");
+
+        // Assert
+        assertThat(result.matchedBy()).isNull();
+        assertThat(result.equipment()).isNull();
+    }
+
+    @Test
+    void lookup_SharedReference_ShouldReturnLowestId() {
+        // Act
+        ScanLookupService.ScanResult result = scanLookupService.lookup("LYR-230");
+
+        // Assert
+        assertThat(result.equipment().id()).isEqualTo(10L);
+    }
+
+    @Test
+    void remove_LowestIdSharingReference_ShouldHandReferenceOver() {
+        // Act
+        scanLookupService.remove(10L);
+
+        // Assert
+        assertThat(scanLookupService.lookup("LYR-230").equipment().id()).isEqualTo(20L);
+        assertThat(scanLookupService.lookup("MAG-LYR-001").equipment()).isNull();
+        assertThat(scanLookupService.lookup("MV2024001").equipment()).isNull();
+    }
+
+    @Test
+    void remove_LastEquipmentWithReference_ShouldForgetReference() {
+        // Act
+        scanLookupService.remove(10L);
+        scanLookupService.remove(20L);
+
+        // Assert
+        assertThat(scanLookupService.lookup("LYR-230").equipment()).isNull();
+    }
+
+    @Test
+    void index_ChangedCodes_ShouldReplaceOldKeys() {
+        // Arrange
+        Equipment updated = equipment(30L, "Micro-cravate", "MAG-MIC-002", "SH2024011", "MIC-HF2");
+
+        // Act
+        scanLookupService.index(updated);
+
+        // Assert
+        assertThat(scanLookupService.lookup("MAG-MIC-001").equipment()).isNull();
+        assertThat(scanLookupService.lookup("SH2024010").equipment()).isNull();
+        assertThat(scanLookupService.lookup("MIC-HF").equipment()).isNull();
+        assertThat(scanLookupService.lookup("mag-mic-002").equipment().id()).isEqualTo(30L);
+        assertThat(scanLookupService.lookup("MIC-HF2").equipment().status()).isEqualTo("AVAILABLE");
+    }
+
+    @Test
+    void index_NewEquipmentWithLowerIdOnSharedReference_ShouldTakeReferenceOver() {
+        // Act
+        scanLookupService.index(equipment(5L, "Lyre Beam 230W", "MAG-LYR-000", null, "LYR-230"));
+
+        // Assert
+        assertThat(scanLookupService.lookup("LYR-230").equipment().id()).isEqualTo(5L);
+    }
+
+    @Test
+    void lookupAll_MixedCodes_ShouldKeepOrderAndDuplicates() {
+        // Act
+        List<ScanLookupService.ScanResult> results = scanLookupService.lookupAll(
+                List.of("MAG-LYR-001", "inconnu", "mv2024001", "", "MAG-MIC-001"));
+
+        // Assert
+        assertThat(results).extracting(ScanLookupService.ScanResult::code)
+                .containsExactly("MAG-LYR-001", "inconnu", "mv2024001", "", "MAG-MIC-001");
+        assertThat(results).extracting(result -> result.equipment() != null ? result.equipment().id() : null)
+                .containsExactly(10L, null, 10L, null, 30L);
+    }
+
+    private static Object[] row(Long id, String name, String qrCode, String serialNumber, String reference) {
+        return new Object[] { id, name, qrCode, serialNumber, reference, "Projecteur motorisé", "Martin", "MAC",
+                Equipment.Status.AVAILABLE, "Entrepôt" };
+    }
+
+    private static Equipment equipment(Long id, String name, String qrCode, String serialNumber,
+            String reference) {
+        Equipment equipment = new Equipment();
+        equipment.setId(id);
+        equipment.setName(name);
+        equipment.setQrCode(qrCode);
+        equipment.setSerialNumber(serialNumber);
+        equipment.setInternalReference(reference);
+        equipment.setStatus(Equipment.Status.AVAILABLE);
+        return equipment;
+    }
+}
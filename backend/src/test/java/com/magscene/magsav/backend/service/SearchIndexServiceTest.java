@@ -0,0 +1,234 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Equipment;
+import com.magscene.magsav.backend.entity.ServiceRequest;
+import com.magscene.magsav.backend.repository.CatalogItemRepository;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.ServiceRequestRepository;
+import com.magsav.entities.CatalogItem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour SearchIndexService (index en mémoire)
+ */
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private CatalogItemRepository catalogItemRepository;
+
+    @Mock
+    private ServiceRequestRepository serviceRequestRepository;
+
+    private SearchIndexService searchIndexService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        searchIndexService = new SearchIndexService();
+        ReflectionTestUtils.setField(searchIndexService, "equipmentRepository", equipmentRepository);
+        ReflectionTestUtils.setField(searchIndexService, "catalogItemRepository", catalogItemRepository);
+        ReflectionTestUtils.setField(searchIndexService, "serviceRequestRepository", serviceRequestRepository);
+        ReflectionTestUtils.setField(searchIndexService, "executor", (Executor) Runnable::run);
+        searchIndexService.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchIndexService.close();
+    }
+
+    @Test
+    void markChanged_EquipmentRenamed_ShouldReindexItsServiceRequests() {
+        // Arrange - demande SAV indexée avec l'ancien nom de l'équipement
+        Equipment equipment = new Equipment();
+        equipment.setId(1L);
+        equipment.setName("Lyre Beam 230");
+        ServiceRequest request = new ServiceRequest("Moteur pan bruyant", ServiceRequest.ServiceRequestType.REPAIR,
+                equipment);
+        request.setId(5L);
+        when(serviceRequestRepository.findAllWithEquipmentByIdIn(anyCollection())).thenReturn(List.of(request));
+        searchIndexService.markChanged(SearchIndexService.TYPE_SAV, 5L);
+
+        // Act - l'équipement est renommé
+        equipment.setName("Robe Pointe");
+        when(equipmentRepository.findAllById(anyCollection())).thenReturn(List.of(equipment));
+        when(serviceRequestRepository.findIdsByEquipmentIdIn(anyCollection())).thenReturn(List.of(5L));
+        searchIndexService.markChanged(SearchIndexService.TYPE_EQUIPMENT, 1L);
+
+        // Assert
+        assertThat(searchIndexService.search("pointe", List.of(SearchIndexService.TYPE_SAV), 10).hits())
+                .extracting(SearchIndexService.SearchHit::id).containsExactly(5L);
+        assertThat(searchIndexService.search("lyre", List.of(SearchIndexService.TYPE_SAV), 10).hits()).isEmpty();
+    }
+
+    @Test
+    void search_AccentsCaseAndElision_ShouldBeIgnored() {
+        // Arrange
+        seed(List.of(equipment(1L, "Éclairage scène", null, "Projecteur pour l'éclairage d'ambiance")),
+                List.of(), List.of());
+
+        // Act / Assert
+        assertThat(ids(searchIndexService.search("ECLAIRAGE SCENE", List.of(), 10))).containsExactly(1L);
+        assertThat(ids(searchIndexService.search("ambiance", List.of(), 10))).containsExactly(1L);
+        assertThat(ids(searchIndexService.search("l'Éclairage", List.of(), 10))).containsExactly(1L);
+    }
+
+    @Test
+    void search_PrefixAndTypo_ShouldMatch() {
+        // Arrange
+        seed(List.of(equipment(1L, "Projecteur LED RGBW", null, null), equipment(2L, "Console lumière", null, null)),
+                List.of(), List.of());
+
+        // Act / Assert - saisie en cours puis faute de frappe
+        assertThat(ids(searchIndexService.search("proj", List.of(), 10))).containsExactly(1L);
+        assertThat(ids(searchIndexService.search("projecteru", List.of(), 10))).containsExactly(1L);
+        assertThat(ids(searchIndexService.search("consle", List.of(), 10))).containsExactly(2L);
+        assertThat(searchIndexService.search("xyz", List.of(), 10).hits()).isEmpty();
+    }
+
+    @Test
+    void search_EveryWordMustMatch() {
+        // Arrange
+        seed(List.of(equipment(1L, "Projecteur LED", null, null), equipment(2L, "Projecteur halogène", null, null)),
+                List.of(), List.of());
+
+        // Act / Assert
+        assertThat(ids(searchIndexService.search("projecteur led", List.of(), 10))).containsExactly(1L);
+    }
+
+    @Test
+    void search_AcrossTypes_ShouldRankTitleAboveBodyMentions() {
+        // Arrange - "pointe" dans le nom d'un article, dans la description d'un équipement et d'une SAV
+        CatalogItem withTitle = new CatalogItem(null, "RB-100", "Robe Pointe");
+        withTitle.setId(2L);
+        ServiceRequest withBody = request(3L, "Moteur pan bruyant", "Lyre pointe : bruit au démarrage");
+        seed(List.of(equipment(1L, "Lyre spot", null, "Remplace une pointe")), List.of(withTitle),
+                List.of(withBody));
+
+        // Act
+        List<SearchIndexService.SearchHit> hits = searchIndexService.search("pointe", List.of(), 10).hits();
+
+        // Assert
+        assertThat(hits).extracting(SearchIndexService.SearchHit::type).hasSize(3)
+                .first().isEqualTo(SearchIndexService.TYPE_CATALOG);
+        assertThat(ids(searchIndexService.search("pointe", List.of(SearchIndexService.TYPE_SAV), 10)))
+                .containsExactly(3L);
+    }
+
+    @Test
+    void search_ScannedCode_ShouldRankEquipmentAboveMentions() {
+        // Arrange - n° de série d'un équipement, recopié dans la description d'une SAV
+        Equipment equipment = equipment(1L, "Lyre spot", null, null);
+        equipment.setSerialNumber("RP2024001");
+        ServiceRequest mention = request(3L, "Retour client", "Échange standard de RP2024001");
+        seed(List.of(equipment), List.of(), List.of(mention));
+
+        // Act
+        List<SearchIndexService.SearchHit> hits = searchIndexService.search("rp2024001", List.of(), 10).hits();
+
+        // Assert
+        assertThat(hits).extracting(SearchIndexService.SearchHit::type)
+                .containsExactly(SearchIndexService.TYPE_EQUIPMENT, SearchIndexService.TYPE_SAV);
+    }
+
+    @Test
+    void markDeleted_IndexedEquipment_ShouldNoLongerBeFound() {
+        // Arrange
+        seed(List.of(equipment(1L, "Projecteur LED", null, null), equipment(2L, "Projecteur halogène", null, null)),
+                List.of(), List.of());
+
+        // Act
+        searchIndexService.markDeleted(SearchIndexService.TYPE_EQUIPMENT, 1L);
+
+        // Assert
+        assertThat(ids(searchIndexService.search("projecteur", List.of(), 10))).containsExactly(2L);
+    }
+
+    @Test
+    void markChanged_EquipmentGoneFromDatabase_ShouldRemoveDocument() {
+        // Arrange
+        seed(List.of(equipment(1L, "Projecteur LED", null, null)), List.of(), List.of());
+        when(equipmentRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        // Act - modification vue après commit, mais la ligne a été supprimée depuis
+        searchIndexService.markChanged(SearchIndexService.TYPE_EQUIPMENT, 1L);
+
+        // Assert
+        assertThat(searchIndexService.search("projecteur", List.of(), 10).hits()).isEmpty();
+    }
+
+    @Test
+    void synchronizeOnStartup_CountMismatch_ShouldRebuildOnlyThatType() {
+        // Arrange - index à jour pour les équipements, SAV ajoutées par script SQL
+        seed(List.of(equipment(1L, "Projecteur LED", null, null)), List.of(), List.of());
+        ServiceRequest request = request(5L, "Moteur pan bruyant", null);
+        when(serviceRequestRepository.findAllIds()).thenReturn(List.of(5L));
+        when(serviceRequestRepository.findAllWithEquipmentByIdIn(anyCollection())).thenReturn(List.of(request));
+        clearInvocations(equipmentRepository);
+
+        // Act
+        searchIndexService.synchronizeOnStartup();
+
+        // Assert
+        verify(equipmentRepository, never()).findAllById(anyCollection());
+        assertThat(ids(searchIndexService.search("moteur", List.of(), 10))).containsExactly(5L);
+        assertThat(ids(searchIndexService.search("projecteur", List.of(), 10))).containsExactly(1L);
+        assertThat(searchIndexService.isRebuilding()).isFalse();
+    }
+
+    private void seed(List<Equipment> equipment, List<CatalogItem> items, List<ServiceRequest> requests) {
+        if (!equipment.isEmpty()) {
+            when(equipmentRepository.findAllIds()).thenReturn(equipment.stream().map(Equipment::getId).toList());
+            when(equipmentRepository.findAllById(anyCollection())).thenReturn(equipment);
+        }
+        if (!items.isEmpty()) {
+            when(catalogItemRepository.findAllIds()).thenReturn(items.stream().map(CatalogItem::getId).toList());
+            when(catalogItemRepository.findAllById(anyCollection())).thenReturn(items);
+        }
+        if (!requests.isEmpty()) {
+            when(serviceRequestRepository.findAllIds())
+                    .thenReturn(requests.stream().map(ServiceRequest::getId).toList());
+            when(serviceRequestRepository.findAllWithEquipmentByIdIn(anyCollection())).thenReturn(requests);
+        }
+        searchIndexService.rebuild(true);
+    }
+
+    private static Equipment equipment(Long id, String name, String qrCode, String description) {
+        Equipment equipment = new Equipment();
+        equipment.setId(id);
+        equipment.setName(name);
+        equipment.setQrCode(qrCode);
+        equipment.setDescription(description);
+        return equipment;
+    }
+
+    private static ServiceRequest request(Long id, String title, String description) {
+        ServiceRequest request = new ServiceRequest(title, ServiceRequest.ServiceRequestType.REPAIR, null);
+        request.setId(id);
+        request.setDescription(description);
+        return request;
+    }
+
+    private static List<Long> ids(SearchIndexService.SearchResult result) {
+        return result.hits().stream().map(SearchIndexService.SearchHit::id).toList();
+    }
+}
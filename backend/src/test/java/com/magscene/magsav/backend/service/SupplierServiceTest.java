@@ -0,0 +1,101 @@
+package com.magscene.magsav.backend.service;
+
+import com.magsav.entities.Supplier;
+import com.magsav.entities.SupplierCatalog;
+import com.magsav.enums.ImportStatus;
+import com.magscene.magsav.backend.repository.SupplierCatalogRepository;
+import com.magscene.magsav.backend.repository.SupplierRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests d'intégration pour SupplierService (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(SupplierService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SupplierServiceTest {
+
+    @Autowired
+    private SupplierService supplierService;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private SupplierCatalogRepository catalogRepository;
+
+    @MockitoBean
+    private CatalogImportService catalogImportService;
+
+    @MockitoBean
+    private CatalogQueryIndex catalogQueryIndex;
+
+    @AfterEach
+    void tearDown() {
+        catalogRepository.deleteAll();
+        supplierRepository.deleteAll();
+    }
+
+    @Test
+    void importCatalog_ConcurrentUploadsOfSameCatalog_ShouldStartOneImport() throws Exception {
+        // Arrange - catalogue déjà importé ; le premier dépôt garde sa transaction ouverte un moment
+        Supplier supplier = supplierRepository.save(new Supplier("Fournisseur Test"));
+        SupplierCatalog existing = new SupplierCatalog(supplier, "Tarif 2026");
+        existing.setImportStatus(ImportStatus.COMPLETED);
+        catalogRepository.save(existing);
+        doAnswer(invocation -> {
+            Thread.sleep(300);
+            return null;
+        }).when(catalogImportService).submit(anyLong(), any(), anyString());
+
+        MockMultipartFile file = new MockMultipartFile("file", "tarif.csv", "text/csv",
+                "Référence;Désignation\nA1;Câble\n".getBytes(StandardCharsets.UTF_8));
+        Callable<SupplierCatalog> upload = () -> supplierService.importCatalog(supplier.getId(), "Tarif 2026", file);
+
+        // Act
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Future<SupplierCatalog>> futures = List.of(pool.submit(upload), pool.submit(upload));
+        List<Throwable> failures = new ArrayList<>();
+        int succeeded = 0;
+        for (Future<SupplierCatalog> future : futures) {
+            try {
+                future.get();
+                succeeded++;
+            } catch (Exception e) {
+                failures.add(e.getCause());
+            }
+        }
+        pool.shutdown();
+
+        // Assert
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(failures).singleElement().isInstanceOf(IllegalStateException.class);
+        verify(catalogImportService, times(1)).submit(anyLong(), any(), anyString());
+        assertThat(catalogRepository.findAll()).singleElement()
+                .extracting(SupplierCatalog::getImportStatus).isEqualTo(ImportStatus.PENDING);
+    }
+}
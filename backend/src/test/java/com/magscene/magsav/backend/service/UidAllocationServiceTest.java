@@ -0,0 +1,80 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.UidSequence;
+import com.magscene.magsav.backend.repository.EquipmentRepository;
+import com.magscene.magsav.backend.repository.UidSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests unitaires pour UidAllocationService
+ */
+@ExtendWith(MockitoExtension.class)
+class UidAllocationServiceTest {
+
+    @Mock
+    private UidSequenceRepository uidSequenceRepository;
+
+    @Mock
+    private EquipmentRepository equipmentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UidAllocationService uidAllocationService;
+
+    @BeforeEach
+    void setUp() {
+        uidAllocationService.init();
+        when(uidSequenceRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void nextUid_NewPrefix_ShouldContinueAfterLargestExistingUid() {
+        // Arrange
+        when(uidSequenceRepository.findByPrefixForUpdate("SON")).thenReturn(Optional.empty());
+        when(equipmentRepository.findMaxUidNumberByPrefix("SON")).thenReturn(41);
+
+        // Act
+        String first = uidAllocationService.nextUid("SON");
+        String second = uidAllocationService.nextUid("SON");
+
+        // Assert
+        assertThat(first).isEqualTo("SON0042");
+        assertThat(second).isEqualTo("SON0043");
+    }
+
+    @Test
+    void nextUid_LastNumbers_ShouldStopAt9999InsteadOfOverflowing() {
+        // Arrange - compteur presque épuisé : le bloc réservé ne dépasse pas 9999
+        UidSequence sequence = new UidSequence("LUM", 9998L);
+        when(uidSequenceRepository.findByPrefixForUpdate("LUM")).thenReturn(Optional.of(sequence));
+
+        // Act
+        String beforeLast = uidAllocationService.nextUid("LUM");
+        String last = uidAllocationService.nextUid("LUM");
+
+        // Assert
+        assertThat(beforeLast).isEqualTo("LUM9998");
+        assertThat(last).isEqualTo("LUM9999");
+        assertThat(sequence.getNextValue()).isEqualTo(10000L);
+        assertThatThrownBy(() -> uidAllocationService.nextUid("LUM"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("LUM");
+        verify(uidSequenceRepository).saveAndFlush(sequence);
+    }
+}
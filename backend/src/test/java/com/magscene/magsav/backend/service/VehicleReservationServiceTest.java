@@ -0,0 +1,112 @@
+package com.magscene.magsav.backend.service;
+
+import com.magscene.magsav.backend.entity.Vehicle;
+import com.magscene.magsav.backend.entity.VehicleReservation;
+import com.magscene.magsav.backend.exception.MagsavBusinessException;
+import com.magscene.magsav.backend.repository.VehicleRepository;
+import com.magscene.magsav.backend.repository.VehicleReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests d'intégration pour VehicleReservationService (base H2 en mémoire, transactions réelles)
+ */
+@DataJpaTest(properties = "spring.sql.init.mode=never")
+@Import(VehicleReservationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VehicleReservationServiceTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2030, 3, 4, 8, 0);
+
+    @Autowired
+    private VehicleReservationService reservationService;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private VehicleReservationRepository reservationRepository;
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        vehicleRepository.deleteAll();
+    }
+
+    @Test
+    void reserve_ConcurrentOverlappingRequests_ShouldAcceptExactlyOne() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // Plusieurs tours pour multiplier les entrelacements possibles
+            for (int round = 0; round < 10; round++) {
+                // Arrange - deux demandes qui se recoupent d'une heure, lancées ensemble
+                Long vehicleId = vehicleRepository.save(new Vehicle("Fourgon " + round, "Renault", "Master")).getId();
+                CyclicBarrier start = new CyclicBarrier(2);
+                Callable<VehicleReservation> first = () -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return reservationService.reserve(vehicleId, MONDAY, MONDAY.plusHours(4), "Équipe A", "Concert");
+                };
+                Callable<VehicleReservation> second = () -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return reservationService.reserve(vehicleId, MONDAY.plusHours(3), MONDAY.plusHours(6), "Équipe B",
+                            "Salon");
+                };
+
+                // Act
+                List<Future<VehicleReservation>> futures = List.of(pool.submit(first), pool.submit(second));
+                int succeeded = 0;
+                List<Throwable> failures = new ArrayList<>();
+                for (Future<VehicleReservation> future : futures) {
+                    try {
+                        future.get(30, TimeUnit.SECONDS);
+                        succeeded++;
+                    } catch (Exception e) {
+                        failures.add(e.getCause());
+                    }
+                }
+
+                // Assert
+                assertThat(succeeded).isEqualTo(1);
+                assertThat(failures).singleElement().isInstanceOf(MagsavBusinessException.class);
+                assertThat(reservationService.findOverlapping(vehicleId, MONDAY, MONDAY.plusDays(1))).hasSize(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void cancel_ShouldFreeThePeriodForANewReservation() {
+        // Arrange
+        Long vehicleId = vehicleRepository.save(new Vehicle("Porteur 20m3", "Iveco", "Daily")).getId();
+        VehicleReservation reservation = reservationService.reserve(vehicleId, MONDAY, MONDAY.plusHours(4), "Équipe A",
+                "Concert");
+
+        // Act
+        VehicleReservation cancelled = reservationService.cancel(vehicleId, reservation.getId());
+        VehicleReservation replacement = reservationService.reserve(vehicleId, MONDAY.plusHours(1),
+                MONDAY.plusHours(2), "Équipe B", "Salon");
+
+        // Assert
+        assertThat(cancelled.getStatus()).isEqualTo(VehicleReservation.ReservationStatus.CANCELLED);
+        assertThat(reservationService.findOverlapping(vehicleId, MONDAY, MONDAY.plusDays(1)))
+                .extracting(VehicleReservation::getId).containsExactly(replacement.getId());
+    }
+}
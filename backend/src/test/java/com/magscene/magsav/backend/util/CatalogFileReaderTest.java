@@ -0,0 +1,93 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour CatalogFileReader
+ */
+class CatalogFileReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void read_Csv_ShouldDetectSemicolonAndWindows1252() throws Exception {
+        // Arrange - export Excel français
+        Path file = tempDir.resolve("catalogue.csv");
+        Files.writeString(file, "Référence;Désignation;Prix HT\nAB-1;Câble XLR 5m;12,50\n;;\nAB-2;\"Pied; micro\";8\n",
+                Charset.forName("windows-1252"));
+
+        // Act
+        List<Map<String, String>> records = readAll(file, CatalogFileReader.Format.CSV);
+
+        // Assert
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0)).containsEntry("reference", "AB-1")
+                .containsEntry("designation", "Câble XLR 5m")
+                .containsEntry("prixht", "12,50");
+        assertThat(records.get(1)).containsEntry("designation", "Pied; micro");
+    }
+
+    @Test
+    void read_Json_ShouldFlattenNestedObjectsOfFirstArray() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("catalogue.json");
+        Files.writeString(file, "{\"fournisseur\": \"X\", \"articles\": ["
+                + "{\"ref\": \"J1\", \"prix\": {\"ht\": 10.5}, \"tags\": [\"son\", \"xlr\"], \"stock\": null},"
+                + "{\"ref\": \"J2\", \"nom\": \"Enceinte\"}]}", StandardCharsets.UTF_8);
+
+        // Act
+        List<Map<String, String>> records = readAll(file, CatalogFileReader.Format.JSON);
+
+        // Assert
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0)).containsEntry("ref", "J1")
+                .containsEntry("prixht", "10.5")
+                .containsEntry("tags", "son, xlr")
+                .doesNotContainKey("stock");
+        assertThat(records.get(1)).containsEntry("nom", "Enceinte");
+    }
+
+    @Test
+    void read_Xml_ShouldUseLeafOnlyElementsAsRecords() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("catalogue.xml");
+        Files.writeString(file, "<?xml version=\"1.0\"?><catalogue><entete><date>2026</date></entete>"
+                + "<articles><article code=\"X1\"><libelle>Lyre</libelle><prix devise=\"EUR\">99</prix></article>"
+                + "<article code=\"X2\"><libelle><![CDATA[Console & câbles]]></libelle></article></articles>"
+                + "</catalogue>", StandardCharsets.UTF_8);
+
+        // Act
+        List<Map<String, String>> records = readAll(file, CatalogFileReader.Format.XML);
+
+        // Assert - le bloc d'en-tête isolé n'est pas un article
+        assertThat(records).extracting(r -> r.get("code")).containsExactly("X1", "X2");
+        assertThat(records.get(0)).containsEntry("libelle", "Lyre")
+                .containsEntry("prix", "99")
+                .containsEntry("prixdevise", "EUR");
+        assertThat(records.get(1)).containsEntry("libelle", "Console & câbles");
+    }
+
+    @Test
+    void normalizeKey_ShouldStripAccentsAndPunctuation() {
+        assertThat(CatalogFileReader.normalizeKey("Prix unitaire H.T. (€)")).isEqualTo("prixunitaireht");
+        assertThat(CatalogFileReader.normalizeKey("Délai_Livraison")).isEqualTo("delailivraison");
+    }
+
+    private static List<Map<String, String>> readAll(Path file, CatalogFileReader.Format format) throws Exception {
+        List<Map<String, String>> records = new ArrayList<>();
+        CatalogFileReader.read(file, format, (recordNumber, fields) -> records.add(fields));
+        return records;
+    }
+}
@@ -0,0 +1,151 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour CommonSlotFinder
+ */
+class CommonSlotFinderTest {
+
+    @Test
+    void find_ShouldReturnEarliestNonOverlappingCommonWindows() {
+        // Arrange - A libre [0,100[ et [200,400[, B libre [50,300[
+        CommonSlotFinder finder = new CommonSlotFinder();
+        int a = finder.addResource(new long[] { 0, 100, 200, 400 });
+        int b = finder.addResource(new long[] { 50, 300 });
+        finder.addRole(new int[] { a });
+        finder.addRole(new int[] { b });
+
+        // Act
+        List<CommonSlotFinder.Slot> slots = finder.find(0, 1000, 50, 3);
+
+        // Assert
+        assertThat(slots).extracting(CommonSlotFinder.Slot::start).containsExactly(50L, 200L, 250L);
+        assertThat(slots.get(0).assignment()).containsExactly(a, b);
+    }
+
+    @Test
+    void find_ShouldReassignSharedCandidateToTheOnlyRoleItCanHold() {
+        // Arrange - A seul a la spécialité du premier poste, mais est aussi candidat au second
+        CommonSlotFinder finder = new CommonSlotFinder();
+        int a = finder.addResource(new long[] { 0, 100 });
+        int b = finder.addResource(new long[] { 0, 100 });
+        int c = finder.addResource(new long[] { 0, 100 });
+        finder.addRole(new int[] { a, b });
+        finder.addRole(new int[] { a });
+
+        // Act
+        List<CommonSlotFinder.Slot> slots = finder.find(0, 100, 100, 1);
+
+        // Assert - c n'est candidat à aucun poste : pas de marge
+        assertThat(slots).hasSize(1);
+        assertThat(slots.get(0).assignment()).containsExactly(b, a);
+        assertThat(slots.get(0).spare()).isZero();
+    }
+
+    @Test
+    void find_ShouldReturnNothingWhenRolesOutnumberCandidates() {
+        // Arrange
+        CommonSlotFinder finder = new CommonSlotFinder();
+        int a = finder.addResource(new long[] { 0, 100 });
+        finder.addRole(new int[] { a });
+        finder.addRole(new int[] { a });
+
+        // Act & Assert
+        assertThat(finder.find(0, 100, 10, 5)).isEmpty();
+    }
+
+    @Test
+    void find_ShouldMatchBruteForceOnRandomSchedules() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            // Arrange - 6 ressources, 3 postes aux candidats aléatoires
+            int resources = 6;
+            List<long[]> free = new ArrayList<>();
+            CommonSlotFinder finder = new CommonSlotFinder();
+            for (int r = 0; r < resources; r++) {
+                List<Long> bounds = new ArrayList<>();
+                long t = random.nextInt(20);
+                while (t < 300) {
+                    long end = t + 1 + random.nextInt(60);
+                    bounds.add(t);
+                    bounds.add(end);
+                    t = end + 1 + random.nextInt(40);
+                }
+                long[] intervals = bounds.stream().mapToLong(Long::longValue).toArray();
+                free.add(intervals);
+                finder.addResource(intervals);
+            }
+            List<int[]> roles = new ArrayList<>();
+            for (int role = 0; role < 3; role++) {
+                int[] candidates = random.ints(0, resources).distinct().limit(1 + random.nextInt(4)).toArray();
+                roles.add(candidates);
+                finder.addRole(candidates);
+            }
+            long duration = 1 + random.nextInt(30);
+
+            // Act
+            List<CommonSlotFinder.Slot> slots = finder.find(0, 350, duration, 4);
+
+            // Assert - même résultat qu'un test à chaque instant, équipe valide
+            assertThat(slots).extracting(CommonSlotFinder.Slot::start)
+                    .containsExactlyElementsOf(bruteForce(free, roles, 0, 350, duration, 4));
+            for (CommonSlotFinder.Slot slot : slots) {
+                int[] team = slot.assignment();
+                assertThat(Arrays.stream(team).distinct().count()).isEqualTo(team.length);
+                for (int role = 0; role < team.length; role++) {
+                    assertThat(roles.get(role)).contains(team[role]);
+                    assertThat(isFree(free.get(team[role]), slot.start(), slot.end())).isTrue();
+                }
+            }
+        }
+    }
+
+    private static List<Long> bruteForce(List<long[]> free, List<int[]> roles, long from, long to, long duration,
+            int limit) {
+        List<Long> starts = new ArrayList<>();
+        long t = from;
+        while (t + duration <= to && starts.size() < limit) {
+            if (assign(free, roles, 0, new boolean[free.size()], t, t + duration)) {
+                starts.add(t);
+                t += duration;
+            } else {
+                t++;
+            }
+        }
+        return starts;
+    }
+
+    private static boolean assign(List<long[]> free, List<int[]> roles, int role, boolean[] used, long start,
+            long end) {
+        if (role == roles.size()) {
+            return true;
+        }
+        for (int candidate : roles.get(role)) {
+            if (!used[candidate] && isFree(free.get(candidate), start, end)) {
+                used[candidate] = true;
+                if (assign(free, roles, role + 1, used, start, end)) {
+                    return true;
+                }
+                used[candidate] = false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFree(long[] intervals, long start, long end) {
+        for (int i = 0; i + 1 < intervals.length; i += 2) {
+            if (intervals[i] <= start && end <= intervals[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
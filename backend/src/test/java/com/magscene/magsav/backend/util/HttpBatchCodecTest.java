@@ -0,0 +1,58 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour HttpBatchCodec
+ */
+class HttpBatchCodecTest {
+
+    @Test
+    void encode_ShouldRoundTripPartsWithAndWithoutBody() {
+        // Arrange
+        List<HttpBatchCodec.Part> parts = List.of(
+                new HttpBatchCodec.Part("event-0", "POST", "/calendar/v3/calendars/primary/events", "{\"summary\":\"A\"}"),
+                new HttpBatchCodec.Part("event-1", "DELETE", "/calendar/v3/calendars/primary/events/x1", null));
+
+        // Act
+        String body = HttpBatchCodec.encode("b0", parts);
+        List<HttpBatchCodec.Part> decoded = HttpBatchCodec.decodeRequest(HttpBatchCodec.contentType("b0"), body);
+
+        // Assert
+        assertThat(body).contains("Content-ID: <event-0>\r\n").endsWith("--b0--\r\n");
+        assertThat(decoded).containsExactlyElementsOf(parts);
+    }
+
+    @Test
+    void decodeResponse_GoogleFormat_ShouldStripResponsePrefixAndReadStatus() {
+        // Arrange - réponse telle que renvoyée par Google (boundary entre guillemets, en-têtes variés)
+        String body = "--batch_abc\r\n"
+                + "Content-Type: application/http\r\n"
+                + "Content-ID: <response-event-0>\r\n\r\n"
+                + "HTTP/1.1 200 OK\r\n"
+                + "Content-Type: application/json; charset=UTF-8\r\n"
+                + "ETag: \"3298\"\r\n\r\n"
+                + "{\"id\": \"g1\"}\r\n"
+                + "--batch_abc\r\n"
+                + "Content-Type: application/http\r\n"
+                + "Content-ID: <response-event-1>\r\n\r\n"
+                + "HTTP/1.1 429 Too Many Requests\r\n"
+                + "Retry-After: 2\r\n\r\n"
+                + "{\"error\": {\"code\": 429}}\r\n"
+                + "--batch_abc--\r\n";
+
+        // Act
+        List<HttpBatchCodec.PartResponse> responses = HttpBatchCodec.decodeResponse(
+                "multipart/mixed; boundary=\"batch_abc\"", body);
+
+        // Assert
+        assertThat(responses).extracting(HttpBatchCodec.PartResponse::contentId).containsExactly("event-0", "event-1");
+        assertThat(responses).extracting(HttpBatchCodec.PartResponse::status).containsExactly(200, 429);
+        assertThat(responses.get(0).body()).isEqualTo("{\"id\": \"g1\"}");
+        assertThat(responses.get(1).headers()).containsEntry("retry-after", "2");
+    }
+}
@@ -0,0 +1,99 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour IntervalTree
+ */
+class IntervalTreeTest {
+
+    @Test
+    void overlapping_ShouldReturnNonAdjacentOverlapsSortedByStart() {
+        // Arrange - [0,100[ chevauche [50,60[ et [70,80[, qui ne se suivent pas dans l'ordre des débuts
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(70, 80, 3, "c");
+        tree.insert(0, 100, 1, "a");
+        tree.insert(50, 60, 2, "b");
+        tree.insert(100, 110, 4, "d");
+
+        // Act
+        List<IntervalTree.Entry<String>> result = tree.overlapping(75, 105);
+
+        // Assert - bornes de fin exclues : [0,100[ chevauche, [50,60[ non
+        assertThat(result).extracting(IntervalTree.Entry::value).containsExactly("a", "c", "d");
+    }
+
+    @Test
+    void isFree_ShouldIgnoreIntervalsTouchingTheBounds() {
+        // Arrange
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+        tree.insert(30, 40, 2, "b");
+
+        // Act & Assert
+        assertThat(tree.isFree(20, 30)).isTrue();
+        assertThat(tree.isFree(19, 30)).isFalse();
+        assertThat(tree.isFree(20, 31)).isFalse();
+        assertThat(tree.isFree(0, 10)).isTrue();
+    }
+
+    @Test
+    void remove_ShouldOnlyRemoveMatchingInterval() {
+        // Arrange - mêmes bornes, ids différents
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+        tree.insert(10, 20, 2, "b");
+
+        // Act
+        boolean removed = tree.remove(10, 20, 1);
+        boolean removedTwice = tree.remove(10, 20, 1);
+
+        // Assert
+        assertThat(removed).isTrue();
+        assertThat(removedTwice).isFalse();
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.entries()).extracting(IntervalTree.Entry::value).containsExactly("b");
+    }
+
+    @Test
+    void overlappingAndIsFree_ShouldMatchBruteForceAfterRandomUpdates() {
+        // Arrange
+        Random random = new Random(42);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(500);
+            tree.insert(start, end, i, i);
+            intervals.add(new long[] { start, end, i });
+        }
+        for (int i = 0; i < 700; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed[0], removed[1], removed[2]);
+        }
+
+        // Act & Assert
+        assertThat(tree.size()).isEqualTo(intervals.size());
+        for (int i = 0; i < 300; i++) {
+            long from = random.nextInt(100_000);
+            long to = from + 1 + random.nextInt(1000);
+            List<Long> expected = intervals.stream()
+                    .filter(interval -> interval[0] < to && interval[1] > from)
+                    .map(interval -> interval[2])
+                    .sorted()
+                    .toList();
+            List<Long> actual = tree.overlapping(from, to).stream()
+                    .map(IntervalTree.Entry::id)
+                    .sorted()
+                    .toList();
+            assertThat(actual).isEqualTo(expected);
+            assertThat(tree.isFree(from, to)).isEqualTo(expected.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.magscene.magsav.backend.util;
+
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.ByteMatrix;
+import com.google.zxing.qrcode.encoder.Encoder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires pour LabelSheetPdfWriter
+ */
+class LabelSheetPdfWriterTest {
+
+    @Test
+    void addLabel_25LabelsOn3x8_ShouldWriteTwoPagesWithValidXref() throws Exception {
+        // Arrange
+        ByteMatrix qr = Encoder.encode("{\"type\":\"equipment\",\"id\":1}", ErrorCorrectionLevel.M).getMatrix();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        try (LabelSheetPdfWriter writer = new LabelSheetPdfWriter(out, LabelSheetPdfWriter.Layout.A4_3X8)) {
+            for (int i = 0; i < 25; i++) {
+                writer.addLabel(qr, List.of("Lyre Beam " + i, "#" + i, "Réf. (A)"));
+            }
+            assertThat(writer.getPageCount()).isEqualTo(2);
+        }
+        String pdf = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+
+        // Assert - chaque entrée de la table pointe sur l'objet correspondant
+        assertThat(pdf).startsWith("%PDF-1.4").endsWith("%%EOF\n").contains("/Type /Pages /Count 2 ");
+        int startXref = Integer.parseInt(pdf.substring(pdf.lastIndexOf("startxref") + 10, pdf.lastIndexOf("\n%%EOF")));
+        assertThat(pdf.substring(startXref)).startsWith("xref\n0 ");
+        Matcher entries = Pattern.compile("(\\d{10}) 00000 n ").matcher(pdf.substring(startXref));
+        int object = 1;
+        while (entries.find()) {
+            int offset = Integer.parseInt(entries.group(1));
+            assertThat(pdf.substring(offset)).startsWith(object + " 0 obj\n");
+            object++;
+        }
+        assertThat(object - 1).isEqualTo(3 + 2 * 2);
+    }
+
+    @Test
+    void finish_WithoutLabel_ShouldWriteOneEmptyPage() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LabelSheetPdfWriter writer = new LabelSheetPdfWriter(out, new LabelSheetPdfWriter.Layout(2, 5, 20, 20, 4));
+
+        // Act
+        writer.finish();
+        writer.finish();
+
+        // Assert - un PDF sans page n'est pas ouvert par tous les lecteurs ; second finish sans effet
+        String pdf = new String(out.toByteArray(), StandardCharsets.ISO_8859_1);
+        assertThat(pdf).contains("/Count 1 ");
+        assertThat(Arrays.stream(pdf.split("\n")).filter("%%EOF"::equals).count()).isEqualTo(1);
+    }
+
+    @Test
+    void layout_InvalidGrid_ShouldThrow() {
+        assertThatThrownBy(() -> new LabelSheetPdfWriter.Layout(0, 8, 0, 0, 6))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests unitaires pour OrderedPipeline
+ */
+class OrderedPipelineTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+    private final ExecutorService consumerThread = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+        consumerThread.shutdownNow();
+    }
+
+    @Test
+    void complete_ShouldDeliverResultsInSubmissionOrder() throws Exception {
+        // Arrange
+        List<Integer> consumed = new ArrayList<>();
+        OrderedPipeline<Integer> pipeline = new OrderedPipeline<>(workers, consumerThread, 8, consumed::add);
+
+        // Act - durées de traitement aléatoires pour mélanger l'ordre de fin des tâches
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            pipeline.submit(() -> {
+                sleepQuietly(ThreadLocalRandom.current().nextInt(3));
+                return value;
+            });
+        }
+        pipeline.complete();
+
+        // Assert
+        assertThat(consumed).hasSize(200);
+        for (int i = 0; i < 200; i++) {
+            assertThat(consumed.get(i)).isEqualTo(i);
+        }
+    }
+
+    @Test
+    void complete_WhenConsumerFails_ShouldPropagateError() throws Exception {
+        // Arrange
+        OrderedPipeline<Integer> pipeline = new OrderedPipeline<>(workers, consumerThread, 2, value -> {
+            if (value == 5) {
+                throw new IllegalArgumentException("ligne invalide");
+            }
+        });
+
+        // Act & Assert
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 50; i++) {
+                int value = i;
+                pipeline.submit(() -> value);
+            }
+            pipeline.complete();
+        }).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ligne invalide");
+    }
+
+    @Test
+    void close_WhenProducerFails_ShouldReturnOnlyAfterConsumerStopped() throws Exception {
+        // Arrange - le consommateur est en pleine écriture (flush) quand le producteur échoue
+        CountDownLatch consuming = new CountDownLatch(1);
+        AtomicBoolean consumerRunning = new AtomicBoolean();
+        AtomicInteger consumed = new AtomicInteger();
+        OrderedPipeline<Integer> pipeline = new OrderedPipeline<>(workers, consumerThread, 8, value -> {
+            consumerRunning.set(true);
+            consuming.countDown();
+            sleepQuietly(200);
+            consumed.incrementAndGet();
+            consumerRunning.set(false);
+        });
+
+        // Act
+        assertThatThrownBy(() -> {
+            try (pipeline) {
+                for (int i = 0; i < 5; i++) {
+                    int value = i;
+                    pipeline.submit(() -> value);
+                }
+                assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+                throw new IllegalStateException("fichier illisible");
+            }
+        }).hasMessage("fichier illisible");
+
+        // Assert - écriture en cours terminée, résultats restants abandonnés
+        assertThat(consumerRunning.get()).isFalse();
+        int consumedAtClose = consumed.get();
+        assertThat(consumedAtClose).isEqualTo(1);
+        sleepQuietly(300);
+        assertThat(consumed.get()).isEqualTo(consumedAtClose);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
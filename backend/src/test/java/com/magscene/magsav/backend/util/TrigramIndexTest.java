@@ -0,0 +1,101 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour TrigramIndex
+ */
+class TrigramIndexTest {
+
+    @Test
+    void matches_ShouldRequireConsecutiveTrigrams() {
+        // Arrange - "abcxbcd" contient les trigrammes de "abcd" sauf "bcd" consécutif à "abc"
+        TrigramIndex index = TrigramIndex.build(new String[] { "abcd", "abcxbcd", "xyz" });
+
+        // Act
+        BitSet result = index.matches("abcd", all(3));
+
+        // Assert
+        assertThat(result.stream().toArray()).containsExactly(0);
+    }
+
+    @Test
+    void matches_ShouldRestrictToScopeAndHandleShortNeedles() {
+        // Arrange
+        TrigramIndex index = TrigramIndex.build(new String[] { "cable xlr", "xlr male", "jack" });
+        BitSet scope = new BitSet();
+        scope.set(1);
+        scope.set(2);
+
+        // Act & Assert
+        assertThat(index.matches("xlr", scope).stream().toArray()).containsExactly(1);
+        assertThat(index.matches("a", scope).stream().toArray()).containsExactly(1, 2);
+        assertThat(index.matches("", scope).stream().toArray()).containsExactly(1, 2);
+        assertThat(index.matches("absent", all(3)).isEmpty()).isTrue();
+    }
+
+    @Test
+    void normalize_ShouldLowercaseAndStripAccents() {
+        assertThat(TrigramIndex.normalize("Câble ÉCRAN")).isEqualTo("cable ecran");
+        assertThat(TrigramIndex.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void matches_ShouldAgreeWithContainsOnRandomTexts() {
+        Random random = new Random(11);
+        String[] texts = new String[500];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = randomText(random, 5 + random.nextInt(40));
+        }
+        TrigramIndex index = TrigramIndex.build(texts);
+        BitSet scope = new BitSet();
+        for (int i = 0; i < texts.length; i++) {
+            if (random.nextInt(4) > 0) {
+                scope.set(i);
+            }
+        }
+
+        for (int round = 0; round < 300; round++) {
+            // Arrange - motif tiré d'un texte existant ou aléatoire
+            String needle = random.nextBoolean()
+                    ? randomText(random, 1 + random.nextInt(5))
+                    : substring(random, texts[random.nextInt(texts.length)]);
+
+            // Act
+            BitSet result = index.matches(needle, scope);
+
+            // Assert
+            BitSet expected = new BitSet();
+            for (int doc = scope.nextSetBit(0); doc >= 0; doc = scope.nextSetBit(doc + 1)) {
+                if (texts[doc].contains(needle)) {
+                    expected.set(doc);
+                }
+            }
+            assertThat(result).as("motif '%s'", needle).isEqualTo(expected);
+        }
+    }
+
+    private static BitSet all(int size) {
+        BitSet scope = new BitSet();
+        scope.set(0, size);
+        return scope;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(4)));
+        }
+        return text.toString();
+    }
+
+    private static String substring(Random random, String text) {
+        int start = random.nextInt(text.length());
+        return text.substring(start, Math.min(text.length(), start + 1 + random.nextInt(8)));
+    }
+}
@@ -0,0 +1,155 @@
+package com.magscene.magsav.backend.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests unitaires pour XlsxStreamReader
+ */
+class XlsxStreamReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readFirstSheet_SharedAndInlineStrings_ShouldResolveText() throws Exception {
+        // Arrange
+        Path file = write(XlsxTestFiles.workbook("<row r=\"1\">"
+                + "<c r=\"A1\" t=\"s\"><v>1</v></c>"
+                + "<c r=\"B1\" t=\"inlineStr\"><is><t>Lyre Beam</t></is></c>"
+                + "<c r=\"C1\"><v>12.5</v></c>"
+                + "<c r=\"D1\" t=\"b\"><v>1</v></c>"
+                + "</row>", "A1:D1", "Éclairage", "Son"));
+
+        // Act
+        List<XlsxStreamReader.CellValue[]> rows = readAll(file);
+
+        // Assert
+        assertThat(rows).hasSize(1);
+        XlsxStreamReader.CellValue[] cells = rows.get(0);
+        assertThat(cells[0].text()).isEqualTo("Son");
+        assertThat(cells[0].kind()).isEqualTo(XlsxStreamReader.CellKind.STRING);
+        assertThat(cells[1].text()).isEqualTo("Lyre Beam");
+        assertThat(cells[1].kind()).isEqualTo(XlsxStreamReader.CellKind.STRING);
+        assertThat(cells[2].isNumeric()).isTrue();
+        assertThat(cells[2].asDouble()).isEqualTo(12.5);
+        assertThat(cells[3].text()).isEqualTo("true");
+    }
+
+    @Test
+    void readFirstSheet_ReferenceGap_ShouldKeepColumnPositions() throws Exception {
+        // Arrange - A1 puis C1 : B1 absente du fichier
+        Path file = write(XlsxTestFiles.workbook("<row r=\"1\">"
+                + "<c r=\"A1\" t=\"inlineStr\"><is><t>MAG-001</t></is></c>"
+                + "<c r=\"C1\" t=\"inlineStr\"><is><t>Robe</t></is></c>"
+                + "</row>", "A1:C1"));
+
+        // Act
+        List<XlsxStreamReader.CellValue[]> rows = readAll(file);
+
+        // Assert
+        XlsxStreamReader.CellValue[] cells = rows.get(0);
+        assertThat(cells).hasSize(3);
+        assertThat(cells[0].text()).isEqualTo("MAG-001");
+        assertThat(cells[1]).isNull();
+        assertThat(cells[2].text()).isEqualTo("Robe");
+    }
+
+    @Test
+    void readFirstSheet_EmptyCells_ShouldBeNull() throws Exception {
+        // Arrange - cellules seulement mises en forme, sans valeur
+        Path file = write(XlsxTestFiles.workbook("<row r=\"1\">"
+                + "<c r=\"A1\" s=\"0\"/>"
+                + "<c r=\"B1\" t=\"s\"></c>"
+                + "<c r=\"C1\"><v>3</v></c>"
+                + "<c r=\"D1\" t=\"inlineStr\"><is><t></t></is></c>"
+                + "</row>", "A1:D1"));
+
+        // Act
+        List<XlsxStreamReader.CellValue[]> rows = readAll(file);
+
+        // Assert - la ligne s'arrête à la dernière cellule renseignée
+        XlsxStreamReader.CellValue[] cells = rows.get(0);
+        assertThat(cells).hasSize(3);
+        assertThat(cells[0]).isNull();
+        assertThat(cells[1]).isNull();
+        assertThat(cells[2].text()).isEqualTo("3");
+    }
+
+    @Test
+    void readFirstSheet_MissingRows_ShouldReportFileRowIndex() throws Exception {
+        // Arrange - lignes 2 et 3 vides, donc absentes du fichier
+        Path file = write(XlsxTestFiles.workbook(
+                "<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>"
+                        + "<row r=\"4\"><c r=\"A4\"><v>4</v></c></row>", "A1:A4"));
+        List<Integer> indexes = new ArrayList<>();
+
+        // Act
+        XlsxStreamReader.readFirstSheet(file.toFile(), (rowIndex, cells) -> indexes.add(rowIndex));
+
+        // Assert
+        assertThat(indexes).containsExactly(0, 3);
+    }
+
+    @Test
+    void readFirstSheet_Dimension_ShouldAnnounceRowCount() throws Exception {
+        // Arrange
+        Path withDimension = write(XlsxTestFiles.workbook("<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>", "A1:G1250"));
+        Path withoutDimension = write(XlsxTestFiles.workbook("<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>", null));
+
+        // Act
+        List<Integer> announced = new ArrayList<>();
+        XlsxStreamReader.RowHandler handler = new XlsxStreamReader.RowHandler() {
+            @Override
+            public void onSheetDimension(int rowCount) {
+                announced.add(rowCount);
+            }
+
+            @Override
+            public boolean onRow(int rowIndex, XlsxStreamReader.CellValue[] cells) {
+                return true;
+            }
+        };
+        XlsxStreamReader.readFirstSheet(withDimension.toFile(), handler);
+        XlsxStreamReader.readFirstSheet(withoutDimension.toFile(), handler);
+
+        // Assert
+        assertThat(announced).containsExactly(1250);
+    }
+
+    @Test
+    void readFirstSheet_HandlerReturnsFalse_ShouldStopBeforeRestOfSheet() throws Exception {
+        // Arrange - la fin de la feuille est tronquée : la lire ferait échouer le parseur
+        Path file = write(XlsxTestFiles.workbook(
+                "<row r=\"1\"><c r=\"A1\"><v>1</v></c></row>"
+                        + "<row r=\"2\"><c r=\"A2\"><v>2</v></c></row>"
+                        + "<row r=\"3\"><c r=\"A3\"><v>3", null));
+        List<Integer> indexes = new ArrayList<>();
+
+        // Act
+        XlsxStreamReader.readFirstSheet(file.toFile(), (rowIndex, cells) -> {
+            indexes.add(rowIndex);
+            return indexes.size() < 2;
+        });
+
+        // Assert
+        assertThat(indexes).containsExactly(0, 1);
+    }
+
+    private Path write(byte[] workbook) throws Exception {
+        return Files.write(Files.createTempFile(tempDir, "parc-", ".xlsx"), workbook);
+    }
+
+    private static List<XlsxStreamReader.CellValue[]> readAll(Path file) throws Exception {
+        List<XlsxStreamReader.CellValue[]> rows = new ArrayList<>();
+        XlsxStreamReader.readFirstSheet(file.toFile(), (rowIndex, cells) -> rows.add(cells));
+        return rows;
+    }
+}
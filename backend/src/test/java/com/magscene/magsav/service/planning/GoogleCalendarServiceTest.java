@@ -0,0 +1,389 @@
+package com.magscene.magsav.service.planning;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.magscene.magsav.backend.util.HttpBatchCodec;
+import com.magscene.magsav.model.planning.Event;
+import com.magscene.magsav.model.planning.GoogleCalendarAccount;
+import com.magscene.magsav.model.planning.GoogleCalendarAccount.SyncDirection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la synchronisation incrémentale avec un faux serveur Google Calendar local
+ */
+class GoogleCalendarServiceTest {
+
+    private StubGoogleCalendar google;
+    private RecordingSink sink;
+    private GoogleCalendarService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        google = new StubGoogleCalendar();
+        service = new GoogleCalendarService();
+        String baseUrl = "http://localhost:" + google.port();
+        ReflectionTestUtils.setField(service, "calendarApiBaseUrl", baseUrl + "/calendar/v3");
+        ReflectionTestUtils.setField(service, "calendarBatchUrl", baseUrl + "/batch/calendar/v3");
+        ReflectionTestUtils.setField(service, "initialBackoffMs", 1L);
+        sink = new RecordingSink();
+        ReflectionTestUtils.setField(service, "eventSink", sink);
+    }
+
+    @AfterEach
+    void tearDown() {
+        google.stop();
+    }
+
+    @Test
+    void synchronizeAccount_SecondRun_ShouldPushOnlyModifiedEventsInBatches() throws Exception {
+        // Arrange - 120 événements : 3 requêtes groupées (50 + 50 + 20)
+        GoogleCalendarAccount account = account(SyncDirection.MAGSAV_TO_GOOGLE);
+        List<Event> events = new ArrayList<>();
+        for (long id = 1; id <= 120; id++) {
+            events.add(event(account, id));
+        }
+
+        // Act
+        GoogleCalendarService.SyncResult first = service.synchronizeAccount(account).get();
+        int batchesAfterFirstRun = google.batchRequests.get();
+        Event modified = events.get(41);
+        modified.setTitle("Concert déplacé");
+        modified.setModifiedDate(LocalDateTime.now().plusSeconds(1));
+        GoogleCalendarService.SyncResult second = service.synchronizeAccount(account).get();
+
+        // Assert
+        assertThat(first.getCreatedOrUpdated()).isEqualTo(120);
+        assertThat(first.getErrors()).isZero();
+        assertThat(batchesAfterFirstRun).isEqualTo(3);
+        assertThat(google.events).hasSize(120);
+        assertThat(events).allSatisfy(e -> assertThat(e.getGoogleEventId(1L)).isNotNull());
+
+        assertThat(second.getCreatedOrUpdated()).isEqualTo(1);
+        assertThat(second.getUnchanged()).isEqualTo(119);
+        assertThat(google.batchRequests.get()).isEqualTo(4);
+        assertThat(google.lastBatchMethods).containsExactly("PATCH");
+        assertThat(google.events.get(modified.getGoogleEventId(1L)).path("summary").asText())
+                .isEqualTo("[MAGSAV] Concert déplacé");
+    }
+
+    @Test
+    void synchronizeAccount_RateLimited_ShouldRetryWithBackoff() throws Exception {
+        // Arrange - requête entière refusée (429) puis la moitié des appels limités (403)
+        GoogleCalendarAccount account = account(SyncDirection.MAGSAV_TO_GOOGLE);
+        for (long id = 1; id <= 10; id++) {
+            event(account, id);
+        }
+        google.rejectNextBatches.set(1);
+        google.throttleEveryOtherPartOnce = true;
+
+        // Act
+        GoogleCalendarService.SyncResult result = service.synchronizeAccount(account).get();
+
+        // Assert - 429, puis lot complet (5 limités), puis les 5 restants ; aucun doublon
+        assertThat(result.getErrors()).isZero();
+        assertThat(result.getCreatedOrUpdated()).isEqualTo(10);
+        assertThat(google.batchRequests.get()).isEqualTo(3);
+        assertThat(google.events).hasSize(10);
+        assertThat(account.getLastPushDate()).isNotNull();
+    }
+
+    @Test
+    void synchronizeAccount_WithSyncToken_ShouldReadOnlyChangesAndSkipOwnEvents() throws Exception {
+        // Arrange - 5 événements Google (lus en 3 pages de 2) dont un envoyé par MAGSAV
+        GoogleCalendarAccount account = account(SyncDirection.GOOGLE_TO_MAGSAV);
+        for (int i = 1; i <= 4; i++) {
+            google.addForeignEvent("g" + i, "Réunion " + i);
+        }
+        google.addMagsavEvent("magsav1", "[MAGSAV] Montage", "7");
+
+        // Act
+        GoogleCalendarService.SyncResult first = service.synchronizeAccount(account).get();
+        String firstToken = account.getGoogleSyncToken();
+        google.addForeignEvent("g5", "Nouvelle réunion");
+        google.cancel("g2");
+        GoogleCalendarService.SyncResult second = service.synchronizeAccount(account).get();
+
+        // Assert
+        assertThat(first.getImported()).isEqualTo(4);
+        assertThat(firstToken).isNotNull();
+        assertThat(google.listRequests).first().asString().doesNotContain("syncToken");
+        assertThat(second.getImported()).isEqualTo(1);
+        assertThat(second.getDeleted()).isEqualTo(1);
+        assertThat(google.listRequests.get(google.listRequests.size() - 1)).contains("syncToken=" + firstToken);
+        assertThat(account.getGoogleSyncToken()).isNotEqualTo(firstToken);
+        assertThat(sink.saved).containsExactly("g1", "g2", "g3", "g4", "g5");
+        assertThat(sink.deleted).containsExactly("g2");
+    }
+
+    @Test
+    void synchronizeAccount_ImportFails_ShouldKeepSyncTokenAndReadChangesAgain() throws Exception {
+        // Arrange - premier passage réussi, puis une modification qui ne peut pas être enregistrée
+        GoogleCalendarAccount account = account(SyncDirection.GOOGLE_TO_MAGSAV);
+        google.addForeignEvent("g1", "Réunion");
+        service.synchronizeAccount(account).get();
+        String token = account.getGoogleSyncToken();
+        google.addForeignEvent("g2", "Répétition");
+        google.addForeignEvent("g3", "Balance");
+        sink.failOn = "g3";
+
+        // Act
+        GoogleCalendarService.SyncResult failed = service.synchronizeAccount(account).get();
+        String tokenAfterFailure = account.getGoogleSyncToken();
+        sink.failOn = null;
+        GoogleCalendarService.SyncResult retried = service.synchronizeAccount(account).get();
+
+        // Assert - les deux modifications sont relues depuis l'ancien jeton
+        assertThat(failed.getErrors()).isEqualTo(1);
+        assertThat(tokenAfterFailure).isEqualTo(token);
+        assertThat(google.listRequests.get(google.listRequests.size() - 1)).contains("syncToken=" + token);
+        assertThat(retried.getImported()).isEqualTo(2);
+        assertThat(retried.getErrors()).isZero();
+        assertThat(account.getGoogleSyncToken()).isNotEqualTo(token);
+        assertThat(sink.saved).containsExactly("g1", "g2", "g2", "g3");
+    }
+
+    @Test
+    void synchronizeAccount_NoSink_ShouldNotConsumeGoogleChanges() throws Exception {
+        // Arrange - import non branché
+        ReflectionTestUtils.setField(service, "eventSink", null);
+        GoogleCalendarAccount account = account(SyncDirection.GOOGLE_TO_MAGSAV);
+        account.setGoogleSyncToken("v0");
+        google.addForeignEvent("g1", "Réunion");
+
+        // Act
+        GoogleCalendarService.SyncResult result = service.synchronizeAccount(account).get();
+
+        // Assert
+        assertThat(result.getImported()).isZero();
+        assertThat(account.getGoogleSyncToken()).isEqualTo("v0");
+        assertThat(google.listRequests).isEmpty();
+    }
+
+    @Test
+    void synchronizeAccount_ExpiredSyncToken_ShouldFallBackToFullSync() throws Exception {
+        // Arrange
+        GoogleCalendarAccount account = account(SyncDirection.GOOGLE_TO_MAGSAV);
+        account.setGoogleSyncToken("expired");
+        google.addForeignEvent("g1", "Réunion");
+
+        // Act
+        GoogleCalendarService.SyncResult result = service.synchronizeAccount(account).get();
+
+        // Assert
+        assertThat(result.getErrorMessage()).isNull();
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(account.getGoogleSyncToken()).isNotEqualTo("expired").isNotNull();
+    }
+
+    private static GoogleCalendarAccount account(SyncDirection direction) {
+        GoogleCalendarAccount account = new GoogleCalendarAccount("user", "regie@example.com", "Régie");
+        account.setId(1L);
+        account.setAccessToken("token");
+        account.setSyncDirection(direction);
+        return account;
+    }
+
+    private static Event event(GoogleCalendarAccount account, long id) {
+        Event event = new Event("Concert " + id, LocalDateTime.of(2026, 11, 2, 20, 0), LocalDateTime.of(2026, 11, 2, 23, 0),
+                Event.EventType.AUTRE);
+        event.setId(id);
+        event.setModifiedDate(LocalDateTime.now().minusDays(1));
+        account.addSynchronizedEvent(event);
+        return event;
+    }
+
+    /**
+     * Enregistrement factice : mémorise les identifiants Google reçus, échoue sur demande
+     */
+    private static final class RecordingSink implements GoogleEventSink {
+
+        final List<String> saved = new CopyOnWriteArrayList<>();
+        final List<String> deleted = new CopyOnWriteArrayList<>();
+        volatile String failOn;
+
+        @Override
+        public void save(GoogleCalendarAccount account, Event event) {
+            String googleId = event.getGoogleEventId(account.getId());
+            if (googleId.equals(failOn)) {
+                throw new IllegalStateException("Enregistrement impossible");
+            }
+            saved.add(googleId);
+        }
+
+        @Override
+        public void delete(GoogleCalendarAccount account, String googleEventId) {
+            deleted.add(googleEventId);
+        }
+    }
+
+    /**
+     * Faux Google Calendar : création/modification par requêtes groupées, lecture paginée
+     * (2 par page) avec jetons de synchronisation par version
+     */
+    private static final class StubGoogleCalendar {
+
+        private static final ObjectMapper JSON = new ObjectMapper();
+
+        final Map<String, ObjectNode> events = new LinkedHashMap<>();
+        final Map<String, Integer> versions = new HashMap<>();
+        final AtomicInteger batchRequests = new AtomicInteger();
+        final AtomicInteger rejectNextBatches = new AtomicInteger();
+        final List<String> listRequests = new CopyOnWriteArrayList<>();
+        volatile List<String> lastBatchMethods = List.of();
+        volatile boolean throttleEveryOtherPartOnce;
+        private int version;
+        private final HttpServer server;
+
+        StubGoogleCalendar() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/batch/calendar/v3", this::batch);
+            server.createContext("/calendar/v3/calendars/primary/events", this::list);
+            server.start();
+        }
+
+        int port() {
+            return server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        synchronized void addForeignEvent(String id, String summary) {
+            put(id, JSON.createObjectNode().put("id", id).put("status", "confirmed").put("summary", summary)
+                    .set("start", JSON.createObjectNode().put("dateTime", "2026-11-03T09:00:00+01:00")));
+        }
+
+        synchronized void addMagsavEvent(String id, String summary, String magsavEventId) {
+            ObjectNode event = JSON.createObjectNode().put("id", id).put("status", "confirmed").put("summary", summary);
+            event.putObject("extendedProperties").putObject("private").put("magsavEventId", magsavEventId);
+            put(id, event);
+        }
+
+        synchronized void cancel(String id) {
+            put(id, JSON.createObjectNode().put("id", id).put("status", "cancelled"));
+        }
+
+        private void put(String id, ObjectNode event) {
+            events.put(id, event);
+            versions.put(id, ++version);
+        }
+
+        private void batch(HttpExchange exchange) throws IOException {
+            batchRequests.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (rejectNextBatches.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                send(exchange, 429, "application/json", "{\"error\":{\"code\":429}}");
+                return;
+            }
+            List<HttpBatchCodec.Part> parts = HttpBatchCodec.decodeRequest(
+                    exchange.getRequestHeaders().getFirst("Content-Type"), body);
+            lastBatchMethods = parts.stream().map(HttpBatchCodec.Part::method).toList();
+
+            boolean throttle = throttleEveryOtherPartOnce;
+            throttleEveryOtherPartOnce = false;
+            List<HttpBatchCodec.PartResponse> responses = new ArrayList<>();
+            for (int i = 0; i < parts.size(); i++) {
+                HttpBatchCodec.Part part = parts.get(i);
+                if (throttle && i % 2 == 1) {
+                    responses.add(new HttpBatchCodec.PartResponse(part.contentId(), 403, Map.of(),
+                            "{\"error\":{\"errors\":[{\"reason\":\"rateLimitExceeded\"}]}}"));
+                    continue;
+                }
+                responses.add(apply(part));
+            }
+            String boundary = "batch_stub";
+            send(exchange, 200, HttpBatchCodec.contentType(boundary), HttpBatchCodec.encodeResponse(boundary, responses));
+        }
+
+        private synchronized HttpBatchCodec.PartResponse apply(HttpBatchCodec.Part part) throws IOException {
+            ObjectNode body = (ObjectNode) JSON.readTree(part.jsonBody());
+            if ("POST".equals(part.method())) {
+                String id = body.path("id").asText();
+                if (events.containsKey(id)) {
+                    return new HttpBatchCodec.PartResponse(part.contentId(), 409, Map.of(), "{\"error\":{\"code\":409}}");
+                }
+                put(id, body);
+                return new HttpBatchCodec.PartResponse(part.contentId(), 200, Map.of(), body.toString());
+            }
+            String id = part.path().substring(part.path().lastIndexOf('/') + 1);
+            ObjectNode existing = events.get(id);
+            if (existing == null) {
+                return new HttpBatchCodec.PartResponse(part.contentId(), 404, Map.of(), "{\"error\":{\"code\":404}}");
+            }
+            existing.setAll(body);
+            put(id, existing);
+            return new HttpBatchCodec.PartResponse(part.contentId(), 200, Map.of(), existing.toString());
+        }
+
+        private synchronized void list(HttpExchange exchange) throws IOException {
+            String query = exchange.getRequestURI().getRawQuery();
+            listRequests.add(query);
+            Map<String, String> parameters = new HashMap<>();
+            for (String pair : query.split("&")) {
+                String[] keyValue = pair.split("=", 2);
+                parameters.put(keyValue[0], URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8));
+            }
+
+            int since = 0;
+            String syncToken = parameters.get("syncToken");
+            if (syncToken != null) {
+                if (!syncToken.startsWith("v")) {
+                    send(exchange, 410, "application/json", "{\"error\":{\"code\":410}}");
+                    return;
+                }
+                since = Integer.parseInt(syncToken.substring(1));
+            }
+            List<JsonNode> changes = new ArrayList<>();
+            for (Map.Entry<String, ObjectNode> entry : events.entrySet()) {
+                boolean cancelled = "cancelled".equals(entry.getValue().path("status").asText());
+                // Lecture complète sans les événements supprimés, lecture incrémentale avec
+                if (versions.get(entry.getKey()) > since && (syncToken != null || !cancelled)) {
+                    changes.add(entry.getValue());
+                }
+            }
+
+            int offset = parameters.containsKey("pageToken") ? Integer.parseInt(parameters.get("pageToken")) : 0;
+            ObjectNode page = JSON.createObjectNode();
+            ArrayNode items = page.putArray("items");
+            changes.subList(offset, Math.min(offset + 2, changes.size())).forEach(items::add);
+            if (offset + 2 < changes.size()) {
+                page.put("nextPageToken", String.valueOf(offset + 2));
+            } else {
+                page.put("nextSyncToken", "v" + version);
+            }
+            send(exchange, 200, "application/json", page.toString());
+        }
+
+        private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+    }
+}
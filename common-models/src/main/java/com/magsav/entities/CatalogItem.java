@@ -14,7 +14,8 @@ import java.util.Set;
     @Index(name = "idx_catalog_reference", columnList = "reference"),
     @Index(name = "idx_catalog_name", columnList = "name"),
     @Index(name = "idx_catalog_category", columnList = "category"),
-    @Index(name = "idx_catalog_brand", columnList = "brand")
+    @Index(name = "idx_catalog_brand", columnList = "brand"),
+    @Index(name = "ux_catalog_item_catalog_reference", columnList = "catalog_id, reference", unique = true)
 })
 public class CatalogItem {
     
@@ -102,6 +103,10 @@ public class CatalogItem {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Empreinte de la ligne du fichier fournisseur lors du dernier import (null si retiré)
+    @Column(name = "row_hash")
+    private Long rowHash;
+    
     // Relations
     @OneToMany(mappedBy = "catalogItem", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Set<MaterialRequestItem> requestItems = new HashSet<>();
@@ -204,6 +209,9 @@ public class CatalogItem {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public Long getRowHash() { return rowHash; }
+    public void setRowHash(Long rowHash) { this.rowHash = rowHash; }
+    
     public Set<MaterialRequestItem> getRequestItems() { return requestItems; }
     public void setRequestItems(Set<MaterialRequestItem> requestItems) { this.requestItems = requestItems; }
     